@@ -95,6 +95,28 @@ dependencies {
 
 }
 
+// Java 11+ classes packaged in a multi-release JAR (e.g. java.net.http transport)
+val java11: SourceSet by sourceSets.creating {
+  java.srcDir("src/main/java11")
+  compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+}
+
+tasks.named<JavaCompile>("compileJava11Java") {
+  javaCompiler.set(javaToolchains.compilerFor {
+    languageVersion.set(JavaLanguageVersion.of(11))
+  })
+  options.release.set(11)
+}
+
+tasks.jar {
+  into("META-INF/versions/11") {
+    from(java11.output)
+  }
+  manifest {
+    attributes("Multi-Release" to "true")
+  }
+}
+
 tasks.wrapper {
   gradleVersion = "8.14.4"
   distributionType = Wrapper.DistributionType.ALL
@@ -0,0 +1,316 @@
+/*
+ * Copyright 2026 Allette Systems (Australia)
+ * http://www.allette.com.au
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pageseeder.bridge;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.pageseeder.bridge.spi.CacheMetricsProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The registry of the caches used by the bridge and their statistics.
+ *
+ * <p>The entity caches used by the managers and the HTTP caches used by the
+ * <code>HttpClient</code> register themselves when they are created. Applications can also
+ * register their own caches.
+ *
+ * <p>The statistics are available:
+ * <ul>
+ *   <li>on demand using {@link #stats()};</li>
+ *   <li>over JMX as {@link CacheStatsMXBean}, unless the <code>bridge.cache.jmx</code> system
+ *     property is set to <code>false</code>;</li>
+ *   <li>through any {@link CacheMetricsProvider} registered as a service, so that they can be
+ *     collected by a metrics system.</li>
+ * </ul>
+ *
+ * @author Christophe Lauret
+ *
+ * @version 0.11.41
+ * @since 0.11.41
+ */
+public final class CacheMetrics {
+
+  /** Logger */
+  private static final Logger LOGGER = LoggerFactory.getLogger(CacheMetrics.class);
+
+  /**
+   * The JMX domain for the caches.
+   */
+  public static final String JMX_DOMAIN = "org.pageseeder.bridge";
+
+  /**
+   * Values which do not need to be quoted in object names.
+   */
+  private static final Pattern SAFE_VALUE = Pattern.compile("[A-Za-z0-9_.\\-]+");
+
+  /**
+   * The statistics of the registered caches by partition and name.
+   */
+  private static final ConcurrentMap<String, ConcurrentMap<String, Supplier<CacheStats>>> CACHES = new ConcurrentHashMap<>();
+
+  /** Utility class. */
+  private CacheMetrics() {
+  }
+
+  /**
+   * Registers a cache so that its statistics are published.
+   *
+   * <p>A cache registered with the same partition and name replaces the previous one.
+   *
+   * @param partition The partition of the cache
+   * @param name      The name of the cache
+   * @param stats     Returns the current statistics of the cache
+   */
+  public static void register(String partition, String name, Supplier<CacheStats> stats) {
+    CACHES.computeIfAbsent(partition, p -> new ConcurrentHashMap<>()).put(name, stats);
+    for (CacheMetricsProvider provider : Providers.ALL) {
+      try {
+        provider.bind(partition, name, stats);
+      } catch (RuntimeException ex) {
+        LOGGER.warn("Unable to publish statistics of cache {} in {}", name, partition, ex);
+      }
+    }
+  }
+
+  /**
+   * Unregisters a cache which is no longer used.
+   *
+   * @param partition The partition of the cache
+   * @param name      The name of the cache
+   */
+  public static void unregister(String partition, String name) {
+    ConcurrentMap<String, Supplier<CacheStats>> caches = CACHES.get(partition);
+    if (caches == null || caches.remove(name) == null) return;
+    for (CacheMetricsProvider provider : Providers.ALL) {
+      try {
+        provider.unbind(partition, name);
+      } catch (RuntimeException ex) {
+        LOGGER.warn("Unable to remove statistics of cache {} in {}", name, partition, ex);
+      }
+    }
+  }
+
+  /**
+   * Returns the current statistics of a registered cache.
+   *
+   * @param partition The partition of the cache
+   * @param name      The name of the cache
+   *
+   * @return the statistics or <code>null</code> if no such cache is registered
+   */
+  public static @Nullable CacheStats stats(String partition, String name) {
+    ConcurrentMap<String, Supplier<CacheStats>> caches = CACHES.get(partition);
+    Supplier<CacheStats> stats = caches != null ? caches.get(name) : null;
+    return stats != null ? stats.get() : null;
+  }
+
+  /**
+   * Returns the current statistics of all the registered caches.
+   *
+   * @return the statistics sorted by cache name for each partition, sorted by name
+   */
+  public static Map<String, List<CacheStats>> stats() {
+    Map<String, List<CacheStats>> all = new TreeMap<>();
+    for (Map.Entry<String, ConcurrentMap<String, Supplier<CacheStats>>> partition : CACHES.entrySet()) {
+      List<CacheStats> stats = new ArrayList<>();
+      for (Supplier<CacheStats> cache : partition.getValue().values()) {
+        stats.add(cache.get());
+      }
+      if (!stats.isEmpty()) {
+        stats.sort(Comparator.comparing(CacheStats::name));
+        all.put(partition.getKey(), stats);
+      }
+    }
+    return all;
+  }
+
+  /**
+   * Returns the JMX name under which the statistics of a cache are published.
+   *
+   * @param partition The partition of the cache
+   * @param name      The name of the cache
+   *
+   * @return the corresponding object name
+   *
+   * @throws JMException If the name is invalid
+   */
+  public static ObjectName toObjectName(String partition, String name) throws JMException {
+    return new ObjectName(JMX_DOMAIN + ":type=Cache,partition=" + toValue(partition) + ",name=" + toValue(name));
+  }
+
+  private static String toValue(String value) {
+    return SAFE_VALUE.matcher(value).matches() ? value : ObjectName.quote(value);
+  }
+
+  /**
+   * Holds the providers, loaded when the first cache is registered.
+   */
+  private static final class Providers {
+
+    static final List<CacheMetricsProvider> ALL = load();
+
+    private static List<CacheMetricsProvider> load() {
+      List<CacheMetricsProvider> providers = new ArrayList<>();
+      if (!"false".equals(System.getProperty("bridge.cache.jmx"))) {
+        providers.add(new JMX());
+      }
+      try {
+        for (CacheMetricsProvider provider : ServiceLoader.load(CacheMetricsProvider.class)) {
+          LOGGER.info("Using cache metrics provider {}", provider.getClass().getName());
+          providers.add(provider);
+        }
+      } catch (ServiceConfigurationError error) {
+        LOGGER.warn("Unable to load cache metrics provider", error);
+      }
+      return Collections.unmodifiableList(providers);
+    }
+  }
+
+  /**
+   * Publishes the statistics as MXBeans in the platform MBean server.
+   */
+  private static final class JMX implements CacheMetricsProvider {
+
+    @Override
+    public void bind(String partition, String name, Supplier<CacheStats> stats) {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      try {
+        ObjectName objectName = toObjectName(partition, name);
+        CacheStatsBean bean = new CacheStatsBean(partition, stats);
+        try {
+          server.registerMBean(bean, objectName);
+        } catch (InstanceAlreadyExistsException ex) {
+          server.unregisterMBean(objectName);
+          server.registerMBean(bean, objectName);
+        }
+      } catch (JMException ex) {
+        LOGGER.warn("Unable to register MBean for cache {} in {}", name, partition, ex);
+      }
+    }
+
+    @Override
+    public void unbind(String partition, String name) {
+      try {
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(toObjectName(partition, name));
+      } catch (InstanceNotFoundException ex) {
+        // Already removed
+      } catch (JMException ex) {
+        LOGGER.warn("Unable to unregister MBean for cache {} in {}", name, partition, ex);
+      }
+    }
+  }
+
+  /**
+   * Exposes the statistics of a cache computed on demand.
+   */
+  private static final class CacheStatsBean implements CacheStatsMXBean {
+
+    private final String _partition;
+
+    private final Supplier<CacheStats> _stats;
+
+    CacheStatsBean(String partition, Supplier<CacheStats> stats) {
+      this._partition = partition;
+      this._stats = stats;
+    }
+
+    @Override
+    public String getName() {
+      return this._stats.get().name();
+    }
+
+    @Override
+    public String getPartition() {
+      return this._partition;
+    }
+
+    @Override
+    public long getSize() {
+      return this._stats.get().size();
+    }
+
+    @Override
+    public long getCapacity() {
+      return this._stats.get().capacity();
+    }
+
+    @Override
+    public long getBytes() {
+      return this._stats.get().bytes();
+    }
+
+    @Override
+    public long getMaxBytes() {
+      return this._stats.get().maxBytes();
+    }
+
+    @Override
+    public long getHitCount() {
+      return this._stats.get().hits();
+    }
+
+    @Override
+    public long getMissCount() {
+      return this._stats.get().misses();
+    }
+
+    @Override
+    public double getHitRatio() {
+      return this._stats.get().hitRatio();
+    }
+
+    @Override
+    public long getEvictionCount() {
+      return this._stats.get().evictions();
+    }
+
+    @Override
+    public long getRevalidationCount() {
+      return this._stats.get().revalidations();
+    }
+
+    @Override
+    public long getLoadCount() {
+      return this._stats.get().loads();
+    }
+
+    @Override
+    public double getAverageLoadTimeMillis() {
+      return this._stats.get().averageLoadTime().toNanos() / 1_000_000.0;
+    }
+  }
+
+}
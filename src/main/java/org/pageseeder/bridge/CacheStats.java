@@ -0,0 +1,335 @@
+/*
+ * Copyright 2026 Allette Systems (Australia)
+ * http://www.allette.com.au
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pageseeder.bridge;
+
+import java.time.Duration;
+
+/**
+ * A snapshot of the statistics of a cache used by the bridge.
+ *
+ * <p>The counters are cumulative since the cache was created. Values which do not apply to a
+ * cache are reported as <code>-1</code>, for example the number of bytes held by an entity
+ * cache.
+ *
+ * <p>This class is immutable.
+ *
+ * @author Christophe Lauret
+ *
+ * @version 0.11.41
+ * @since 0.11.41
+ */
+public final class CacheStats {
+
+  /**
+   * The name of the cache.
+   */
+  private final String _name;
+
+  /**
+   * The number of entries currently held.
+   */
+  private final long _size;
+
+  /**
+   * The maximum number of entries.
+   */
+  private final long _capacity;
+
+  /**
+   * The number of bytes currently held.
+   */
+  private final long _bytes;
+
+  /**
+   * The maximum number of bytes.
+   */
+  private final long _maxBytes;
+
+  /**
+   * The number of lookups which found a usable entry.
+   */
+  private final long _hits;
+
+  /**
+   * The number of lookups which did not find a usable entry.
+   */
+  private final long _misses;
+
+  /**
+   * The number of entries removed to stay within budget.
+   */
+  private final long _evictions;
+
+  /**
+   * The number of stale entries confirmed as unchanged by PageSeeder.
+   */
+  private final long _revalidations;
+
+  /**
+   * The number of times entries were loaded from PageSeeder.
+   */
+  private final long _loads;
+
+  /**
+   * The total time spent loading entries in nanoseconds.
+   */
+  private final long _loadTime;
+
+  private CacheStats(Builder builder) {
+    this._name = builder.name;
+    this._size = builder.size;
+    this._capacity = builder.capacity;
+    this._bytes = builder.bytes;
+    this._maxBytes = builder.maxBytes;
+    this._hits = builder.hits;
+    this._misses = builder.misses;
+    this._evictions = builder.evictions;
+    this._revalidations = builder.revalidations;
+    this._loads = builder.loads;
+    this._loadTime = builder.loadTime;
+  }
+
+  /**
+   * @return The name of the cache
+   */
+  public String name() {
+    return this._name;
+  }
+
+  /**
+   * @return The number of entries currently held
+   */
+  public long size() {
+    return this._size;
+  }
+
+  /**
+   * @return The maximum number of entries or -1
+   */
+  public long capacity() {
+    return this._capacity;
+  }
+
+  /**
+   * @return The number of bytes currently held or -1
+   */
+  public long bytes() {
+    return this._bytes;
+  }
+
+  /**
+   * @return The maximum number of bytes or -1
+   */
+  public long maxBytes() {
+    return this._maxBytes;
+  }
+
+  /**
+   * @return The number of lookups which found a usable entry
+   */
+  public long hits() {
+    return this._hits;
+  }
+
+  /**
+   * @return The number of lookups which did not find a usable entry
+   */
+  public long misses() {
+    return this._misses;
+  }
+
+  /**
+   * @return The number of entries removed to stay within budget
+   */
+  public long evictions() {
+    return this._evictions;
+  }
+
+  /**
+   * @return The number of stale entries confirmed as unchanged by PageSeeder (HTTP 304)
+   */
+  public long revalidations() {
+    return this._revalidations;
+  }
+
+  /**
+   * @return The number of times entries were loaded from PageSeeder
+   */
+  public long loads() {
+    return this._loads;
+  }
+
+  /**
+   * @return The total time spent loading entries
+   */
+  public Duration loadTime() {
+    return Duration.ofNanos(this._loadTime);
+  }
+
+  /**
+   * @return The average time to load an entry (zero if nothing was loaded)
+   */
+  public Duration averageLoadTime() {
+    return this._loads > 0 ? Duration.ofNanos(this._loadTime / this._loads) : Duration.ZERO;
+  }
+
+  /**
+   * @return The ratio of hits to lookups (0 if the cache was never used)
+   */
+  public double hitRatio() {
+    long lookups = this._hits + this._misses;
+    return lookups > 0 ? (double)this._hits / lookups : 0;
+  }
+
+  @Override
+  public String toString() {
+    return "CacheStats(" + this._name + ", size=" + this._size + ", hits=" + this._hits
+        + ", misses=" + this._misses + ", evictions=" + this._evictions + ", loads=" + this._loads + ")";
+  }
+
+  /**
+   * A builder for cache statistics.
+   */
+  public static final class Builder {
+
+    private final String name;
+
+    private long size = 0;
+
+    private long capacity = -1;
+
+    private long bytes = -1;
+
+    private long maxBytes = -1;
+
+    private long hits = 0;
+
+    private long misses = 0;
+
+    private long evictions = 0;
+
+    private long revalidations = 0;
+
+    private long loads = 0;
+
+    private long loadTime = 0;
+
+    /**
+     * @param name The name of the cache
+     */
+    public Builder(String name) {
+      this.name = name;
+    }
+
+    /**
+     * @param size The number of entries currently held
+     * @return this builder
+     */
+    public Builder size(long size) {
+      this.size = size;
+      return this;
+    }
+
+    /**
+     * @param capacity The maximum number of entries
+     * @return this builder
+     */
+    public Builder capacity(long capacity) {
+      this.capacity = capacity;
+      return this;
+    }
+
+    /**
+     * @param bytes The number of bytes currently held
+     * @return this builder
+     */
+    public Builder bytes(long bytes) {
+      this.bytes = bytes;
+      return this;
+    }
+
+    /**
+     * @param maxBytes The maximum number of bytes
+     * @return this builder
+     */
+    public Builder maxBytes(long maxBytes) {
+      this.maxBytes = maxBytes;
+      return this;
+    }
+
+    /**
+     * @param hits The number of lookups which found a usable entry
+     * @return this builder
+     */
+    public Builder hits(long hits) {
+      this.hits = hits;
+      return this;
+    }
+
+    /**
+     * @param misses The number of lookups which did not find a usable entry
+     * @return this builder
+     */
+    public Builder misses(long misses) {
+      this.misses = misses;
+      return this;
+    }
+
+    /**
+     * @param evictions The number of entries removed to stay within budget
+     * @return this builder
+     */
+    public Builder evictions(long evictions) {
+      this.evictions = evictions;
+      return this;
+    }
+
+    /**
+     * @param revalidations The number of stale entries confirmed as unchanged by PageSeeder
+     * @return this builder
+     */
+    public Builder revalidations(long revalidations) {
+      this.revalidations = revalidations;
+      return this;
+    }
+
+    /**
+     * @param loads The number of times entries were loaded from PageSeeder
+     * @return this builder
+     */
+    public Builder loads(long loads) {
+      this.loads = loads;
+      return this;
+    }
+
+    /**
+     * @param loadTime The total time spent loading entries
+     * @return this builder
+     */
+    public Builder loadTime(Duration loadTime) {
+      this.loadTime = loadTime.toNanos();
+      return this;
+    }
+
+    /**
+     * @return new statistics
+     */
+    public CacheStats build() {
+      return new CacheStats(this);
+    }
+  }
+
+}
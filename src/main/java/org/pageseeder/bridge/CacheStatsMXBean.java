@@ -0,0 +1,97 @@
+/*
+ * Copyright 2026 Allette Systems (Australia)
+ * http://www.allette.com.au
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pageseeder.bridge;
+
+/**
+ * The statistics of a cache published over JMX.
+ *
+ * <p>Each cache is registered as <code>org.pageseeder.bridge:type=Cache,partition=[partition],name=[name]</code>.
+ *
+ * @see CacheMetrics
+ *
+ * @author Christophe Lauret
+ *
+ * @version 0.11.41
+ * @since 0.11.41
+ */
+public interface CacheStatsMXBean {
+
+  /**
+   * @return The name of the cache
+   */
+  String getName();
+
+  /**
+   * @return The partition of the cache
+   */
+  String getPartition();
+
+  /**
+   * @return The number of entries currently held
+   */
+  long getSize();
+
+  /**
+   * @return The maximum number of entries or -1
+   */
+  long getCapacity();
+
+  /**
+   * @return The number of bytes currently held or -1
+   */
+  long getBytes();
+
+  /**
+   * @return The maximum number of bytes or -1
+   */
+  long getMaxBytes();
+
+  /**
+   * @return The number of lookups which found a usable entry
+   */
+  long getHitCount();
+
+  /**
+   * @return The number of lookups which did not find a usable entry
+   */
+  long getMissCount();
+
+  /**
+   * @return The ratio of hits to lookups
+   */
+  double getHitRatio();
+
+  /**
+   * @return The number of entries removed to stay within budget
+   */
+  long getEvictionCount();
+
+  /**
+   * @return The number of stale entries confirmed as unchanged by PageSeeder
+   */
+  long getRevalidationCount();
+
+  /**
+   * @return The number of times entries were loaded from PageSeeder
+   */
+  long getLoadCount();
+
+  /**
+   * @return The average time to load an entry in milliseconds
+   */
+  double getAverageLoadTimeMillis();
+
+}
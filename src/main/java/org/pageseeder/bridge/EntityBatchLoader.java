@@ -0,0 +1,53 @@
+/*
+ * Copyright 2026 Allette Systems (Australia)
+ * http://www.allette.com.au
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pageseeder.bridge;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Loads several entities from PageSeeder at once when they are not in the cache.
+ *
+ * <p>Implementations should use a list service returning all the entities in as few calls
+ * as possible, for example the list of memberships of a group to load members.
+ *
+ * @param <E> The type of entity
+ *
+ * @see PSEntityCache#getAll(Collection, EntityBatchLoader)
+ *
+ * @author Christophe Lauret
+ *
+ * @version 0.11.41
+ * @since 0.11.41
+ */
+@FunctionalInterface
+public interface EntityBatchLoader<E> {
+
+  /**
+   * Loads the entities for the specified keys from PageSeeder.
+   *
+   * <p>Entities that do not exist should simply be omitted. Entities that were not requested
+   * may be included and are cached as well.
+   *
+   * @param keys The keys of the entities that are not in the cache
+   *
+   * @return the loaded entities
+   *
+   * @throws APIException If an error occurs while communicating with PageSeeder.
+   */
+  Collection<E> load(Set<String> keys) throws APIException;
+
+}
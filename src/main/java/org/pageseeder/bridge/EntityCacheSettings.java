@@ -0,0 +1,117 @@
+/*
+ * Copyright 2026 Allette Systems (Australia)
+ * http://www.allette.com.au
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pageseeder.bridge;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * The settings of an entity cache.
+ *
+ * <p>Each type of entity has its own defaults which can be overridden using properties or an
+ * {@link org.pageseeder.bridge.spi.EntityCacheProvider}.
+ *
+ * <p>This class is immutable.
+ *
+ * @author Christophe Lauret
+ *
+ * @version 0.11.41
+ * @since 0.11.41
+ */
+public final class EntityCacheSettings {
+
+  /**
+   * The maximum number of entities.
+   */
+  private final int _capacity;
+
+  /**
+   * How long entities are kept.
+   */
+  private final Duration _ttl;
+
+  private EntityCacheSettings(int capacity, Duration ttl) {
+    if (capacity <= 0) throw new IllegalArgumentException("Capacity must be positive");
+    if (ttl.isNegative()) throw new IllegalArgumentException("Time-to-live must not be negative");
+    this._capacity = capacity;
+    this._ttl = ttl;
+  }
+
+  /**
+   * Creates new settings.
+   *
+   * @param capacity The maximum number of entities
+   * @param ttl      How long entities are kept (zero for no expiry)
+   *
+   * @return new settings
+   *
+   * @throws IllegalArgumentException If the capacity is not positive or the time-to-live is negative
+   */
+  public static EntityCacheSettings of(int capacity, Duration ttl) {
+    return new EntityCacheSettings(capacity, Objects.requireNonNull(ttl, "ttl"));
+  }
+
+  /**
+   * @return The maximum number of entities
+   */
+  public int capacity() {
+    return this._capacity;
+  }
+
+  /**
+   * @return How long entities are kept (zero for no expiry)
+   */
+  public Duration ttl() {
+    return this._ttl;
+  }
+
+  /**
+   * @param capacity The maximum number of entities
+   *
+   * @return new settings with the specified capacity
+   */
+  public EntityCacheSettings capacity(int capacity) {
+    return new EntityCacheSettings(capacity, this._ttl);
+  }
+
+  /**
+   * @param ttl How long entities are kept (zero for no expiry)
+   *
+   * @return new settings with the specified time-to-live
+   */
+  public EntityCacheSettings ttl(Duration ttl) {
+    return new EntityCacheSettings(this._capacity, Objects.requireNonNull(ttl, "ttl"));
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof EntityCacheSettings)) return false;
+    EntityCacheSettings other = (EntityCacheSettings) o;
+    return this._capacity == other._capacity && this._ttl.equals(other._ttl);
+  }
+
+  @Override
+  public int hashCode() {
+    return this._capacity * 31 + this._ttl.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return "EntityCacheSettings(capacity=" + this._capacity + ", ttl=" + this._ttl + ")";
+  }
+
+}
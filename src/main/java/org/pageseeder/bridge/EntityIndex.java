@@ -0,0 +1,98 @@
+/*
+ * Copyright 2026 Allette Systems (Australia)
+ * http://www.allette.com.au
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pageseeder.bridge;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * A secondary index on an attribute of PageSeeder entities.
+ *
+ * <p>An index is declared once per entity type, for example the email of members, and passed
+ * to the entity cache when it is created. The cache then maps each attribute value to the
+ * entities with that value, so that they can be retrieved without scanning the cache.
+ *
+ * <p>Indexes are compared by identity and should be kept as constants.
+ *
+ * @param <E> The type of entity
+ * @param <V> The type of value
+ *
+ * @see PSEntityCache#get(EntityIndex, Object)
+ * @see PSEntityCache#list(EntityIndex, Object)
+ *
+ * @author Christophe Lauret
+ *
+ * @version 0.11.41
+ * @since 0.11.41
+ */
+public final class EntityIndex<E, V> {
+
+  /**
+   * The name of the index, for example "email".
+   */
+  private final String _name;
+
+  /**
+   * Returns the indexed value of an entity.
+   */
+  private final Function<E, @Nullable V> _extractor;
+
+  private EntityIndex(String name, Function<E, @Nullable V> extractor) {
+    this._name = Objects.requireNonNull(name, "name");
+    this._extractor = Objects.requireNonNull(extractor, "extractor");
+  }
+
+  /**
+   * Creates a new index.
+   *
+   * @param name      The name of the index
+   * @param extractor The function returning the value to index (<code>null</code> values are not indexed)
+   *
+   * @param <E> The type of entity
+   * @param <V> The type of value
+   *
+   * @return a new index
+   */
+  public static <E, V> EntityIndex<E, V> of(String name, Function<E, @Nullable V> extractor) {
+    return new EntityIndex<>(name, extractor);
+  }
+
+  /**
+   * @return The name of the index
+   */
+  public String name() {
+    return this._name;
+  }
+
+  /**
+   * Returns the value of the specified entity for this index.
+   *
+   * @param entity The entity
+   *
+   * @return the indexed value or <code>null</code>
+   */
+  public @Nullable V valueOf(E entity) {
+    return this._extractor.apply(entity);
+  }
+
+  @Override
+  public String toString() {
+    return "EntityIndex(" + this._name + ")";
+  }
+
+}
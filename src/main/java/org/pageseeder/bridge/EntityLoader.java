@@ -0,0 +1,47 @@
+/*
+ * Copyright 2026 Allette Systems (Australia)
+ * http://www.allette.com.au
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pageseeder.bridge;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Loads an entity from PageSeeder when it is not in the cache or needs to be refreshed.
+ *
+ * <p>Loaders are typically lambdas capturing the credentials and parameters of the request.
+ *
+ * @param <E> The type of entity
+ *
+ * @see PSEntityCache#get(String, EntityLoader)
+ * @see PSEntityCache#get(Long, EntityLoader)
+ *
+ * @author Christophe Lauret
+ *
+ * @version 0.11.41
+ * @since 0.11.41
+ */
+@FunctionalInterface
+public interface EntityLoader<E> {
+
+  /**
+   * Loads the entity from PageSeeder.
+   *
+   * @return the entity or <code>null</code> if it does not exist
+   *
+   * @throws APIException If an error occurs while communicating with PageSeeder.
+   */
+  @Nullable E load() throws APIException;
+
+}
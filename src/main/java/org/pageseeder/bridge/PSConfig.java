@@ -30,7 +30,7 @@ import org.pageseeder.bridge.spi.ConfigProvider;
  *
  * @author Christophe Lauret
  *
- * @version 0.9.6
+ * @version 0.11.41
  * @since 0.1.0
  */
 public final class PSConfig {
@@ -55,6 +55,11 @@ public final class PSConfig {
    */
   private static volatile @Nullable PSConfig singleton = null;
 
+  /**
+   * Set once the service providers were found not to provide any configuration.
+   */
+  private static volatile boolean unprovided = false;
+
   /**
    * The base URL for the publicly available Website.
    */
@@ -75,6 +80,11 @@ public final class PSConfig {
    */
   private final String _sitePrefix;
 
+  /**
+   * Identifies the caches used for this configuration.
+   */
+  private final String _cachePartition;
+
   /**
    * The PageSeeder version for this configuration.
    */
@@ -106,6 +116,7 @@ public final class PSConfig {
     this._api = api;
     this._document = document;
     this._sitePrefix = prefix;
+    this._cachePartition = toCachePartition(api, prefix);
   }
 
   // Getters
@@ -477,6 +488,43 @@ public final class PSConfig {
     return config;
   }
 
+  /**
+   * Returns the default configuration if available.
+   *
+   * <p>Unlike {@link #getDefault()}, this method does not throw an exception when the bridge is
+   * not configured and only looks up the service providers once.
+   *
+   * @return the default configuration or <code>null</code>.
+   *
+   * @throws IllegalStateException If there are multiple providers for the configuration
+   */
+  public static @Nullable PSConfig findDefault() {
+    PSConfig config = singleton;
+    if (config == null && !unprovided) {
+      config = loadFromService();
+      if (config != null) {
+        singleton = config;
+      } else {
+        unprovided = true;
+      }
+    }
+    return config;
+  }
+
+  /**
+   * Returns the name of the partition used to cache the entities and responses from the
+   * PageSeeder server for this configuration.
+   *
+   * <p>Configurations for the same API base URL and site prefix share the same partition.
+   * The name only contains letters, digits, '-' and '_' so that it can be used as a file
+   * name, for example "http_localhost_8080_ps".
+   *
+   * @return the name of the cache partition for this configuration.
+   */
+  public String getCachePartition() {
+    return this._cachePartition;
+  }
+
   // Factory methods
   // ----------------------------------------------------------------------------------------------
 
@@ -644,6 +692,19 @@ public final class PSConfig {
     return s.toString();
   }
 
+  /**
+   * Generate the name of the cache partition from the API URL and site prefix.
+   *
+   * @param api    The base URL for the API
+   * @param prefix The site prefix
+   *
+   * @return the name of the cache partition
+   */
+  private static String toCachePartition(URL api, String prefix) {
+    String name = api.getProtocol() + '_' + api.getHost() + '_' + getActualPort(api) + prefix;
+    return name.replaceAll("[^A-Za-z0-9_-]+", "_");
+  }
+
   /**
    * Returns the port actually in use by the URL so that if the URL is configured with the default
    * port it does not return -1.
@@ -15,13 +15,22 @@
  */
 package org.pageseeder.bridge;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
 import org.eclipse.jdt.annotation.Nullable;
 
 /**
  * Interface for all entity caches.
  *
  * @author Christophe Lauret
- * @version 0.2.4
+ * @version 0.11.41
  * @since 0.1.0
  *
  * @param <E> The type of entity to cache.
@@ -35,6 +44,17 @@ public interface PSEntityCache<E extends PSEntity> {
    */
   void put(E entity);
 
+  /**
+   * Put the specified elements in the underlying cache.
+   *
+   * @param entities The entities to cache.
+   */
+  default void putAll(Collection<? extends E> entities) {
+    for (E entity : entities) {
+      put(entity);
+    }
+  }
+
   /**
    * Retrieve the object in the cache for the specified ID.
    *
@@ -53,6 +73,62 @@ public interface PSEntityCache<E extends PSEntity> {
    */
   @Nullable E get(String key);
 
+  /**
+   * Retrieve the objects in the cache for the specified keys.
+   *
+   * @param keys The keys
+   *
+   * @return The cached elements by key in the order of the keys (keys not in the cache are omitted)
+   */
+  default Map<String, E> getAll(Collection<String> keys) {
+    Map<String, E> found = new LinkedHashMap<>();
+    for (String key : keys) {
+      E entity = get(key);
+      if (entity != null) {
+        found.put(key, entity);
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Retrieve the objects in the cache for the specified keys, loading the missing ones in a
+   * single batch.
+   *
+   * <p>The loader is only invoked if some keys are not in the cache; all the entities it
+   * returns are put in the cache.
+   *
+   * @param keys   The keys
+   * @param loader The function to load the missing entities from PageSeeder
+   *
+   * @return The elements by key in the order of the keys (keys which do not exist are omitted)
+   *
+   * @throws APIException If thrown by the loader
+   */
+  default Map<String, E> getAll(Collection<String> keys, EntityBatchLoader<E> loader) throws APIException {
+    Map<String, E> found = getAll(keys);
+    Set<String> missing = new LinkedHashSet<>(keys);
+    missing.removeAll(found.keySet());
+    if (missing.isEmpty()) return found;
+    Map<String, E> loaded = new LinkedHashMap<>();
+    for (E entity : loader.load(Collections.unmodifiableSet(missing))) {
+      String key = entity.getKey();
+      if (key != null) {
+        loaded.put(key, entity);
+      }
+    }
+    putAll(loaded.values());
+    // Preserve the order of the keys
+    Map<String, E> all = new LinkedHashMap<>();
+    for (String key : keys) {
+      E entity = found.containsKey(key) ? found.get(key) : loaded.get(key);
+      if (entity != null) {
+        all.put(key, entity);
+      }
+    }
+    return all;
+  }
+
   /**
    * Retrieve the object in the cache from an instance.
    *
@@ -62,6 +138,54 @@ public interface PSEntityCache<E extends PSEntity> {
    */
   @Nullable E get(E entity);
 
+  /**
+   * Retrieve the object in the cache for the specified key, loading it if necessary.
+   *
+   * <p>The default implementation calls the loader when the element is not in the cache and
+   * puts the loaded element in the cache.
+   *
+   * @param key    The key
+   * @param loader The function to load the entity from PageSeeder
+   *
+   * @return The cached or loaded element or <code>null</code> if it does not exist
+   *
+   * @throws APIException If thrown by the loader
+   */
+  default @Nullable E get(String key, EntityLoader<E> loader) throws APIException {
+    E entity = get(key);
+    if (entity == null) {
+      entity = loader.load();
+      if (entity != null) {
+        put(entity);
+      }
+    }
+    return entity;
+  }
+
+  /**
+   * Retrieve the object in the cache for the specified ID, loading it if necessary.
+   *
+   * <p>The default implementation calls the loader when the element is not in the cache and
+   * puts the loaded element in the cache.
+   *
+   * @param id     The ID of the entity
+   * @param loader The function to load the entity from PageSeeder
+   *
+   * @return The cached or loaded element or <code>null</code> if it does not exist
+   *
+   * @throws APIException If thrown by the loader
+   */
+  default @Nullable E get(Long id, EntityLoader<E> loader) throws APIException {
+    E entity = get(id);
+    if (entity == null) {
+      entity = loader.load();
+      if (entity != null) {
+        put(entity);
+      }
+    }
+    return entity;
+  }
+
   /**
    * Return the version of the element for the specified key.
    *
@@ -71,6 +195,38 @@ public interface PSEntityCache<E extends PSEntity> {
    */
   @Nullable Long getVersion(String key);
 
+  /**
+   * Retrieve an object in the cache using a secondary index.
+   *
+   * <p>If several entities share the same value, any one of them may be returned.
+   *
+   * <p>The default implementation does not support indexes and always returns <code>null</code>.
+   *
+   * @param index The index declared when the cache was created
+   * @param value The indexed value
+   * @param <V>   The type of value
+   *
+   * @return The matching element or <code>null</code> if not found or the index is not supported
+   */
+  default <V> @Nullable E get(EntityIndex<? super E, V> index, V value) {
+    return null;
+  }
+
+  /**
+   * List the objects in the cache matching the specified value using a secondary index.
+   *
+   * <p>The default implementation does not support indexes and always returns an empty list.
+   *
+   * @param index The index declared when the cache was created
+   * @param value The indexed value
+   * @param <V>   The type of value
+   *
+   * @return The matching elements (may be empty)
+   */
+  default <V> List<E> list(EntityIndex<? super E, V> index, V value) {
+    return Collections.emptyList();
+  }
+
   /**
    * Removes the element.
    *
@@ -83,4 +239,31 @@ public interface PSEntityCache<E extends PSEntity> {
    */
   void removeAll();
 
+  /**
+   * Removes the elements matching the specified predicate.
+   *
+   * <p>The default implementation cannot iterate over the cache, so it throws an
+   * <code>UnsupportedOperationException</code> rather than removing entries it cannot report.
+   *
+   * @param filter The predicate returning <code>true</code> for the elements to remove
+   *
+   * @return the removed elements
+   *
+   * @throws UnsupportedOperationException If the cache cannot iterate over its elements
+   */
+  default List<E> removeIf(Predicate<? super E> filter) {
+    throw new UnsupportedOperationException("Cache "+getClass().getSimpleName()+" cannot remove elements by predicate");
+  }
+
+  /**
+   * Returns the statistics of this cache.
+   *
+   * <p>The default implementation does not collect statistics and returns zero counters.
+   *
+   * @return the current statistics
+   */
+  default CacheStats stats() {
+    return new CacheStats.Builder(getClass().getSimpleName()).size(-1).build();
+  }
+
 }
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2026 Allette Systems (Australia)
+ * http://www.allette.com.au
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pageseeder.bridge.control;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.pageseeder.bridge.CacheStats;
+import org.pageseeder.bridge.PSConfig;
+import org.pageseeder.bridge.http.HttpCache;
+import org.pageseeder.bridge.http.HttpClient;
+
+/**
+ * Provides access to the caches of each PageSeeder server.
+ *
+ * <p>The entity caches used by the managers and the HTTP cache used by the {@link HttpClient}
+ * are partitioned by {@link PSConfig#getCachePartition()}, so that when the bridge is used with
+ * several PageSeeder servers, the entities and responses of one server cannot evict those of
+ * another. Each partition has its own capacity, which can be adjusted for each partition using
+ * an {@link org.pageseeder.bridge.spi.EntityCacheProvider}.
+ *
+ * <p>The managers use the partition of the {@link PSConfig#getDefault() default configuration}.
+ *
+ * @author Christophe Lauret
+ *
+ * @version 0.11.41
+ * @since 0.11.41
+ */
+public final class CachePartitions {
+
+  /** Utility class. */
+  private CachePartitions() {
+  }
+
+  /**
+   * @return the names of the partitions currently used.
+   */
+  public static Set<String> list() {
+    Set<String> partitions = new TreeSet<>(EntityCaches.partitions());
+    partitions.addAll(HttpClient.singleton().getCaches().keySet());
+    return partitions;
+  }
+
+  /**
+   * Returns the statistics of the caches of the specified configuration.
+   *
+   * @param config The configuration
+   *
+   * @return the statistics of the entity caches and HTTP cache in use for that configuration.
+   */
+  public static List<CacheStats> stats(PSConfig config) {
+    String partition = config.getCachePartition();
+    List<CacheStats> stats = new ArrayList<>();
+    for (ConcurrentEntityCache<?> cache : EntityCaches.created(partition)) {
+      stats.add(cache.stats());
+    }
+    @Nullable HttpCache http = HttpClient.singleton().getCaches().get(partition);
+    if (http != null) {
+      stats.add(http.stats());
+    }
+    return stats;
+  }
+
+  /**
+   * Discards the entities and responses cached for the specified configuration.
+   *
+   * <p>Use this method when a PageSeeder server is no longer used to release the memory.
+   *
+   * @param config The configuration
+   */
+  public static void discard(PSConfig config) {
+    String partition = config.getCachePartition();
+    EntityCaches.discard(partition);
+    @Nullable HttpCache http = HttpClient.singleton().getCaches().get(partition);
+    if (http != null) {
+      http.clear();
+    }
+  }
+
+}
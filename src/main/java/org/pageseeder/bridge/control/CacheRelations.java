@@ -0,0 +1,104 @@
+/*
+ * Copyright 2026 Allette Systems (Australia)
+ * http://www.allette.com.au
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pageseeder.bridge.control;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.pageseeder.bridge.PSConfig;
+import org.pageseeder.bridge.model.PSAddressable;
+import org.pageseeder.bridge.model.PSGroup;
+import org.pageseeder.bridge.model.PSURI;
+
+/**
+ * Relations between entities used by the managers to evict related entities from their caches.
+ *
+ * @author Christophe Lauret
+ *
+ * @version 0.11.41
+ * @since 0.11.41
+ */
+final class CacheRelations {
+
+  /** Utility class. */
+  private CacheRelations() {
+  }
+
+  /**
+   * Indicates whether a change to a group requires related entities to be evicted.
+   *
+   * @param change The change to the group
+   *
+   * @return <code>true</code> if the group was renamed or removed
+   */
+  static boolean isStructural(EntityChange<?> change) {
+    return change.type() != EntityChange.Type.MODIFIED;
+  }
+
+  /**
+   * Indicates whether the resource is located in the group that changed.
+   *
+   * <p>The resources of a group are located under <code>[site prefix]/[group name with '/' instead of '-']/</code>.
+   *
+   * <p>When a group is renamed and its previous name is unknown, any resource with a path is
+   * considered to be in the group since its previous location cannot be determined.
+   *
+   * @param resource The document, folder or group folder
+   * @param change   The change to the group
+   *
+   * @return <code>true</code> if the resource was in the group or its previous version
+   */
+  static boolean isInGroup(@Nullable PSAddressable resource, EntityChange<PSGroup> change) {
+    if (resource == null) return false;
+    String path = resource.getPath();
+    if (path == null) return false;
+    PSGroup previous = change.previous();
+    if (change.type() == EntityChange.Type.RENAMED && (previous == null || previous.getName() == null)) return true;
+    String prefix = sitePrefix();
+    return isInGroup(path, prefix, change.entity()) || (previous != null && isInGroup(path, prefix, previous));
+  }
+
+  /**
+   * Indicates whether the URI is the same as the URI that changed, by ID or by URL.
+   *
+   * @param uri     The URI referenced by a cached entity
+   * @param changed The URI that changed
+   *
+   * @return <code>true</code> if they are the same
+   */
+  static boolean isSameURI(@Nullable PSURI uri, PSURI changed) {
+    if (uri == null) return false;
+    Long id = changed.getId();
+    if (id != null && uri.getId() != null) return id.equals(uri.getId());
+    return uri.getURL().equals(changed.getURL());
+  }
+
+  private static boolean isInGroup(String path, String prefix, PSGroup group) {
+    String name = group.getName();
+    return name != null && path.startsWith(prefix + "/" + name.replace('-', '/') + "/");
+  }
+
+  /**
+   * @return the site prefix of the default configuration or the default site prefix.
+   */
+  private static String sitePrefix() {
+    try {
+      PSConfig config = PSConfig.findDefault();
+      return config != null ? config.getSitePrefix() : PSConfig.DEFAULT_PREFIX;
+    } catch (IllegalStateException ex) {
+      return PSConfig.DEFAULT_PREFIX;
+    }
+  }
+
+}
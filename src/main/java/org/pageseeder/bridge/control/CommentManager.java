@@ -15,6 +15,7 @@
  */
 package org.pageseeder.bridge.control;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 
@@ -25,6 +26,7 @@ import org.pageseeder.bridge.PSCredentials;
 import org.pageseeder.bridge.PSEntityCache;
 import org.pageseeder.bridge.model.PSComment;
 import org.pageseeder.bridge.model.PSComment.Author;
+import org.pageseeder.bridge.model.PSDocument;
 import org.pageseeder.bridge.model.PSGroup;
 import org.pageseeder.bridge.model.PSMember;
 import org.pageseeder.bridge.model.PSNotify;
@@ -39,7 +41,7 @@ import org.pageseeder.bridge.xml.PSCommentHandler;
  *
  * @author Christophe Lauret
  *
- * @version 0.10.2
+ * @version 0.11.41
  * @since 0.3.0
  */
 public final class CommentManager extends Sessionful {
@@ -47,7 +49,23 @@ public final class CommentManager extends Sessionful {
   /**
    * Where the comments are cached.
    */
-  private static volatile PSEntityCache<PSComment> cache = EHEntityCache.newInstance("pscomments");
+  private static final PSEntityCache<PSComment> cache = EntityCaches.lazy("pscomments", Duration.ofMinutes(5));
+
+  static {
+    // Comments include their context
+    EntityChangeBus.subscribe(PSGroup.class, change -> {
+      if (CacheRelations.isStructural(change)) {
+        cache.removeIf(comment -> {
+          PSComment.Context context = comment.getContext();
+          return context != null && (change.concerns(context.group()) || CacheRelations.isInGroup(context.uri(), change));
+        });
+      }
+    });
+    EntityChangeBus.subscribe(PSDocument.class, change -> cache.removeIf(comment -> {
+      PSComment.Context context = comment.getContext();
+      return context != null && CacheRelations.isSameURI(context.uri(), change.entity());
+    }));
+  }
 
   /**
    * Creates a new manager for PageSeeder comments.
@@ -0,0 +1,759 @@
+/*
+ * Copyright 2026 Allette Systems (Australia)
+ * http://www.allette.com.au
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pageseeder.bridge.control;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.pageseeder.bridge.APIException;
+import org.pageseeder.bridge.CacheStats;
+import org.pageseeder.bridge.EntityBatchLoader;
+import org.pageseeder.bridge.EntityIndex;
+import org.pageseeder.bridge.EntityLoader;
+import org.pageseeder.bridge.PSEntity;
+import org.pageseeder.bridge.PSEntityCache;
+import org.pageseeder.bridge.http.HttpClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A cache for a PageSeeder entity backed by concurrent hash maps.
+ *
+ * <p>Unlike the other implementations, none of the methods of this class are synchronized:
+ * lookups never block and updates only contend on the hash map bins they modify, so that the
+ * cache shared by all the instances of a manager does not serialize request threads.
+ *
+ * <p>The cache holds a maximum number of entities. When it is exceeded, the least recently used
+ * entities are evicted in batches by a single thread while other threads keep using the cache.
+ *
+ * <p>Secondary indexes declared when the cache is created map attribute values to keys and are
+ * updated on put and remove. Lookups check the value of the entity found, so an index may
+ * briefly point to a replaced entity under concurrent updates but never returns a wrong one.
+ *
+ * <p>Entities expire after the time-to-live of the cache. When they are retrieved with a loader
+ * after three quarters of their time-to-live, they are returned immediately and reloaded in the
+ * background using the {@link HttpClient#getExecutor() HTTP client executor}, so that entities
+ * in use never expire. Concurrent loads of the same entity share a single call to the loader.
+ *
+ * @param <E> The type of entity
+ *
+ * @author Christophe Lauret
+ *
+ * @version 0.11.41
+ * @since 0.11.41
+ */
+final class ConcurrentEntityCache<E extends PSEntity> implements PSEntityCache<E> {
+
+  /** Logger */
+  private static final Logger LOGGER = LoggerFactory.getLogger(ConcurrentEntityCache.class);
+
+  /**
+   * The name of the cache.
+   */
+  private final String _name;
+
+  /**
+   * The maximum number of entities.
+   */
+  private final int _capacity;
+
+  /**
+   * How long entities are kept in milliseconds (0 for no expiry).
+   */
+  private final long _ttl;
+
+  /**
+   * The age in milliseconds after which entities are reloaded in the background.
+   */
+  private final long _refreshAfter;
+
+  /**
+   * The cached entities by key.
+   */
+  private final ConcurrentMap<String, CachedEntity<E>> _byKey = new ConcurrentHashMap<>();
+
+  /**
+   * The keys of the cached entities by ID.
+   */
+  private final ConcurrentMap<Long, String> _keyById = new ConcurrentHashMap<>();
+
+  /**
+   * The secondary indexes.
+   */
+  private final List<IndexTable<E>> _indexes;
+
+  /**
+   * Loads in progress by key or ID.
+   */
+  private final ConcurrentMap<Object, CompletableFuture<@Nullable E>> _loading = new ConcurrentHashMap<>();
+
+  /**
+   * Set while entities are being evicted.
+   */
+  private final AtomicBoolean _evicting = new AtomicBoolean();
+
+  /**
+   * The number of lookups which found an entity.
+   */
+  private final LongAdder _hits = new LongAdder();
+
+  /**
+   * The number of lookups which did not find an entity.
+   */
+  private final LongAdder _misses = new LongAdder();
+
+  /**
+   * The number of entities evicted to stay within capacity.
+   */
+  private final LongAdder _evictions = new LongAdder();
+
+  /**
+   * The number of loads.
+   */
+  private final LongAdder _loads = new LongAdder();
+
+  /**
+   * The time spent loading in nanoseconds.
+   */
+  private final LongAdder _loadTime = new LongAdder();
+
+  /**
+   * Create a new cache.
+   *
+   * @param name     The name of the cache
+   * @param capacity The maximum number of entities.
+   * @param ttl      How long entities are kept (zero for no expiry)
+   * @param indexes  The secondary indexes
+   */
+  @SafeVarargs
+  ConcurrentEntityCache(String name, int capacity, Duration ttl, EntityIndex<? super E, ?>... indexes) {
+    this(name, capacity, ttl, new ArrayList<>());
+    for (EntityIndex<? super E, ?> index : indexes) {
+      this._indexes.add(new IndexTable<>(index));
+    }
+  }
+
+  /**
+   * Create a new cache.
+   *
+   * @param name     The name of the cache
+   * @param capacity The maximum number of entities.
+   * @param ttl      How long entities are kept (zero for no expiry)
+   * @param indexes  The secondary indexes
+   */
+  ConcurrentEntityCache(String name, int capacity, Duration ttl, List<EntityIndex<? super E, ?>> indexes) {
+    this._name = name;
+    this._capacity = capacity;
+    this._ttl = ttl.toMillis();
+    this._refreshAfter = this._ttl - this._ttl / 4;
+    List<IndexTable<E>> tables = new ArrayList<>(indexes.size());
+    for (EntityIndex<? super E, ?> index : indexes) {
+      tables.add(new IndexTable<>(index));
+    }
+    this._indexes = tables;
+  }
+
+  /**
+   * @return the name of this cache.
+   */
+  String name() {
+    return this._name;
+  }
+
+  /**
+   * @return the number of entities in this cache.
+   */
+  int size() {
+    return this._byKey.size();
+  }
+
+  @Override
+  public CacheStats stats() {
+    return new CacheStats.Builder(this._name)
+        .size(this._byKey.size())
+        .capacity(this._capacity)
+        .hits(this._hits.sum())
+        .misses(this._misses.sum())
+        .evictions(this._evictions.sum())
+        .loads(this._loads.sum())
+        .loadTime(Duration.ofNanos(this._loadTime.sum()))
+        .build();
+  }
+
+  @Override
+  public @Nullable E get(String key) {
+    return hit(lookup(key));
+  }
+
+  @Override
+  public @Nullable E get(Long id) {
+    return hit(lookup(id));
+  }
+
+  @Override
+  public @Nullable E get(String key, EntityLoader<E> loader) throws APIException {
+    return get(key, lookup(key), loader);
+  }
+
+  @Override
+  public @Nullable E get(Long id, EntityLoader<E> loader) throws APIException {
+    return get(id, lookup(id), loader);
+  }
+
+  @Override
+  public @Nullable E get(E entity) {
+    if (!entity.isIdentifiable()) return null;
+    String key = entity.getKey();
+    Long id = entity.getId();
+    if (key != null) return get(key);
+    if (id != null) return get(id);
+    return null;
+  }
+
+  @Override
+  public @Nullable Long getVersion(String key) {
+    if (key == null) return null;
+    CachedEntity<E> cached = this._byKey.get(key);
+    return cached != null ? cached.version() : null;
+  }
+
+  @Override
+  public <V> @Nullable E get(EntityIndex<? super E, V> index, V value) {
+    IndexTable<E> table = table(index);
+    if (table == null || value == null) return null;
+    for (String key : table.keys(value)) {
+      CachedEntity<E> cached = lookup(key);
+      if (cached != null && value.equals(index.valueOf(cached.entity()))) {
+        cached.touch();
+        return cached.entity();
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public <V> List<E> list(EntityIndex<? super E, V> index, V value) {
+    IndexTable<E> table = table(index);
+    if (table == null || value == null) return Collections.emptyList();
+    List<E> entities = new ArrayList<>();
+    for (String key : table.keys(value)) {
+      CachedEntity<E> cached = lookup(key);
+      if (cached != null && value.equals(index.valueOf(cached.entity()))) {
+        cached.touch();
+        entities.add(cached.entity());
+      }
+    }
+    return entities;
+  }
+
+  @Override
+  public void put(E entity) {
+    store(entity);
+    if (this._byKey.size() > this._capacity) {
+      evict();
+    }
+  }
+
+  @Override
+  public void putAll(Collection<? extends E> entities) {
+    for (E entity : entities) {
+      store(entity);
+    }
+    if (this._byKey.size() > this._capacity) {
+      evict();
+    }
+  }
+
+  /**
+   * Stores the entity and updates the indexes.
+   */
+  private void store(E entity) {
+    store(entity, System.currentTimeMillis());
+  }
+
+  /**
+   * Stores the entity with the specified version and updates the indexes.
+   */
+  private void store(E entity, long version) {
+    if (entity == null)
+      throw new NullPointerException("entity");
+    String key = entity.getKey();
+    if (key == null)
+      throw new IllegalArgumentException("key");
+    Long id = entity.getId();
+    CachedEntity<E> previous = this._byKey.put(key, new CachedEntity<>(entity, version));
+    if (id != null) {
+      this._keyById.put(id, key);
+    }
+    for (IndexTable<E> table : this._indexes) {
+      table.update(key, previous != null ? previous.entity() : null, entity);
+    }
+    if (previous != null) {
+      unindex(key, previous, id);
+    }
+  }
+
+  @Override
+  public void remove(String key) {
+    if (key == null) return;
+    CachedEntity<E> removed = this._byKey.remove(key);
+    if (removed != null) {
+      unindex(key, removed, null);
+      unindexAll(key, removed);
+    }
+  }
+
+  @Override
+  public void removeAll() {
+    this._byKey.clear();
+    this._keyById.clear();
+    for (IndexTable<E> table : this._indexes) {
+      table.clear();
+    }
+  }
+
+  @Override
+  public List<E> removeIf(Predicate<? super E> filter) {
+    List<E> removed = new ArrayList<>();
+    for (Map.Entry<String, CachedEntity<E>> entry : this._byKey.entrySet()) {
+      CachedEntity<E> cached = entry.getValue();
+      if (filter.test(cached.entity()) && this._byKey.remove(entry.getKey(), cached)) {
+        unindex(entry.getKey(), cached, null);
+        unindexAll(entry.getKey(), cached);
+        removed.add(cached.entity());
+      }
+    }
+    return removed;
+  }
+
+  /**
+   * Writes the entities which have not expired with their version.
+   *
+   * @param out The output to write to
+   *
+   * @return the number of entities written
+   *
+   * @throws IOException If thrown while writing
+   */
+  int writeTo(ObjectOutput out) throws IOException {
+    List<CachedEntity<E>> entities = new ArrayList<>(this._byKey.size());
+    for (CachedEntity<E> cached : this._byKey.values()) {
+      if (!isExpired(cached)) {
+        entities.add(cached);
+      }
+    }
+    out.writeInt(entities.size());
+    for (CachedEntity<E> cached : entities) {
+      out.writeLong(cached.version());
+      out.writeObject(cached.entity());
+    }
+    return entities.size();
+  }
+
+  /**
+   * Reads the entities written by {@link #writeTo(ObjectOutput)} keeping their version so that
+   * they expire as if they had never left the cache.
+   *
+   * <p>Expired entities and entities already in the cache are ignored.
+   *
+   * @param in The input to read from
+   *
+   * @return the number of entities restored
+   *
+   * @throws IOException If thrown while reading or if the content is not a list of entities
+   * @throws ClassNotFoundException If the class of an entity cannot be found
+   */
+  @SuppressWarnings("unchecked")
+  int readFrom(ObjectInput in) throws IOException, ClassNotFoundException {
+    int count = in.readInt();
+    long now = System.currentTimeMillis();
+    int restored = 0;
+    for (int i = 0; i < count; i++) {
+      long version = in.readLong();
+      Object o = in.readObject();
+      if (!(o instanceof PSEntity))
+        throw new IOException("Not an entity: " + (o != null ? o.getClass().getName() : null));
+      E entity = (E)o;
+      String key = entity.getKey();
+      boolean expired = this._ttl > 0 && now - version >= this._ttl;
+      if (key != null && !expired && !this._byKey.containsKey(key)) {
+        store(entity, version);
+        restored++;
+      }
+    }
+    if (this._byKey.size() > this._capacity) {
+      evict();
+    }
+    return restored;
+  }
+
+  /**
+   * @return the entity for the specified key unless it has expired.
+   */
+  private @Nullable CachedEntity<E> lookup(@Nullable String key) {
+    if (key == null) return null;
+    CachedEntity<E> cached = this._byKey.get(key);
+    return cached != null && !isExpired(cached) ? cached : null;
+  }
+
+  /**
+   * @return the entity for the specified ID unless it has expired.
+   */
+  private @Nullable CachedEntity<E> lookup(@Nullable Long id) {
+    if (id == null) return null;
+    CachedEntity<E> cached = lookup(this._keyById.get(id));
+    // The entity may have been replaced since we looked up the key
+    return cached != null && id.equals(cached.entity().getId()) ? cached : null;
+  }
+
+  /**
+   * Records the lookup and returns the entity if it was found.
+   */
+  private @Nullable E hit(@Nullable CachedEntity<E> cached) {
+    if (cached == null) {
+      this._misses.increment();
+      return null;
+    }
+    this._hits.increment();
+    cached.touch();
+    return cached.entity();
+  }
+
+  private boolean isExpired(CachedEntity<E> cached) {
+    return this._ttl > 0 && System.currentTimeMillis() - cached.version() >= this._ttl;
+  }
+
+  private boolean isDueForRefresh(CachedEntity<E> cached) {
+    return this._ttl > 0 && System.currentTimeMillis() - cached.version() >= this._refreshAfter;
+  }
+
+  /**
+   * Returns the cached entity, refreshing it in the background if it is getting old, or loads it
+   * if it is not cached.
+   *
+   * @param ref    The key or ID used to share loads
+   * @param cached The cached entity if any
+   * @param loader The loader
+   */
+  private @Nullable E get(Object ref, @Nullable CachedEntity<E> cached, EntityLoader<E> loader) throws APIException {
+    if (cached != null) {
+      this._hits.increment();
+      cached.touch();
+      if (isDueForRefresh(cached)) {
+        refresh(ref, cached.entity(), loader);
+      }
+      return cached.entity();
+    }
+    this._misses.increment();
+    CompletableFuture<@Nullable E> load = new CompletableFuture<>();
+    CompletableFuture<@Nullable E> shared = this._loading.putIfAbsent(ref, load);
+    if (shared != null) return await(shared);
+    try {
+      E entity = load(ref, loader);
+      load.complete(entity);
+      return entity;
+    } catch (APIException | RuntimeException ex) {
+      load.completeExceptionally(ex);
+      throw ex;
+    } finally {
+      this._loading.remove(ref, load);
+    }
+  }
+
+  /**
+   * Reloads the entity in the background unless it is already being loaded.
+   */
+  private void refresh(Object ref, E current, EntityLoader<E> loader) {
+    CompletableFuture<@Nullable E> load = new CompletableFuture<>();
+    if (this._loading.putIfAbsent(ref, load) != null) return;
+    try {
+      HttpClient.getExecutor().execute(() -> {
+        try {
+          load.complete(load(ref, loader));
+        } catch (APIException | RuntimeException ex) {
+          LOGGER.warn("Unable to refresh {} in cache {}", ref, this._name, ex);
+          load.completeExceptionally(ex);
+        } finally {
+          this._loading.remove(ref, load);
+        }
+      });
+    } catch (RejectedExecutionException ex) {
+      this._loading.remove(ref, load);
+      load.complete(current);
+    }
+  }
+
+  /**
+   * Calls the loader and updates the cache.
+   */
+  private @Nullable E load(Object ref, EntityLoader<E> loader) throws APIException {
+    long start = System.nanoTime();
+    E entity;
+    try {
+      entity = loader.load();
+    } finally {
+      recordLoad(start);
+    }
+    if (entity != null) {
+      put(entity);
+    } else if (ref instanceof String) {
+      // No longer exists
+      remove((String)ref);
+    } else {
+      CachedEntity<E> cached = lookup((Long)ref);
+      if (cached != null) {
+        remove(cached.entity().getKey());
+      }
+    }
+    return entity;
+  }
+
+  @Override
+  public Map<String, E> getAll(Collection<String> keys, EntityBatchLoader<E> loader) throws APIException {
+    return PSEntityCache.super.getAll(keys, missing -> {
+      long start = System.nanoTime();
+      try {
+        return loader.load(missing);
+      } finally {
+        recordLoad(start);
+      }
+    });
+  }
+
+  private void recordLoad(long start) {
+    this._loadTime.add(System.nanoTime() - start);
+    this._loads.increment();
+  }
+
+  /**
+   * Waits for a load started by another thread.
+   */
+  private static <E> @Nullable E await(CompletableFuture<@Nullable E> load) throws APIException {
+    try {
+      return load.get();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new APIException("Interrupted while waiting for entity to load", ex);
+    } catch (ExecutionException ex) {
+      Throwable cause = ex.getCause();
+      if (cause instanceof APIException) throw (APIException)cause;
+      if (cause instanceof RuntimeException) throw (RuntimeException)cause;
+      throw new APIException(cause);
+    }
+  }
+
+  /**
+   * Removes the ID of an entity no longer in the cache unless it is still used.
+   */
+  private void unindex(String key, CachedEntity<E> removed, @Nullable Long current) {
+    Long id = removed.entity().getId();
+    if (id != null && !id.equals(current)) {
+      this._keyById.remove(id, key);
+    }
+  }
+
+  /**
+   * Removes the entity from the secondary indexes after it was removed from the cache.
+   */
+  private void unindexAll(String key, CachedEntity<E> removed) {
+    for (IndexTable<E> table : this._indexes) {
+      table.update(key, removed.entity(), null);
+    }
+  }
+
+  /**
+   * @return the table for the specified index or <code>null</code> if not declared on this cache.
+   */
+  private @Nullable IndexTable<E> table(EntityIndex<? super E, ?> index) {
+    for (IndexTable<E> table : this._indexes) {
+      if (table.index() == index) return table;
+    }
+    return null;
+  }
+
+  /**
+   * Evicts the least recently used entities until the cache is 10% under capacity.
+   *
+   * <p>Only one thread evicts at a time, other threads return immediately. The evicting thread
+   * checks the size again when it is done, so that the entities added by other threads
+   * meanwhile do not leave the cache over capacity.
+   */
+  private void evict() {
+    while (this._byKey.size() > this._capacity && this._evicting.compareAndSet(false, true)) {
+      try {
+        evictExcess();
+      } finally {
+        this._evicting.set(false);
+      }
+    }
+  }
+
+  /**
+   * Evicts the least recently used entities until the cache is 10% under capacity.
+   */
+  private void evictExcess() {
+    int excess = this._byKey.size() - (this._capacity - this._capacity / 10);
+    if (excess <= 0) return;
+    // Access times change while sorting, so sort on a snapshot
+    List<Candidate<E>> candidates = new ArrayList<>(this._byKey.size());
+    for (Map.Entry<String, CachedEntity<E>> entry : this._byKey.entrySet()) {
+      candidates.add(new Candidate<>(entry.getKey(), entry.getValue()));
+    }
+    candidates.sort(Comparator.comparingLong(c -> c.lastAccess));
+    for (int i = 0; i < excess && i < candidates.size(); i++) {
+      Candidate<E> candidate = candidates.get(i);
+      if (this._byKey.remove(candidate.key, candidate.cached)) {
+        this._evictions.increment();
+        unindex(candidate.key, candidate.cached, null);
+        unindexAll(candidate.key, candidate.cached);
+      }
+    }
+  }
+
+  /**
+   * An entity that may be evicted with its last access time when eviction started.
+   *
+   * @param <E> The type of entity
+   */
+  private static final class Candidate<E extends PSEntity> {
+
+    final String key;
+
+    final CachedEntity<E> cached;
+
+    final long lastAccess;
+
+    Candidate(String key, CachedEntity<E> cached) {
+      this.key = key;
+      this.cached = cached;
+      this.lastAccess = cached.lastAccess();
+    }
+
+  }
+
+  /**
+   * Maps the values of a secondary index to the keys of the entities.
+   *
+   * @param <E> The type of entity
+   */
+  private static final class IndexTable<E extends PSEntity> {
+
+    /** The index declaration */
+    private final EntityIndex<? super E, ?> _index;
+
+    /** The keys of the entities by value */
+    private final ConcurrentMap<Object, Set<String>> _keys = new ConcurrentHashMap<>();
+
+    IndexTable(EntityIndex<? super E, ?> index) {
+      this._index = index;
+    }
+
+    EntityIndex<? super E, ?> index() {
+      return this._index;
+    }
+
+    /** @return the keys of the entities with the specified value (may include stale keys) */
+    Set<String> keys(Object value) {
+      Set<String> keys = this._keys.get(value);
+      return keys != null ? keys : Collections.emptySet();
+    }
+
+    /** Update the index after the entity for the key has changed */
+    void update(String key, @Nullable E previous, @Nullable E current) {
+      Object before = previous != null ? this._index.valueOf(previous) : null;
+      Object after = current != null ? this._index.valueOf(current) : null;
+      if (before != null && !before.equals(after)) {
+        this._keys.computeIfPresent(before, (v, keys) -> {
+          keys.remove(key);
+          return keys.isEmpty() ? null : keys;
+        });
+      }
+      if (after != null) {
+        this._keys.compute(after, (v, keys) -> {
+          Set<String> k = keys != null ? keys : ConcurrentHashMap.newKeySet();
+          k.add(key);
+          return k;
+        });
+      }
+    }
+
+    void clear() {
+      this._keys.clear();
+    }
+
+  }
+
+  /**
+   * Wraps an entity and keep track of its version and when it was last used.
+   *
+   * @param <E> The PageSeeder entity to wrap
+   */
+  private static final class CachedEntity<E> {
+
+    /** The wrapped entity (never <code>null</code>) */
+    private final E _entity;
+
+    /** The version of the entity (when it was put in the cache) */
+    private final long _version;
+
+    /** When the entity was last used (only approximately ordered between threads) */
+    private volatile long lastAccess = System.nanoTime();
+
+    CachedEntity(E entity, long version) {
+      this._entity = entity;
+      this._version = version;
+    }
+
+    /** @return the cached entity */
+    E entity() {
+      return this._entity;
+    }
+
+    /** @return the version of this entity */
+    long version() {
+      return this._version;
+    }
+
+    /** @return when the entity was last used */
+    long lastAccess() {
+      return this.lastAccess;
+    }
+
+    /** Record that the entity has been used */
+    void touch() {
+      this.lastAccess = System.nanoTime();
+    }
+
+  }
+}
@@ -18,12 +18,14 @@ package org.pageseeder.bridge.control;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
 import org.pageseeder.bridge.APIException;
+import org.pageseeder.bridge.EntityIndex;
 import org.pageseeder.bridge.FailedPrecondition;
 import org.pageseeder.bridge.PSConfig;
 import org.pageseeder.bridge.PSCredentials;
@@ -32,6 +34,7 @@ import org.pageseeder.bridge.model.PSDocument;
 import org.pageseeder.bridge.model.PSFolder;
 import org.pageseeder.bridge.model.PSGroup;
 import org.pageseeder.bridge.model.PSMember;
+import org.pageseeder.bridge.model.PSURI;
 import org.pageseeder.bridge.net.PSHTTPConnection;
 import org.pageseeder.bridge.net.PSHTTPConnection.Method;
 import org.pageseeder.bridge.net.PSHTTPConnector;
@@ -52,20 +55,39 @@ import org.xml.sax.helpers.DefaultHandler;
  * @author Philip Rutherford
  * @author Christophe Lauret
  *
- * @version 0.10.2
+ * @version 0.11.41
  * @since 0.2.0
  */
 public final class DocumentManager extends Sessionful {
 
+  /**
+   * Index of cached documents and folders by document ID.
+   *
+   * @see PSEntityCache#get(EntityIndex, Object)
+   */
+  public static final EntityIndex<PSURI, String> DOCID = EntityIndex.of("docid", PSURI::getDocid);
+
   /**
    * Where the documents are cached.
    */
-  private static volatile PSEntityCache<PSDocument> cache = EHEntityCache.newInstance("psdocuments", "docid");
+  private static final PSEntityCache<PSDocument> cache = EntityCaches.lazy("psdocuments", Duration.ofMinutes(5), DOCID);
 
   /**
    * Where the folders are cached.
    */
-  private static volatile PSEntityCache<PSFolder> folders = EHEntityCache.newInstance("psfolders", "docid");
+  private static final PSEntityCache<PSFolder> folders = EntityCaches.lazy("psfolders", Duration.ofMinutes(5), DOCID);
+
+  static {
+    // Documents and folders are located in their group
+    EntityChangeBus.subscribe(PSGroup.class, change -> {
+      if (CacheRelations.isStructural(change)) {
+        for (PSDocument document : cache.removeIf(document -> CacheRelations.isInGroup(document, change))) {
+          EntityChangeBus.publish(EntityChange.removed(document));
+        }
+        folders.removeIf(folder -> CacheRelations.isInGroup(folder, change));
+      }
+    });
+  }
 
   /**
    * Creates a new manager for PageSeeder groups.
@@ -126,7 +148,8 @@ public final class DocumentManager extends Sessionful {
     PSHTTPResponseInfo info = connector.patch();
     // FIXME the return xml from "editDocumentProperties" is not a complete XML to create Document object.
     if (info.getStatus() == Status.SUCCESSFUL) {
-      cache.remove(String.valueOf(document.getId()));
+      cache.remove(document.getKey());
+      EntityChangeBus.publish(EntityChange.modified(document));
     }
     return info.getStatus() == Status.SUCCESSFUL;
   }
@@ -138,17 +161,12 @@ public final class DocumentManager extends Sessionful {
    * @param group The group the document is accessible from.
    */
   public @Nullable PSDocument getDocument(long id, PSGroup group) throws APIException {
-    PSDocument document = cache.get(id);
-    if (document == null) {
+    return cache.get(id, () -> {
       PSHTTPConnector connector = PSHTTPConnectors.getURI(id, group).using(this._credentials);
       PSDocumentHandler handler = new PSDocumentHandler();
       connector.get(handler);
-      document = handler.getDocument();
-      if (document != null) {
-        cache.put(document);
-      }
-    }
-    return document;
+      return handler.getDocument();
+    });
   }
 
   /**
@@ -160,17 +178,12 @@ public final class DocumentManager extends Sessionful {
    * @return the corresponding document
    */
   public @Nullable PSDocument getDocument(String url, PSGroup group) throws APIException {
-    PSDocument document = cache.get(url);
-    if (document == null) {
+    return cache.get(url, () -> {
       PSHTTPConnector connector = PSHTTPConnectors.getURI(url, group).using(this._credentials);
       PSDocumentHandler handler = new PSDocumentHandler();
       connector.get(handler);
-      document = handler.getDocument();
-      if (document != null) {
-        cache.put(document);
-      }
-    }
-    return document;
+      return handler.getDocument();
+    });
   }
 
   /**
@@ -182,17 +195,12 @@ public final class DocumentManager extends Sessionful {
    * @return the corresponding folder
    */
   public @Nullable PSFolder getFolder(String url, PSGroup group) throws APIException {
-    PSFolder folder = folders.get(url);
-    if (folder == null) {
+    return folders.get(url, () -> {
       PSHTTPConnector connector = PSHTTPConnectors.getURI(url, group).using(this._credentials);
       PSDocumentHandler handler = new PSDocumentHandler();
       connector.get(handler);
-      folder = handler.getFolder();
-      if (folder != null) {
-        folders.put(folder);
-      }
-    }
-    return folder;
+      return handler.getFolder();
+    });
   }
 
   /**
@@ -17,8 +17,10 @@ package org.pageseeder.bridge.control;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Predicate;
 
 import org.eclipse.jdt.annotation.Nullable;
+import org.pageseeder.bridge.CacheStats;
 import org.pageseeder.bridge.PSEntity;
 import org.pageseeder.bridge.PSEntityCache;
 import org.slf4j.Logger;
@@ -35,6 +37,7 @@ import net.sf.ehcache.search.Attribute;
 import net.sf.ehcache.search.Query;
 import net.sf.ehcache.search.Result;
 import net.sf.ehcache.search.Results;
+import net.sf.ehcache.statistics.StatisticsGateway;
 
 /**
  * A cache for a PageSeeder entity backed by EHCache.
@@ -42,7 +45,7 @@ import net.sf.ehcache.search.Results;
  * @param <E> The type of entity
  *
  * @author Christophe Lauret
- * @version 0.2.4
+ * @version 0.11.41
  * @since 0.2.0
  */
 final class EHEntityCache<E extends PSEntity> implements PSEntityCache<E> {
@@ -229,6 +232,38 @@ final class EHEntityCache<E extends PSEntity> implements PSEntityCache<E> {
     this._cache.removeAll();
   }
 
+  @Override
+  @SuppressWarnings("unchecked")
+  public synchronized List<E> removeIf(Predicate<? super E> filter) {
+    List<E> removed = new ArrayList<>();
+    for (Object key : this._cache.getKeys()) {
+      Element element = this._cache.getQuiet(key);
+      if (element == null) continue;
+      E entity;
+      try {
+        entity = (E)element.getObjectValue();
+      } catch (ClassCastException ex) {
+        continue;
+      }
+      if (filter.test(entity) && this._cache.remove(key)) {
+        removed.add(entity);
+      }
+    }
+    return removed;
+  }
+
+  @Override
+  public CacheStats stats() {
+    StatisticsGateway statistics = this._cache.getStatistics();
+    return new CacheStats.Builder(this._cache.getName())
+        .size(statistics.getSize())
+        .capacity(this._cache.getCacheConfiguration().getMaxEntriesLocalHeap())
+        .hits(statistics.cacheHitCount())
+        .misses(statistics.cacheMissCount())
+        .evictions(statistics.cacheEvictedCount())
+        .build();
+  }
+
   // Lifecycle
   // ----------------------------------------------------------------------------------------------
 
@@ -15,14 +15,23 @@
  */
 package org.pageseeder.bridge.control;
 
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
 import javax.cache.Cache;
 import javax.cache.CacheManager;
 import javax.cache.Caching;
 import javax.cache.configuration.MutableConfiguration;
 import javax.cache.expiry.EternalExpiryPolicy;
 import javax.cache.spi.CachingProvider;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
 import org.eclipse.jdt.annotation.Nullable;
+import org.pageseeder.bridge.CacheStats;
 import org.pageseeder.bridge.PSEntity;
 import org.pageseeder.bridge.PSEntityCache;
 
@@ -32,7 +41,7 @@ import org.pageseeder.bridge.PSEntityCache;
  * @param <E> The type of entity
  *
  * @author Christophe Lauret
- * @version 0.2.4
+ * @version 0.11.41
  * @since 0.2.0
  */
 final class EntityCache<E extends PSEntity> implements PSEntityCache<E> {
@@ -184,6 +193,29 @@ final class EntityCache<E extends PSEntity> implements PSEntityCache<E> {
     }
   }
 
+  @Override
+  public synchronized List<E> removeIf(Predicate<? super E> filter) {
+    List<E> removed = new ArrayList<>();
+    for (Cache.Entry<Long, CachedEntity<E>> entry : this._cacheById) {
+      E entity = entry.getValue().entity();
+      if (filter.test(entity)) {
+        removed.add(entity);
+      }
+    }
+    Cache<String, Long> keyCache = this._cacheByKey;
+    for (E entity : removed) {
+      Long id = entity.getId();
+      if (id != null) {
+        this._cacheById.remove(id);
+      }
+      String key = entity.getKey();
+      if (keyCache != null && key != null) {
+        keyCache.remove(key);
+      }
+    }
+    return removed;
+  }
+
   // Lifecycle
   // ----------------------------------------------------------------------------------------------
 
@@ -214,6 +246,33 @@ final class EntityCache<E extends PSEntity> implements PSEntityCache<E> {
     return new EntityCache<>(byId, byKey);
   }
 
+  /**
+   * Returns the statistics collected by the JCache provider.
+   *
+   * <p>The statistics are read from the <code>CacheStatistics</code> MBean that providers
+   * register when statistics are enabled.
+   */
+  @Override
+  public CacheStats stats() {
+    String name = this._cacheById.getName();
+    CacheStats.Builder stats = new CacheStats.Builder(name).size(-1);
+    try {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      for (ObjectName bean : server.queryNames(new ObjectName("javax.cache:type=CacheStatistics,Cache=" + name + ",*"), null)) {
+        stats.hits(toLong(server.getAttribute(bean, "CacheHits")))
+            .misses(toLong(server.getAttribute(bean, "CacheMisses")))
+            .evictions(toLong(server.getAttribute(bean, "CacheEvictions")));
+      }
+    } catch (JMException ex) {
+      // Statistics are not available
+    }
+    return stats.build();
+  }
+
+  private static long toLong(@Nullable Object value) {
+    return value instanceof Number ? ((Number)value).longValue() : 0;
+  }
+
   /**
    * Shutdown the caching for users.
    */
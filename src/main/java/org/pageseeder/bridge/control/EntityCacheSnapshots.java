@@ -0,0 +1,357 @@
+/*
+ * Copyright 2026 Allette Systems (Australia)
+ * http://www.allette.com.au
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pageseeder.bridge.control;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Saves the entity caches used by the managers to local files and restores them on startup, so
+ * that the caches do not have to be rebuilt with calls to PageSeeder after a restart.
+ *
+ * <p>Each cache is saved in a compressed binary file named after the cache, in a sub-directory
+ * named after its partition. The file starts
+ * with a version stamp including the version of the bridge and a stamp supplied by the
+ * application (for example the version of PageSeeder or of the application); a snapshot with
+ * a different stamp is discarded. Restored entities keep their original version so that they
+ * expire and are refreshed as if they had never left the cache.
+ *
+ * <p>Snapshots can be enabled programmatically with {@link #enable(Path, String)} or with the
+ * following properties (see {@link EntityCaches}):
+ * <ul>
+ *   <li><code>bridge.cache.snapshot.dir</code>: the directory for the snapshot files</li>
+ *   <li><code>bridge.cache.snapshot.stamp</code>: the application stamp (empty by default)</li>
+ *   <li><code>bridge.cache.snapshot.period</code>: how often to save the caches in seconds
+ *     (0 by default to only save on shutdown)</li>
+ * </ul>
+ *
+ * <p>Once enabled, caches are restored when they are created and saved when the JVM shuts down.
+ *
+ * @author Christophe Lauret
+ *
+ * @version 0.11.41
+ * @since 0.11.41
+ */
+public final class EntityCacheSnapshots {
+
+  /** Logger */
+  private static final Logger LOGGER = LoggerFactory.getLogger(EntityCacheSnapshots.class);
+
+  /** Identifies snapshot files ("BES1"). */
+  private static final int MAGIC = 0x42455331;
+
+  /** The extension of snapshot files. */
+  private static final String EXTENSION = ".snapshot";
+
+  /** The version of the bridge included in the stamp. */
+  private static final String BRIDGE_VERSION = bridgeVersion();
+
+  /**
+   * The current location and stamp, <code>null</code> when snapshots are disabled.
+   */
+  private static volatile @Nullable Location location = null;
+
+  /**
+   * Set once the shutdown hook is registered.
+   */
+  private static final AtomicBoolean HOOK = new AtomicBoolean();
+
+  /** Utility class. */
+  private EntityCacheSnapshots() {
+  }
+
+  /**
+   * Enables the snapshots of the entity caches.
+   *
+   * <p>Caches already created are restored immediately, the others are restored when they are
+   * created. All the caches are saved when the JVM shuts down.
+   *
+   * @param dir   The directory for the snapshot files (created if necessary)
+   * @param stamp The application stamp, snapshots with a different stamp are discarded
+   *
+   * @throws IOException If the directory could not be created
+   */
+  public static void enable(Path dir, String stamp) throws IOException {
+    Files.createDirectories(dir);
+    location = new Location(dir, Objects.requireNonNull(stamp, "stamp"));
+    if (HOOK.compareAndSet(false, true)) {
+      Runtime.getRuntime().addShutdownHook(new Thread(EntityCacheSnapshots::saveQuietly, "bridge-cache-snapshot"));
+    }
+    for (String partition : EntityCaches.partitions()) {
+      for (ConcurrentEntityCache<?> cache : EntityCaches.created(partition)) {
+        restored(partition, cache);
+      }
+    }
+  }
+
+  /**
+   * Disables the snapshots, existing snapshot files are left untouched.
+   */
+  public static void disable() {
+    location = null;
+  }
+
+  /**
+   * @return <code>true</code> if snapshots are enabled.
+   */
+  public static boolean isEnabled() {
+    return location != null;
+  }
+
+  /**
+   * Saves all the caches created so far.
+   *
+   * @return the number of entities saved
+   *
+   * @throws IOException If a snapshot could not be written
+   * @throws IllegalStateException If the snapshots are not enabled
+   */
+  public static int saveAll() throws IOException {
+    Location l = location;
+    if (l == null) throw new IllegalStateException("Snapshots are not enabled");
+    int count = 0;
+    for (String partition : EntityCaches.partitions()) {
+      for (ConcurrentEntityCache<?> cache : EntityCaches.created(partition)) {
+        Path file = l.file(partition, cache.name());
+        Files.createDirectories(file.getParent());
+        count += save(cache, file, l.stamp());
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Saves the caches periodically using a daemon thread.
+   *
+   * @param period How often to save the caches
+   *
+   * @return a handle to close to stop saving the caches
+   */
+  public static Closeable schedule(Duration period) {
+    ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, "bridge-cache-snapshot");
+      thread.setDaemon(true);
+      return thread;
+    });
+    long millis = period.toMillis();
+    scheduler.scheduleWithFixedDelay(EntityCacheSnapshots::saveQuietly, millis, millis, TimeUnit.MILLISECONDS);
+    return scheduler::shutdown;
+  }
+
+  /**
+   * Enables the snapshots using the properties if the directory is specified.
+   *
+   * @param properties The cache properties
+   */
+  static void configure(Properties properties) {
+    String dir = properties.getProperty("bridge.cache.snapshot.dir");
+    if (dir == null || dir.trim().isEmpty()) return;
+    try {
+      enable(Paths.get(dir.trim()), properties.getProperty("bridge.cache.snapshot.stamp", ""));
+      long period = Long.parseLong(properties.getProperty("bridge.cache.snapshot.period", "0").trim());
+      if (period > 0) {
+        schedule(Duration.ofSeconds(period));
+      }
+    } catch (IOException | RuntimeException ex) {
+      LOGGER.warn("Unable to enable entity cache snapshots in {}", dir, ex);
+    }
+  }
+
+  /**
+   * Restores the cache from its snapshot if snapshots are enabled.
+   *
+   * @param partition The partition of the cache
+   * @param cache     The cache that was just created
+   */
+  static void restored(String partition, ConcurrentEntityCache<?> cache) {
+    Location l = location;
+    if (l != null) {
+      restore(cache, l.file(partition, cache.name()), l.stamp());
+    }
+  }
+
+  /**
+   * Saves the cache to the specified file.
+   *
+   * <p>The snapshot is written to a temporary file which then replaces the file atomically.
+   *
+   * @param cache The cache to save
+   * @param file  The snapshot file
+   * @param stamp The application stamp
+   *
+   * @return the number of entities saved
+   *
+   * @throws IOException If thrown while writing the file
+   */
+  static int save(ConcurrentEntityCache<?> cache, Path file, String stamp) throws IOException {
+    Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+    int count;
+    try (OutputStream os = Files.newOutputStream(tmp)) {
+      DataOutputStream header = new DataOutputStream(os);
+      header.writeInt(MAGIC);
+      header.writeUTF(toStamp(cache.name(), stamp));
+      header.flush();
+      Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+      try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new DeflaterOutputStream(os, deflater), 8192))) {
+        count = cache.writeTo(out);
+      } finally {
+        deflater.end();
+      }
+    }
+    try {
+      Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException ex) {
+      Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+    LOGGER.debug("Saved {} entities from cache {} to {}", count, cache.name(), file);
+    return count;
+  }
+
+  /**
+   * Restores the cache from the specified file.
+   *
+   * <p>Snapshots which are invalid or have a different stamp are deleted.
+   *
+   * @param cache The cache to restore
+   * @param file  The snapshot file
+   * @param stamp The application stamp
+   *
+   * @return the number of entities restored
+   */
+  static int restore(ConcurrentEntityCache<?> cache, Path file, String stamp) {
+    try (InputStream is = new BufferedInputStream(Files.newInputStream(file))) {
+      DataInputStream header = new DataInputStream(is);
+      if (header.readInt() == MAGIC && toStamp(cache.name(), stamp).equals(header.readUTF())) {
+        try (ObjectInputStream in = new EntityInputStream(new InflaterInputStream(is))) {
+          int count = cache.readFrom(in);
+          LOGGER.debug("Restored {} entities in cache {} from {}", count, cache.name(), file);
+          return count;
+        }
+      }
+    } catch (NoSuchFileException ex) {
+      return 0;
+    } catch (IOException | ClassNotFoundException | RuntimeException ex) {
+      LOGGER.warn("Discarding invalid snapshot {}", file, ex);
+      deleteQuietly(file);
+      return 0;
+    }
+    // The file must be closed before it is deleted
+    LOGGER.info("Discarding outdated snapshot {}", file);
+    deleteQuietly(file);
+    return 0;
+  }
+
+  private static void deleteQuietly(Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException ignore) {
+      // Will be overwritten
+    }
+  }
+
+  private static void saveQuietly() {
+    try {
+      if (isEnabled()) {
+        saveAll();
+      }
+    } catch (IOException | RuntimeException ex) {
+      LOGGER.warn("Unable to save entity cache snapshots", ex);
+    }
+  }
+
+  private static String toStamp(String name, String stamp) {
+    return name + ';' + BRIDGE_VERSION + ';' + stamp;
+  }
+
+  private static String bridgeVersion() {
+    Package p = EntityCacheSnapshots.class.getPackage();
+    return p != null ? Objects.toString(p.getImplementationVersion(), "dev") : "dev";
+  }
+
+  /**
+   * Where the snapshots are stored and with which stamp.
+   */
+  private static final class Location {
+
+    private final Path _dir;
+
+    private final String _stamp;
+
+    Location(Path dir, String stamp) {
+      this._dir = dir;
+      this._stamp = stamp;
+    }
+
+    Path file(String partition, String name) {
+      return this._dir.resolve(partition).resolve(name + EXTENSION);
+    }
+
+    String stamp() {
+      return this._stamp;
+    }
+  }
+
+  /**
+   * Only deserializes the classes which can be part of PageSeeder entities.
+   */
+  private static final class EntityInputStream extends ObjectInputStream {
+
+    EntityInputStream(InputStream in) throws IOException {
+      super(in);
+    }
+
+    @Override
+    protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+      String name = desc.getName();
+      if (!name.startsWith("org.pageseeder.bridge.") && !name.startsWith("java.lang.")
+          && !name.startsWith("java.util.") && !name.startsWith("java.time.") && !name.startsWith("[")) {
+        throw new InvalidClassException(name, "Not allowed in entity cache snapshot");
+      }
+      return super.resolveClass(desc);
+    }
+  }
+
+}
@@ -0,0 +1,350 @@
+/*
+ * Copyright 2026 Allette Systems (Australia)
+ * http://www.allette.com.au
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pageseeder.bridge.control;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.pageseeder.bridge.CacheMetrics;
+import org.pageseeder.bridge.EntityCacheSettings;
+import org.pageseeder.bridge.EntityIndex;
+import org.pageseeder.bridge.PSConfig;
+import org.pageseeder.bridge.PSEntity;
+import org.pageseeder.bridge.PSEntityCache;
+import org.pageseeder.bridge.spi.EntityCacheProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The registry of the caches used by the managers.
+ *
+ * <p>Caches are created the first time they are used, so that loading a manager class does not
+ * read any configuration or allocate any cache.
+ *
+ * <p>Caches are partitioned by PageSeeder server using {@link PSConfig#getCachePartition()} on
+ * the default configuration, so that the entities of different servers are kept apart and each
+ * partition has its own capacity; the {@link #DEFAULT_PARTITION} is used when no configuration
+ * is available.
+ *
+ * <p>The default settings of each cache can be overridden with the following properties, set
+ * either as system properties or in a <code>bridge-cache.properties</code> file at the root
+ * of the classpath (system properties take precedence):
+ * <ul>
+ *   <li><code>bridge.cache.[name].capacity</code>: the maximum number of entities</li>
+ *   <li><code>bridge.cache.[name].ttl</code>: how long entities are kept in seconds (0 for no expiry)</li>
+ * </ul>
+ *
+ * <p>An {@link EntityCacheProvider} registered as a service can then adjust the settings.
+ *
+ * <p>The properties are also used to enable the {@link EntityCacheSnapshots snapshots}. Caches are
+ * registered with {@link CacheMetrics} when they are created.
+ *
+ * @author Christophe Lauret
+ *
+ * @version 0.11.41
+ * @since 0.11.41
+ */
+final class EntityCaches {
+
+  /** Logger */
+  private static final Logger LOGGER = LoggerFactory.getLogger(EntityCaches.class);
+
+  /**
+   * The classpath resource containing the cache properties.
+   */
+  static final String PROPERTIES_RESOURCE = "/bridge-cache.properties";
+
+  /**
+   * Default maximum number of entities in each cache.
+   */
+  static final int DEFAULT_CAPACITY = 1000;
+
+  /**
+   * The partition used when the bridge is not configured.
+   */
+  static final String DEFAULT_PARTITION = "default";
+
+  /**
+   * Caches created so far by partition and name.
+   */
+  private static final ConcurrentMap<String, ConcurrentMap<String, ConcurrentEntityCache<?>>> PARTITIONS = new ConcurrentHashMap<>();
+
+  /**
+   * Incremented whenever a partition is discarded, so that lazy caches do not keep using
+   * discarded caches.
+   */
+  private static final AtomicLong GENERATION = new AtomicLong();
+
+  /** Utility class. */
+  private EntityCaches() {
+  }
+
+  /**
+   * Returns a cache which is only created when first used.
+   *
+   * @param name    The name of the cache
+   * @param ttl     The default time-to-live of the entities
+   * @param indexes The secondary indexes to maintain
+   *
+   * @param <E> The type of entity
+   *
+   * @return a cache delegating to the named cache in the current partition.
+   */
+  @SafeVarargs
+  static <E extends PSEntity> PSEntityCache<E> lazy(String name, Duration ttl, EntityIndex<? super E, ?>... indexes) {
+    EntityCacheSettings defaults = EntityCacheSettings.of(DEFAULT_CAPACITY, ttl);
+    List<EntityIndex<? super E, ?>> list = new ArrayList<>(indexes.length);
+    for (EntityIndex<? super E, ?> index : indexes) {
+      list.add(index);
+    }
+    return new LazyEntityCache<>(name, partition -> get(partition, name, defaults, list));
+  }
+
+  /**
+   * Returns the cache with the specified name in the current partition, creating it if necessary.
+   *
+   * @param name     The name of the cache
+   * @param defaults The default settings
+   * @param indexes  The secondary indexes to maintain
+   *
+   * @param <E> The type of entity
+   *
+   * @return The cache instance for that name.
+   */
+  @SafeVarargs
+  static <E extends PSEntity> PSEntityCache<E> get(String name, EntityCacheSettings defaults, EntityIndex<? super E, ?>... indexes) {
+    List<EntityIndex<? super E, ?>> list = new ArrayList<>(indexes.length);
+    for (EntityIndex<? super E, ?> index : indexes) {
+      list.add(index);
+    }
+    return get(partition(), name, defaults, list);
+  }
+
+  /**
+   * Returns the cache with the specified name in a partition, creating it if necessary.
+   *
+   * <p>The settings and indexes are only used when the cache is created.
+   *
+   * @param partition The name of the partition
+   * @param name     The name of the cache
+   * @param defaults The default settings
+   * @param indexes  The secondary indexes to maintain
+   *
+   * @param <E> The type of entity
+   *
+   * @return The cache instance for that name.
+   */
+  @SafeVarargs
+  static <E extends PSEntity> PSEntityCache<E> get(String partition, String name, EntityCacheSettings defaults, EntityIndex<? super E, ?>... indexes) {
+    List<EntityIndex<? super E, ?>> list = new ArrayList<>(indexes.length);
+    for (EntityIndex<? super E, ?> index : indexes) {
+      list.add(index);
+    }
+    return get(partition, name, defaults, list);
+  }
+
+  /**
+   * Returns the cache with the specified name in a partition, creating it if necessary.
+   *
+   * <p>The settings and indexes are only used when the cache is created.
+   *
+   * @param partition The name of the partition
+   * @param name     The name of the cache
+   * @param defaults The default settings
+   * @param indexes  The secondary indexes to maintain
+   *
+   * @param <E> The type of entity
+   *
+   * @return The cache instance for that name.
+   */
+  @SuppressWarnings("unchecked")
+  static <E extends PSEntity> PSEntityCache<E> get(String partition, String name, EntityCacheSettings defaults, List<EntityIndex<? super E, ?>> indexes) {
+    ConcurrentMap<String, ConcurrentEntityCache<?>> caches = PARTITIONS.computeIfAbsent(partition, p -> new ConcurrentHashMap<>());
+    ConcurrentEntityCache<?> cache = caches.get(name);
+    if (cache == null) {
+      EntityCacheSettings settings = settings(partition, name, defaults, Config.PROPERTIES, Config.PROVIDERS);
+      ConcurrentEntityCache<E> created = new ConcurrentEntityCache<>(name, settings.capacity(), settings.ttl(), indexes);
+      cache = caches.putIfAbsent(name, created);
+      if (cache == null) {
+        LOGGER.debug("Created entity cache {} in partition {} with {}", name, partition, settings);
+        EntityCacheSnapshots.restored(partition, created);
+        CacheMetrics.register(partition, name, created::stats);
+        cache = created;
+      }
+    }
+    return (PSEntityCache<E>)cache;
+  }
+
+  /**
+   * Returns the cache with the specified name in a partition if it has been created.
+   *
+   * @param partition The name of the partition
+   * @param name      The name of the cache
+   *
+   * @return the cache or <code>null</code>
+   */
+  static @Nullable ConcurrentEntityCache<?> find(String partition, String name) {
+    ConcurrentMap<String, ConcurrentEntityCache<?>> caches = PARTITIONS.get(partition);
+    return caches != null ? caches.get(name) : null;
+  }
+
+  /**
+   * Returns the name of the current partition.
+   *
+   * @return the cache partition of the default configuration or the default partition.
+   */
+  static String partition() {
+    try {
+      PSConfig config = PSConfig.findDefault();
+      return config != null ? config.getCachePartition() : DEFAULT_PARTITION;
+    } catch (IllegalStateException ex) {
+      return DEFAULT_PARTITION;
+    }
+  }
+
+  /**
+   * @return the current generation of the partitions, incremented each time one is discarded.
+   */
+  static long generation() {
+    return GENERATION.get();
+  }
+
+  /**
+   * @return the names of the partitions with caches.
+   */
+  static Set<String> partitions() {
+    return PARTITIONS.keySet();
+  }
+
+  /**
+   * @param partition The name of the partition
+   *
+   * @return the caches created so far in the partition.
+   */
+  static Collection<ConcurrentEntityCache<?>> created(String partition) {
+    ConcurrentMap<String, ConcurrentEntityCache<?>> caches = PARTITIONS.get(partition);
+    return caches != null ? caches.values() : Collections.emptyList();
+  }
+
+  /**
+   * Discards all the caches in a partition.
+   *
+   * @param partition The name of the partition
+   */
+  static void discard(String partition) {
+    ConcurrentMap<String, ConcurrentEntityCache<?>> caches = PARTITIONS.remove(partition);
+    if (caches != null) {
+      GENERATION.incrementAndGet();
+      for (ConcurrentEntityCache<?> cache : caches.values()) {
+        cache.removeAll();
+        CacheMetrics.unregister(partition, cache.name());
+      }
+    }
+  }
+
+  /**
+   * Computes the settings of a cache.
+   *
+   * @param partition  The name of the partition
+   * @param name       The name of the cache
+   * @param defaults   The default settings
+   * @param properties The properties to apply
+   * @param providers  The providers to apply
+   *
+   * @return the settings to use
+   */
+  static EntityCacheSettings settings(String partition, String name, EntityCacheSettings defaults, Properties properties, List<EntityCacheProvider> providers) {
+    EntityCacheSettings settings = defaults;
+    String capacity = properties.getProperty("bridge.cache." + name + ".capacity");
+    if (capacity != null) {
+      try {
+        settings = settings.capacity(Integer.parseInt(capacity.trim()));
+      } catch (IllegalArgumentException ex) {
+        LOGGER.warn("Ignoring invalid capacity '{}' for cache {}", capacity, name);
+      }
+    }
+    String ttl = properties.getProperty("bridge.cache." + name + ".ttl");
+    if (ttl != null) {
+      try {
+        settings = settings.ttl(Duration.ofSeconds(Long.parseLong(ttl.trim())));
+      } catch (IllegalArgumentException ex) {
+        LOGGER.warn("Ignoring invalid time-to-live '{}' for cache {}", ttl, name);
+      }
+    }
+    for (EntityCacheProvider provider : providers) {
+      settings = provider.getSettings(partition, name, settings);
+    }
+    return settings;
+  }
+
+  /**
+   * Holds the configuration, loaded when the first cache is created.
+   */
+  private static final class Config {
+
+    static final Properties PROPERTIES = loadProperties();
+
+    static final List<EntityCacheProvider> PROVIDERS = loadProviders();
+
+    static {
+      EntityCacheSnapshots.configure(PROPERTIES);
+    }
+
+    private static Properties loadProperties() {
+      Properties properties = new Properties();
+      try (@Nullable InputStream in = EntityCaches.class.getResourceAsStream(PROPERTIES_RESOURCE)) {
+        if (in != null) {
+          properties.load(in);
+        }
+      } catch (IOException ex) {
+        LOGGER.warn("Unable to load {}", PROPERTIES_RESOURCE, ex);
+      }
+      for (String name : System.getProperties().stringPropertyNames()) {
+        if (name.startsWith("bridge.cache.")) {
+          properties.setProperty(name, System.getProperty(name));
+        }
+      }
+      return properties;
+    }
+
+    private static List<EntityCacheProvider> loadProviders() {
+      List<EntityCacheProvider> providers = new ArrayList<>();
+      try {
+        for (EntityCacheProvider provider : ServiceLoader.load(EntityCacheProvider.class)) {
+          LOGGER.info("Using entity cache provider {}", provider.getClass().getName());
+          providers.add(provider);
+        }
+      } catch (ServiceConfigurationError error) {
+        LOGGER.warn("Unable to load entity cache provider", error);
+      }
+      return providers;
+    }
+  }
+
+}
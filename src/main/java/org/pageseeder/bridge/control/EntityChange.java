@@ -0,0 +1,141 @@
+/*
+ * Copyright 2026 Allette Systems (Australia)
+ * http://www.allette.com.au
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pageseeder.bridge.control;
+
+import java.util.Objects;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.pageseeder.bridge.PSEntity;
+
+/**
+ * A change made to a PageSeeder entity, published on the {@link EntityChangeBus} so that
+ * caches holding related entities can evict them.
+ *
+ * @param <E> The type of entity
+ *
+ * @author Christophe Lauret
+ *
+ * @version 0.11.41
+ * @since 0.11.41
+ */
+public final class EntityChange<E extends PSEntity> {
+
+  /**
+   * The type of change.
+   */
+  public enum Type {
+
+    /** The entity was modified but kept its key. */
+    MODIFIED,
+
+    /** The entity was renamed, so its key changed. */
+    RENAMED,
+
+    /** The entity was removed or archived. */
+    REMOVED
+
+  }
+
+  private final Type _type;
+
+  private final E _entity;
+
+  private final @Nullable E _previous;
+
+  private EntityChange(Type type, E entity, @Nullable E previous) {
+    this._type = type;
+    this._entity = Objects.requireNonNull(entity, "entity");
+    this._previous = previous;
+  }
+
+  /**
+   * @param entity The modified entity
+   * @param <E>    The type of entity
+   *
+   * @return a new change
+   */
+  public static <E extends PSEntity> EntityChange<E> modified(E entity) {
+    return new EntityChange<>(Type.MODIFIED, entity, null);
+  }
+
+  /**
+   * @param entity   The renamed entity
+   * @param previous The entity before it was renamed if known
+   * @param <E>      The type of entity
+   *
+   * @return a new change
+   */
+  public static <E extends PSEntity> EntityChange<E> renamed(E entity, @Nullable E previous) {
+    return new EntityChange<>(Type.RENAMED, entity, previous);
+  }
+
+  /**
+   * @param entity The removed entity
+   * @param <E>    The type of entity
+   *
+   * @return a new change
+   */
+  public static <E extends PSEntity> EntityChange<E> removed(E entity) {
+    return new EntityChange<>(Type.REMOVED, entity, null);
+  }
+
+  /**
+   * @return the type of change
+   */
+  public Type type() {
+    return this._type;
+  }
+
+  /**
+   * @return the entity after the change (or the removed entity)
+   */
+  public E entity() {
+    return this._entity;
+  }
+
+  /**
+   * @return the entity before it was renamed if known
+   */
+  public @Nullable E previous() {
+    return this._previous;
+  }
+
+  /**
+   * Indicates whether the specified entity is the entity that changed.
+   *
+   * <p>Entities are compared by ID when both have one, otherwise by key, including the key of
+   * the entity before it was renamed.
+   *
+   * @param other The entity to compare
+   *
+   * @return <code>true</code> if it is the same entity
+   */
+  public boolean concerns(@Nullable PSEntity other) {
+    if (other == null) return false;
+    Long id = this._entity.getId();
+    if (id != null && other.getId() != null) return id.equals(other.getId());
+    String key = other.getKey();
+    if (key == null) return false;
+    E previous = this._previous;
+    return key.equals(this._entity.getKey()) || (previous != null && key.equals(previous.getKey()));
+  }
+
+  @Override
+  public String toString() {
+    return this._type + "(" + this._entity + ")";
+  }
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2026 Allette Systems (Australia)
+ * http://www.allette.com.au
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pageseeder.bridge.control;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.pageseeder.bridge.PSEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An in-process bus notifying subscribers of changes made to PageSeeder entities.
+ *
+ * <p>The managers publish the changes they make or are told about, and subscribe on behalf of
+ * their caches to evict the entities related to the changed entity. For example, the memberships
+ * of a group are evicted when the group is renamed or archived.
+ *
+ * <p>Listeners are invoked synchronously by the publishing thread and may publish further
+ * changes. They must be quick and thread-safe; exceptions they throw are logged and ignored.
+ *
+ * @author Christophe Lauret
+ *
+ * @version 0.11.41
+ * @since 0.11.41
+ */
+public final class EntityChangeBus {
+
+  /** Logger */
+  private static final Logger LOGGER = LoggerFactory.getLogger(EntityChangeBus.class);
+
+  /**
+   * The current subscriptions.
+   */
+  private static final List<Listener<?>> LISTENERS = new CopyOnWriteArrayList<>();
+
+  /** Utility class. */
+  private EntityChangeBus() {
+  }
+
+  /**
+   * A subscription to the changes of a type of entity.
+   */
+  @FunctionalInterface
+  public interface Subscription {
+
+    /**
+     * Stops receiving changes.
+     */
+    void cancel();
+
+  }
+
+  /**
+   * Subscribes to the changes made to the specified type of entity.
+   *
+   * @param type     The class of entity (including subclasses)
+   * @param listener The listener to invoke for each change
+   * @param <E>      The type of entity
+   *
+   * @return the subscription
+   */
+  public static <E extends PSEntity> Subscription subscribe(Class<E> type, Consumer<EntityChange<E>> listener) {
+    Listener<E> l = new Listener<>(type, listener);
+    LISTENERS.add(l);
+    return () -> LISTENERS.remove(l);
+  }
+
+  /**
+   * Notifies the subscribers of the specified change.
+   *
+   * @param change The change to publish
+   */
+  public static void publish(EntityChange<?> change) {
+    LOGGER.debug("Publishing {}", change);
+    for (Listener<?> listener : LISTENERS) {
+      try {
+        listener.accept(change);
+      } catch (RuntimeException ex) {
+        LOGGER.warn("Listener failed to process {}", change, ex);
+      }
+    }
+  }
+
+  /**
+   * A listener for a type of entity.
+   */
+  private static final class Listener<E extends PSEntity> {
+
+    private final Class<E> _type;
+
+    private final Consumer<EntityChange<E>> _consumer;
+
+    Listener(Class<E> type, Consumer<EntityChange<E>> consumer) {
+      this._type = type;
+      this._consumer = consumer;
+    }
+
+    @SuppressWarnings("unchecked")
+    void accept(EntityChange<?> change) {
+      if (this._type.isInstance(change.entity())) {
+        this._consumer.accept((EntityChange<E>)change);
+      }
+    }
+  }
+
+}
@@ -15,13 +15,17 @@
  */
 package org.pageseeder.bridge.control;
 
+import java.time.Duration;
+
 import org.eclipse.jdt.annotation.Nullable;
 import org.pageseeder.bridge.APIException;
+import org.pageseeder.bridge.EntityIndex;
 import org.pageseeder.bridge.PSCredentials;
 import org.pageseeder.bridge.PSEntityCache;
 import org.pageseeder.bridge.model.PSExternalURI;
 import org.pageseeder.bridge.model.PSGroup;
 import org.pageseeder.bridge.model.PSMember;
+import org.pageseeder.bridge.model.PSURI;
 import org.pageseeder.bridge.net.PSHTTPConnector;
 import org.pageseeder.bridge.net.PSHTTPConnectors;
 import org.pageseeder.bridge.net.PSHTTPResponseInfo;
@@ -34,15 +38,22 @@ import org.pageseeder.bridge.xml.PSExternalURIHandler;
  * @author Christophe Lauret
  * @author Jean-Baptiste Reure
  *
- * @version 0.10.2
+ * @version 0.11.41
  * @since 0.2.0
  */
 public final class ExternalURIManager extends Sessionful {
 
   /**
-   * Where the documents are cached.
+   * Index of cached external URIs by document ID.
+   *
+   * @see PSEntityCache#get(EntityIndex, Object)
+   */
+  public static final EntityIndex<PSURI, String> DOCID = EntityIndex.of("docid", PSURI::getDocid);
+
+  /**
+   * Where the external URIs are cached.
    */
-  private static volatile PSEntityCache<PSExternalURI> cache = EHEntityCache.newInstance("psexternaluris", "docid");
+  private static final PSEntityCache<PSExternalURI> cache = EntityCaches.lazy("psexternaluris", Duration.ofMinutes(5), DOCID);
 
 
   /**
@@ -80,17 +91,12 @@ public final class ExternalURIManager extends Sessionful {
    * @return the corresponding external URI
    */
   public @Nullable PSExternalURI getExternalURI(long id, PSGroup group) throws APIException {
-    PSExternalURI externaluri = cache.get(id);
-    if (externaluri == null) {
+    return cache.get(id, () -> {
       PSHTTPConnector connector = PSHTTPConnectors.getURI(id, group).using(this._credentials);
       PSExternalURIHandler handler = new PSExternalURIHandler();
       connector.get(handler);
-      externaluri = handler.getExternalURI();
-      if (externaluri != null) {
-        cache.put(externaluri);
-      }
-    }
-    return externaluri;
+      return handler.getExternalURI();
+    });
   }
 
   /**
@@ -102,17 +108,12 @@ public final class ExternalURIManager extends Sessionful {
    * @return the corresponding external URI
    */
   public @Nullable PSExternalURI getExternalURI(String url, PSGroup group) throws APIException {
-    PSExternalURI externaluri = cache.get(url);
-    if (externaluri == null) {
+    return cache.get(url, () -> {
       PSHTTPConnector connector = PSHTTPConnectors.getURI(url, group).using(this._credentials);
       PSExternalURIHandler handler = new PSExternalURIHandler();
       connector.get(handler);
-      externaluri = handler.getExternalURI();
-      if (externaluri != null) {
-        cache.put(externaluri);
-      }
-    }
-    return externaluri;
+      return handler.getExternalURI();
+    });
   }
 
   /**
@@ -15,6 +15,7 @@
  */
 package org.pageseeder.bridge.control;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Objects;
 
@@ -46,7 +47,7 @@ import org.pageseeder.bridge.xml.PSThreadHandler;
  *
  * @author Christophe Lauret
  *
- * @version 0.10.2
+ * @version 0.11.41
  * @since 0.2.0
  */
 public final class GroupManager extends Sessionful {
@@ -54,12 +55,21 @@ public final class GroupManager extends Sessionful {
   /**
    * Where the groups (and projects) are cached.
    */
-  private static volatile PSEntityCache<PSGroup> cache = EHEntityCache.newInstance("psgroups");
+  private static final PSEntityCache<PSGroup> cache = EntityCaches.lazy("psgroups", Duration.ofMinutes(15));
 
   /**
    * Where the group folders are cached.
    */
-  private static volatile PSEntityCache<PSGroupFolder> folders = EHEntityCache.newInstance("psgroupfolders");
+  private static final PSEntityCache<PSGroupFolder> folders = EntityCaches.lazy("psgroupfolders", Duration.ofMinutes(15));
+
+  static {
+    // Group folders are located in their group
+    EntityChangeBus.subscribe(PSGroup.class, change -> {
+      if (CacheRelations.isStructural(change)) {
+        folders.removeIf(folder -> CacheRelations.isInGroup(folder, change));
+      }
+    });
+  }
 
   /**
    * Creates a new manager for PageSeeder groups.
@@ -218,12 +228,45 @@ public final class GroupManager extends Sessionful {
   /**
    * Should be called when the rename group thread is completed, to update the local cache
    *
+   * <p>The entities related to the group, such as its memberships and documents, are evicted
+   * from the other caches. Use {@link #groupIsRenamed(PSGroup, String)} when the group may not
+   * be cached to avoid evicting all the documents, folders and comments.
+   *
    * @param group the group that was renamed
    *
    * @throws NullPointerException If the group is <code>null</code>.
    */
   public void groupIsRenamed(PSGroup group) {
-    cache.put(Objects.requireNonNull(group, "group"));
+    groupIsRenamed(group, null);
+  }
+
+  /**
+   * Should be called when the rename group thread is completed, to update the local cache
+   *
+   * <p>The entities related to the group, such as its memberships and documents, are evicted
+   * from the other caches. When the previous name is not specified and the group was not
+   * cached, all the documents, folders and comments are evicted since their previous location
+   * is unknown.
+   *
+   * @param group        the group that was renamed
+   * @param previousName the name of the group before it was renamed if known
+   *
+   * @throws NullPointerException If the group is <code>null</code>.
+   */
+  public void groupIsRenamed(PSGroup group, @Nullable String previousName) {
+    Objects.requireNonNull(group, "group");
+    Long id = group.getId();
+    PSGroup previous = id != null ? cache.get(id) : null;
+    if (previousName != null && (previous == null || !previousName.equals(previous.getName()))) {
+      previous = id != null ? new PSGroup(id) : new PSGroup(previousName);
+      previous.setName(previousName);
+    }
+    String previousKey = previous != null ? previous.getKey() : null;
+    if (previousKey != null && !previousKey.equals(group.getKey())) {
+      cache.remove(previousKey);
+    }
+    cache.put(group);
+    EntityChangeBus.publish(EntityChange.renamed(group, previous));
   }
 
   /**
@@ -253,6 +296,9 @@ public final class GroupManager extends Sessionful {
   /**
    * Should be called when the archive group thread is completed, to update the local cache
    *
+   * <p>The entities related to the group, such as its memberships and documents, are evicted
+   * from the other caches.
+   *
    * @param group the group that was archived
    *
    * @throws NullPointerException If the group is <code>null</code>.
@@ -260,6 +306,7 @@ public final class GroupManager extends Sessionful {
   public void groupIsArchived(PSGroup group) {
     String groupKey = Objects.requireNonNull(group.getKey());
     cache.remove(groupKey);
+    EntityChangeBus.publish(EntityChange.removed(group));
   }
 
   /**
@@ -312,17 +359,12 @@ public final class GroupManager extends Sessionful {
    */
   @Requires(minVersion = 56000)
   public @Nullable PSGroup get(String name) throws APIException {
-    PSGroup group = cache.get(Objects.requireNonNull(name));
-    if (group == null) {
+    return cache.get(Objects.requireNonNull(name), () -> {
       PSHTTPConnector connector = PSHTTPConnectors.getGroup(name).using(this._credentials);
       PSGroupHandler handler = new PSGroupHandler();
       connector.get(handler);
-      group = handler.get();
-      if (group != null) {
-        cache.put(group);
-      }
-    }
-    return group;
+      return handler.get();
+    });
   }
 
   /**
@@ -352,19 +394,14 @@ public final class GroupManager extends Sessionful {
   public @Nullable PSGroupFolder getGroupFolder(PSGroup group, String url) throws APIException {
     Objects.requireNonNull(group, "Group must be specified");
     Objects.requireNonNull(url, "URL must be specified");
-    PSGroupFolder folder = folders.get(url);
-    if (folder == null) {
+    return folders.get(url, () -> {
       PSHTTPConnector connector = PSHTTPConnectors.getGroupFolder(group, url).using(this._credentials);
       PSGroupFolderHandler handler = new PSGroupFolderHandler();
       PSHTTPResponseInfo info = connector.get(handler);
       // TODO We should simply return null
       if (info.getCode() >= 400) throw new APIException("Unable to find group folder '" + url + "': " + info.getMessage());
-      folder = handler.get();
-      if (folder != null) {
-        folders.put(folder);
-      }
-    }
-    return folder;
+      return handler.get();
+    });
   }
 
   /**
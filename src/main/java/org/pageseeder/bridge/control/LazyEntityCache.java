@@ -0,0 +1,220 @@
+/*
+ * Copyright 2026 Allette Systems (Australia)
+ * http://www.allette.com.au
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pageseeder.bridge.control;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.Function;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.pageseeder.bridge.APIException;
+import org.pageseeder.bridge.CacheStats;
+import org.pageseeder.bridge.EntityBatchLoader;
+import org.pageseeder.bridge.EntityIndex;
+import org.pageseeder.bridge.EntityLoader;
+import org.pageseeder.bridge.PSEntity;
+import org.pageseeder.bridge.PSEntityCache;
+
+/**
+ * An entity cache which only creates the underlying cache when it is first used.
+ *
+ * <p>The underlying cache is the cache of the same name in the current partition, so that the
+ * managers use the cache of the PageSeeder server they are configured for.
+ *
+ * @param <E> The type of entity
+ *
+ * @author Christophe Lauret
+ *
+ * @version 0.11.41
+ * @since 0.11.41
+ */
+final class LazyEntityCache<E extends PSEntity> implements PSEntityCache<E> {
+
+  /**
+   * The name of the cache.
+   */
+  private final String _name;
+
+  /**
+   * Returns the underlying cache for a partition, creating it if necessary.
+   */
+  private final Function<String, PSEntityCache<E>> _factory;
+
+  /**
+   * The underlying cache last used, its partition and the generation of the partitions.
+   */
+  private volatile @Nullable Bound<E> bound;
+
+  /**
+   * @param name    The name of the cache
+   * @param factory Returns the underlying cache for a partition.
+   */
+  LazyEntityCache(String name, Function<String, PSEntityCache<E>> factory) {
+    this._name = name;
+    this._factory = factory;
+  }
+
+  /**
+   * @return <code>true</code> if the underlying cache has been created in the current partition.
+   */
+  boolean isCreated() {
+    return created() != null;
+  }
+
+  /**
+   * @return the underlying cache in the current partition, creating it if necessary.
+   */
+  PSEntityCache<E> cache() {
+    String partition = EntityCaches.partition();
+    long generation = EntityCaches.generation();
+    Bound<E> b = this.bound;
+    if (b == null || !b.isFor(partition, generation)) {
+      // Read the generation first, so that a cache discarded meanwhile is bound again next time
+      b = new Bound<>(partition, generation, this._factory.apply(partition));
+      this.bound = b;
+    }
+    return b.cache;
+  }
+
+  /**
+   * @return the underlying cache in the current partition if it has been created.
+   */
+  @SuppressWarnings("unchecked")
+  private @Nullable PSEntityCache<E> created() {
+    String partition = EntityCaches.partition();
+    Bound<E> b = this.bound;
+    if (b != null && b.isFor(partition, EntityCaches.generation())) return b.cache;
+    return (PSEntityCache<E>)EntityCaches.find(partition, this._name);
+  }
+
+  @Override
+  public void put(E entity) {
+    cache().put(entity);
+  }
+
+  @Override
+  public void putAll(Collection<? extends E> entities) {
+    cache().putAll(entities);
+  }
+
+  @Override
+  public @Nullable E get(Long id) {
+    return cache().get(id);
+  }
+
+  @Override
+  public @Nullable E get(String key) {
+    return cache().get(key);
+  }
+
+  @Override
+  public @Nullable E get(E entity) {
+    return cache().get(entity);
+  }
+
+  @Override
+  public @Nullable E get(String key, EntityLoader<E> loader) throws APIException {
+    return cache().get(key, loader);
+  }
+
+  @Override
+  public @Nullable E get(Long id, EntityLoader<E> loader) throws APIException {
+    return cache().get(id, loader);
+  }
+
+  @Override
+  public Map<String, E> getAll(Collection<String> keys) {
+    return cache().getAll(keys);
+  }
+
+  @Override
+  public Map<String, E> getAll(Collection<String> keys, EntityBatchLoader<E> loader) throws APIException {
+    return cache().getAll(keys, loader);
+  }
+
+  @Override
+  public <V> @Nullable E get(EntityIndex<? super E, V> index, V value) {
+    return cache().get(index, value);
+  }
+
+  @Override
+  public <V> List<E> list(EntityIndex<? super E, V> index, V value) {
+    return cache().list(index, value);
+  }
+
+  @Override
+  public @Nullable Long getVersion(String key) {
+    return cache().getVersion(key);
+  }
+
+  @Override
+  public void remove(String key) {
+    cache().remove(key);
+  }
+
+  @Override
+  public void removeAll() {
+    // Nothing to remove if the cache was never used
+    PSEntityCache<E> c = created();
+    if (c != null) {
+      c.removeAll();
+    }
+  }
+
+  @Override
+  public List<E> removeIf(Predicate<? super E> filter) {
+    PSEntityCache<E> c = created();
+    return c != null ? c.removeIf(filter) : Collections.emptyList();
+  }
+
+  @Override
+  public CacheStats stats() {
+    PSEntityCache<E> c = created();
+    return c != null ? c.stats() : new CacheStats.Builder(this._name).build();
+  }
+
+  /**
+   * A cache and the partition it belongs to.
+   */
+  private static final class Bound<E extends PSEntity> {
+
+    final String partition;
+
+    /**
+     * The generation of the partitions when the cache was bound.
+     */
+    final long generation;
+
+    final PSEntityCache<E> cache;
+
+    Bound(String partition, long generation, PSEntityCache<E> cache) {
+      this.partition = partition;
+      this.generation = generation;
+      this.cache = cache;
+    }
+
+    /**
+     * @return <code>true</code> if the cache is still the current cache of the partition.
+     */
+    boolean isFor(String partition, long generation) {
+      return this.generation == generation && this.partition.equals(partition);
+    }
+  }
+
+}
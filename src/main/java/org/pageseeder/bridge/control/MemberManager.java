@@ -15,13 +15,21 @@
  */
 package org.pageseeder.bridge.control;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 import org.eclipse.jdt.annotation.Nullable;
 import org.pageseeder.bridge.*;
 import org.pageseeder.bridge.model.MemberOptions;
 import org.pageseeder.bridge.model.PSGroup;
 import org.pageseeder.bridge.model.PSMember;
+import org.pageseeder.bridge.model.PSMembership;
 import org.pageseeder.bridge.model.PasswordResetOptions;
 import org.pageseeder.bridge.net.PSHTTPConnector;
 import org.pageseeder.bridge.net.PSHTTPConnectors;
@@ -30,20 +38,28 @@ import org.pageseeder.bridge.net.PSHTTPResponseInfo;
 import org.pageseeder.bridge.net.PSHTTPResponseInfo.Status;
 import org.pageseeder.bridge.net.Servlets;
 import org.pageseeder.bridge.xml.PSMemberHandler;
+import org.pageseeder.bridge.xml.PSMembershipHandler;
 
 /**
  * A manager for groups and projects (based on PageSeeder Groups).
  *
  * @author Christophe Lauret
- * @version 0.3.32
+ * @version 0.11.41
  * @since 0.2.0
  */
 public final class MemberManager extends Sessionful {
 
+  /**
+   * Index of cached members by email address.
+   *
+   * @see PSEntityCache#get(EntityIndex, Object)
+   */
+  public static final EntityIndex<PSMember, String> EMAIL = EntityIndex.of("email", PSMember::getEmail);
+
   /**
    * Where the users are cached.
    */
-  private static volatile PSEntityCache<PSMember> cache = EHEntityCache.newInstance("psmembers", "email");
+  private static final PSEntityCache<PSMember> cache = EntityCaches.lazy("psmembers", Duration.ofMinutes(15), EMAIL);
 
   /**
    * Creates a new member manager using the specified session.
@@ -63,17 +79,12 @@ public final class MemberManager extends Sessionful {
    */
   public @Nullable PSMember getByUsername(String username) throws APIException {
     String identifier = Objects.requireNonNull(username);
-    PSMember member = cache.get(username);
-    if (member == null) {
+    return cache.get(identifier, () -> {
       PSHTTPConnector connector = PSHTTPConnectors.getMember(identifier).using(this._credentials);
       PSMemberHandler handler = new PSMemberHandler();
       connector.get(handler);
-      member = handler.get();
-      if (member != null) {
-        cache.put(member);
-      }
-    }
-    return member;
+      return handler.get();
+    });
   }
 
   /**
@@ -109,6 +120,46 @@ public final class MemberManager extends Sessionful {
     }
   }
 
+  /**
+   * Returns the members for the specified usernames.
+   *
+   * <p>The members which are not in the cache are loaded using the list of memberships of the
+   * specified group, and only the members of the group are then loaded individually. All the
+   * members of the group are cached.
+   *
+   * @param usernames The usernames of the members
+   * @param group     A group most members belong to
+   *
+   * @return the members by username in the order of the usernames (unknown members are omitted)
+   */
+  public Map<String, PSMember> getAll(Collection<String> usernames, PSGroup group) throws APIException {
+    String groupIdentifier = Objects.requireNonNull(group.getIdentifier(), "group id or name");
+    return cache.getAll(usernames, missing -> {
+      PSHTTPConnector connector = PSHTTPConnectors.listMembershipsForGroup(groupIdentifier, true).using(this._credentials);
+      PSMembershipHandler handler = new PSMembershipHandler(group);
+      connector.get(handler);
+      List<PSMember> members = new ArrayList<>();
+      Set<String> remaining = new HashSet<>(missing);
+      for (PSMembership membership : handler.list()) {
+        PSMember member = membership.getMember();
+        if (member != null && member.getKey() != null) {
+          members.add(member);
+          remaining.remove(member.getKey());
+        }
+      }
+      for (String username : remaining) {
+        PSHTTPConnector single = PSHTTPConnectors.getMember(username).using(this._credentials);
+        PSMemberHandler memberHandler = new PSMemberHandler();
+        single.get(memberHandler);
+        PSMember member = memberHandler.get();
+        if (member != null) {
+          members.add(member);
+        }
+      }
+      return members;
+    });
+  }
+
   /**
    * Returns the specified member.
    *
@@ -146,6 +197,7 @@ public final class MemberManager extends Sessionful {
     PSMember m = handler.get();
     if (m != null) {
       cache.put(m);
+      EntityChangeBus.publish(EntityChange.modified(m));
     }
     return resp.isSuccessful();
   }
@@ -15,6 +15,7 @@
  */
 package org.pageseeder.bridge.control;
 
+import java.time.Duration;
 import java.util.List;
 
 import org.eclipse.jdt.annotation.NonNull;
@@ -40,7 +41,7 @@ import org.pageseeder.bridge.xml.PSMembershipHandler;
  *
  * @author Christophe Lauret
  *
- * @version 0.10.2
+ * @version 0.11.41
  * @since 0.2.0
  */
 public final class MembershipManager extends Sessionful {
@@ -134,7 +135,17 @@ public final class MembershipManager extends Sessionful {
   /**
    * Internal cache for memberships
    */
-  private static volatile PSEntityCache<PSMembership> cache = EHEntityCache.newInstance("psmemberships");
+  private static final PSEntityCache<PSMembership> cache = EntityCaches.lazy("psmemberships", Duration.ofMinutes(5));
+
+  static {
+    // Memberships include a copy of the group and member
+    EntityChangeBus.subscribe(PSGroup.class, change -> {
+      if (CacheRelations.isStructural(change)) {
+        cache.removeIf(membership -> change.concerns(membership.getGroup()));
+      }
+    });
+    EntityChangeBus.subscribe(PSMember.class, change -> cache.removeIf(membership -> change.concerns(membership.getMember())));
+  }
 
   /**
    * Creates a new manager for membership using the specified session.
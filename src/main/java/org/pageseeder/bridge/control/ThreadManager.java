@@ -15,11 +15,17 @@
  */
 package org.pageseeder.bridge.control;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 import org.eclipse.jdt.annotation.Nullable;
 import org.pageseeder.bridge.APIException;
 import org.pageseeder.bridge.PSCredentials;
+import org.pageseeder.bridge.http.HttpClient;
 import org.pageseeder.bridge.model.PSThreadStatus;
 import org.pageseeder.bridge.net.PSHTTPConnector;
 import org.pageseeder.bridge.net.PSHTTPConnectors;
@@ -31,7 +37,7 @@ import org.pageseeder.bridge.xml.PSThreadHandler;
  *
  * @author Jean-Baptiste Reure
  *
- * @version 0.10.2
+ * @version 0.11.41
  * @since 0.3.10
  */
 public final class ThreadManager extends Sessionful {
@@ -46,6 +52,11 @@ public final class ThreadManager extends Sessionful {
    */
   public final static int DEFAULT_THREAD_TIMEOUT_SECONDS = 10;
 
+  /**
+   * Maximum delay in seconds between polls when threads do not make progress
+   */
+  public final static int MAX_THREAD_DELAY_SECONDS = 30;
+
   /**
    * @param credentials the session to use for PS connections
    */
@@ -114,4 +125,74 @@ public final class ThreadManager extends Sessionful {
     }
     return status;
   }
+
+  /**
+   * Returns a future completing when the thread completes.
+   *
+   * <p>Delay is 2 seconds and timeout is 10 seconds.
+   *
+   * @param status the current status of the thread
+   *
+   * @return the future final status
+   *
+   * @see #completeAllAsync(Collection, Duration, Duration)
+   */
+  public CompletableFuture<@Nullable PSThreadStatus> completeAsync(PSThreadStatus status) {
+    return completeAsync(status, Duration.ofSeconds(DEFAULT_THREAD_DELAY_SECONDS), Duration.ofSeconds(DEFAULT_THREAD_TIMEOUT_SECONDS));
+  }
+
+  /**
+   * Returns a future completing when the thread completes.
+   *
+   * @param status  the current status of the thread
+   * @param delay   the initial delay between each thread progress poll
+   * @param timeout the timeout for the thread completion
+   *
+   * @return the future final status
+   *
+   * @see #completeAllAsync(Collection, Duration, Duration)
+   */
+  public CompletableFuture<@Nullable PSThreadStatus> completeAsync(PSThreadStatus status, Duration delay, Duration timeout) {
+    return completeAllAsync(Collections.singletonList(status), delay, timeout).get(0);
+  }
+
+  /**
+   * Returns futures completing when each thread completes.
+   *
+   * <p>Delay is 2 seconds and timeout is 10 seconds.
+   *
+   * @param statuses the current status of the threads
+   *
+   * @return the future final status of each thread in the same order
+   *
+   * @see #completeAllAsync(Collection, Duration, Duration)
+   */
+  public List<CompletableFuture<@Nullable PSThreadStatus>> completeAllAsync(Collection<PSThreadStatus> statuses) {
+    return completeAllAsync(statuses, Duration.ofSeconds(DEFAULT_THREAD_DELAY_SECONDS), Duration.ofSeconds(DEFAULT_THREAD_TIMEOUT_SECONDS));
+  }
+
+  /**
+   * Returns futures completing when each thread completes.
+   *
+   * <p>No thread is blocked while waiting: all the threads are polled together on a shared timer,
+   * and the progress checks are made using the {@link HttpClient#getExecutor() executor for
+   * asynchronous requests}. The delay between polls starts with the specified delay and increases
+   * up to {@value #MAX_THREAD_DELAY_SECONDS} seconds while none of the threads make progress.
+   *
+   * <p>A future completes exceptionally with an {@link APIException} if the progress of its thread
+   * cannot be checked or if the thread does not complete before the timeout. Cancelling a future
+   * stops polling the corresponding thread.
+   *
+   * @param statuses the current status of the threads
+   * @param delay    the initial delay between each thread progress poll
+   * @param timeout  the timeout for the threads completion
+   *
+   * @return the future final status of each thread in the same order
+   */
+  public List<CompletableFuture<@Nullable PSThreadStatus>> completeAllAsync(Collection<PSThreadStatus> statuses, Duration delay, Duration timeout) {
+    Duration maxDelay = Duration.ofSeconds(MAX_THREAD_DELAY_SECONDS);
+    ThreadPoller poller = new ThreadPoller(this::checkProgress, HttpClient.getExecutor(), delay, maxDelay, timeout);
+    return poller.start(statuses);
+  }
+
 }
@@ -0,0 +1,261 @@
+/*
+ * Copyright 2026 Allette Systems (Australia)
+ * http://www.allette.com.au
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pageseeder.bridge.control;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.pageseeder.bridge.APIException;
+import org.pageseeder.bridge.model.PSThreadStatus;
+
+/**
+ * Polls the progress of a set of PageSeeder threads until they complete.
+ *
+ * <p>All pollers share a single timer thread which never blocks: on each tick, the outstanding
+ * threads are checked on the executor by at most {@link #MAX_CONCURRENT_CHECKS} tasks and the
+ * next tick is scheduled once all checks are done. The delay between ticks increases by 50% up to
+ * the maximum delay while none of the threads make progress, and is reset as soon as one does.
+ *
+ * @author Christophe Lauret
+ *
+ * @version 0.11.41
+ * @since 0.11.41
+ */
+final class ThreadPoller {
+
+  /**
+   * Checks the progress of a thread.
+   */
+  @FunctionalInterface
+  interface Check {
+
+    /**
+     * @param status The current status of the thread
+     *
+     * @return the new status
+     *
+     * @throws APIException If the progress could not be checked
+     */
+    @Nullable PSThreadStatus check(PSThreadStatus status) throws APIException;
+  }
+
+  /**
+   * The maximum number of threads checked concurrently by a poller.
+   */
+  static final int MAX_CONCURRENT_CHECKS = 8;
+
+  /**
+   * Checks the progress of a thread.
+   */
+  private final Check _check;
+
+  /**
+   * Runs the checks.
+   */
+  private final Executor _executor;
+
+  /**
+   * The initial delay between ticks in milliseconds.
+   */
+  private final long _delay;
+
+  /**
+   * The maximum delay between ticks in milliseconds.
+   */
+  private final long _maxDelay;
+
+  /**
+   * The timeout in milliseconds.
+   */
+  private final long _timeout;
+
+  /**
+   * The threads which have not completed yet, only accessed by one tick at a time.
+   */
+  private final List<Job> _jobs = new ArrayList<>();
+
+  /**
+   * When the poller times out (from <code>System.nanoTime()</code>).
+   */
+  private long deadline;
+
+  /**
+   * The current delay between ticks in milliseconds.
+   */
+  private long delay;
+
+  /**
+   * @param check    Checks the progress of a thread
+   * @param executor Runs the checks
+   * @param delay    The initial delay between checks
+   * @param maxDelay The maximum delay between checks
+   * @param timeout  How long to wait for all threads to complete
+   */
+  ThreadPoller(Check check, Executor executor, Duration delay, Duration maxDelay, Duration timeout) {
+    this._check = check;
+    this._executor = executor;
+    this._delay = Math.max(1, delay.toMillis());
+    this._maxDelay = Math.max(this._delay, maxDelay.toMillis());
+    this._timeout = timeout.toMillis();
+    this.delay = this._delay;
+  }
+
+  /**
+   * Starts polling the specified threads.
+   *
+   * <p>Cancelling a future stops polling the corresponding thread.
+   *
+   * @param statuses The current statuses of the threads
+   *
+   * @return the futures completing with the final status of each thread in the same order
+   */
+  List<CompletableFuture<@Nullable PSThreadStatus>> start(Collection<PSThreadStatus> statuses) {
+    List<CompletableFuture<@Nullable PSThreadStatus>> futures = new ArrayList<>(statuses.size());
+    for (PSThreadStatus status : statuses) {
+      Job job = new Job(status);
+      if (status.isCompleted()) {
+        job.future.complete(status);
+      } else {
+        this._jobs.add(job);
+      }
+      futures.add(job.future);
+    }
+    if (!this._jobs.isEmpty()) {
+      this.deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this._timeout);
+      schedule();
+    }
+    return futures;
+  }
+
+  private void schedule() {
+    try {
+      Timer.INSTANCE.schedule(this::tick, this.delay, TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException ex) {
+      failAll(ex);
+    }
+  }
+
+  /**
+   * Checks all the outstanding threads and schedules the next tick.
+   */
+  private void tick() {
+    this._jobs.removeIf(job -> job.future.isDone());
+    if (this._jobs.isEmpty()) return;
+    if (System.nanoTime() - this.deadline >= 0) {
+      for (Job job : this._jobs) {
+        job.future.completeExceptionally(new APIException("Thread '" + job.status.getThreadID()
+            + "' did not complete in " + (this._timeout / 1000) + " seconds"));
+      }
+      this._jobs.clear();
+      return;
+    }
+    int lanes = Math.min(MAX_CONCURRENT_CHECKS, this._jobs.size());
+    AtomicBoolean progressed = new AtomicBoolean();
+    CompletableFuture<?>[] checks = new CompletableFuture<?>[lanes];
+    try {
+      for (int i = 0; i < lanes; i++) {
+        List<Job> lane = new ArrayList<>();
+        for (int j = i; j < this._jobs.size(); j += lanes) {
+          lane.add(this._jobs.get(j));
+        }
+        checks[i] = CompletableFuture.runAsync(() -> {
+          for (Job job : lane) {
+            if (job.poll(this._check)) {
+              progressed.set(true);
+            }
+          }
+        }, this._executor);
+      }
+    } catch (RejectedExecutionException ex) {
+      failAll(ex);
+      return;
+    }
+    CompletableFuture.allOf(checks).whenComplete((ignore, ex) -> {
+      this.delay = progressed.get() ? this._delay : Math.min(this.delay + this.delay / 2, this._maxDelay);
+      this._jobs.removeIf(job -> job.future.isDone());
+      if (!this._jobs.isEmpty()) {
+        schedule();
+      }
+    });
+  }
+
+  private void failAll(Throwable ex) {
+    for (Job job : this._jobs) {
+      job.future.completeExceptionally(new APIException("Unable to check progress of thread '" + job.status.getThreadID() + "'", ex));
+    }
+    this._jobs.clear();
+  }
+
+  /**
+   * A PageSeeder thread being polled.
+   */
+  private static final class Job {
+
+    final CompletableFuture<@Nullable PSThreadStatus> future = new CompletableFuture<>();
+
+    PSThreadStatus status;
+
+    Job(PSThreadStatus status) {
+      this.status = status;
+    }
+
+    /**
+     * Checks the progress of the thread.
+     *
+     * @return <code>true</code> if the thread made progress
+     */
+    boolean poll(Check check) {
+      if (this.future.isDone()) return false;
+      try {
+        PSThreadStatus next = check.check(this.status);
+        if (next == null || next.isCompleted()) {
+          this.future.complete(next);
+          return true;
+        }
+        boolean progressed = next.getStatus() != this.status.getStatus()
+            || next.getMessages().size() != this.status.getMessages().size();
+        this.status = next;
+        return progressed;
+      } catch (APIException | RuntimeException ex) {
+        this.future.completeExceptionally(ex);
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Lazily creates the timer shared by all pollers.
+   */
+  private static final class Timer {
+
+    private static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, "bridge-thread-poller");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+}
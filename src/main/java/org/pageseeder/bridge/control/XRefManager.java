@@ -15,11 +15,13 @@
  */
 package org.pageseeder.bridge.control;
 
+import java.time.Duration;
 import java.util.List;
 
 import org.pageseeder.bridge.APIException;
 import org.pageseeder.bridge.PSCredentials;
 import org.pageseeder.bridge.PSEntityCache;
+import org.pageseeder.bridge.model.PSDocument;
 import org.pageseeder.bridge.model.PSGroup;
 import org.pageseeder.bridge.model.PSURI;
 import org.pageseeder.bridge.model.PSXRef;
@@ -32,7 +34,7 @@ import org.pageseeder.bridge.xml.PSXRefHandler;
  *
  * @author Philip Rutherford
  *
- * @version 0.10.2
+ * @version 0.11.41
  * @since 0.8.1
  */
 public final class XRefManager extends Sessionful {
@@ -40,8 +42,17 @@ public final class XRefManager extends Sessionful {
   /**
    * Where the documents are cached.
    */
-  private static volatile PSEntityCache<PSXRef> cache = EHEntityCache.newInstance("psxrefs");
+  private static final PSEntityCache<PSXRef> cache = EntityCaches.lazy("psxrefs", Duration.ofMinutes(5));
 
+  static {
+    // XRefs include the title and media type of their source and target documents
+    EntityChangeBus.subscribe(PSDocument.class, change -> {
+      Long id = change.entity().getId();
+      if (id != null) {
+        cache.removeIf(xref -> id.equals(xref.getSourceURIId()) || id.equals(xref.getTargetURIId()));
+      }
+    });
+  }
 
   /**
    * Creates a new manager for PageSeeder XRefs.
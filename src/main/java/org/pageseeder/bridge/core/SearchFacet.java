@@ -0,0 +1,170 @@
+/*
+ * Copyright 2026 Allette Systems (Australia)
+ * http://www.allette.com.au
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pageseeder.bridge.core;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A facet returned by the PageSeeder search services with the values and their cardinality.
+ *
+ * @author Christophe Lauret
+ *
+ * @version 0.11.41
+ * @since 0.11.41
+ */
+public final class SearchFacet implements Serializable {
+
+  /** As per recommendation */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The name of the index field.
+   */
+  private final String _name;
+
+  /**
+   * Whether the facet is flexible.
+   */
+  private final boolean _flexible;
+
+  /**
+   * The total number of values or -1 if not specified.
+   */
+  private final long _total;
+
+  /**
+   * The facet values.
+   */
+  private final List<Value> _values;
+
+  /**
+   * @param name     The name of the index field
+   * @param flexible Whether the facet is flexible
+   * @param total    The total number of values or -1 if not specified
+   * @param values   The facet values
+   */
+  public SearchFacet(String name, boolean flexible, long total, List<Value> values) {
+    this._name = Objects.requireNonNull(name, "name");
+    this._flexible = flexible;
+    this._total = total;
+    this._values = Collections.unmodifiableList(values);
+  }
+
+  /**
+   * @return The name of the index field
+   */
+  public String getName() {
+    return this._name;
+  }
+
+  /**
+   * @return <code>true</code> if this is a flexible facet.
+   */
+  public boolean isFlexible() {
+    return this._flexible;
+  }
+
+  /**
+   * @return The total number of values or -1 if not specified
+   */
+  public long getTotal() {
+    return this._total;
+  }
+
+  /**
+   * @return The facet values in the order they were returned.
+   */
+  public List<Value> getValues() {
+    return this._values;
+  }
+
+  /**
+   * @param term The facet value
+   *
+   * @return The cardinality for that value or 0 if the facet does not include that value.
+   */
+  public long getCardinality(String term) {
+    for (Value value : this._values) {
+      if (value._term.equals(term)) return value._cardinality;
+    }
+    return 0;
+  }
+
+  @Override
+  public String toString() {
+    return "SearchFacet(" + this._name + ":" + this._values + ")";
+  }
+
+  /**
+   * A facet value and its cardinality.
+   */
+  public static final class Value implements Serializable {
+
+    /** As per recommendation */
+    private static final long serialVersionUID = 1L;
+
+    private final String _term;
+
+    private final long _cardinality;
+
+    /**
+     * @param term        The value
+     * @param cardinality The number of results matching the value
+     */
+    public Value(String term, long cardinality) {
+      this._term = Objects.requireNonNull(term, "term");
+      this._cardinality = cardinality;
+    }
+
+    /**
+     * @return The value
+     */
+    public String getTerm() {
+      return this._term;
+    }
+
+    /**
+     * @return The number of results matching the value
+     */
+    public long getCardinality() {
+      return this._cardinality;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      Value value = (Value) o;
+      return this._cardinality == value._cardinality && this._term.equals(value._term);
+    }
+
+    @Override
+    public int hashCode() {
+      return this._term.hashCode() * 31 + Long.hashCode(this._cardinality);
+    }
+
+    @Override
+    public String toString() {
+      return this._term + "(" + this._cardinality + ")";
+    }
+  }
+
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2026 Allette Systems (Australia)
+ * http://www.allette.com.au
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pageseeder.bridge.core;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable table of index field names assigning a stable position to each name.
+ *
+ * <p>The table is shared by the search results parsed from the same responses so that the
+ * field names are only stored once and looking up a field by name in a result only requires
+ * a lookup in this table.
+ *
+ * <p>Tables only grow: a table returned by {@link #plus(String)} keeps the positions of the
+ * names in the original table.
+ *
+ * @author Christophe Lauret
+ *
+ * @version 0.11.41
+ * @since 0.11.41
+ */
+public final class SearchFields implements Serializable {
+
+  /** As per recommendation */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * An empty table.
+   */
+  public static final SearchFields EMPTY = new SearchFields(new String[0]);
+
+  /**
+   * The field names by position.
+   */
+  private final String[] _names;
+
+  /**
+   * The position of each field name.
+   */
+  private final Map<String, Integer> _index;
+
+  private SearchFields(String[] names) {
+    this._names = names;
+    this._index = new HashMap<>(names.length * 2);
+    for (int i = 0; i < names.length; i++) {
+      this._index.put(names[i], i);
+    }
+  }
+
+  /**
+   * Returns a table with the specified names.
+   *
+   * @param names The field names (duplicates are ignored)
+   *
+   * @return A new table
+   */
+  public static SearchFields of(String... names) {
+    SearchFields fields = EMPTY;
+    for (String name : names) {
+      fields = fields.plus(name);
+    }
+    return fields;
+  }
+
+  /**
+   * @return The number of field names in this table.
+   */
+  public int size() {
+    return this._names.length;
+  }
+
+  /**
+   * @param name The name of the field
+   *
+   * @return The position of the field or -1 if not in this table.
+   */
+  public int indexOf(String name) {
+    Integer index = this._index.get(name);
+    return index != null ? index : -1;
+  }
+
+  /**
+   * @param name The name of the field
+   *
+   * @return <code>true</code> if this table includes the specified field name.
+   */
+  public boolean contains(String name) {
+    return this._index.containsKey(name);
+  }
+
+  /**
+   * @param index The position of the field
+   *
+   * @return The name of the field at the specified position
+   *
+   * @throws IndexOutOfBoundsException If the index is out of bounds.
+   */
+  public String getName(int index) {
+    return this._names[index];
+  }
+
+  /**
+   * @return The list of field names in this table.
+   */
+  public List<String> getNames() {
+    return Collections.unmodifiableList(Arrays.asList(this._names));
+  }
+
+  /**
+   * Returns a table including the specified name.
+   *
+   * @param name The name of the field
+   *
+   * @return this table if it already includes the name; a new table otherwise.
+   */
+  public SearchFields plus(String name) {
+    if (this._index.containsKey(name)) return this;
+    String[] names = Arrays.copyOf(this._names, this._names.length + 1);
+    names[this._names.length] = name;
+    return new SearchFields(names);
+  }
+
+  @Override
+  public String toString() {
+    return "SearchFields" + Arrays.toString(this._names);
+  }
+
+}
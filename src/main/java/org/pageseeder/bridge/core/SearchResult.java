@@ -0,0 +1,238 @@
+/*
+ * Copyright 2026 Allette Systems (Australia)
+ * http://www.allette.com.au
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pageseeder.bridge.core;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A single result from the PageSeeder search services.
+ *
+ * <p>Results store their values in an array along with the position of their field names in
+ * a {@link SearchFields} table shared by the results of the same search, so that no map is
+ * created for each result.
+ *
+ * <p>A result may have multiple values for the same field; the order of the fields in the
+ * response is preserved.
+ *
+ * @author Christophe Lauret
+ *
+ * @version 0.11.41
+ * @since 0.11.41
+ */
+public final class SearchResult implements Serializable {
+
+  /** As per recommendation */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The table of field names.
+   */
+  private final SearchFields _fields;
+
+  /**
+   * The position of the name of each field in the table.
+   */
+  private final int[] _positions;
+
+  /**
+   * The value of each field.
+   */
+  private final String[] _values;
+
+  private SearchResult(SearchFields fields, int[] positions, String[] values) {
+    this._fields = fields;
+    this._positions = positions;
+    this._values = values;
+  }
+
+  /**
+   * @return The table of field names used by this result.
+   */
+  public SearchFields getFields() {
+    return this._fields;
+  }
+
+  /**
+   * @return The number of fields in this result.
+   */
+  public int size() {
+    return this._values.length;
+  }
+
+  /**
+   * @param index The index of the field in this result
+   *
+   * @return The name of the field at the specified index
+   *
+   * @throws IndexOutOfBoundsException If the index is out of bounds.
+   */
+  public String getName(int index) {
+    return this._fields.getName(this._positions[index]);
+  }
+
+  /**
+   * @param index The index of the field in this result
+   *
+   * @return The value of the field at the specified index
+   *
+   * @throws IndexOutOfBoundsException If the index is out of bounds.
+   */
+  public String getValue(int index) {
+    return this._values[index];
+  }
+
+  /**
+   * Returns the value for the given index field name.
+   *
+   * <p>If there are multiple field values, this method only returns the first one.
+   *
+   * @param name the name of the index field.
+   *
+   * @return The corresponding value or <code>null</code>.
+   */
+  public @Nullable String getValue(String name) {
+    int position = this._fields.indexOf(name);
+    if (position >= 0) {
+      for (int i = 0; i < this._positions.length; i++) {
+        if (this._positions[i] == position) return this._values[i];
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the value for the given index field name.
+   *
+   * @param name     the name of the index field.
+   * @param fallback the value to return if the result does not have that field.
+   *
+   * @return The corresponding value or the fallback value.
+   */
+  public String getValue(String name, String fallback) {
+    String value = getValue(name);
+    return value != null ? value : fallback;
+  }
+
+  /**
+   * Returns all the values for the given index field name.
+   *
+   * @param name the name of the index field.
+   *
+   * @return The corresponding values (may be empty)
+   */
+  public List<String> getValues(String name) {
+    int position = this._fields.indexOf(name);
+    if (position < 0) return Collections.emptyList();
+    List<String> values = new ArrayList<>(1);
+    for (int i = 0; i < this._positions.length; i++) {
+      if (this._positions[i] == position) values.add(this._values[i]);
+    }
+    return values;
+  }
+
+  /**
+   * @param name the name of the index field.
+   *
+   * @return <code>true</code> if this result has a value for that field.
+   */
+  public boolean has(String name) {
+    return getValue(name) != null;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder s = new StringBuilder("SearchResult(");
+    for (int i = 0; i < this._values.length; i++) {
+      if (i > 0) s.append(", ");
+      s.append(getName(i)).append('=').append(this._values[i]);
+    }
+    return s.append(')').toString();
+  }
+
+  /**
+   * Builds search results.
+   *
+   * <p>The table of field names grows as new field names are added, the builder can be reused
+   * after each call to {@link #build()}.
+   */
+  public static final class Builder {
+
+    private SearchFields fields;
+
+    private int[] positions = new int[16];
+
+    private String[] values = new String[16];
+
+    private int size = 0;
+
+    /**
+     * @param fields The initial table of field names
+     */
+    public Builder(SearchFields fields) {
+      this.fields = fields;
+    }
+
+    /**
+     * @return The current table of field names including all the fields added to this builder.
+     */
+    public SearchFields fields() {
+      return this.fields;
+    }
+
+    /**
+     * Adds a field to the result.
+     *
+     * @param name  The name of the field
+     * @param value The value of the field
+     *
+     * @return this builder
+     */
+    public Builder add(String name, String value) {
+      int position = this.fields.indexOf(name);
+      if (position < 0) {
+        this.fields = this.fields.plus(name);
+        position = this.fields.size() - 1;
+      }
+      if (this.size == this.values.length) {
+        this.positions = Arrays.copyOf(this.positions, this.size * 2);
+        this.values = Arrays.copyOf(this.values, this.size * 2);
+      }
+      this.positions[this.size] = position;
+      this.values[this.size] = value;
+      this.size++;
+      return this;
+    }
+
+    /**
+     * Builds the result with the fields added since the last call and resets the builder.
+     *
+     * @return a new result
+     */
+    public SearchResult build() {
+      SearchResult result = new SearchResult(this.fields, Arrays.copyOf(this.positions, this.size), Arrays.copyOf(this.values, this.size));
+      Arrays.fill(this.values, 0, this.size, null);
+      this.size = 0;
+      return result;
+    }
+  }
+
+}
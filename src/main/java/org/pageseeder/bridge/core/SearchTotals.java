@@ -0,0 +1,76 @@
+/*
+ * Copyright 2026 Allette Systems (Australia)
+ * http://www.allette.com.au
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pageseeder.bridge.core;
+
+import java.io.Serializable;
+
+/**
+ * The totals reported by the PageSeeder search services.
+ *
+ * @author Christophe Lauret
+ *
+ * @version 0.11.41
+ * @since 0.11.41
+ */
+public final class SearchTotals implements Serializable {
+
+  /** As per recommendation */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * When the totals are not known.
+   */
+  public static final SearchTotals UNKNOWN = new SearchTotals(-1, -1);
+
+  /**
+   * The total number of results.
+   */
+  private final long _results;
+
+  /**
+   * The total number of pages.
+   */
+  private final long _pages;
+
+  /**
+   * @param results The total number of results or -1 if unknown
+   * @param pages   The total number of pages or -1 if unknown
+   */
+  public SearchTotals(long results, long pages) {
+    this._results = results;
+    this._pages = pages;
+  }
+
+  /**
+   * @return The total number of results or -1 if unknown
+   */
+  public long getResults() {
+    return this._results;
+  }
+
+  /**
+   * @return The total number of pages or -1 if unknown
+   */
+  public long getPages() {
+    return this._pages;
+  }
+
+  @Override
+  public String toString() {
+    return "SearchTotals(results=" + this._results + ", pages=" + this._pages + ")";
+  }
+
+}
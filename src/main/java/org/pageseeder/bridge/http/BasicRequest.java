@@ -21,6 +21,7 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
@@ -36,7 +37,7 @@ import org.pageseeder.bridge.net.UsernamePassword;
  *
  * @author Christophe Lauret
  *
- * @version 0.10.2
+ * @version 0.11.41
  * @since 0.9.1
  */
 abstract class BasicRequest {
@@ -73,6 +74,11 @@ abstract class BasicRequest {
    */
   protected final List<Parameter> _parameters = new ArrayList<>();
 
+  /**
+   * Query that was already URL encoded (sent before the other parameters).
+   */
+  protected @Nullable String query = null;
+
   /**
    * List of HTTP request headers.
    */
@@ -166,6 +172,25 @@ abstract class BasicRequest {
     return this;
   }
 
+  /**
+   * Adds parameters from a query string which is already URL encoded.
+   *
+   * <p>The query is used as is, so this method is useful when the same encoded query is
+   * used for many requests. The parameters it contains are sent before the other parameters
+   * and are decoded on demand by {@link #parameter(String)}.
+   *
+   * @param query The URL encoded query (without the leading '?')
+   *
+   * @return This request.
+   */
+  public BasicRequest query(String query) {
+    if (query.length() > 0) {
+      String current = this.query;
+      this.query = current != null ? current+'&'+query : query;
+    }
+    return this;
+  }
+
   /**
    * Specify which credentials to use with this request.
    *
@@ -247,11 +272,20 @@ abstract class BasicRequest {
   /**
    * Returns the value of the first HTTP parameter matching the specified name.
    *
+   * <p>The parameters in the encoded query are sent first, so they are checked first.
+   *
    * @param name The name of the parameter
    *
    * @return The value of the corresponding parameter or <code>null</code>
    */
   public @Nullable String parameter(String name) {
+    String query = this.query;
+    if (query != null) {
+      for (String pair : query.split("&")) {
+        Parameter p = Parameter.newParameter(pair);
+        if (p.name().equals(name)) return p.value();
+      }
+    }
     for (Parameter p : this._parameters) {
       if (p.name().equals(name)) return p.value();
     }
@@ -282,7 +316,12 @@ abstract class BasicRequest {
    * @return the string to write the parameters sent via POST.
    */
   public String encodeParameters() {
+    String query = this.query;
+    if (query != null && this._parameters.isEmpty()) return query;
     StringBuilder q = new StringBuilder();
+    if (query != null) {
+      q.append(query);
+    }
     for (Parameter p : this._parameters) {
       if (q.length() > 0) {
         q.append("&");
@@ -292,6 +331,13 @@ abstract class BasicRequest {
     return q.toString();
   }
 
+  /**
+   * @return <code>true</code> if this request includes any parameter or encoded query.
+   */
+  protected boolean hasParameters() {
+    return !this._parameters.isEmpty() || this.query != null;
+  }
+
   /**
    * Returns the URL to access this resource.
    *
@@ -345,7 +391,7 @@ abstract class BasicRequest {
 
     // When not using the "application/x-www-form-urlencoded"
     if (this._method != Method.POST && this._method != Method.PATCH) {
-      if (!this._parameters.isEmpty()) {
+      if (hasParameters()) {
         url.append('?').append(encodeParameters());
       }
     }
@@ -368,6 +414,18 @@ abstract class BasicRequest {
    */
   public abstract Response response();
 
+  /**
+   * Sends this request asynchronously.
+   *
+   * <p>The request is executed using the executor returned by {@link HttpClient#getExecutor()},
+   * the request should not be modified after calling this method.
+   *
+   * @return A future completed with the response corresponding to this request.
+   */
+  public CompletableFuture<HttpResponse> responseAsync() {
+    return CompletableFuture.supplyAsync(this::response, HttpClient.getExecutor());
+  }
+
   // Convenience methods
   // ----------------------------------------------------------------------------------------------
 
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2026 Allette Systems (Australia)
+ * http://www.allette.com.au
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pageseeder.bridge.http;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * An input stream reading directly from a byte buffer without copying its content.
+ *
+ * <p>The stream reads from the current position to the limit of the buffer and uses the
+ * buffer's position as its own, so callers should supply a duplicate if the buffer is shared.
+ *
+ * @author Christophe Lauret
+ *
+ * @version 0.11.41
+ * @since 0.11.41
+ */
+final class ByteBufferInputStream extends InputStream {
+
+  /**
+   * The buffer to read from.
+   */
+  private final ByteBuffer _buffer;
+
+  /**
+   * @param buffer The buffer to read from
+   */
+  ByteBufferInputStream(ByteBuffer buffer) {
+    this._buffer = buffer;
+  }
+
+  @Override
+  public int read() {
+    return this._buffer.hasRemaining() ? this._buffer.get() & 0xFF : -1;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) {
+    if (len == 0) return 0;
+    if (!this._buffer.hasRemaining()) return -1;
+    int n = Math.min(len, this._buffer.remaining());
+    this._buffer.get(b, off, n);
+    return n;
+  }
+
+  @Override
+  public long skip(long n) {
+    if (n <= 0) return 0;
+    int skipped = (int)Math.min(n, this._buffer.remaining());
+    this._buffer.position(this._buffer.position() + skipped);
+    return skipped;
+  }
+
+  @Override
+  public int available() {
+    return this._buffer.remaining();
+  }
+
+  @Override
+  public boolean markSupported() {
+    return true;
+  }
+
+  @Override
+  public synchronized void mark(int readlimit) {
+    this._buffer.mark();
+  }
+
+  @Override
+  public synchronized void reset() {
+    this._buffer.reset();
+  }
+
+}
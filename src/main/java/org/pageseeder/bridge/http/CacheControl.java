@@ -0,0 +1,141 @@
+/*
+ * Copyright 2026 Allette Systems (Australia)
+ * http://www.allette.com.au
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pageseeder.bridge.http;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import java.util.Locale;
+
+/**
+ * The directives of the "Cache-Control" response header used by the HTTP cache.
+ *
+ * <p>Only the directives affecting how long a response can be reused are considered:
+ * <code>max-age</code>, <code>stale-while-revalidate</code>, <code>no-cache</code> and
+ * <code>no-store</code>; other directives are ignored.
+ *
+ * @see <a href="https://tools.ietf.org/html/rfc7234#section-5.2.2">Response Cache-Control Directives</a>
+ * @see <a href="https://tools.ietf.org/html/rfc5861#section-3">stale-while-revalidate</a>
+ *
+ * @author Christophe Lauret
+ *
+ * @version 0.11.41
+ * @since 0.11.41
+ */
+final class CacheControl {
+
+  /**
+   * When there is no "Cache-Control" header.
+   */
+  static final CacheControl NONE = new CacheControl(-1, -1, false, false);
+
+  /**
+   * Value of the "max-age" directive in seconds (-1 if not specified)
+   */
+  private final long _maxAge;
+
+  /**
+   * Value of the "stale-while-revalidate" directive in seconds (-1 if not specified)
+   */
+  private final long _staleWhileRevalidate;
+
+  /**
+   * Whether the "no-cache" directive was specified.
+   */
+  private final boolean _noCache;
+
+  /**
+   * Whether the "no-store" directive was specified.
+   */
+  private final boolean _noStore;
+
+  private CacheControl(long maxAge, long staleWhileRevalidate, boolean noCache, boolean noStore) {
+    this._maxAge = maxAge;
+    this._staleWhileRevalidate = staleWhileRevalidate;
+    this._noCache = noCache;
+    this._noStore = noStore;
+  }
+
+  /**
+   * @return Value of the "max-age" directive in seconds (-1 if not specified)
+   */
+  long maxAge() {
+    return this._maxAge;
+  }
+
+  /**
+   * @return Value of the "stale-while-revalidate" directive in seconds (-1 if not specified)
+   */
+  long staleWhileRevalidate() {
+    return this._staleWhileRevalidate;
+  }
+
+  /**
+   * @return <code>true</code> if the response must be revalidated before each use.
+   */
+  boolean noCache() {
+    return this._noCache;
+  }
+
+  /**
+   * @return <code>true</code> if the response must not be stored.
+   */
+  boolean noStore() {
+    return this._noStore;
+  }
+
+  /**
+   * Parse the value of the "Cache-Control" header.
+   *
+   * <p>Invalid values for "max-age" are interpreted as 0 so that the response is
+   * considered stale.
+   *
+   * @param value The value of the "Cache-Control" header
+   *
+   * @return the corresponding directives
+   */
+  static CacheControl parse(@Nullable String value) {
+    if (value == null || value.trim().isEmpty()) return NONE;
+    long maxAge = -1;
+    long staleWhileRevalidate = -1;
+    boolean noCache = false;
+    boolean noStore = false;
+    for (String directive : value.split(",")) {
+      String d = directive.trim().toLowerCase(Locale.ROOT);
+      int equals = d.indexOf('=');
+      String name = equals > 0 ? d.substring(0, equals).trim() : d;
+      String argument = equals > 0 ? d.substring(equals+1).trim() : "";
+      switch (name) {
+        case "max-age": maxAge = toSeconds(argument, 0); break;
+        case "stale-while-revalidate": staleWhileRevalidate = toSeconds(argument, -1); break;
+        case "no-cache": noCache = true; break;
+        case "no-store": noStore = true; break;
+        default: // ignore
+      }
+    }
+    return new CacheControl(maxAge, staleWhileRevalidate, noCache, noStore);
+  }
+
+  private static long toSeconds(String argument, long fallback) {
+    String s = argument.startsWith("\"") && argument.endsWith("\"") && argument.length() > 1 ? argument.substring(1, argument.length()-1) : argument;
+    try {
+      long seconds = Long.parseLong(s);
+      return seconds >= 0 ? seconds : fallback;
+    } catch (NumberFormatException ex) {
+      return fallback;
+    }
+  }
+
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2026 Allette Systems (Australia)
+ * http://www.allette.com.au
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pageseeder.bridge.http;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.pageseeder.bridge.PSCredentials;
+import org.pageseeder.bridge.PSSession;
+import org.pageseeder.bridge.PSToken;
+import org.pageseeder.bridge.net.UsernamePassword;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Utility methods to compute the keys used by the HTTP cache.
+ *
+ * <p>Credentials and header values are never included verbatim in the keys since cached
+ * content may be written to disk, only a truncated SHA-256 digest is used.
+ *
+ * <p>The {@link #fingerprint(PSCredentials)} method is public so that other caches can
+ * partition their content by credentials in the same way.
+ *
+ * @author Christophe Lauret
+ *
+ * @version 0.11.41
+ * @since 0.11.41
+ */
+public final class CacheKeys {
+
+  /**
+   * Fingerprint used for anonymous requests.
+   */
+  static final String ANONYMOUS = "anonymous";
+
+  /** Utility class. */
+  private CacheKeys() {
+  }
+
+  /**
+   * Returns the cache key for the specified URL.
+   *
+   * @param url         The URL of the request
+   * @param credentials The credentials used for the request
+   * @param scope       The cache scope
+   *
+   * @return the URL for shared scope or anonymous requests; the URL with the credentials
+   *         fingerprint as a fragment otherwise.
+   */
+  static String toKey(String url, @Nullable PSCredentials credentials, CacheScope scope) {
+    if (scope == CacheScope.SHARED || credentials == null) return url;
+    return url + '#' + fingerprint(credentials);
+  }
+
+  /**
+   * Indicates whether the specified cache key is for content cached for specific credentials.
+   *
+   * @param key The cache key
+   *
+   * @return <code>true</code> if the key includes a credentials fingerprint
+   */
+  static boolean isPrivate(String key) {
+    return key.indexOf('#') >= 0;
+  }
+
+  /**
+   * Returns a fingerprint identifying the specified credentials.
+   *
+   * @param credentials The credentials
+   *
+   * @return A digest of the credentials or {@value #ANONYMOUS} if <code>null</code>.
+   */
+  public static String fingerprint(@Nullable PSCredentials credentials) {
+    if (credentials == null) return ANONYMOUS;
+    if (credentials instanceof PSToken) return digest("token:" + ((PSToken) credentials).token());
+    if (credentials instanceof PSSession) return digest("session:" + ((PSSession) credentials).getJSessionId());
+    if (credentials instanceof UsernamePassword) return digest("basic:" + ((UsernamePassword) credentials).toBasicAuthorization());
+    return digest(credentials.getClass().getName() + ':' + credentials);
+  }
+
+  /**
+   * Parses the value of a "Vary" response header.
+   *
+   * @param vary The value of the "Vary" header
+   *
+   * @return the list of header names in lower case
+   */
+  static List<String> parseVary(@Nullable String vary) {
+    if (vary == null || vary.trim().isEmpty()) return Collections.emptyList();
+    List<String> names = new ArrayList<>();
+    for (String name : vary.split(",")) {
+      String n = name.trim().toLowerCase(Locale.ROOT);
+      if (!n.isEmpty() && !names.contains(n)) {
+        names.add(n);
+      }
+    }
+    Collections.sort(names);
+    return names;
+  }
+
+  /**
+   * Computes the variant of the request for the specified headers.
+   *
+   * <p>The "Authorization" and "Cookie" headers are replaced by the credentials fingerprint.
+   *
+   * @param names       The names of the headers the response varies on (lower case)
+   * @param headers     A function returning the value of the request header
+   * @param credentials The credentials used for the request
+   *
+   * @return a digest of the header values
+   */
+  static String variant(List<String> names, Function<String, @Nullable String> headers, @Nullable PSCredentials credentials) {
+    if (names.isEmpty()) return "";
+    StringBuilder values = new StringBuilder();
+    for (String name : names) {
+      values.append(name).append(':');
+      if ("authorization".equals(name) || "cookie".equals(name)) {
+        values.append(fingerprint(credentials));
+      } else {
+        String value = headers.apply(name);
+        if (value != null) {
+          values.append(value);
+        }
+      }
+      values.append('\n');
+    }
+    return digest(values.toString());
+  }
+
+  /**
+   * @return the first 128 bits of the SHA-256 digest of the specified value as base64 URL.
+   */
+  private static String digest(String value) {
+    try {
+      MessageDigest sha = MessageDigest.getInstance("SHA-256");
+      byte[] hash = sha.digest(value.getBytes(StandardCharsets.UTF_8));
+      byte[] truncated = new byte[16];
+      System.arraycopy(hash, 0, truncated, 0, truncated.length);
+      return Base64.getUrlEncoder().withoutPadding().encodeToString(truncated);
+    } catch (NoSuchAlgorithmException ex) {
+      // All JVMs must support SHA-256
+      throw new IllegalStateException(ex);
+    }
+  }
+
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2026 Allette Systems (Australia)
+ * http://www.allette.com.au
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pageseeder.bridge.http;
+
+/**
+ * Defines who a cached response can be shared with.
+ *
+ * @author Christophe Lauret
+ *
+ * @version 0.11.41
+ * @since 0.11.41
+ */
+public enum CacheScope {
+
+  /**
+   * The response can only be reused for requests made with the same credentials.
+   *
+   * <p>This is the default scope.
+   */
+  PRIVATE,
+
+  /**
+   * The response can be reused for requests using any credentials.
+   *
+   * <p>Use only when the content does not depend on the user, for example for
+   * public resources.
+   */
+  SHARED
+
+}
@@ -18,31 +18,86 @@ package org.pageseeder.bridge.http;
 import org.eclipse.jdt.annotation.Nullable;
 import org.pageseeder.bridge.PSConfig;
 import org.pageseeder.bridge.PSCredentials;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 /**
  * Creates a new request using an HTTP cache and only on GET method.
  *
+ * <p>By default, cached responses are {@link CacheScope#PRIVATE private}: they are only reused
+ * for requests made with the same credentials. Responses are also only reused for requests
+ * with the same values for the request headers listed in the "Vary" response header.
+ *
+ * <p>Fresh cached responses, as specified by the "Cache-Control" or "Expires" response headers, are
+ * returned without contacting the server. Stale responses within the "stale-while-revalidate" period
+ * are returned immediately and revalidated in the background using the {@link HttpClient#getExecutor()
+ * executor for asynchronous requests}. Other responses are revalidated using their etag.
+ *
+ * <p>Requests created by the {@link HttpClient} use the cache of the partition of their
+ * configuration, so that responses from different PageSeeder servers do not share the same
+ * budget.
+ *
+ * <p>When {@link #coalesce(boolean) coalescing} is enabled, concurrent requests for the same URL
+ * with the same credentials share a single call to PageSeeder. The content is only copied when
+ * other requests are waiting: it is shared directly if it was cached, otherwise it is copied to a
+ * spill buffer as the first request reads it, so the waiting requests get it once the first
+ * response has been read or closed. Unsuccessful responses are not shared and the waiting
+ * requests are then sent individually, as they are if the content is not available within the
+ * {@link #timeout(int) timeout} of the request (30 seconds by default).
+ *
  * @author Christophe Lauret
  *
- * @version 0.11.12
+ * @version 0.11.41
  * @since 0.11.4
  */
 public final class CacheableRequest implements HttpRequest {
 
   /**
-   * Max size to cache a response.
+   * Logger for this class
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(CacheableRequest.class);
+
+  /**
+   * The keys of the cached content currently being revalidated in the background.
+   */
+  private static final Set<String> REVALIDATING = ConcurrentHashMap.newKeySet();
+
+  /**
+   * The requests to PageSeeder in progress that other requests can wait for, by URL and credentials.
+   */
+  private static final ConcurrentMap<String, Flight> IN_FLIGHT = new ConcurrentHashMap<>();
+
+  /**
+   * Max size of a response to buffer in memory, larger responses are cached as they are read.
    */
   private static final int CACHE_THRESHOLD = 1_000_000;
 
   /**
-   * HttpCache to check
+   * How long coalesced requests wait for the response to an identical request when they have no timeout.
+   */
+  private static final int DEFAULT_COALESCE_WAIT = 30_000;
+
+  /**
+   * Returns the HttpCache to check for the configuration of the request.
    */
-  private final HttpCache _cache;
+  private final Function<PSConfig, HttpCache> _caches;
 
   /**
    * Path to server
@@ -54,6 +109,11 @@ public final class CacheableRequest implements HttpRequest {
    */
   private final List<Parameter> _parameters = new ArrayList<>();
 
+  /**
+   * Query that was already URL encoded.
+   */
+  private @Nullable String query = null;
+
   private PSConfig config = PSConfig.getDefault();
 
   /**
@@ -63,13 +123,38 @@ public final class CacheableRequest implements HttpRequest {
 
   private @Nullable PSCredentials credentials = null;
 
+  /**
+   * Who the cached response can be shared with.
+   */
+  private CacheScope scope = CacheScope.PRIVATE;
+
+  /**
+   * Whether to share the response with identical concurrent requests.
+   */
+  private boolean coalesce = false;
+
+  /**
+   * The connect timeout on the request.
+   */
+  private int timeout = -1;
+
   /**
    * Creates a new request to PageSeeder.
    *
    * @param path   The path without the site prefix (e.g. <code>/ps</code>)
    */
   public CacheableRequest(HttpCache cache, String path) {
-    this._cache = cache;
+    this(config -> cache, path);
+  }
+
+  /**
+   * Creates a new request to PageSeeder using the cache for the configuration of the request.
+   *
+   * @param caches Returns the cache to use for a configuration
+   * @param path   The path without the site prefix (e.g. <code>/ps</code>)
+   */
+  CacheableRequest(Function<PSConfig, HttpCache> caches, String path) {
+    this._caches = caches;
     this._path = path;
   }
 
@@ -94,6 +179,15 @@ public final class CacheableRequest implements HttpRequest {
     return this;
   }
 
+  @Override
+  public CacheableRequest query(String query) {
+    if (query.length() > 0) {
+      String current = this.query;
+      this.query = current != null ? current+'&'+query : query;
+    }
+    return this;
+  }
+
   @Override
   public CacheableRequest using(PSCredentials credentials) {
     this.credentials = credentials;
@@ -106,11 +200,46 @@ public final class CacheableRequest implements HttpRequest {
     return this;
   }
 
+  /**
+   * Sets who the cached response can be shared with.
+   *
+   * @param scope The cache scope
+   *
+   * @return this request
+   */
+  public CacheableRequest scope(CacheScope scope) {
+    this.scope = scope;
+    return this;
+  }
+
+  /**
+   * @return Who the cached response can be shared with.
+   */
+  public CacheScope scope() {
+    return this.scope;
+  }
+
+  /**
+   * Sets whether to share the response with identical concurrent requests.
+   *
+   * @param enable <code>true</code> to wait for an identical request in progress instead of sending a new one.
+   *
+   * @return this request
+   */
+  public CacheableRequest coalesce(boolean enable) {
+    this.coalesce = enable;
+    return this;
+  }
+
   @Override
   public HttpResponse response() {
     String url = this.config != null ? Request.toURLString(this.config, this._path) : Request.toURLString(this._path);
-    if (this._parameters.size() > 0) {
+    String query = this.query;
+    if (this._parameters.size() > 0 || query != null) {
       StringBuilder q = new StringBuilder();
+      if (query != null) {
+        q.append(query);
+      }
       for (Parameter p : this._parameters) {
         if (q.length() > 0) {
           q.append("&");
@@ -121,54 +250,202 @@ public final class CacheableRequest implements HttpRequest {
     }
 
     // Retrieve content from Cache
-    CachedContent content = this._cache.get(url);
-    if (content == null) return fetch(url);
-    else return refresh(content);
+    String key = CacheKeys.toKey(url, this.credentials, this.scope);
+    CachedContent content = cache().get(key);
+    if (content != null && !content.variant().equals(variant(content.vary()))) {
+      // The cached response was for a different variant of this request
+      content = null;
+    }
+    if (content != null && content.isFresh()) return new CachedResponse(content);
+    else if (content != null && content.isStaleWhileRevalidate()) return revalidateInBackground(content, key);
+    else if (this.coalesce) return coalesce(url, key, content);
+    else return send(url, key, content);
   }
 
   /**
-   * Fetch the content from PageSeeder and return the corresponding request.
+   * Fetch or revalidate the content with PageSeeder.
    */
-  private HttpResponse fetch(String url) {
-    Response response = toRequest().response();
-    if (response.isSuccessful()) {
-      // OK check we have an etag an the response is not too long
-      String etag = response.etag();
-      long length = response.length();
-      String contentType = response.getContentType();
-      if (etag != null && contentType != null && length < CACHE_THRESHOLD) {
-        byte[] bytes = response.consumeBytes();
-        CachedContent updated = new CachedContent(url, bytes, contentType, etag);
-        this._cache.put(updated);
-        return new CachedResponse(updated);
+  private HttpResponse send(String url, String key, @Nullable CachedContent content) {
+    if (content == null) return fetch(url, key);
+    else return refresh(toRequest(), content, key);
+  }
+
+  /**
+   * Send the request unless an identical request is in progress in which case we wait for its response.
+   */
+  private HttpResponse coalesce(String url, String key, @Nullable CachedContent content) {
+    String id = CacheKeys.toKey(url, this.credentials, CacheScope.PRIVATE);
+    Flight mine = new Flight();
+    Flight flight = IN_FLIGHT.compute(id, (k, f) -> {
+      if (f == null) return mine;
+      f.waiters.incrementAndGet();
+      return f;
+    });
+    if (flight != mine) {
+      CachedContent shared = null;
+      int wait = this.timeout > 0 ? this.timeout : DEFAULT_COALESCE_WAIT;
+      try {
+        shared = flight.content.get(wait, TimeUnit.MILLISECONDS);
+      } catch (ExecutionException | CancellationException ex) {
+        LOGGER.debug("Coalesced request to {} failed, sending again", url);
+      } catch (TimeoutException ex) {
+        LOGGER.debug("Coalesced request to {} still in progress after {}ms, sending again", url, wait);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
       }
+      return shared != null ? new CachedResponse(shared) : send(url, key, content);
+    }
+    HttpResponse response;
+    try {
+      response = send(url, key, content);
+    } catch (RuntimeException ex) {
+      IN_FLIGHT.remove(id, mine);
+      mine.content.completeExceptionally(ex);
+      throw ex;
+    }
+    // Once removed, no other request can wait for this one
+    IN_FLIGHT.remove(id, mine);
+    if (mine.waiters.get() == 0) {
+      mine.content.complete(null);
+      return response;
+    }
+    return share(url, response, mine.content);
+  }
+
+  /**
+   * Shares a successful response with the requests waiting for it.
+   *
+   * <p>Cached responses are shared directly. The content of other responses is copied to a spill
+   * buffer as the caller reads it and shared once complete; if the copy is abandoned, the waiting
+   * requests are sent individually.
+   */
+  private HttpResponse share(String url, HttpResponse response, CompletableFuture<@Nullable CachedContent> shared) {
+    if (response instanceof CachedResponse) {
+      shared.complete(((CachedResponse)response).content());
+    } else if (response instanceof Response && response.isSuccessful()) {
+      String contentType = response.getContentType();
+      String etag = response.etag();
+      String type = contentType != null ? contentType : "application/octet-stream";
+      String tag = etag != null ? etag : "";
+      long expected = response.header("Content-Encoding") == null ? response.length() : -1;
+      long limit = cache().maxBytes();
+      ((Response)response).intercept(in -> new TeeInputStream(in, new SpillBuffer(CACHE_THRESHOLD, limit), expected,
+          body -> shared.complete(new CachedContent(url, body, type, tag, Collections.emptyList(), "", null, 0, 0)),
+          () -> shared.complete(null)));
+    } else {
+      shared.complete(null);
     }
-    // If we haven't returned we send a proxy response
     return response;
   }
 
+  /**
+   * Fetch the content from PageSeeder and return the corresponding request.
+   */
+  private HttpResponse fetch(String url, String key) {
+    long start = System.nanoTime();
+    Response response = toRequest().response();
+    cache().recordLoad(System.nanoTime() - start);
+    if (response.isSuccessful()) return store(url, key, response);
+    // If we haven't returned we send a proxy response
+    return response;
+  }
 
-  private HttpResponse refresh(CachedContent content) {
-    Response response = toRequest().etag(content.etag()).response();
+  private HttpResponse refresh(Request request, CachedContent content, String key) {
+    long start = System.nanoTime();
+    Response response = request.etag(content.etag()).response();
     int code = response.code();
-    if (code == 304) // Not modified
-      return new CachedResponse(content);
-    else if (code == 200) {
-      // OK check we have an etag an the response is not too long
-      String etag = response.etag();
-      long length = response.length();
-      String contentType = response.getContentType();
-      if (etag != null && contentType != null && length < CACHE_THRESHOLD) {
-        byte[] bytes = response.consumeBytes();
-        CachedContent updated = new CachedContent(content.url(), bytes, contentType, etag);
-        this._cache.put(updated);
-        return new CachedResponse(updated);
+    if (code == 304) { // Not modified
+      cache().recordRevalidation();
+      String cacheControl = response.header("Cache-Control");
+      long expires = response.expires();
+      if (cacheControl != null || expires > 0) {
+        CachedContent revalidated = content.revalidated(cacheControl, response.date(), expires);
+        cache().put(key, revalidated);
+        return new CachedResponse(revalidated);
       }
+      return new CachedResponse(content);
+    } else if (code == 200) {
+      cache().recordLoad(System.nanoTime() - start);
+      return store(content.url(), key, response);
     }
     // If we haven't returned we send the actual response
     return response;
   }
 
+  /**
+   * Returns the stale content and revalidates it in the background unless it is already being revalidated.
+   */
+  private HttpResponse revalidateInBackground(CachedContent content, String key) {
+    if (REVALIDATING.add(key)) {
+      Request request = toRequest();
+      try {
+        HttpClient.getExecutor().execute(() -> {
+          try (HttpResponse response = refresh(request, content, key)) {
+            LOGGER.debug("Revalidated {} -> {}", content.url(), response.code());
+          } catch (RuntimeException ex) {
+            LOGGER.warn("Unable to revalidate {}", content.url(), ex);
+          } finally {
+            REVALIDATING.remove(key);
+          }
+        });
+      } catch (RejectedExecutionException ex) {
+        REVALIDATING.remove(key);
+      }
+    }
+    return new CachedResponse(content);
+  }
+
+  /**
+   * Stores the content of the response in the cache if possible.
+   *
+   * <p>Responses under the cache threshold are consumed immediately; larger responses or responses
+   * of unknown length are copied to the cache as the caller reads them and only become visible in
+   * the cache once the content has been fully read.
+   *
+   * @return the response to return to the caller
+   */
+  private HttpResponse store(String url, String key, Response response) {
+    // OK check we have an etag and the response can be stored
+    String etag = response.etag();
+    String contentType = response.getContentType();
+    List<String> vary = CacheKeys.parseVary(response.header("Vary"));
+    String cacheControl = response.header("Cache-Control");
+    if (etag == null || contentType == null || vary.contains("*") || CacheControl.parse(cacheControl).noStore())
+      return response;
+    String variant = variant(vary);
+    long length = response.length();
+    long date = response.date();
+    long expires = response.expires();
+    if (length >= 0 && length < CACHE_THRESHOLD) {
+      byte[] bytes = response.consumeBytes();
+      CachedContent content = new CachedContent(url, bytes, contentType, etag, vary, variant, cacheControl, date, expires);
+      cache().put(key, content);
+      return new CachedResponse(content);
+    }
+    // Copy to the cache as the content is read
+    HttpCache cache = cache();
+    long expected = response.header("Content-Encoding") == null ? length : -1;
+    response.intercept(in -> new TeeInputStream(in, new SpillBuffer(CACHE_THRESHOLD, cache.maxBytes()), expected,
+        body -> cache.put(key, new CachedContent(url, body, contentType, etag, vary, variant, cacheControl, date, expires))));
+    return response;
+  }
+
+  /**
+   * @return the cache for the configuration of this request.
+   */
+  private HttpCache cache() {
+    return this._caches.apply(this.config);
+  }
+
+  /**
+   * Computes the variant of this request for the specified headers.
+   */
+  private String variant(List<String> vary) {
+    if (vary.isEmpty()) return "";
+    Request request = toRequest();
+    return CacheKeys.variant(vary, request::header, this.credentials);
+  }
+
   @Override
   public HttpRequest config(PSConfig config) {
     this.config = config;
@@ -177,7 +454,7 @@ public final class CacheableRequest implements HttpRequest {
 
   @Override
   public HttpRequest timeout(int timeout) {
-    // TODO Auto-generated method stub
+    this.timeout = timeout;
     return this;
   }
 
@@ -220,13 +497,35 @@ public final class CacheableRequest implements HttpRequest {
     if (credentials != null) {
       request.using(credentials);
     }
+    String query = this.query;
+    if (query != null) {
+      request.query(query);
+    }
     for (Parameter p : this._parameters) {
       request.parameter(p.name(), p.value());
     }
     if (this.gzip)
       request.gzip(true);
+    request.timeout(this.timeout);
     request.config(this.config);
     return request;
   }
 
+  /**
+   * A request to PageSeeder in progress and the number of requests waiting for its content.
+   */
+  private static final class Flight {
+
+    /**
+     * The content to share or <code>null</code> if the waiting requests must be sent individually.
+     */
+    final CompletableFuture<@Nullable CachedContent> content = new CompletableFuture<>();
+
+    /**
+     * Only incremented while the flight can be found in {@link #IN_FLIGHT}.
+     */
+    final AtomicInteger waiters = new AtomicInteger();
+
+  }
+
 }
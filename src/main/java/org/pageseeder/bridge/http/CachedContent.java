@@ -15,11 +15,21 @@
  */
 package org.pageseeder.bridge.http;
 
-import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
 
 import org.eclipse.jdt.annotation.Nullable;
 
@@ -28,15 +38,22 @@ import org.eclipse.jdt.annotation.Nullable;
  *
  * <p>Implementation not: this class only considers the Etag and discards the last modified date.
  *
+ * <p>The content is considered fresh for the duration specified by the "max-age" directive of the
+ * "Cache-Control" header or, if not specified, until the "Expires" date. Content without either is
+ * always stale and must be revalidated.
+ *
+ * <p>The content is stored outside the Java heap in a direct byte buffer, optionally compressed
+ * using Deflate, and read without copying using {@link #getInputStream()}.
+ *
  * @author Christophe Lauret
  *
- * @version 0.11.4
+ * @version 0.11.41
  * @since 0.11.4
  */
 public final class CachedContent implements Serializable {
 
   /** As per requirement for Serializable */
-  private static final long serialVersionUID = 1L;
+  private static final long serialVersionUID = 2L;
 
   /**
    * The full URL of the content that was cached.
@@ -44,9 +61,19 @@ public final class CachedContent implements Serializable {
   private final String _url;
 
   /**
-   * The content in bytes;
+   * The content in a read-only direct buffer, restored when deserialized.
+   */
+  private transient ByteBuffer _body;
+
+  /**
+   * Whether the content is compressed using Deflate.
+   */
+  private final boolean _deflated;
+
+  /**
+   * The length of the uncompressed content.
    */
-  private final byte[] _bytes;
+  private final int _length;
 
   /**
    * The etag returned by the server
@@ -63,13 +90,175 @@ public final class CachedContent implements Serializable {
    */
   private final @Nullable String _charset;
 
+  /**
+   * The names of the request headers listed in the "Vary" response header (lower case)
+   */
+  private final List<String> _vary;
+
+  /**
+   * The digest of the request header values the response varies on.
+   */
+  private final String _variant;
+
+  /**
+   * The value of the "Date" response header (0 if not known)
+   */
+  private final long _date;
+
+  /**
+   * The value of the "Expires" response header (0 if not known)
+   */
+  private final long _expires;
+
+  /**
+   * Until when the content is fresh (local time in milliseconds)
+   */
+  private final long _freshUntil;
+
+  /**
+   * Until when the stale content can be used while it is revalidated (local time in milliseconds)
+   */
+  private final long _staleUntil;
+
   protected CachedContent(String url, byte[] bytes, String contentType, String etag) {
+    this(url, bytes, contentType, etag, Collections.emptyList(), "");
+  }
+
+  /**
+   * @param url         The URL of the content
+   * @param bytes       The content
+   * @param contentType The value of the "Content-Type" header
+   * @param etag        The etag returned by the server
+   * @param vary        The names of the request headers listed in the "Vary" response header
+   * @param variant     The digest of the request header values the response varies on.
+   */
+  protected CachedContent(String url, byte[] bytes, String contentType, String etag, List<String> vary, String variant) {
+    this(url, bytes, contentType, etag, vary, variant, CacheControl.NONE, 0, 0);
+  }
+
+  /**
+   * @param url          The URL of the content
+   * @param bytes        The content
+   * @param contentType  The value of the "Content-Type" header
+   * @param etag         The etag returned by the server
+   * @param vary         The names of the request headers listed in the "Vary" response header
+   * @param variant      The digest of the request header values the response varies on.
+   * @param cacheControl The value of the "Cache-Control" header
+   * @param date         The value of the "Date" header (0 if not known)
+   * @param expires      The value of the "Expires" header (0 if not known)
+   */
+  protected CachedContent(String url, byte[] bytes, String contentType, String etag, List<String> vary, String variant,
+      @Nullable String cacheControl, long date, long expires) {
+    this(url, bytes, contentType, etag, vary, variant, CacheControl.parse(cacheControl), date, expires);
+  }
+
+  /**
+   * Creates new content from a buffer which is used without copying.
+   *
+   * @param url          The URL of the content
+   * @param body         The content
+   * @param contentType  The value of the "Content-Type" header
+   * @param etag         The etag returned by the server
+   * @param vary         The names of the request headers listed in the "Vary" response header
+   * @param variant      The digest of the request header values the response varies on.
+   * @param cacheControl The value of the "Cache-Control" header
+   * @param date         The value of the "Date" header (0 if not known)
+   * @param expires      The value of the "Expires" header (0 if not known)
+   */
+  protected CachedContent(String url, ByteBuffer body, String contentType, String etag, List<String> vary, String variant,
+      @Nullable String cacheControl, long date, long expires) {
+    this(url, body.slice().asReadOnlyBuffer(), false, body.remaining(), Objects.requireNonNull(Header.toMediaType(contentType)),
+        toCharsetName(contentType), etag, vary, variant, CacheControl.parse(cacheControl), date, expires);
+  }
+
+  private CachedContent(String url, byte[] bytes, String contentType, String etag, List<String> vary, String variant,
+      CacheControl cacheControl, long date, long expires) {
+    this(url, toDirectBuffer(bytes), false, bytes.length, Objects.requireNonNull(Header.toMediaType(contentType)),
+        toCharsetName(contentType), etag, vary, variant, cacheControl, date, expires);
+  }
+
+  /**
+   * Restores content persisted by the cache, the content is stale until revalidated.
+   */
+  CachedContent(String url, ByteBuffer body, boolean deflated, int length, String mediaType, @Nullable String charset,
+      String etag, List<String> vary, String variant, long date, long expires) {
+    this(url, body, deflated, length, mediaType, charset, etag, vary, variant, CacheControl.NONE, date, expires);
+  }
+
+  private CachedContent(String url, ByteBuffer body, boolean deflated, int length, String mediaType, @Nullable String charset,
+      String etag, List<String> vary, String variant, CacheControl cacheControl, long date, long expires) {
     this._url = url;
-    this._bytes = bytes;
+    this._body = body;
+    this._deflated = deflated;
+    this._length = length;
     this._etag = etag;
-    this._mediaType = Objects.requireNonNull(Header.toMediaType(contentType));
-    Charset charset = Objects.requireNonNull(Header.toCharset(contentType));
-    this._charset = charset != null? charset.name() : null;
+    this._mediaType = mediaType;
+    this._charset = charset;
+    this._vary = vary;
+    this._variant = variant;
+    this._date = date;
+    this._expires = expires;
+    long now = System.currentTimeMillis();
+    this._freshUntil = now + lifetime(cacheControl, date, expires, now);
+    long stale = cacheControl.noCache() ? 0 : cacheControl.staleWhileRevalidate();
+    this._staleUntil = stale > 0 ? this._freshUntil + stale * 1000 : this._freshUntil;
+  }
+
+  /**
+   * Returns a copy of this content with the freshness information of a "304 Not Modified" response.
+   *
+   * @param cacheControl The value of the "Cache-Control" header
+   * @param date         The value of the "Date" header (0 if not known)
+   * @param expires      The value of the "Expires" header (0 if not known)
+   *
+   * @return the revalidated content
+   */
+  protected CachedContent revalidated(@Nullable String cacheControl, long date, long expires) {
+    return new CachedContent(this._url, this._body, this._deflated, this._length, this._mediaType, this._charset,
+        this._etag, this._vary, this._variant, CacheControl.parse(cacheControl), date, expires);
+  }
+
+  /**
+   * Returns a copy of this content compressed using Deflate.
+   *
+   * <p>This method returns this content if already compressed or if compression would not
+   * reduce its size. The freshness information is preserved.
+   *
+   * @return the compressed content
+   */
+  protected CachedContent deflated() {
+    if (this._deflated) return this;
+    ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(32, this._length / 4));
+    Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    try (DeflaterOutputStream deflate = new DeflaterOutputStream(out, deflater)) {
+      writeTo(deflate);
+    } catch (IOException ex) {
+      // Cannot happen with a byte array
+      return this;
+    } finally {
+      deflater.end();
+    }
+    if (out.size() >= this._length) return this;
+    return new CachedContent(this, toDirectBuffer(out.toByteArray()), true);
+  }
+
+  /**
+   * Copy constructor with a different body, keeping the same freshness.
+   */
+  private CachedContent(CachedContent content, ByteBuffer body, boolean deflated) {
+    this._url = content._url;
+    this._body = body;
+    this._deflated = deflated;
+    this._length = content._length;
+    this._etag = content._etag;
+    this._mediaType = content._mediaType;
+    this._charset = content._charset;
+    this._vary = content._vary;
+    this._variant = content._variant;
+    this._date = content._date;
+    this._expires = content._expires;
+    this._freshUntil = content._freshUntil;
+    this._staleUntil = content._staleUntil;
   }
 
   public String url() {
@@ -84,20 +273,160 @@ public final class CachedContent implements Serializable {
     return this._mediaType;
   }
 
+  /**
+   * Returns an input stream reading the content directly from the underlying buffer.
+   *
+   * @return a new input stream over the uncompressed content.
+   */
   public InputStream getInputStream() {
-    return new ByteArrayInputStream(this._bytes);
+    InputStream in = new ByteBufferInputStream(this._body.duplicate());
+    return this._deflated ? new InflaterInputStream(in) : in;
   }
 
+  /**
+   * @return the length of the uncompressed content in bytes.
+   */
   public int length() {
-    return this._bytes.length;
+    return this._length;
+  }
+
+  /**
+   * @return the number of bytes used to store the content.
+   */
+  public int size() {
+    return this._body.capacity();
+  }
+
+  /**
+   * @return a read-only view of the stored content (compressed if deflated)
+   */
+  ByteBuffer body() {
+    return this._body.duplicate();
+  }
+
+  /**
+   * @return <code>true</code> if the content is stored compressed.
+   */
+  public boolean isDeflated() {
+    return this._deflated;
+  }
+
+  /**
+   * Write the uncompressed content to the specified output stream.
+   *
+   * @param out The output stream
+   *
+   * @throws IOException If thrown by the output stream
+   */
+  public void writeTo(OutputStream out) throws IOException {
+    byte[] chunk = new byte[Math.min(8192, Math.max(1, this._length))];
+    try (InputStream in = getInputStream()) {
+      int read;
+      while ((read = in.read(chunk)) != -1) {
+        out.write(chunk, 0, read);
+      }
+    }
   }
 
   public String etag() {
     return this._etag;
   }
 
+  /**
+   * @return The names of the request headers the response varies on (lower case)
+   */
+  public List<String> vary() {
+    return Collections.unmodifiableList(this._vary);
+  }
+
+  /**
+   * @return The digest of the request header values the response varies on.
+   */
+  public String variant() {
+    return this._variant;
+  }
+
+  /**
+   * @return the value of the "Date" response header or 0 if not known.
+   */
+  public long date() {
+    return this._date;
+  }
+
+  /**
+   * @return the value of the "Expires" response header or 0 if not known.
+   */
+  public long expires() {
+    return this._expires;
+  }
+
+  /**
+   * @return <code>true</code> if the content can be used without revalidation.
+   */
+  public boolean isFresh() {
+    return System.currentTimeMillis() < this._freshUntil;
+  }
+
+  /**
+   * @return <code>true</code> if the content is stale but can be used while it is revalidated.
+   */
+  public boolean isStaleWhileRevalidate() {
+    long now = System.currentTimeMillis();
+    return now >= this._freshUntil && now < this._staleUntil;
+  }
+
+  /**
+   * Computes the freshness lifetime in milliseconds.
+   */
+  private static long lifetime(CacheControl cacheControl, long date, long expires, long now) {
+    if (cacheControl.noCache()) return 0;
+    if (cacheControl.maxAge() >= 0) return cacheControl.maxAge() * 1000;
+    if (expires > 0) return Math.max(0, expires - (date > 0 ? date : now));
+    return 0;
+  }
+
+  /**
+   * @return a copy of the uncompressed content.
+   */
   protected byte[] bytes() {
-    return this._bytes;
+    if (!this._deflated) {
+      byte[] bytes = new byte[this._length];
+      this._body.duplicate().get(bytes);
+      return bytes;
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream(this._length);
+    try {
+      writeTo(out);
+    } catch (IOException ex) {
+      throw new ContentException("Unable to inflate cached content", ex);
+    }
+    return out.toByteArray();
+  }
+
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    out.defaultWriteObject();
+    byte[] stored = new byte[this._body.capacity()];
+    this._body.duplicate().get(stored);
+    out.writeInt(stored.length);
+    out.write(stored);
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    byte[] stored = new byte[in.readInt()];
+    in.readFully(stored);
+    this._body = toDirectBuffer(stored);
+  }
+
+  private static ByteBuffer toDirectBuffer(byte[] bytes) {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+    buffer.put(bytes).flip();
+    return buffer.asReadOnlyBuffer();
+  }
+
+  private static @Nullable String toCharsetName(String contentType) {
+    Charset charset = Header.toCharset(contentType);
+    return charset != null? charset.name() : null;
   }
 
 }
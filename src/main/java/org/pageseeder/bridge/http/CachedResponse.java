@@ -19,6 +19,7 @@ import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
 import org.pageseeder.bridge.PSSession;
 import org.pageseeder.bridge.xml.Handler;
+import org.pageseeder.bridge.xml.XMLParsers;
 import org.pageseeder.bridge.xml.stax.XMLStreamHandler;
 import org.pageseeder.xmlwriter.XMLWriter;
 import org.xml.sax.InputSource;
@@ -26,23 +27,19 @@ import org.xml.sax.SAXException;
 import org.xml.sax.helpers.DefaultHandler;
 
 import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.parsers.SAXParser;
-import javax.xml.parsers.SAXParserFactory;
-import javax.xml.stream.XMLInputFactory;
-import javax.xml.stream.XMLStreamException;
-import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.Templates;
 import java.io.*;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * An HTTP response wrapping cached content
  *
  * @author Christophe Lauret
  *
- * @version 0.11.5
+ * @version 0.11.41
  * @since 0.11.4
  */
 public final class CachedResponse implements HttpResponse {
@@ -56,6 +53,13 @@ public final class CachedResponse implements HttpResponse {
     this._content = Objects.requireNonNull(content);
   }
 
+  /**
+   * @return the cached content of this response.
+   */
+  CachedContent content() {
+    return this._content;
+  }
+
   @Override
   public @Nullable Charset charset() {
     String cs = this._content.charset();
@@ -69,8 +73,7 @@ public final class CachedResponse implements HttpResponse {
 
   @Override
   public long date() {
-    // TODO Auto-generated method stub
-    return 0;
+    return this._content.date();
   }
 
   @Override
@@ -80,8 +83,7 @@ public final class CachedResponse implements HttpResponse {
 
   @Override
   public long expires() {
-    // TODO Auto-generated method stub
-    return 0;
+    return this._content.expires();
   }
 
   @Override
@@ -177,13 +179,13 @@ public final class CachedResponse implements HttpResponse {
 
   @Override
   public byte[] consumeBytes() {
-    return Arrays.copyOf(this._content.bytes(), this._content.length());
+    return this._content.bytes();
   }
 
   @Override
   public void consumeBytes(OutputStream out) throws ContentException {
     try {
-      out.write(this._content.bytes());
+      this._content.writeTo(out);
     } catch (IOException ex) {
       throw new ContentException(ex);
     }
@@ -236,17 +238,23 @@ public final class CachedResponse implements HttpResponse {
 
   @Override
   public <T> @NonNull List<T> consumeList(XMLStreamHandler<T> handler) throws ContentException {
-    try {
-      return parseXMLStream(this._content, handler);
-    } catch (IOException ex) {
-      throw new ContentException("Unable to consume XML", ex);
+    try (XMLStreamIterator<T> items = iterateXMLStream(this._content, handler)) {
+      List<T> list = new ArrayList<>();
+      items.forEachRemaining(list::add);
+      return list;
     }
   }
 
   @Override
   public <T> @Nullable T consumeItem(XMLStreamHandler<T> handler) throws ContentException {
-    List<T> list = consumeList(handler);
-    return list.size() > 0? list.get(0) : null;
+    try (XMLStreamIterator<T> items = iterateXMLStream(this._content, handler)) {
+      return items.hasNext() ? items.next() : null;
+    }
+  }
+
+  @Override
+  public <T> Stream<T> stream(XMLStreamHandler<T> handler) throws ContentException {
+    return iterateXMLStream(this._content, handler).toStream();
   }
 
   @Override
@@ -287,11 +295,6 @@ public final class CachedResponse implements HttpResponse {
   private static void handleXML(CachedContent content, DefaultHandler handler)
       throws IOException {
 
-    // Setup the factory
-    SAXParserFactory factory = SAXParserFactory.newInstance();
-    factory.setValidating(false);
-    factory.setNamespaceAware(true);
-
     try (InputStream in = content.getInputStream()) {
       InputSource source = new InputSource(in);
       source.setSystemId(content.url());
@@ -303,8 +306,7 @@ public final class CachedResponse implements HttpResponse {
       }
 
       // And parse!
-      SAXParser parser = factory.newSAXParser();
-      parser.parse(source, handler);
+      XMLParsers.parse(source, handler);
 
     } catch (ParserConfigurationException ex) {
       throw new ContentException("Error while configuring XML parser", ex);
@@ -314,44 +316,13 @@ public final class CachedResponse implements HttpResponse {
   }
 
   /**
-   * Parse the response as XML using a StAX stream handler.
+   * Returns an iterator over the cached XML using a StAX stream handler.
    *
    * @param content  The cached content
    * @param handler  Handles a StAX stream
-   *
-   * @throws IllegalStateException If the response is not available.
-   * @throws IOException If an error occurs while writing the XML.
    */
-  private static <T> List<T> parseXMLStream(CachedContent content, XMLStreamHandler<T> handler) throws IOException {
-    // Setup the factory
-    XMLInputFactory factory = XMLInputFactory.newInstance();
-    factory.setProperty(XMLInputFactory.IS_COALESCING, true);
-    factory.setProperty(XMLInputFactory.IS_REPLACING_ENTITY_REFERENCES, true);
-    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
-    factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
-
-    // Get character encoding is correct
-    String charset = content.charset();
-    if (charset != null) {
-      charset = "utf-8";
-    }
-
-    // And parse the stream
-    List<T> list = new ArrayList<>();
-    try (InputStream in = content.getInputStream()) {
-      XMLStreamReader source = factory.createXMLStreamReader(in, charset);
-      while (handler.find(source)) {
-        T next = handler.get(source);
-        list.add(next);
-      }
-
-    } catch (IllegalArgumentException | IllegalStateException | IndexOutOfBoundsException
-        | NoSuchElementException | XMLStreamException | UnsupportedOperationException ex) {
-      // The XMLStreamReader throws a number of runtime exception that we need to catch
-      throw new ContentException("Error while parsing XML", ex);
-    }
-
-    return list;
+  private static <T> XMLStreamIterator<T> iterateXMLStream(CachedContent content, XMLStreamHandler<T> handler) {
+    return XMLStreamIterator.newInstance(content.getInputStream(), content.charset(), handler);
   }
 
   /**
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 Allette Systems (Australia)
+ * http://www.allette.com.au
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pageseeder.bridge.http;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.util.List;
+
+/**
+ * A single HTTP request/response exchange opened by a {@link Transport}.
+ *
+ * <p>An exchange has the same lifecycle as an <code>HttpURLConnection</code>:
+ * <ol>
+ *   <li>the request body, if any, is written to the {@link #getOutputStream()}</li>
+ *   <li>the request is sent when the status {@link #code()} is first requested</li>
+ *   <li>the response headers and content are then available</li>
+ * </ol>
+ *
+ * <p>Implementations are not expected to be thread-safe.
+ *
+ * @author Christophe Lauret
+ *
+ * @version 0.11.41
+ * @since 0.11.41
+ */
+public interface Exchange {
+
+  /**
+   * @return the URL of the request.
+   */
+  URL url();
+
+  /**
+   * Returns the output stream to write the body of the request.
+   *
+   * @return the output stream for the request body
+   *
+   * @throws IOException If the output stream could not be created.
+   * @throws IllegalStateException If the request has already been sent.
+   */
+  OutputStream getOutputStream() throws IOException;
+
+  /**
+   * Returns the status code of the response, sending the request if necessary.
+   *
+   * @return the HTTP status code.
+   *
+   * @throws IOException If thrown while connecting to the server.
+   */
+  int code() throws IOException;
+
+  /**
+   * Returns the reason phrase of the response if the transport provides it.
+   *
+   * @return the reason phrase or <code>null</code>
+   *
+   * @throws IOException If thrown while connecting to the server.
+   */
+  @Nullable String message() throws IOException;
+
+  /**
+   * Returns the list of response headers excluding the status line.
+   *
+   * @return the response headers.
+   */
+  List<Header> headers();
+
+  /**
+   * Returns the value of the specified response header.
+   *
+   * @param name The name of the header (case insensitive)
+   *
+   * @return The corresponding value or <code>null</code>
+   */
+  @Nullable String header(String name);
+
+  /**
+   * Returns the input stream on the content of a successful response.
+   *
+   * @return the response content.
+   *
+   * @throws IOException If thrown by the underlying transport, including when the response was an error.
+   */
+  @Nullable InputStream getInputStream() throws IOException;
+
+  /**
+   * Returns the input stream on the content of an error response.
+   *
+   * @return the error content or <code>null</code> if there is none.
+   */
+  @Nullable InputStream getErrorStream();
+
+  /**
+   * Release any resource held by the exchange.
+   *
+   * <p>Responses call this method once their content has been consumed or when they are closed.
+   * Implementations should allow the underlying connection to be reused when possible.
+   */
+  void close();
+
+  /**
+   * Returns the underlying object used by the transport if it matches the specified type.
+   *
+   * <p>This method is primarily intended for legacy code that requires access to the
+   * <code>HttpURLConnection</code>.
+   *
+   * @param type The class of the underlying object
+   * @param <T>  The type of the underlying object
+   *
+   * @return the underlying object or <code>null</code> if the transport does not use that type.
+   */
+  default <T> @Nullable T unwrap(Class<T> type) {
+    return null;
+  }
+
+}
@@ -97,6 +97,11 @@ public final class GenericSearch implements Serializable {
    */
   private SortBy _sortBy;
 
+  /**
+   * The URL encoded query (computed lazily).
+   */
+  private transient volatile @Nullable String query = null;
+
   public GenericSearch() {
     this(null, emptyList(), 1, 1000, emptyList(), emptyMap(), LocalDateTime.MIN, LocalDateTime.MAX, SortBy.RELEVANCE);
   }
@@ -546,6 +551,29 @@ public final class GenericSearch implements Serializable {
     return parameters;
   }
 
+  /**
+   * Returns the URL encoded query for this search.
+   *
+   * <p>The query is computed only once as generic searches are immutable.
+   *
+   * @return The URL encoded query corresponding to this search (without the leading '?')
+   */
+  public String toQueryString() {
+    String query = this.query;
+    if (query == null) {
+      StringBuilder q = new StringBuilder();
+      for (Entry<String, String> p : toParameters().entrySet()) {
+        if (q.length() > 0) {
+          q.append('&');
+        }
+        new Parameter(p.getKey(), p.getValue()).append(q);
+      }
+      query = q.toString();
+      this.query = query;
+    }
+    return query;
+  }
+
   @Override
   public String toString() {
     StringBuilder s = new StringBuilder();
@@ -569,10 +597,9 @@ public final class GenericSearch implements Serializable {
    * @return The corresponding the response.
    */
   public Response response(PSCredentials credentials) {
-    Map<String, String> parameters = toParameters();
     return new Request(Method.GET, Servlet.GENERIC_SEARCH)
         .using(credentials)
-        .parameters(parameters)
+        .query(toQueryString())
         .response();
   }
 
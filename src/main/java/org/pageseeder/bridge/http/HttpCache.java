@@ -16,48 +16,402 @@
 package org.pageseeder.bridge.http;
 
 import org.eclipse.jdt.annotation.Nullable;
+import org.pageseeder.bridge.CacheStats;
 
 import net.sf.ehcache.Cache;
 import net.sf.ehcache.CacheManager;
+import net.sf.ehcache.Ehcache;
 import net.sf.ehcache.Element;
 import net.sf.ehcache.config.CacheConfiguration;
 import net.sf.ehcache.config.PersistenceConfiguration;
 import net.sf.ehcache.config.PersistenceConfiguration.Strategy;
+import net.sf.ehcache.event.CacheEventListenerAdapter;
 import net.sf.ehcache.store.MemoryStoreEvictionPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
+ * A cache for the content of HTTP responses.
+ *
+ * <p>The cache is bounded by the total number of bytes used to store the content, as well as
+ * by the number of entries; in both cases, the least recently used entries are evicted first.
+ * The content itself is stored outside the Java heap so that large caches do not affect garbage
+ * collection.
+ *
+ * <p>The budget can be set with the <code>bridge.http.cache.maxBytes</code> system property
+ * (64MB by default) and compression at rest enabled with <code>bridge.http.cache.deflate</code>.
+ * When the budget is exceeded, the least recently used entries are evicted until the cache
+ * uses less than 90% of its budget.
+ *
+ * <p>When the <code>bridge.http.cache.dir</code> system property is set, the content is also
+ * stored on disk in a sub-directory named after the cache so that it survives restarts; content
+ * restored from disk is revalidated with PageSeeder before it is used. The disk store is bounded
+ * by the <code>bridge.http.cache.maxDiskBytes</code> system property (256MB by default).
+ * Responses cached for specific credentials are not encrypted, so they are only kept in memory
+ * unless the <code>bridge.http.cache.persistPrivate</code> system property is set to
+ * <code>true</code>.
+ *
+ * <p>The {@link HttpClient} uses a separate cache for each PageSeeder server, the budgets apply
+ * to each cache.
  *
  * @author Christophe Lauret
  *
- * @version 0.11.4
+ * @version 0.11.41
  * @since 0.11.4
  */
 public class HttpCache {
 
+  /**
+   * Default maximum number of bytes used by the cache.
+   */
+  public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+  /**
+   * Default maximum number of bytes used by the persistent store.
+   */
+  public static final long DEFAULT_MAX_DISK_BYTES = 256L * 1024 * 1024;
+
+  /**
+   * Logger for this class
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(HttpCache.class);
+
   private final Cache _cache;
 
+  /**
+   * Persistent store (<code>null</code> if the cache is in memory only)
+   */
+  private final @Nullable PersistentStore _store;
+
+  /**
+   * The maximum number of bytes used to store the content.
+   */
+  private final long _maxBytes;
+
+  /**
+   * Whether to compress the content.
+   */
+  private final boolean _deflate;
+
+  /**
+   * Whether to store the content cached for specific credentials on disk.
+   */
+  private final boolean _persistPrivate;
+
+  /**
+   * The number of bytes currently used to store the content.
+   */
+  private final AtomicLong _bytes = new AtomicLong();
+
+  /**
+   * The number of lookups which found content.
+   */
+  private final LongAdder _hits = new LongAdder();
+
+  /**
+   * The number of lookups which did not find content.
+   */
+  private final LongAdder _misses = new LongAdder();
+
+  /**
+   * The number of entries evicted to stay within budget.
+   */
+  private final LongAdder _evictions = new LongAdder();
+
+  /**
+   * The number of stale entries confirmed as unchanged by PageSeeder.
+   */
+  private final LongAdder _revalidations = new LongAdder();
+
+  /**
+   * The number of responses fetched from PageSeeder.
+   */
+  private final LongAdder _loads = new LongAdder();
+
+  /**
+   * The time spent fetching responses from PageSeeder in nanoseconds.
+   */
+  private final LongAdder _loadTime = new LongAdder();
+
   protected HttpCache(String name) {
+    this(name, Long.getLong("bridge.http.cache.maxBytes", DEFAULT_MAX_BYTES), Boolean.getBoolean("bridge.http.cache.deflate"),
+        toDirectory(name));
+  }
+
+  /**
+   * @param name     The name of the cache
+   * @param maxBytes The maximum number of bytes used to store the content
+   * @param deflate  Whether to compress the content using Deflate
+   */
+  protected HttpCache(String name, long maxBytes, boolean deflate) {
+    this(name, maxBytes, deflate, null);
+  }
+
+  /**
+   * @param name      The name of the cache
+   * @param maxBytes  The maximum number of bytes used to store the content in memory
+   * @param deflate   Whether to compress the content using Deflate
+   * @param directory The directory to persist the content (<code>null</code> to keep in memory only)
+   */
+  protected HttpCache(String name, long maxBytes, boolean deflate, @Nullable Path directory) {
     CacheManager manager = CacheManager.getInstance();
+    this._maxBytes = maxBytes;
+    this._deflate = deflate;
+    this._persistPrivate = Boolean.getBoolean("bridge.http.cache.persistPrivate");
+    this._store = directory != null ? openStore(directory) : null;
     this._cache = new Cache(
         new CacheConfiguration(name, 10000)
-          .memoryStoreEvictionPolicy(MemoryStoreEvictionPolicy.LFU)
+          .memoryStoreEvictionPolicy(MemoryStoreEvictionPolicy.LRU)
           .eternal(false)
           .timeToLiveSeconds(3600)
           .timeToIdleSeconds(1200)
-          .diskExpiryThreadIntervalSeconds(0)
-          .persistence(new PersistenceConfiguration().strategy(Strategy.LOCALTEMPSWAP)));
+          .persistence(new PersistenceConfiguration().strategy(Strategy.NONE)));
+    this._cache.getCacheEventNotificationService().registerListener(new ByteCounter());
     manager.addCache(this._cache);
   }
 
   public @Nullable CachedContent get(String url) {
     Element element = this._cache.get(url);
-    if (element == null) return null;
-    return (CachedContent)element.getObjectValue();
+    if (element != null) {
+      this._hits.increment();
+      return (CachedContent)element.getObjectValue();
+    }
+    PersistentStore store = store(url);
+    CachedContent content = store != null ? store.get(url) : null;
+    if (content != null) {
+      this._hits.increment();
+      putInMemory(url, content);
+    } else {
+      this._misses.increment();
+    }
+    return content;
   }
 
   public void put(CachedContent content) {
-    Element element = new Element(content.url(), content);
-    this._cache.put(element);
+    put(content.url(), content);
+  }
+
+  /**
+   * Puts the content in the cache using the specified key.
+   *
+   * <p>Content larger than the budget of the cache is ignored.
+   *
+   * @param key     The cache key (URL and credentials fingerprint)
+   * @param content The content to cache
+   */
+  public void put(String key, CachedContent content) {
+    CachedContent stored = this._deflate ? content.deflated() : content;
+    putInMemory(key, stored);
+    PersistentStore store = store(key);
+    if (store != null) {
+      store.put(key, stored);
+    }
+  }
+
+  /**
+   * @param key The cache key
+   *
+   * @return the persistent store for that key or <code>null</code> if it is only kept in memory
+   */
+  private @Nullable PersistentStore store(String key) {
+    if (!this._persistPrivate && CacheKeys.isPrivate(key)) return null;
+    return this._store;
+  }
+
+  private void putInMemory(String key, CachedContent stored) {
+    if (stored.size() > this._maxBytes) return;
+    Element element = new Element(key, stored);
+    while (true) {
+      Element previous = this._cache.putIfAbsent(element);
+      if (previous == null) {
+        this._bytes.addAndGet(stored.size());
+        break;
+      }
+      previous = this._cache.replace(element);
+      if (previous != null) {
+        this._bytes.addAndGet(stored.size() - sizeOf(previous));
+        break;
+      }
+    }
+    if (this._bytes.get() > this._maxBytes) {
+      trim(key);
+    }
+  }
+
+  /**
+   * Removes the content for the specified key from the cache.
+   *
+   * @param key The cache key
+   */
+  public void remove(String key) {
+    this._cache.remove(key);
+    PersistentStore store = this._store;
+    if (store != null) {
+      store.remove(key);
+    }
+  }
+
+  /**
+   * Saves the index of the persistent store if any.
+   *
+   * <p>The index is saved periodically, calling this method before the application stops reduces the
+   * number of entries to recover on startup.
+   */
+  public void flush() {
+    PersistentStore store = this._store;
+    if (store != null) {
+      try {
+        store.flush();
+      } catch (IOException ex) {
+        LOGGER.warn("Unable to save the cache index", ex);
+      }
+    }
+  }
+
+  /**
+   * Removes all the content held in memory.
+   */
+  public void clear() {
+    this._cache.removeAll();
+  }
+
+  /**
+   * @return the statistics of this cache.
+   */
+  public CacheStats stats() {
+    return new CacheStats.Builder(this._cache.getName())
+        .size(this._cache.getSize())
+        .capacity(this._cache.getCacheConfiguration().getMaxEntriesLocalHeap())
+        .bytes(this._bytes.get())
+        .maxBytes(this._maxBytes)
+        .hits(this._hits.sum())
+        .misses(this._misses.sum())
+        .evictions(this._evictions.sum())
+        .revalidations(this._revalidations.sum())
+        .loads(this._loads.sum())
+        .loadTime(Duration.ofNanos(this._loadTime.sum()))
+        .build();
+  }
+
+  /**
+   * Records that a response was fetched from PageSeeder because it was not cached.
+   *
+   * @param nanos The time until the response headers were received in nanoseconds
+   */
+  void recordLoad(long nanos) {
+    this._loadTime.add(nanos);
+    this._loads.increment();
+  }
+
+  /**
+   * Records that PageSeeder confirmed that stale content was unchanged.
+   */
+  void recordRevalidation() {
+    this._revalidations.increment();
+  }
+
+  /**
+   * @return the number of entries in this cache.
+   */
+  public int size() {
+    return this._cache.getSize();
+  }
+
+  /**
+   * @return the number of bytes currently used to store the content.
+   */
+  public long bytes() {
+    return this._bytes.get();
+  }
+
+  /**
+   * @return the maximum number of bytes used to store the content.
+   */
+  public long maxBytes() {
+    return this._maxBytes;
+  }
+
+  /**
+   * Evict the least recently used entries until the cache uses less than 90% of its budget.
+   *
+   * @param keep The key of the entry just added which must not be evicted
+   */
+  private synchronized void trim(String keep) {
+    long target = this._maxBytes - this._maxBytes / 10;
+    if (this._bytes.get() <= this._maxBytes) return;
+    List<Element> elements = new ArrayList<>();
+    for (Object key : this._cache.getKeys()) {
+      Element element = this._cache.getQuiet(key);
+      if (element != null && !keep.equals(key)) elements.add(element);
+    }
+    elements.sort(Comparator.comparingLong(HttpCache::lastUsed));
+    for (Element element : elements) {
+      if (this._bytes.get() <= target) break;
+      if (this._cache.removeElement(element)) {
+        this._evictions.increment();
+      }
+    }
+  }
+
+  private static @Nullable Path toDirectory(String name) {
+    String dir = System.getProperty("bridge.http.cache.dir");
+    return dir != null && !dir.isEmpty() ? Paths.get(dir, name) : null;
+  }
+
+  private static @Nullable PersistentStore openStore(Path directory) {
+    try {
+      return PersistentStore.open(directory, Long.getLong("bridge.http.cache.maxDiskBytes", DEFAULT_MAX_DISK_BYTES));
+    } catch (IOException ex) {
+      LOGGER.warn("Unable to open persistent cache in {}, using memory only", directory, ex);
+      return null;
+    }
+  }
+
+  private static long lastUsed(Element element) {
+    return Math.max(element.getLastAccessTime(), element.getLatestOfCreationAndUpdateTime());
+  }
+
+  private static int sizeOf(Element element) {
+    Object value = element.getObjectValue();
+    return value instanceof CachedContent ? ((CachedContent)value).size() : 0;
+  }
+
+  /**
+   * Keeps track of the number of bytes released when entries are removed from the cache.
+   */
+  private final class ByteCounter extends CacheEventListenerAdapter {
+
+    @Override
+    public void notifyElementRemoved(Ehcache cache, Element element) {
+      HttpCache.this._bytes.addAndGet(-sizeOf(element));
+    }
+
+    @Override
+    public void notifyElementExpired(Ehcache cache, Element element) {
+      HttpCache.this._bytes.addAndGet(-sizeOf(element));
+    }
+
+    @Override
+    public void notifyElementEvicted(Ehcache cache, Element element) {
+      HttpCache.this._bytes.addAndGet(-sizeOf(element));
+      HttpCache.this._evictions.increment();
+    }
+
+    @Override
+    public void notifyRemoveAll(Ehcache cache) {
+      HttpCache.this._bytes.set(0);
+    }
+
   }
 
 }
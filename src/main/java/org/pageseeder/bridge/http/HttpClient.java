@@ -16,12 +16,27 @@
 package org.pageseeder.bridge.http;
 
 import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.pageseeder.bridge.CacheMetrics;
+import org.pageseeder.bridge.PSConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  *
  * @author Christophe Lauret
  *
- * @version 0.11.12
+ * @version 0.11.41
  * @since 0.11.4
  */
 public final class HttpClient {
@@ -30,16 +45,53 @@ public final class HttpClient {
 
   private static boolean gzipEnabled = true;
 
-  private final HttpCache _cache;
+  private static boolean coalescingEnabled = false;
+
+  /**
+   * The executor used for asynchronous requests (<code>null</code> to use the default)
+   */
+  private static volatile @Nullable Executor executor = null;
+
+  /**
+   * The caches for the responses by partition.
+   */
+  private final ConcurrentMap<String, HttpCache> _caches = new ConcurrentHashMap<>();
 
   private HttpClient() {
-    this._cache = new HttpCache("HttpCache");
   }
 
   public static HttpClient singleton() {
     return SINGLETON;
   }
 
+  /**
+   * Returns the cache for the responses of the PageSeeder server of the specified configuration.
+   *
+   * <p>Each {@link PSConfig#getCachePartition() partition} has its own cache and budget. The cache
+   * is named "HttpCache-" followed by the name of the partition and registered with
+   * {@link CacheMetrics} as "HttpCache".
+   *
+   * @param config The configuration
+   *
+   * @return the cache for that configuration.
+   */
+  public HttpCache getCache(PSConfig config) {
+    return this._caches.computeIfAbsent(config.getCachePartition(), partition -> {
+      HttpCache cache = new HttpCache("HttpCache-" + partition);
+      CacheMetrics.register(partition, "HttpCache", cache::stats);
+      return cache;
+    });
+  }
+
+  /**
+   * Returns the caches created so far by partition.
+   *
+   * @return an unmodifiable view of the caches.
+   */
+  public Map<String, HttpCache> getCaches() {
+    return Collections.unmodifiableMap(this._caches);
+  }
+
   /**
    * Set whether the client enable 'gzip' transfer encoding for all its requests by default.
    *
@@ -61,6 +113,53 @@ public final class HttpClient {
     return gzipEnabled;
   }
 
+  /**
+   * Set whether identical concurrent GET requests created by this client share a single call to PageSeeder.
+   *
+   * <p>Requests are identical if they have the same URL and credentials. Coalescing is disabled by default.
+   *
+   * @param enabled true to enable for all GET requests; false to disable for all GET requests
+   *
+   * @see CacheableRequest#coalesce(boolean)
+   */
+  public static void setCoalescingEnabled(boolean enabled) {
+    coalescingEnabled = enabled;
+  }
+
+  /**
+   * Indicates whether identical concurrent GET requests created by this client share a single call to PageSeeder.
+   *
+   * @return <code>true</code> if enabled; <code>false</code> otherwise.
+   */
+  public static boolean isCoalescingEnabled() {
+    return coalescingEnabled;
+  }
+
+  /**
+   * Set the executor to use to run asynchronous requests.
+   *
+   * <p>Requests are blocking, so the executor should not be a small pool used for CPU-bound
+   * tasks such as the <code>ForkJoinPool.commonPool()</code>.
+   *
+   * @param executor The executor to use or <code>null</code> to use the default executor
+   */
+  public static void setExecutor(@Nullable Executor executor) {
+    HttpClient.executor = executor;
+  }
+
+  /**
+   * Returns the executor used to run asynchronous requests.
+   *
+   * <p>By default, this is an executor starting a new virtual thread for each request when
+   * virtual threads are available (Java 21+), or a cached pool of daemon threads otherwise.
+   *
+   * @return the executor for asynchronous requests.
+   */
+  public static Executor getExecutor() {
+    Executor e = executor;
+    return e != null ? e : DefaultExecutor.INSTANCE;
+  }
+
   /**
    * Add the header to the request to accept gzip responses if gzip is enabled
    *
@@ -71,13 +170,23 @@ public final class HttpClient {
     return gzipEnabled? request.gzip(true) : request;
   }
 
+  /**
+   * Creates a new cacheable GET request coalesced with identical requests if enabled.
+   *
+   * @param path The path without the site prefix
+   * @return The new request
+   */
+  private CacheableRequest newCacheableRequest(String path) {
+    return new CacheableRequest(this::getCache, path).coalesce(coalescingEnabled);
+  }
+
   /**
    * Creates a new request to a PageSeeder service.
    *
    * @param path  The PageSeeder servlet to use
    */
   public HttpRequest newRequest(String path) {
-    return enableGzip(new CacheableRequest(this._cache, path));
+    return enableGzip(newCacheableRequest(path));
   }
 
   /**
@@ -87,7 +196,7 @@ public final class HttpClient {
    * @param path   The PageSeeder servlet to use
    */
   public HttpRequest newRequest(Method method, String path) {
-    HttpRequest request = (method == Method.GET)? new CacheableRequest(this._cache, path) : new Request(method, path);
+    HttpRequest request = (method == Method.GET)? newCacheableRequest(path) : new Request(method, path);
     return enableGzip(request);
   }
 
@@ -97,7 +206,7 @@ public final class HttpClient {
    * @param servlet  The PageSeeder servlet to use
    */
   public HttpRequest newRequest(Method method, Servlet servlet) {
-    if (method == Method.GET) return new CacheableRequest(this._cache, servlet.toPath()).parameter("xformat", "xml");
+    if (method == Method.GET) return newCacheableRequest(servlet.toPath()).parameter("xformat", "xml");
     return new Request(method, servlet);
   }
 
@@ -113,7 +222,7 @@ public final class HttpClient {
    * @return The corresponding request
    */
   public HttpRequest newService(String template, @NonNull Object... variables) {
-    return enableGzip(new CacheableRequest(this._cache, ServicePath.newPath(template, variables)));
+    return enableGzip(newCacheableRequest(ServicePath.newPath(template, variables)));
   }
 
   /**
@@ -127,7 +236,7 @@ public final class HttpClient {
    */
   public HttpRequest newDocument(long uri) {
     if (uri <= 0) throw new IllegalArgumentException("URI ID must be strictly positive.");
-    return enableGzip(new CacheableRequest(this._cache, "/uri/"+uri));
+    return enableGzip(newCacheableRequest("/uri/"+uri));
   }
 
   /**
@@ -138,7 +247,34 @@ public final class HttpClient {
    * @return The corresponding request
    */
   public HttpRequest newDocument(String path) {
-    return enableGzip(new CacheableRequest(this._cache, path));
+    return enableGzip(newCacheableRequest(path));
+  }
+
+  /**
+   * Lazily creates the default executor for asynchronous requests.
+   */
+  private static final class DefaultExecutor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HttpClient.class);
+
+    private static final ExecutorService INSTANCE = newExecutor();
+
+    private static ExecutorService newExecutor() {
+      try {
+        // Java 21+, invoked by reflection as we compile for Java 8
+        java.lang.reflect.Method virtual = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        LOGGER.debug("Using virtual threads for asynchronous requests");
+        return (ExecutorService) virtual.invoke(null);
+      } catch (ReflectiveOperationException | ClassCastException ex) {
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory factory = r -> {
+          Thread t = new Thread(r, "bridge-http-" + count.incrementAndGet());
+          t.setDaemon(true);
+          return t;
+        };
+        return Executors.newCachedThreadPool(factory);
+      }
+    }
   }
 
 }
@@ -18,13 +18,15 @@ package org.pageseeder.bridge.http;
 import org.eclipse.jdt.annotation.Nullable;
 import org.pageseeder.bridge.PSConfig;
 import org.pageseeder.bridge.PSCredentials;
+import org.pageseeder.bridge.xml.stax.XMLStreamHandler;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  *
- * @version 0.11.12
+ * @version 0.11.41
  * @since 0.11.0
  */
 public interface HttpRequest {
@@ -63,6 +65,26 @@ public interface HttpRequest {
    */
   HttpRequest parameters(Map<String, String> parameters);
 
+  /**
+   * Adds parameters from a query string which is already URL encoded.
+   *
+   * <p>Implementations should use the query as is instead of encoding the parameters again;
+   * the default implementation decodes the query and adds each parameter.
+   *
+   * @param query The URL encoded query (without the leading '?')
+   *
+   * @return This request.
+   */
+  default HttpRequest query(String query) {
+    if (query.length() > 0) {
+      for (String p : query.split("&")) {
+        Parameter parameter = Parameter.newParameter(p);
+        parameter(parameter.name(), parameter.value());
+      }
+    }
+    return this;
+  }
+
   /**
    * Specify which credentials to use with this request.
    *
@@ -177,4 +199,75 @@ public interface HttpRequest {
    */
   HttpResponse response();
 
+  /**
+   * Sends this request asynchronously.
+   *
+   * <p>The request is executed using the executor returned by {@link HttpClient#getExecutor()},
+   * the request should not be modified after calling this method.
+   *
+   * @return A future completed with the response once the response status and headers are received
+   */
+  default CompletableFuture<HttpResponse> responseAsync() {
+    return CompletableFuture.supplyAsync(this::response, HttpClient.getExecutor());
+  }
+
+  /**
+   * Sends this request asynchronously and consumes the response using a handler to return a
+   * list of objects from it.
+   *
+   * <p>The future completes exceptionally with a {@link ContentException} if the response was
+   * not successful.
+   *
+   * @param handler The object handler for the XML
+   * @param <T> The type of object returned in the list.
+   *
+   * @return A future completed with the list of items from the parsed XML.
+   */
+  default <T> CompletableFuture<List<T>> consumeListAsync(XMLStreamHandler<T> handler) {
+    return responseAsync().thenApply(response -> {
+      try (HttpResponse r = response) {
+        Response.requireSuccessful(r);
+        return r.consumeList(handler);
+      }
+    });
+  }
+
+  /**
+   * Sends this request asynchronously and consumes the response using a handler to return a
+   * single object from it.
+   *
+   * <p>The future completes exceptionally with a {@link ContentException} if the response was
+   * not successful.
+   *
+   * @param handler The object handler for the XML
+   * @param <T> The type of object returned as the item.
+   *
+   * @return A future completed with the first item from the parsed XML or <code>null</code>.
+   */
+  default <T> CompletableFuture<@Nullable T> consumeItemAsync(XMLStreamHandler<T> handler) {
+    return responseAsync().thenApply(response -> {
+      try (HttpResponse r = response) {
+        Response.requireSuccessful(r);
+        return r.consumeItem(handler);
+      }
+    });
+  }
+
+  /**
+   * Sends this request asynchronously and returns the response content as a string.
+   *
+   * <p>The future completes exceptionally with a {@link ContentException} if the response was
+   * not successful.
+   *
+   * @return A future completed with the content of the response.
+   */
+  default CompletableFuture<String> consumeStringAsync() {
+    return responseAsync().thenApply(response -> {
+      try (HttpResponse r = response) {
+        Response.requireSuccessful(r);
+        return r.consumeString();
+      }
+    });
+  }
+
 }
@@ -27,10 +27,11 @@ import java.io.*;
 import java.nio.charset.Charset;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  *
- * @version 0.11.0
+ * @version 0.11.41
  * @since 0.11.0
  */
 public interface HttpResponse extends AutoCloseable {
@@ -378,6 +379,35 @@ public interface HttpResponse extends AutoCloseable {
    */
   <T> @Nullable T consumeItem(XMLStreamHandler<T> handler) throws ContentException;
 
+  /**
+   * Consumes the output of the response lazily using a handler and returns a stream of objects
+   * from it.
+   *
+   * <p>Objects are parsed as the stream is consumed, so that large responses can be processed
+   * in constant memory. The stream should be closed in order to release the underlying connection,
+   * for example using a try-with-resources statement:
+   * <pre>{@code
+   * try (Stream<Membership> memberships = response.stream(new XMLStreamMembership())) {
+   *   memberships.forEach(m -> ...);
+   * }
+   * }</pre>
+   *
+   * <p>After calling this method the response content will no longer be available.
+   *
+   * <p>The default implementation simply returns a stream from {@link #consumeList(XMLStreamHandler)}.
+   *
+   * @param handler The object handler for the XML
+   * @param <T> The type of object returned as the item.
+   *
+   * @return A stream of items from the XML.
+   *
+   * @throws IllegalStateException If the response is not available.
+   * @throws ContentException If an error occurred while consuming the content.
+   */
+  default <T> Stream<T> stream(XMLStreamHandler<T> handler) throws ContentException {
+    return consumeList(handler).stream();
+  }
+
   /**
    * Consumes the output of the response and copies it to the specified XML writer.
    *
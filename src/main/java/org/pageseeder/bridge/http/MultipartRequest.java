@@ -22,7 +22,6 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLConnection;
@@ -55,7 +54,7 @@ import org.slf4j.LoggerFactory;
  *
  * @author Christophe Lauret
  *
- * @version 0.10.2
+ * @version 0.11.41
  * @since 0.9.1
  */
 public final class MultipartRequest extends BasicRequest {
@@ -76,9 +75,9 @@ public final class MultipartRequest extends BasicRequest {
   private final String _boundary;
 
   /**
-   * The underlying HTTP connection.
+   * The underlying HTTP exchange.
    */
-  private @Nullable HttpURLConnection connection = null;
+  private @Nullable Exchange exchange = null;
 
   /**
    * The output stream used to write the data to push through the connection (e.g. Multipart).
@@ -122,7 +121,7 @@ public final class MultipartRequest extends BasicRequest {
    */
   @Override
   public MultipartRequest header(String name, String value) {
-    if (this.connection != null) throw new IllegalStateException("Too late to set headers to this multipart request!");
+    if (this.exchange != null) throw new IllegalStateException("Too late to set headers to this multipart request!");
     super.setHeader(name, value);
     return this;
   }
@@ -141,10 +140,25 @@ public final class MultipartRequest extends BasicRequest {
    */
   @Override
   public MultipartRequest parameter(String name, String value) {
-    if (this.connection != null) throw new IllegalStateException("Too late to set parameters for this multipart request!");
+    if (this.exchange != null) throw new IllegalStateException("Too late to set parameters for this multipart request!");
     return (MultipartRequest)super.parameter(name, value);
   }
 
+  /**
+   * Adds parameters from a query string which is already URL encoded.
+   *
+   * @param query The URL encoded query (without the leading '?')
+   *
+   * @return This request.
+   *
+   * @throws IllegalStateException If the connection has already been established and it is too late.
+   */
+  @Override
+  public MultipartRequest query(String query) {
+    if (this.exchange != null) throw new IllegalStateException("Too late to set parameters for this multipart request!");
+    return (MultipartRequest)super.query(query);
+  }
+
   /**
    * Specify which credentials to use with this request.
    *
@@ -159,7 +173,7 @@ public final class MultipartRequest extends BasicRequest {
    */
   @Override
   public MultipartRequest using(PSCredentials credentials) {
-    if (this.connection != null) throw new IllegalStateException("Too late to specify credentials to this multipart request!");
+    if (this.exchange != null) throw new IllegalStateException("Too late to specify credentials to this multipart request!");
     return (MultipartRequest)super.using(credentials);
   }
 
@@ -402,15 +416,17 @@ public final class MultipartRequest extends BasicRequest {
       if (this.credentials instanceof PSSession) {
         session = (PSSession)this.credentials;
       }
-      HttpURLConnection con = this.connection;
-      if (con != null)  {
+      Exchange exchange = this.exchange;
+      if (exchange != null)  {
         // Trigger the connection
-        status = this.connection.getResponseCode();
+        status = exchange.code();
 
-        return new Response(con, con.getResponseCode(), session);
+        return new Response(exchange, status, session);
       }
       else return new Response("No connection or connection was not established yet.");
     } catch (IOException ex) {
+      Exchange exchange = this.exchange;
+      if (exchange != null) exchange.close();
       return new Response(ex.getMessage());
     } finally {
       LOGGER.info("{} [{}] -> {} in {}ms", toURLString(this.config, this._path), this._method, status, System.currentTimeMillis() -t);
@@ -429,25 +445,12 @@ public final class MultipartRequest extends BasicRequest {
    */
   private DataOutputStream init() throws IOException {
     URL url = toURL();
-    HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-    connection.setDoOutput(true);
-    connection.setInstanceFollowRedirects(true);
-    if (this.timeout >= 0) {
-      connection.setConnectTimeout(this.timeout);
-    }
 
     // Multipart is always POST
-    connection.setRequestMethod("POST");
-    connection.setDefaultUseCaches(false);
-
-    // Set the headers
-    for (Header h : this._headers) {
-      connection.addRequestProperty(h.name(), h.value());
-    }
+    Exchange exchange = Transports.get(this.config).open("POST", url, this._headers, this.timeout);
 
     // Prepare the connection for
-    connection.setDoInput(true);
-    DataOutputStream out = new DataOutputStream(connection.getOutputStream());
+    DataOutputStream out = new DataOutputStream(exchange.getOutputStream());
 
     // We serialize the HTTP parameters first
 //    if (!this._parameters.isEmpty()) {
@@ -457,7 +460,7 @@ public final class MultipartRequest extends BasicRequest {
 //    }
 
     // Returns the connection
-    this.connection = connection;
+    this.exchange = exchange;
     this.out = out;
 
     // Return the output stream
@@ -550,7 +553,7 @@ public final class MultipartRequest extends BasicRequest {
   public URL toURL() throws MalformedURLException {
     String url = toURLString();
     // We serialize the HTTP parameters first and put them on the query
-    if (!this._parameters.isEmpty()) {
+    if (hasParameters()) {
       url = url+'?'+ encodeParameters();
     }
     return new URL(url);
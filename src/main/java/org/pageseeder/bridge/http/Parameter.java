@@ -20,11 +20,15 @@ import java.net.URLDecoder;
 import java.net.URLEncoder;
 import java.util.Objects;
 
+import org.eclipse.jdt.annotation.Nullable;
+
 /**
  * A HTTP parameter
  *
+ * <p>The URL encoded form of the parameter is computed once and reused.
+ *
  * @author Christophe Lauret
- * @version 0.9.1
+ * @version 0.11.41
  * @since 0.9.1
  */
 public final class Parameter {
@@ -39,6 +43,11 @@ public final class Parameter {
    */
   private final String _value;
 
+  /**
+   * The URL encoded parameter (computed lazily)
+   */
+  private @Nullable String encoded = null;
+
   /**
    * Create a new parameter
    *
@@ -64,21 +73,35 @@ public final class Parameter {
     return this._value;
   }
 
+  /**
+   * Appends the URL encoded parameter to the specified query.
+   *
+   * @param query The query to append this parameter to
+   */
   public void append(StringBuilder query) {
-    try {
-      query.append(URLEncoder.encode(this._name, "utf-8"));
-      query.append("=").append(URLEncoder.encode(this._value, "utf-8"));
-    } catch (UnsupportedEncodingException ex) {
-      // Should never happen as UTF-8 is supported
-      throw new RuntimeException();
+    query.append(encode());
+  }
+
+  /**
+   * @return The URL encoded parameter as <code>name=value</code>
+   */
+  public String encode() {
+    String encoded = this.encoded;
+    if (encoded == null) {
+      try {
+        encoded = URLEncoder.encode(this._name, "utf-8")+"="+URLEncoder.encode(this._value, "utf-8");
+      } catch (UnsupportedEncodingException ex) {
+        // Should never happen as UTF-8 is supported
+        throw new RuntimeException();
+      }
+      this.encoded = encoded;
     }
+    return encoded;
   }
 
   @Override
   public String toString() {
-    StringBuilder q = new StringBuilder();
-    append(q);
-    return q.toString();
+    return encode();
   }
 
 
@@ -86,7 +109,7 @@ public final class Parameter {
     try {
       int e = parameter.indexOf('=');
       if (e < 0) {
-        String name = URLDecoder.decode(parameter.substring(0, e), "utf-8");
+        String name = URLDecoder.decode(parameter, "utf-8");
         return new Parameter(name, "");
       } else {
         String name = URLDecoder.decode(parameter.substring(0, e), "utf-8");
@@ -0,0 +1,650 @@
+/*
+ * Copyright 2026 Allette Systems (Australia)
+ * http://www.allette.com.au
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pageseeder.bridge.http;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * A persistent store for cached content so that the HTTP cache survives restarts.
+ *
+ * <p>Entries are appended to segment files in a directory; a newer record for the same key
+ * supersedes older ones and removals are recorded as tombstones. Each record includes a checksum
+ * so that records partially written when the process stopped are detected and discarded.
+ *
+ * <p>The location of each entry is kept in memory and periodically saved to an index file so that
+ * only the records appended since the index was written need to be scanned on startup. When more
+ * than half of the stored bytes belong to superseded records, the live records are copied to a new
+ * segment and the previous segments are deleted once the new index has been written.
+ *
+ * <p>Content restored from the store is stale and must be revalidated with its etag. Large bodies
+ * are mapped directly from the segment files.
+ *
+ * <p>This class is thread-safe.
+ *
+ * @author Christophe Lauret
+ *
+ * @version 0.11.41
+ * @since 0.11.41
+ */
+final class PersistentStore implements Closeable {
+
+  /**
+   * Logger for this class
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(PersistentStore.class);
+
+  /** Identifies records in segments ("BRC1"). */
+  private static final int RECORD_MAGIC = 0x42524331;
+
+  /** Identifies the index file ("BRI1"). */
+  private static final int INDEX_MAGIC = 0x42524931;
+
+  /** Length of the fixed part of each record: magic, header length, body length and checksum. */
+  private static final int PREFIX_LENGTH = 16;
+
+  /** Maximum size of a segment before a new one is started. */
+  private static final long SEGMENT_SIZE = 64L * 1024 * 1024;
+
+  /** Bodies at least this size are mapped rather than read. */
+  private static final int MAP_THRESHOLD = 64 * 1024;
+
+  /** Number of changes after which the index is saved. */
+  private static final int INDEX_INTERVAL = 64;
+
+  /** Pattern for segment file names. */
+  private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d+)\\.dat");
+
+  private static final String INDEX_NAME = "index.dat";
+
+  /**
+   * The directory containing the files.
+   */
+  private final Path _directory;
+
+  /**
+   * The maximum number of bytes of live records to keep after compaction.
+   */
+  private final long _maxBytes;
+
+  /**
+   * Open segments by ID.
+   */
+  private final TreeMap<Integer, FileChannel> _segments = new TreeMap<>();
+
+  /**
+   * Location of the live records by key.
+   */
+  private final Map<String, Location> _index = new HashMap<>();
+
+  /**
+   * Number of bytes used by live records.
+   */
+  private long liveBytes = 0;
+
+  /**
+   * Number of bytes used by superseded records and tombstones.
+   */
+  private long deadBytes = 0;
+
+  /**
+   * Number of changes since the index was saved.
+   */
+  private int changes = 0;
+
+  private PersistentStore(Path directory, long maxBytes) {
+    this._directory = directory;
+    this._maxBytes = maxBytes;
+  }
+
+  /**
+   * Opens or creates the store in the specified directory.
+   *
+   * @param directory The directory for the store files
+   * @param maxBytes  The maximum number of bytes of content to keep
+   *
+   * @return the store
+   *
+   * @throws IOException If the store could not be opened.
+   */
+  static PersistentStore open(Path directory, long maxBytes) throws IOException {
+    Files.createDirectories(directory);
+    PersistentStore store = new PersistentStore(directory, maxBytes);
+    store.load();
+    return store;
+  }
+
+  /**
+   * @return the number of entries in the store.
+   */
+  synchronized int size() {
+    return this._index.size();
+  }
+
+  /**
+   * Returns the content for the specified key.
+   *
+   * @param key The cache key
+   *
+   * @return the corresponding content or <code>null</code> if not found or if it could not be read.
+   */
+  synchronized @Nullable CachedContent get(String key) {
+    Location location = this._index.get(key);
+    if (location == null) return null;
+    try {
+      FileChannel channel = this._segments.get(location.segment);
+      ByteBuffer header = ByteBuffer.allocate(location.headerLength);
+      readFully(channel, header, location.offset + PREFIX_LENGTH);
+      Metadata h = Metadata.parse(header.array());
+      long bodyOffset = location.offset + PREFIX_LENGTH + location.headerLength;
+      ByteBuffer body;
+      if (location.bodyLength >= MAP_THRESHOLD) {
+        body = channel.map(FileChannel.MapMode.READ_ONLY, bodyOffset, location.bodyLength);
+      } else {
+        ByteBuffer bytes = ByteBuffer.allocate(location.bodyLength);
+        readFully(channel, bytes, bodyOffset);
+        bytes.flip();
+        body = ByteBuffer.allocateDirect(location.bodyLength).put(bytes);
+        body.flip();
+      }
+      return new CachedContent(h.url, body.asReadOnlyBuffer(), h.deflated, h.length, h.mediaType,
+          h.charset.isEmpty() ? null : h.charset, h.etag, h.vary, h.variant, h.date, h.expires);
+    } catch (IOException | RuntimeException ex) {
+      LOGGER.warn("Unable to read cached content for {}", key, ex);
+      return null;
+    }
+  }
+
+  /**
+   * Stores the content under the specified key.
+   *
+   * <p>Nothing is written if the store already has the same version of the content.
+   *
+   * @param key     The cache key
+   * @param content The content to store
+   */
+  synchronized void put(String key, CachedContent content) {
+    Location existing = this._index.get(key);
+    if (existing != null && existing.etag.equals(content.etag()) && existing.length == content.length()) return;
+    if (content.size() > this._maxBytes) return;
+    Metadata h = new Metadata(key, content);
+    try {
+      Location location = append(key, h.toBytes(), content.body(), content.etag(), content.length());
+      replace(key, location);
+    } catch (IOException ex) {
+      LOGGER.warn("Unable to store cached content for {}", key, ex);
+    }
+  }
+
+  /**
+   * Removes the content for the specified key.
+   *
+   * @param key The cache key
+   */
+  synchronized void remove(String key) {
+    if (!this._index.containsKey(key)) return;
+    try {
+      Location tombstone = append(key, Metadata.tombstone(key), null, "", 0);
+      this.deadBytes += tombstone.recordLength();
+      replace(key, null);
+    } catch (IOException ex) {
+      LOGGER.warn("Unable to remove cached content for {}", key, ex);
+    }
+  }
+
+  /**
+   * Saves the index.
+   *
+   * @throws IOException If the index could not be saved
+   */
+  synchronized void flush() throws IOException {
+    saveIndex();
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    try {
+      flush();
+    } finally {
+      for (FileChannel channel : this._segments.values()) {
+        channel.close();
+      }
+      this._segments.clear();
+      this._index.clear();
+    }
+  }
+
+  // Writing
+  // ----------------------------------------------------------------------------------------------
+
+  private Location append(String key, byte[] header, @Nullable ByteBuffer body, String etag, int length) throws IOException {
+    int bodyLength = body != null ? body.remaining() : -1;
+    long recordLength = PREFIX_LENGTH + header.length + Math.max(bodyLength, 0);
+    Map.Entry<Integer, FileChannel> active = this._segments.lastEntry();
+    if (active == null || (active.getValue().size() > 0 && active.getValue().size() + recordLength > SEGMENT_SIZE)) {
+      active = newSegment(active != null ? active.getKey() + 1 : 1);
+    }
+    FileChannel channel = active.getValue();
+    long offset = channel.size();
+    CRC32 crc = new CRC32();
+    crc.update(header);
+    if (body != null) crc.update(body.duplicate());
+    ByteBuffer prefix = ByteBuffer.allocate(PREFIX_LENGTH);
+    prefix.putInt(RECORD_MAGIC).putInt(header.length).putInt(bodyLength).putInt((int)crc.getValue()).flip();
+    ByteBuffer[] record = body != null
+        ? new ByteBuffer[] { prefix, ByteBuffer.wrap(header), body.duplicate() }
+        : new ByteBuffer[] { prefix, ByteBuffer.wrap(header) };
+    channel.position(offset);
+    long remaining = recordLength;
+    while (remaining > 0) {
+      remaining -= channel.write(record);
+    }
+    return new Location(active.getKey(), offset, header.length, Math.max(bodyLength, 0), etag, length);
+  }
+
+  private void replace(String key, @Nullable Location location) throws IOException {
+    Location previous = location != null ? this._index.put(key, location) : this._index.remove(key);
+    if (previous != null) {
+      this.liveBytes -= previous.recordLength();
+      this.deadBytes += previous.recordLength();
+    }
+    if (location != null) {
+      this.liveBytes += location.recordLength();
+    }
+    if (this.deadBytes > this.liveBytes && this.deadBytes > SEGMENT_SIZE / 4 || this.liveBytes > this._maxBytes) {
+      compact();
+    } else if (++this.changes >= INDEX_INTERVAL) {
+      saveIndex();
+    }
+  }
+
+  private Map.Entry<Integer, FileChannel> newSegment(int id) throws IOException {
+    FileChannel channel = FileChannel.open(segmentPath(id), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    this._segments.put(id, channel);
+    return this._segments.lastEntry();
+  }
+
+  /**
+   * Copies the live records to a new segment and deletes the previous segments.
+   *
+   * <p>If the live records exceed the maximum size, the oldest records are dropped.
+   */
+  private void compact() throws IOException {
+    int id = this._segments.isEmpty() ? 1 : this._segments.lastKey() + 1;
+    List<Map.Entry<String, Location>> live = new ArrayList<>(this._index.entrySet());
+    live.sort(Comparator.comparing(Map.Entry::getValue));
+    long bytes = this.liveBytes;
+    long target = this.liveBytes > this._maxBytes ? this._maxBytes - this._maxBytes / 10 : this._maxBytes;
+    int first = 0;
+    while (bytes > target && first < live.size()) {
+      bytes -= live.get(first++).getValue().recordLength();
+    }
+    Path tmp = this._directory.resolve("segment-"+id+".tmp");
+    Map<String, Location> index = new HashMap<>();
+    try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      long position = 0;
+      for (Map.Entry<String, Location> entry : live.subList(first, live.size())) {
+        Location from = entry.getValue();
+        FileChannel in = this._segments.get(from.segment);
+        long length = from.recordLength();
+        long copied = 0;
+        while (copied < length) {
+          copied += in.transferTo(from.offset + copied, length - copied, out);
+        }
+        index.put(entry.getKey(), new Location(id, position, from.headerLength, from.bodyLength, from.etag, from.length));
+        position += length;
+      }
+      out.force(true);
+    }
+    Files.move(tmp, segmentPath(id), StandardCopyOption.ATOMIC_MOVE);
+    // Switch to the new segment
+    List<Integer> previous = new ArrayList<>(this._segments.keySet());
+    for (FileChannel channel : this._segments.values()) {
+      channel.close();
+    }
+    this._segments.clear();
+    newSegment(id);
+    this._index.clear();
+    this._index.putAll(index);
+    this.liveBytes = bytes;
+    this.deadBytes = 0;
+    saveIndex();
+    for (Integer segment : previous) {
+      delete(segmentPath(segment));
+    }
+    LOGGER.debug("Compacted cache store {} to {} entries", this._directory, index.size());
+  }
+
+  // Loading
+  // ----------------------------------------------------------------------------------------------
+
+  private void load() throws IOException {
+    List<Integer> ids = new ArrayList<>();
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(this._directory, "segment-*")) {
+      for (Path file : files) {
+        Matcher m = SEGMENT_NAME.matcher(file.getFileName().toString());
+        if (m.matches()) ids.add(Integer.valueOf(m.group(1)));
+        else delete(file);
+      }
+    }
+    Collections.sort(ids);
+    Map<Integer, Long> indexed = loadIndex();
+    int lastIndexed = indexed.isEmpty() ? 0 : Collections.max(indexed.keySet());
+    for (Integer id : ids) {
+      Long from = indexed.get(id);
+      if (from == null && id < lastIndexed) {
+        // Left over from a compaction
+        delete(segmentPath(id));
+        continue;
+      }
+      FileChannel channel = FileChannel.open(segmentPath(id), StandardOpenOption.READ, StandardOpenOption.WRITE);
+      this._segments.put(id, channel);
+      scan(id, channel, from != null ? from : 0);
+    }
+    // Drop entries from the index pointing to missing segments or beyond the end of the segment
+    Map<Integer, Long> sizes = new HashMap<>();
+    for (Map.Entry<Integer, FileChannel> segment : this._segments.entrySet()) {
+      sizes.put(segment.getKey(), segment.getValue().size());
+    }
+    this._index.values().removeIf(location -> {
+      Long size = sizes.get(location.segment);
+      return size == null || location.offset + location.recordLength() > size;
+    });
+    this.liveBytes = 0;
+    for (Location location : this._index.values()) {
+      this.liveBytes += location.recordLength();
+    }
+    LOGGER.debug("Loaded cache store {} with {} entries", this._directory, this._index.size());
+  }
+
+  /**
+   * Scan the records of a segment from the specified offset, truncating any incomplete record.
+   */
+  private void scan(int id, FileChannel channel, long from) throws IOException {
+    long offset = from;
+    long size = channel.size();
+    ByteBuffer prefix = ByteBuffer.allocate(PREFIX_LENGTH);
+    while (offset + PREFIX_LENGTH <= size) {
+      prefix.clear();
+      readFully(channel, prefix, offset);
+      prefix.flip();
+      int magic = prefix.getInt();
+      int headerLength = prefix.getInt();
+      int bodyLength = prefix.getInt();
+      int checksum = prefix.getInt();
+      long end = offset + PREFIX_LENGTH + headerLength + Math.max(bodyLength, 0);
+      if (magic != RECORD_MAGIC || headerLength <= 0 || bodyLength < -1 || end > size) break;
+      ByteBuffer header = ByteBuffer.allocate(headerLength);
+      readFully(channel, header, offset + PREFIX_LENGTH);
+      CRC32 crc = new CRC32();
+      crc.update(header.array());
+      if (bodyLength > 0) {
+        crc.update(channel.map(FileChannel.MapMode.READ_ONLY, offset + PREFIX_LENGTH + headerLength, bodyLength));
+      }
+      if ((int)crc.getValue() != checksum) break;
+      Metadata h = Metadata.parse(header.array());
+      Location location = new Location(id, offset, headerLength, Math.max(bodyLength, 0), h.etag, h.length);
+      Location previous = bodyLength >= 0 ? this._index.put(h.key, location) : this._index.remove(h.key);
+      if (previous != null) this.deadBytes += previous.recordLength();
+      if (bodyLength < 0) this.deadBytes += location.recordLength();
+      offset = end;
+    }
+    if (offset < size) {
+      LOGGER.warn("Discarding {} bytes of incomplete records in cache store {}", size - offset, this._directory);
+      channel.truncate(offset);
+    }
+  }
+
+  /**
+   * Loads the index file.
+   *
+   * @return the length of each segment covered by the index or an empty map if invalid
+   */
+  private Map<Integer, Long> loadIndex() {
+    Path file = this._directory.resolve(INDEX_NAME);
+    if (!Files.exists(file)) return Collections.emptyMap();
+    try {
+      byte[] bytes = Files.readAllBytes(file);
+      if (bytes.length < 8) return Collections.emptyMap();
+      CRC32 crc = new CRC32();
+      crc.update(bytes, 0, bytes.length - 8);
+      if (ByteBuffer.wrap(bytes, bytes.length - 8, 8).getLong() != crc.getValue()) return Collections.emptyMap();
+      DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 0, bytes.length - 8));
+      if (in.readInt() != INDEX_MAGIC) return Collections.emptyMap();
+      Map<Integer, Long> segments = new HashMap<>();
+      int segmentCount = in.readInt();
+      for (int i = 0; i < segmentCount; i++) {
+        segments.put(in.readInt(), in.readLong());
+      }
+      int entryCount = in.readInt();
+      for (int i = 0; i < entryCount; i++) {
+        String key = in.readUTF();
+        Location location = new Location(in.readInt(), in.readLong(), in.readInt(), in.readInt(), in.readUTF(), in.readInt());
+        this._index.put(key, location);
+      }
+      this.deadBytes = in.readLong();
+      return segments;
+    } catch (IOException ex) {
+      LOGGER.warn("Ignoring invalid index for cache store {}", this._directory, ex);
+      this._index.clear();
+      return Collections.emptyMap();
+    }
+  }
+
+  /**
+   * Writes the index to a temporary file which then replaces the index atomically.
+   */
+  private void saveIndex() throws IOException {
+    // The index must not refer to records which have not been written
+    for (FileChannel channel : this._segments.values()) {
+      channel.force(false);
+    }
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.writeInt(INDEX_MAGIC);
+    out.writeInt(this._segments.size());
+    for (Map.Entry<Integer, FileChannel> segment : this._segments.entrySet()) {
+      out.writeInt(segment.getKey());
+      out.writeLong(segment.getValue().size());
+    }
+    out.writeInt(this._index.size());
+    for (Map.Entry<String, Location> entry : this._index.entrySet()) {
+      Location location = entry.getValue();
+      out.writeUTF(entry.getKey());
+      out.writeInt(location.segment);
+      out.writeLong(location.offset);
+      out.writeInt(location.headerLength);
+      out.writeInt(location.bodyLength);
+      out.writeUTF(location.etag);
+      out.writeInt(location.length);
+    }
+    out.writeLong(this.deadBytes);
+    CRC32 crc = new CRC32();
+    crc.update(bytes.toByteArray());
+    out.writeLong(crc.getValue());
+    out.flush();
+    Path tmp = this._directory.resolve(INDEX_NAME+".tmp");
+    Files.write(tmp, bytes.toByteArray());
+    Files.move(tmp, this._directory.resolve(INDEX_NAME), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    this.changes = 0;
+  }
+
+  private Path segmentPath(int id) {
+    return this._directory.resolve("segment-"+id+".dat");
+  }
+
+  private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+    long p = position;
+    while (buffer.hasRemaining()) {
+      int read = channel.read(buffer, p);
+      if (read < 0) throw new EOFException();
+      p += read;
+    }
+  }
+
+  private static void delete(Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException ex) {
+      // Mapped files cannot be deleted on some platforms
+      file.toFile().deleteOnExit();
+    }
+  }
+
+  /**
+   * The location of a record in a segment.
+   */
+  private static final class Location implements Comparable<Location> {
+
+    final int segment;
+    final long offset;
+    final int headerLength;
+    final int bodyLength;
+    final String etag;
+    final int length;
+
+    Location(int segment, long offset, int headerLength, int bodyLength, String etag, int length) {
+      this.segment = segment;
+      this.offset = offset;
+      this.headerLength = headerLength;
+      this.bodyLength = bodyLength;
+      this.etag = etag;
+      this.length = length;
+    }
+
+    long recordLength() {
+      return PREFIX_LENGTH + this.headerLength + this.bodyLength;
+    }
+
+    @Override
+    public int compareTo(Location o) {
+      int compare = Integer.compare(this.segment, o.segment);
+      return compare != 0 ? compare : Long.compare(this.offset, o.offset);
+    }
+  }
+
+  /**
+   * The metadata of a record.
+   */
+  private static final class Metadata {
+
+    String key = "";
+    String url = "";
+    String etag = "";
+    String mediaType = "";
+    String charset = "";
+    List<String> vary = Collections.emptyList();
+    String variant = "";
+    boolean deflated;
+    int length;
+    long date;
+    long expires;
+
+    private Metadata() {
+    }
+
+    Metadata(String key, CachedContent content) {
+      this.key = key;
+      this.url = content.url();
+      this.etag = content.etag();
+      this.mediaType = content.mediaType();
+      String charset = content.charset();
+      this.charset = charset != null ? charset : "";
+      this.vary = content.vary();
+      this.variant = content.variant();
+      this.deflated = content.isDeflated();
+      this.length = content.length();
+      this.date = content.date();
+      this.expires = content.expires();
+    }
+
+    static byte[] tombstone(String key) throws IOException {
+      Metadata h = new Metadata();
+      h.key = key;
+      return h.toBytes();
+    }
+
+    byte[] toBytes() throws IOException {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(bytes);
+      out.writeUTF(this.key);
+      out.writeUTF(this.url);
+      out.writeUTF(this.etag);
+      out.writeUTF(this.mediaType);
+      out.writeUTF(this.charset);
+      out.writeInt(this.vary.size());
+      for (String name : this.vary) {
+        out.writeUTF(name);
+      }
+      out.writeUTF(this.variant);
+      out.writeBoolean(this.deflated);
+      out.writeInt(this.length);
+      out.writeLong(this.date);
+      out.writeLong(this.expires);
+      out.flush();
+      return bytes.toByteArray();
+    }
+
+    static Metadata parse(byte[] bytes) throws IOException {
+      DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+      Metadata h = new Metadata();
+      h.key = in.readUTF();
+      h.url = in.readUTF();
+      h.etag = in.readUTF();
+      h.mediaType = in.readUTF();
+      h.charset = in.readUTF();
+      int count = in.readInt();
+      List<String> vary = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        vary.add(in.readUTF());
+      }
+      h.vary = vary;
+      h.variant = in.readUTF();
+      h.deflated = in.readBoolean();
+      h.length = in.readInt();
+      h.date = in.readLong();
+      h.expires = in.readLong();
+      return h;
+    }
+  }
+
+}
@@ -25,7 +25,6 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.net.HttpURLConnection;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
@@ -79,7 +78,7 @@ import java.util.Map.Entry;
  *
  * @author Christophe Lauret
  *
- * @version 0.11.12
+ * @version 0.11.41
  * @since 0.9.1
  */
 public final class Request extends BasicRequest implements HttpRequest {
@@ -219,6 +218,11 @@ public final class Request extends BasicRequest implements HttpRequest {
     return this;
   }
 
+  @Override
+  public Request query(String query) {
+    return (Request)super.query(query);
+  }
+
   @Override
   public Request using(PSCredentials credentials) {
     return (Request)super.using(credentials);
@@ -337,7 +341,8 @@ public final class Request extends BasicRequest implements HttpRequest {
   /**
    * Create a PageSeeder connection for the specified URL and method.
    *
-   * <p>The connection is configured to:
+   * <p>The connection is opened using the transport for the configuration of this
+   * request and is configured to:
    * <ul>
    *   <li>Follow redirects</li>
    *   <li>Be used for output</li>
@@ -350,37 +355,22 @@ public final class Request extends BasicRequest implements HttpRequest {
   public Response response() {
     int status = -1;
     long t = System.currentTimeMillis();
+    Exchange exchange = null;
     try {
       URL url = toURL();
 
-      // Setup the connection
-      HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-      connection.setDoOutput(true);
-      connection.setInstanceFollowRedirects(true);
-      connection.setDefaultUseCaches(false);
-      if (this.timeout >= 0) {
-        connection.setConnectTimeout(this.timeout);
-      }
-
       // Tunnel PATCH through POST as HttpUrlConnection does not support PATCH
-      if (this._method == Method.PATCH) {
-        connection.setRequestMethod("POST");
-      } else {
-        connection.setRequestMethod(this._method.name());
-      }
+      String method = this._method == Method.PATCH ? "POST" : this._method.name();
 
       // Compute the body content (this might set some headers so must be done BEFORE we send the headers)
       byte[] data = computeBodyContent();
 
-      // Send the headers
-      for (Header h : this._headers) {
-        connection.addRequestProperty(h.name(), h.value());
-      }
+      // Setup the connection and send the headers
+      exchange = Transports.get(this.config).open(method, url, this._headers, this.timeout);
 
       // Write the body content if any
       if (data != null) {
-        connection.setDoInput(true);
-        writeData(connection, data);
+        writeData(exchange, data);
       }
 
       // Session handling
@@ -390,12 +380,13 @@ public final class Request extends BasicRequest implements HttpRequest {
       }
 
       // Trigger the connection
-      status = connection.getResponseCode();
+      status = exchange.code();
 
       // Create the response object after requesting status
-      return new Response(connection, status, session);
+      return new Response(exchange, status, session);
 
     } catch (IOException ex) {
+      if (exchange != null) exchange.close();
       return new Response(ex.getMessage());
     } finally {
       LOGGER.info("{} [{}] -> {} in {}ms", toURLString(this.config, this._path), this._method, status, System.currentTimeMillis() -t);
@@ -466,13 +457,13 @@ public final class Request extends BasicRequest implements HttpRequest {
   /**
    * Write the request body content.
    *
-   * @param connection The URL connection
-   * @param data       The data to write
+   * @param exchange The HTTP exchange
+   * @param data     The data to write
    *
    * @throws IOException Should any error occur while writing.
    */
-  private static void writeData(HttpURLConnection connection, byte[] data) throws IOException {
-    try (OutputStream post = connection.getOutputStream()){
+  private static void writeData(Exchange exchange, byte[] data) throws IOException {
+    try (OutputStream post = exchange.getOutputStream()){
       post.write(data);
       post.flush();
     }
@@ -21,6 +21,7 @@ import org.pageseeder.bridge.xml.DuplexHandler;
 import org.pageseeder.bridge.xml.Handler;
 import org.pageseeder.bridge.xml.ServiceErrorHandler;
 import org.pageseeder.bridge.xml.XMLCopy;
+import org.pageseeder.bridge.xml.XMLParsers;
 import org.pageseeder.bridge.xml.stax.XMLStreamHandler;
 import org.pageseeder.xmlwriter.XMLWriter;
 import org.slf4j.Logger;
@@ -33,10 +34,6 @@ import org.xml.sax.helpers.DefaultHandler;
 
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
-import javax.xml.parsers.SAXParserFactory;
-import javax.xml.stream.XMLInputFactory;
-import javax.xml.stream.XMLStreamException;
-import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.Templates;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
@@ -46,9 +43,12 @@ import java.io.*;
 import java.net.HttpURLConnection;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
 import java.util.*;
 import java.util.Map.Entry;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 import java.util.zip.GZIPInputStream;
 
 /**
@@ -82,7 +82,7 @@ import java.util.zip.GZIPInputStream;
  *
  * @author Christophe Lauret
  *
- * @version 0.11.12
+ * @version 0.11.41
  * @since 0.9.1
  */
 public final class Response implements HttpResponse, AutoCloseable {
@@ -132,9 +132,9 @@ public final class Response implements HttpResponse, AutoCloseable {
   }
 
   /**
-   * Holds the underlying connection.
+   * Holds the underlying exchange.
    */
-  private final @Nullable HttpURLConnection _connection;
+  private final @Nullable Exchange _exchange;
 
   /**
    * The HTTP status code.
@@ -178,41 +178,56 @@ public final class Response implements HttpResponse, AutoCloseable {
    */
   private @Nullable ServiceError error = null;
 
+  /**
+   * Wraps the input stream of a successful response, used by the cache to tee the content.
+   */
+  private @Nullable UnaryOperator<InputStream> interceptor = null;
+
+  /**
+   * Whether the content was returned to the caller as a stream which releases the exchange when closed.
+   */
+  private boolean streaming = false;
+
+  /**
+   * Whether the underlying exchange has been released.
+   */
+  private boolean released = false;
+
   // Constructors
   // ----------------------------------------------------------------------------------------------
 
   /**
-   * Construct a new response wrapping a HTTP URL connection without a session.
+   * Construct a new response wrapping an HTTP exchange without a session.
    *
    * <p>The status code, must be supplied as the response object should not constructed
-   * with a connection if the connection failed.
+   * with an exchange if the connection failed.
    *
-   * @param connection The underlying HTTP URL connection.
-   * @param statusCode The response status code for that connection
+   * @param exchange   The underlying HTTP exchange.
+   * @param statusCode The response status code for that exchange
    */
-  Response(HttpURLConnection connection, int statusCode) {
-    this(connection, statusCode, null);
+  Response(Exchange exchange, int statusCode) {
+    this(exchange, statusCode, null);
   }
 
   /**
-   * Construct a new response wrapping a HTTP URL connection.
+   * Construct a new response wrapping an HTTP exchange.
    *
    * <p>The status code, must be supplied as the response object should not constructed
-   * with a connection if the connection failed.
+   * with an exchange if the connection failed.
    *
-   * @param connection The underlying HTTP URL connection.
-   * @param statusCode The response status code for that connection
+   * @param exchange   The underlying HTTP exchange.
+   * @param statusCode The response status code for that exchange
    * @param session    The session used to make the request.
    */
-  Response(HttpURLConnection connection, int statusCode, @Nullable PSSession session) {
-    this._connection = connection;
+  Response(Exchange exchange, int statusCode, @Nullable PSSession session) {
+    this._exchange = exchange;
     this._statusCode = statusCode;
-    this._session = updateSession(connection, session);
-    this._headers = extractHeaders(connection);
-    this._mediaType = getMediaType(connection);
-    this._charset = detectCharset(connection);
+    this._session = updateSession(exchange, session);
+    this._headers = extractHeaders(exchange);
+    this._mediaType = getMediaType(exchange);
+    this._charset = detectCharset(exchange);
     try {
-      this._message = connection.getResponseMessage();
+      this._message = exchange.message();
     } catch (IOException ex) {
       throw new IllegalStateException("Connection failed");
     }
@@ -224,7 +239,7 @@ public final class Response implements HttpResponse, AutoCloseable {
    * @param message the explanation for the error.
    */
   Response(@Nullable String message) {
-    this._connection = null;
+    this._exchange = null;
     this._statusCode = -1;
     this._headers = Collections.emptyList();
     this._session = null;
@@ -327,9 +342,9 @@ public final class Response implements HttpResponse, AutoCloseable {
    */
   @Override
   public long length() {
-    HttpURLConnection con = this._connection;
-    if (con == null) return -1;
-    return con.getContentLengthLong();
+    Exchange exchange = this._exchange;
+    if (exchange == null) return -1;
+    return contentLength(exchange);
   }
 
   /**
@@ -341,9 +356,7 @@ public final class Response implements HttpResponse, AutoCloseable {
    */
   @Override
   public long date() {
-    HttpURLConnection con = this._connection;
-    if (con == null) return 0;
-    return con.getDate();
+    return dateHeader("Date");
   }
 
   /**
@@ -355,9 +368,7 @@ public final class Response implements HttpResponse, AutoCloseable {
    */
   @Override
   public long modified() {
-    HttpURLConnection con = this._connection;
-    if (con == null) return 0;
-    return con.getLastModified();
+    return dateHeader("Last-Modified");
   }
 
   /**
@@ -369,9 +380,7 @@ public final class Response implements HttpResponse, AutoCloseable {
    */
   @Override
   public long expires() {
-    HttpURLConnection con = this._connection;
-    if (con == null) return 0;
-    return con.getExpiration();
+    return dateHeader("Expires");
   }
 
   /**
@@ -383,9 +392,9 @@ public final class Response implements HttpResponse, AutoCloseable {
    */
   @Override
   public @Nullable String getContentType() {
-    HttpURLConnection con = this._connection;
-    if (con == null) return null;
-    return con.getContentType();
+    Exchange exchange = this._exchange;
+    if (exchange == null) return null;
+    return exchange.header("Content-Type");
   }
 
   /**
@@ -493,9 +502,11 @@ public final class Response implements HttpResponse, AutoCloseable {
    */
   @Override
   public @Nullable InputStream getInputStream() throws IOException {
-    HttpURLConnection con = requireAvailable();
+    Exchange con = requireAvailable();
     try {
-      return toInputStream(con);
+      InputStream in = toInputStream(con);
+      this.streaming = true;
+      return in;
     } finally {
       this.state = State.consumed;
     }
@@ -537,9 +548,11 @@ public final class Response implements HttpResponse, AutoCloseable {
    */
   @Override
   public Reader getReader(Charset charset) throws IOException {
-    HttpURLConnection con = requireAvailable();
+    Exchange con = requireAvailable();
     try {
-      return new InputStreamReader(toInputStream(con), charset);
+      Reader reader = new InputStreamReader(toInputStream(con), charset);
+      this.streaming = true;
+      return reader;
     } finally {
       this.state = State.consumed;
     }
@@ -557,16 +570,16 @@ public final class Response implements HttpResponse, AutoCloseable {
    */
   @Override
   public void consumeBytes(OutputStream out) {
-    HttpURLConnection con = requireAvailable();
+    Exchange con = requireAvailable();
     try {
-      int length = con.getContentLength();
+      int length = (int)contentLength(con);
       try (BufferedInputStream in = new BufferedInputStream(toInputStream(con))){
         copy(in, out, length);
       }
     } catch (IOException ex) {
       throw new ContentException("Unable to consume bytes", ex);
     } finally {
-      this.state = State.consumed;
+      consumed();
     }
   }
 
@@ -597,7 +610,7 @@ public final class Response implements HttpResponse, AutoCloseable {
    */
   @Override
   public void consume() {
-    HttpURLConnection con = requireAvailable();
+    Exchange con = requireAvailable();
     try {
       try (InputStream in = toInputStream(con)){
         //noinspection StatementWithEmptyBody
@@ -608,7 +621,7 @@ public final class Response implements HttpResponse, AutoCloseable {
     } catch (IOException ex) {
       throw new ContentException("Unable to consume response content", ex);
     } finally {
-      this.state = State.consumed;
+      consumed();
     }
   }
 
@@ -624,7 +637,7 @@ public final class Response implements HttpResponse, AutoCloseable {
    */
   @Override
   public void consumeChars(Writer out) {
-    HttpURLConnection con = requireAvailable();
+    Exchange con = requireAvailable();
     try {
       int length = (int)length();
       Charset charset = charset() != null ? charset() : StandardCharsets.UTF_8;
@@ -634,7 +647,7 @@ public final class Response implements HttpResponse, AutoCloseable {
     } catch (IOException ex) {
       throw new ContentException("Unable to consume bytes", ex);
     } finally {
-      this.state = State.consumed;
+      consumed();
     }
   }
 
@@ -678,7 +691,7 @@ public final class Response implements HttpResponse, AutoCloseable {
     } catch (IOException ex) {
       throw new ContentException("Unable to consume XML", ex);
     } finally {
-      this.state = State.consumed;
+      consumed();
     }
   }
 
@@ -738,12 +751,14 @@ public final class Response implements HttpResponse, AutoCloseable {
    */
   @Override
   public <T> List<T> consumeList(XMLStreamHandler<T> handler) throws ContentException {
-    try {
-      return parseXMLStream(this, handler);
+    try (XMLStreamIterator<T> items = iterateXMLStream(this, handler)) {
+      List<T> list = new ArrayList<>();
+      items.forEachRemaining(list::add);
+      return list;
     } catch (IOException ex) {
       throw new ContentException("Unable to consume XML", ex);
     } finally {
-      this.state = State.consumed;
+      consumed();
     }
   }
 
@@ -763,8 +778,44 @@ public final class Response implements HttpResponse, AutoCloseable {
    */
   @Override
   public <T> @Nullable T consumeItem(XMLStreamHandler<T> handler) throws ContentException {
-    List<T> list = consumeList(handler);
-    return list.size() > 0? list.get(0) : null;
+    try (XMLStreamIterator<T> items = iterateXMLStream(this, handler)) {
+      return items.hasNext() ? items.next() : null;
+    } catch (IOException ex) {
+      throw new ContentException("Unable to consume XML", ex);
+    } finally {
+      consumed();
+    }
+  }
+
+  /**
+   * Consumes the output of the response lazily using a handler and returns a stream of objects
+   * from it.
+   *
+   * <p>Objects are parsed from the connection as the stream is consumed, so that large responses
+   * can be processed in constant memory. The stream must be closed to release the connection.
+   *
+   * <p>After calling this method the response content will no longer be available.
+   *
+   * @param handler The object handler for the XML
+   * @param <T> The type of object returned as the item.
+   *
+   * @return A stream of items from the XML.
+   *
+   * @throws IllegalStateException If the response is not available.
+   * @throws ContentException If an error occurred while consuming the content.
+   */
+  @Override
+  public <T> Stream<T> stream(XMLStreamHandler<T> handler) throws ContentException {
+    try {
+      Stream<T> stream = iterateXMLStream(this, handler).toStream();
+      this.streaming = true;
+      return stream;
+    } catch (IOException ex) {
+      release();
+      throw new ContentException("Unable to consume XML", ex);
+    } finally {
+      this.state = State.consumed;
+    }
   }
 
   /**
@@ -788,7 +839,7 @@ public final class Response implements HttpResponse, AutoCloseable {
     } catch (IOException ex) {
       throw new ContentException("Unable to copy XML", ex);
     } finally {
-      this.state = State.consumed;
+      consumed();
     }
   }
 
@@ -836,7 +887,7 @@ public final class Response implements HttpResponse, AutoCloseable {
     } catch (IOException ex) {
       throw new ContentException("Unable to transform XML", ex);
     } finally {
-      this.state = State.consumed;
+      consumed();
     }
   }
 
@@ -879,13 +930,34 @@ public final class Response implements HttpResponse, AutoCloseable {
       return consumeItem(new ServiceErrorHandler());
   }
 
+  /**
+   * Consumes the response if it is still available and releases the underlying exchange.
+   *
+   * <p>If the content was returned as a stream or reader, the exchange is only released
+   * when that stream or reader is closed.
+   */
   @Override
   public void close() {
     if (this.state == State.available) {
       consume();
+    } else if (!this.streaming) {
+      release();
     }
   }
 
+  /**
+   * Wrap the input stream of this response if it is successful when it is consumed.
+   *
+   * <p>This method is used by the cache to copy the content as it is read by the caller.
+   * Interceptors are applied in the order they were added.
+   *
+   * @param interceptor The function wrapping the input stream
+   */
+  void intercept(UnaryOperator<InputStream> interceptor) {
+    UnaryOperator<InputStream> previous = this.interceptor;
+    this.interceptor = previous != null ? in -> interceptor.apply(previous.apply(in)) : interceptor;
+  }
+
   /**
    * Enable response content debug, causing response content to be copied
    * to <code>System.out</code> or <code>System.err</code>.
@@ -911,11 +983,11 @@ public final class Response implements HttpResponse, AutoCloseable {
    * Returns the media type from the HTTP response stripped of its charset sub-declaration or
    * any content type parameter.
    *
-   * @param connection The HTTP connection
+   * @param exchange The HTTP exchange
    * @return the media type from the HTTP response stripped of its charset sub-declaration.
    */
-  private static @Nullable String getMediaType(HttpURLConnection connection) {
-    String contentType = connection.getContentType();
+  private static @Nullable String getMediaType(Exchange exchange) {
+    String contentType = exchange.header("Content-Type");
     return Header.toMediaType(contentType);
   }
 
@@ -929,13 +1001,13 @@ public final class Response implements HttpResponse, AutoCloseable {
    * <p>This method returns <code>null</code> if no session was specified via a
    * "Set-Cookie" header or provided as an argument.
    *
-   * @param connection The HTTP connection
-   * @param session    The original session from the request if any
+   * @param exchange The HTTP exchange
+   * @param session  The original session from the request if any
    *
    * @return a new session, the updated session or <code>null</code>
    */
-  private static @Nullable PSSession updateSession(HttpURLConnection connection, @Nullable PSSession session) {
-    String cookie = connection.getHeaderField("Set-Cookie");
+  private static @Nullable PSSession updateSession(Exchange exchange, @Nullable PSSession session) {
+    String cookie = exchange.header("Set-Cookie");
     // A new session has been created.
     if (cookie != null)
       return PSSession.parseSetCookieHeader(cookie);
@@ -947,36 +1019,29 @@ public final class Response implements HttpResponse, AutoCloseable {
   }
 
   /**
-   * Extract the headers from the connection
+   * Extract the headers from the exchange
    *
-   * @param connection The HTTP connection to use
+   * @param exchange The HTTP exchange to use
    *
    * @return a new list of headers
    */
-  private static List<Header> extractHeaders(HttpURLConnection connection) {
-    Map<String, List<String>> headerFields = connection.getHeaderFields();
-    // Length is 1 less than headers from connection as we discard the status line
-    List<Header> headers = new ArrayList<>(headerFields.size()-1);
-    for (Entry<String, List<String>> h : headerFields.entrySet()) {
-      String name = h.getKey();
-      if (name != null) {
-        if ("content-length".equalsIgnoreCase(name)) {
-          headers.add(new Header(name, connection.getContentLengthLong()));
-        } else if ("warning".equalsIgnoreCase(name) && WARNING_COUNTER.get() < 100) {
-          // Report deprecation and other API warnings in the logs
-          for (String value : h.getValue()) {
-            if (WARNING_COUNTER.incrementAndGet() < 100) {
-              LOGGER.warn(value);
-            } else {
-              LOGGER.warn("Reached max 100 HTTP Warnings - no more warnings will be displayed");
-              break;
-            }
-          }
-        }
-        for (String value : h.getValue()) {
-          headers.add(new Header(name, value));
+  private static List<Header> extractHeaders(Exchange exchange) {
+    List<Header> fields = exchange.headers();
+    List<Header> headers = new ArrayList<>(fields.size());
+    for (Header h : fields) {
+      String name = h.name();
+      if ("content-length".equalsIgnoreCase(name)) {
+        headers.add(new Header(name, contentLength(exchange)));
+        continue;
+      } else if ("warning".equalsIgnoreCase(name) && WARNING_COUNTER.get() < 100) {
+        // Report deprecation and other API warnings in the logs
+        if (WARNING_COUNTER.incrementAndGet() < 100) {
+          LOGGER.warn(h.value());
+        } else {
+          LOGGER.warn("Reached max 100 HTTP Warnings - no more warnings will be displayed");
         }
       }
+      headers.add(h);
     }
     return headers;
   }
@@ -984,30 +1049,66 @@ public final class Response implements HttpResponse, AutoCloseable {
   /**
    * Detect the character set from the "Content-Type" response header.
    *
-   * @param connection The HTTP connection to use
+   * @param exchange The HTTP exchange to use
    *
    * @return a new list of headers
    */
-  private static @Nullable Charset detectCharset(HttpURLConnection connection) {
-    String contentType = connection.getHeaderField("Content-Type");
+  private static @Nullable Charset detectCharset(Exchange exchange) {
+    String contentType = exchange.header("Content-Type");
     return Header.toCharset(contentType);
   }
 
+  /**
+   * Returns the value of the "Content-Length" response header.
+   *
+   * @param exchange The HTTP exchange to use
+   *
+   * @return the content length or -1 if not specified or invalid.
+   */
+  private static long contentLength(Exchange exchange) {
+    String length = exchange.header("Content-Length");
+    if (length == null) return -1;
+    try {
+      return Long.parseLong(length.trim());
+    } catch (NumberFormatException ex) {
+      return -1;
+    }
+  }
+
   // Private helpers
   // ----------------------------------------------------------------------------------------------
 
+  /**
+   * Marks this response as consumed and releases the underlying exchange.
+   */
+  private void consumed() {
+    this.state = State.consumed;
+    release();
+  }
+
+  /**
+   * Releases the underlying exchange and the resources it holds, such as a buffered request body.
+   */
+  private void release() {
+    Exchange exchange = this._exchange;
+    if (exchange != null && !this.released) {
+      this.released = true;
+      exchange.close();
+    }
+  }
+
   /**
    * Check if this response is ready to be consumed.
    *
    * @throws IllegalStateException if that isn't the case.
    */
-  private HttpURLConnection requireAvailable() {
+  private Exchange requireAvailable() {
     switch (this.state) {
       case available:
-        HttpURLConnection connection = this._connection;
-        if (connection == null)
+        Exchange exchange = this._exchange;
+        if (exchange == null)
           throw new IllegalArgumentException("This response cannot be consumed because there is not connection!");
-        return connection;
+        return exchange;
       case failed:
         throw new IllegalArgumentException("This response cannot be consumed because the connection failed.");
       case consumed:
@@ -1017,6 +1118,40 @@ public final class Response implements HttpResponse, AutoCloseable {
     }
   }
 
+  /**
+   * Returns the value of the specified date header.
+   *
+   * @param name The name of the header
+   *
+   * @return the date in milliseconds since epoch or 0 if not known.
+   */
+  private long dateHeader(String name) {
+    Exchange exchange = this._exchange;
+    if (exchange == null) return 0;
+    String value = exchange.header(name);
+    if (value == null) return 0;
+    try {
+      return Header.parseHTTPDate(value).getTime();
+    } catch (ParseException ex) {
+      return 0;
+    }
+  }
+
+  /**
+   * Ensures that the response is successful.
+   *
+   * @param response The response to check
+   *
+   * @throws ContentException if the response was not successful
+   */
+  static void requireSuccessful(HttpResponse response) {
+    if (!response.isSuccessful()) {
+      ServiceError error = response.isAvailable() && response.isXML() ? response.consumeServiceError() : null;
+      String message = error != null ? error.message() : response.message();
+      throw new ContentException("PageSeeder returned "+response.code()+": "+message);
+    }
+  }
+
   /**
    * Check that the content is XML otherwise throw an Illegal state exception.
    *
@@ -1039,17 +1174,12 @@ public final class Response implements HttpResponse, AutoCloseable {
   private static void handleXML(Response response, DefaultHandler handler)
       throws IOException {
     // Ensure we a connection that returned XML content
-    HttpURLConnection connection = response.requireAvailable();
+    Exchange connection = response.requireAvailable();
     response.requireXML();
 
-    // Setup the factory
-    SAXParserFactory factory = SAXParserFactory.newInstance();
-    factory.setValidating(false);
-    factory.setNamespaceAware(true);
-
-    try (InputStream in = toInputStream(connection)) {
+    try (InputStream in = response.toInputStream(connection)) {
       InputSource source = new InputSource(in);
-      source.setSystemId(connection.getURL().toString());
+      source.setSystemId(connection.url().toString());
 
       // Ensure the character encoding is correct
       Charset charset = response._charset;
@@ -1058,10 +1188,14 @@ public final class Response implements HttpResponse, AutoCloseable {
       }
 
       // And parse!
-      SAXParser parser = factory.newSAXParser();
-      HandlerDispatcher dispatcher = new HandlerDispatcher(parser.getXMLReader(), handler);
-      parser.parse(source, dispatcher);
-      response.error = dispatcher.getServiceError();
+      SAXParser parser = XMLParsers.borrowSAXParser();
+      try {
+        HandlerDispatcher dispatcher = new HandlerDispatcher(parser.getXMLReader(), handler);
+        parser.parse(source, dispatcher);
+        response.error = dispatcher.getServiceError();
+      } finally {
+        XMLParsers.release(parser);
+      }
 
     } catch (ParserConfigurationException ex) {
       throw new ContentException("Error while configuring XML parser", ex);
@@ -1071,48 +1205,22 @@ public final class Response implements HttpResponse, AutoCloseable {
   }
 
   /**
-   * Parse the response as XML using a StAX stream handler.
+   * Returns an iterator over the response XML using a StAX stream handler.
    *
    * @param response   Stores metadata about the response including error details.
    * @param handler    Handles a StAX stream
    *
    * @throws IllegalStateException If the response is not available.
-   * @throws IOException If an error occurs while writing the XML.
+   * @throws IOException If an error occurs while opening the content.
    */
-  private static <T> List<T> parseXMLStream(Response response, XMLStreamHandler<T> handler) throws IOException {
+  private static <T> XMLStreamIterator<T> iterateXMLStream(Response response, XMLStreamHandler<T> handler) throws IOException {
     // Ensure we a connection that returned XML content
-    HttpURLConnection connection = response.requireAvailable();
+    Exchange connection = response.requireAvailable();
     response.requireXML();
 
-    // Setup the factory
-    XMLInputFactory factory = XMLInputFactory.newInstance();
-    factory.setProperty(XMLInputFactory.IS_COALESCING, true);
-    factory.setProperty(XMLInputFactory.IS_REPLACING_ENTITY_REFERENCES, true);
-    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
-    factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
-
     // Ensure the character encoding is correct
     Charset charset = response._charset;
-    if (charset == null) {
-      charset = StandardCharsets.UTF_8;
-    }
-
-    List<T> list = new ArrayList<>();
-    try (InputStream in = toInputStream(connection)) {
-      XMLStreamReader source = factory.createXMLStreamReader(in, charset.name());
-      while (handler.find(source)) {
-        T next = handler.get(source);
-        if (next != null)
-          list.add(next);
-      }
-
-    } catch (IllegalArgumentException | IllegalStateException | IndexOutOfBoundsException
-           | NoSuchElementException | XMLStreamException | UnsupportedOperationException ex) {
-      // The XMLStreamReader throws a number of runtime exception that we need to catch
-      throw new ContentException("Error while parsing XML", ex);
-    }
-
-    return list;
+    return XMLStreamIterator.newInstance(response.toInputStream(connection), charset != null ? charset.name() : null, handler);
   }
 
   /**
@@ -1132,18 +1240,18 @@ public final class Response implements HttpResponse, AutoCloseable {
   private static boolean transformXML(Response response, XMLWriter xml,
       Templates templates, Map<String, String> parameters) throws IOException {
     // Ensure we a connection that returned XML content
-    HttpURLConnection connection = response.requireAvailable();
+    Exchange connection = response.requireAvailable();
     response.requireXML();
 
     boolean ok = true;
     // Create an XML Buffer
     StringWriter buffer = new StringWriter();
 
-    try (InputStream in = toInputStream(connection)) {
+    try (InputStream in = response.toInputStream(connection)) {
 
       // Setup the source
       StreamSource source = new StreamSource(in);
-      source.setSystemId(connection.getURL().toString());
+      source.setSystemId(connection.url().toString());
 
       // Setup the result
       StreamResult result = new StreamResult(buffer);
@@ -1199,25 +1307,44 @@ public final class Response implements HttpResponse, AutoCloseable {
   /**
    * Returns the appropriate input stream
    *
-   * @param connection The URL connection
+   * @param exchange The HTTP exchange
    *
    * @return the input stream on the response content
    *
    * @throws IOException If the thrown by the underlying connection.
    */
-  private static InputStream toInputStream(HttpURLConnection connection) throws IOException {
-    boolean isCompressed = "gzip".equals(connection.getHeaderField("Content-Encoding"));
-    if (isSuccessful(connection.getResponseCode())) {
-      InputStream in = unCompressIf(connection.getInputStream(), isCompressed);
-      if (in == null)
-        throw new IllegalArgumentException("Unable to read connection output");
-      return debugStream(in, connection.getContentLength(), System.out);
-    } else {
-      InputStream err = unCompressIf(connection.getErrorStream(), isCompressed);
-      if (err == null)
-        throw new IllegalArgumentException("Unable to read connection error output");
-      return debugStream(err, connection.getContentLength(), System.err);
+  private InputStream toInputStream(Exchange exchange) throws IOException {
+    InputStream stream;
+    try {
+      boolean isCompressed = "gzip".equals(exchange.header("Content-Encoding"));
+      if (isSuccessful(exchange.code())) {
+        InputStream in = unCompressIf(exchange.getInputStream(), isCompressed);
+        if (in == null)
+          throw new IllegalArgumentException("Unable to read connection output");
+        InputStream actual = debugStream(in, (int)contentLength(exchange), System.out);
+        UnaryOperator<InputStream> interceptor = this.interceptor;
+        stream = interceptor != null ? interceptor.apply(actual) : actual;
+      } else {
+        InputStream err = unCompressIf(exchange.getErrorStream(), isCompressed);
+        if (err == null)
+          throw new IllegalArgumentException("Unable to read connection error output");
+        stream = debugStream(err, (int)contentLength(exchange), System.err);
+      }
+    } catch (IOException | RuntimeException ex) {
+      release();
+      throw ex;
     }
+    // Release the exchange when the content has been read
+    return new FilterInputStream(stream) {
+      @Override
+      public void close() throws IOException {
+        try {
+          super.close();
+        } finally {
+          release();
+        }
+      }
+    };
   }
 
   /**
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2026 Allette Systems (Australia)
+ * http://www.allette.com.au
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pageseeder.bridge.http;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * An output stream collecting content in memory up to a threshold and spilling to a
+ * temporary file beyond that.
+ *
+ * <p>Once written, the content is returned as a read-only buffer: a direct buffer for content
+ * kept in memory or a buffer mapping the temporary file otherwise. The temporary file is deleted
+ * as soon as it is mapped or discarded.
+ *
+ * <p>Implementation note: this class is not thread-safe.
+ *
+ * @author Christophe Lauret
+ *
+ * @version 0.11.41
+ * @since 0.11.41
+ */
+final class SpillBuffer extends OutputStream {
+
+  /**
+   * Number of bytes kept in memory before spilling to disk.
+   */
+  private final int _threshold;
+
+  /**
+   * Maximum number of bytes that can be written.
+   */
+  private final long _limit;
+
+  /**
+   * Content while in memory.
+   */
+  private @Nullable ByteArrayOutputStream memory = new ByteArrayOutputStream();
+
+  /**
+   * Temporary file after spilling.
+   */
+  private @Nullable Path file = null;
+
+  /**
+   * Output to the temporary file after spilling.
+   */
+  private @Nullable OutputStream out = null;
+
+  /**
+   * Number of bytes written.
+   */
+  private long count = 0;
+
+  /**
+   * @param threshold Number of bytes kept in memory before spilling to disk
+   * @param limit     Maximum number of bytes that can be written
+   */
+  SpillBuffer(int threshold, long limit) {
+    this._threshold = threshold;
+    this._limit = limit;
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    ensureCapacity(1);
+    current().write(b);
+    this.count++;
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    ensureCapacity(len);
+    current().write(b, off, len);
+    this.count += len;
+  }
+
+  /**
+   * @return the number of bytes written so far.
+   */
+  long count() {
+    return this.count;
+  }
+
+  /**
+   * @return <code>true</code> if the content was spilled to disk.
+   */
+  boolean isSpilled() {
+    return this.file != null;
+  }
+
+  /**
+   * Returns the content written to this buffer and closes it.
+   *
+   * @return a read-only buffer over the content
+   *
+   * @throws IOException If the temporary file could not be mapped.
+   */
+  ByteBuffer toByteBuffer() throws IOException {
+    ByteArrayOutputStream memory = this.memory;
+    if (memory != null) {
+      ByteBuffer buffer = ByteBuffer.allocateDirect(memory.size());
+      buffer.put(memory.toByteArray()).flip();
+      this.memory = null;
+      return buffer.asReadOnlyBuffer();
+    }
+    Path file = this.file;
+    OutputStream out = this.out;
+    if (file == null || out == null) throw new IOException("Buffer was discarded");
+    try {
+      out.close();
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+        return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      }
+    } finally {
+      discard();
+    }
+  }
+
+  /**
+   * Discards the content of this buffer and deletes the temporary file if any.
+   */
+  void discard() {
+    this.memory = null;
+    OutputStream out = this.out;
+    Path file = this.file;
+    this.out = null;
+    this.file = null;
+    try {
+      if (out != null) out.close();
+    } catch (IOException ex) {
+      // ignore
+    }
+    if (file != null) {
+      try {
+        Files.deleteIfExists(file);
+      } catch (IOException ex) {
+        // Mapped files cannot be deleted on some platforms
+        file.toFile().deleteOnExit();
+      }
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    OutputStream out = this.out;
+    if (out != null) out.flush();
+  }
+
+  private void ensureCapacity(int len) throws IOException {
+    if (this.count + len > this._limit)
+      throw new IOException("Content exceeds "+this._limit+" bytes");
+    ByteArrayOutputStream memory = this.memory;
+    if (memory != null && this.count + len > this._threshold) {
+      Path file = Files.createTempFile("bridge-cache-", ".tmp");
+      OutputStream out = new BufferedOutputStream(Files.newOutputStream(file));
+      memory.writeTo(out);
+      this.file = file;
+      this.out = out;
+      this.memory = null;
+    }
+  }
+
+  private OutputStream current() throws IOException {
+    ByteArrayOutputStream memory = this.memory;
+    if (memory != null) return memory;
+    OutputStream out = this.out;
+    if (out == null) throw new IOException("Buffer was discarded");
+    return out;
+  }
+
+}
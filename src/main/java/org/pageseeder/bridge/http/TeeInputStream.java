@@ -0,0 +1,177 @@
+/*
+ * Copyright 2026 Allette Systems (Australia)
+ * http://www.allette.com.au
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pageseeder.bridge.http;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+/**
+ * An input stream copying the bytes read by the caller into a spill buffer.
+ *
+ * <p>When the end of the stream is reached, the content of the buffer is passed to the
+ * completion callback. If the stream is closed before the end, or if the copy fails, the
+ * buffer is discarded and the abandon callback is invoked instead; the caller is never
+ * affected by errors while copying.
+ *
+ * @author Christophe Lauret
+ *
+ * @version 0.11.41
+ * @since 0.11.41
+ */
+final class TeeInputStream extends FilterInputStream {
+
+  /**
+   * Where the content is copied.
+   */
+  private final SpillBuffer _copy;
+
+  /**
+   * The expected number of bytes (-1 if unknown)
+   */
+  private final long _expected;
+
+  /**
+   * Invoked with the copied content once complete.
+   */
+  private final Consumer<ByteBuffer> _onComplete;
+
+  /**
+   * Invoked if the copy is abandoned.
+   */
+  private final Runnable _onAbandon;
+
+  /**
+   * Whether the copy was completed or abandoned.
+   */
+  private boolean done = false;
+
+  /**
+   * @param in         The input stream to read
+   * @param copy       Where the content is copied
+   * @param expected   The expected number of bytes (-1 if unknown)
+   * @param onComplete Invoked with the copied content once complete
+   */
+  TeeInputStream(InputStream in, SpillBuffer copy, long expected, Consumer<ByteBuffer> onComplete) {
+    this(in, copy, expected, onComplete, () -> {});
+  }
+
+  /**
+   * @param in         The input stream to read
+   * @param copy       Where the content is copied
+   * @param expected   The expected number of bytes (-1 if unknown)
+   * @param onComplete Invoked with the copied content once complete
+   * @param onAbandon  Invoked if the copy is abandoned
+   */
+  TeeInputStream(InputStream in, SpillBuffer copy, long expected, Consumer<ByteBuffer> onComplete, Runnable onAbandon) {
+    super(in);
+    this._copy = copy;
+    this._expected = expected;
+    this._onComplete = onComplete;
+    this._onAbandon = onAbandon;
+  }
+
+  @Override
+  public int read() throws IOException {
+    int b = this.in.read();
+    if (b == -1) {
+      complete();
+    } else if (!this.done) {
+      try {
+        this._copy.write(b);
+      } catch (IOException ex) {
+        abandon();
+      }
+    }
+    return b;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    int n = this.in.read(b, off, len);
+    if (n == -1) {
+      complete();
+    } else if (n > 0 && !this.done) {
+      try {
+        this._copy.write(b, off, n);
+      } catch (IOException ex) {
+        abandon();
+      }
+    }
+    return n;
+  }
+
+  @Override
+  public long skip(long n) throws IOException {
+    // Skipped bytes must be copied
+    if (n <= 0) return 0;
+    byte[] skipped = new byte[(int)Math.min(n, 8192)];
+    int read = read(skipped, 0, skipped.length);
+    return Math.max(read, 0);
+  }
+
+  @Override
+  public boolean markSupported() {
+    return false;
+  }
+
+  @Override
+  public synchronized void mark(int readlimit) {
+  }
+
+  @Override
+  public synchronized void reset() throws IOException {
+    throw new IOException("mark/reset not supported");
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      // The caller may stop reading before the end of stream is detected
+      if (this._expected >= 0 && this._copy.count() == this._expected) {
+        complete();
+      } else {
+        abandon();
+      }
+    } finally {
+      super.close();
+    }
+  }
+
+  private void complete() {
+    if (this.done) return;
+    this.done = true;
+    ByteBuffer content;
+    try {
+      content = this._copy.toByteBuffer();
+    } catch (IOException ex) {
+      this._copy.discard();
+      this._onAbandon.run();
+      return;
+    }
+    this._onComplete.accept(content);
+  }
+
+  private void abandon() {
+    if (this.done) return;
+    this.done = true;
+    this._copy.discard();
+    this._onAbandon.run();
+  }
+
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2026 Allette Systems (Australia)
+ * http://www.allette.com.au
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pageseeder.bridge.http;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.List;
+
+/**
+ * The transport used by requests to exchange data with PageSeeder over HTTP.
+ *
+ * <p>A transport is created for each <code>PSConfig</code> instance and shared by all
+ * requests using that configuration, so that implementations can pool and reuse connections
+ * to the same server.
+ *
+ * <p>Implementations must be thread-safe.
+ *
+ * @see Transports
+ * @see org.pageseeder.bridge.spi.TransportProvider
+ *
+ * @author Christophe Lauret
+ *
+ * @version 0.11.41
+ * @since 0.11.41
+ */
+public interface Transport extends AutoCloseable {
+
+  /**
+   * Opens a new exchange.
+   *
+   * <p>The request is not sent until the status code of the exchange is requested,
+   * so that the body can be written first.
+   *
+   * <p>Redirects are followed and responses are never cached by the transport.
+   *
+   * @param method  The HTTP method as sent to the server
+   * @param url     The full URL to connect to
+   * @param headers The request headers
+   * @param timeout The connect timeout in milliseconds (negative to use the transport default)
+   *
+   * @return A new exchange
+   *
+   * @throws IOException If the exchange could not be opened.
+   */
+  Exchange open(String method, URL url, List<Header> headers, int timeout) throws IOException;
+
+  /**
+   * Releases the resources held by this transport.
+   *
+   * <p>The default implementation does nothing.
+   */
+  @Override
+  default void close() {
+  }
+
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2026 Allette Systems (Australia)
+ * http://www.allette.com.au
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pageseeder.bridge.http;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import java.util.concurrent.Executor;
+
+/**
+ * The options used to create a transport.
+ *
+ * <p>This class is immutable, each method returns a new instance with the updated option.
+ *
+ * <p>Not all transports support all options: the transport based on <code>HttpURLConnection</code>
+ * only uses the connect timeout while the <code>java.net.http</code> transport available on Java 11+
+ * supports all of them.
+ *
+ * @author Christophe Lauret
+ *
+ * @version 0.11.41
+ * @since 0.11.41
+ */
+public final class TransportOptions {
+
+  /**
+   * Default options.
+   */
+  public static final TransportOptions DEFAULT = new TransportOptions(-1, true, -1, -1, null);
+
+  /**
+   * The connect timeout in milliseconds.
+   */
+  private final int _connectTimeout;
+
+  /**
+   * Whether HTTP/2 should be used when supported by the server.
+   */
+  private final boolean _http2;
+
+  /**
+   * The maximum number of connections kept alive per server.
+   */
+  private final int _poolSize;
+
+  /**
+   * How long idle connections are kept alive in seconds.
+   */
+  private final int _keepAlive;
+
+  /**
+   * The executor used for asynchronous tasks.
+   */
+  private final @Nullable Executor _executor;
+
+  private TransportOptions(int connectTimeout, boolean http2, int poolSize, int keepAlive, @Nullable Executor executor) {
+    this._connectTimeout = connectTimeout;
+    this._http2 = http2;
+    this._poolSize = poolSize;
+    this._keepAlive = keepAlive;
+    this._executor = executor;
+  }
+
+  /**
+   * @param timeout The connect timeout in milliseconds (negative for system default)
+   *
+   * @return New options with the specified connect timeout
+   */
+  public TransportOptions connectTimeout(int timeout) {
+    return new TransportOptions(timeout, this._http2, this._poolSize, this._keepAlive, this._executor);
+  }
+
+  /**
+   * @param enabled <code>true</code> to negotiate HTTP/2 with the server; <code>false</code> to use HTTP/1.1 only.
+   *
+   * @return New options with the specified HTTP version preference
+   */
+  public TransportOptions http2(boolean enabled) {
+    return new TransportOptions(this._connectTimeout, enabled, this._poolSize, this._keepAlive, this._executor);
+  }
+
+  /**
+   * Sets the maximum number of idle connections kept in the pool.
+   *
+   * <p>Note: the <code>java.net.http</code> client only supports a JVM-wide value, so this option
+   * is applied only if the <code>jdk.httpclient.connectionPoolSize</code> system property is not
+   * already set when the first transport is created.
+   *
+   * @param size The maximum number of connections (negative for system default)
+   *
+   * @return New options with the specified pool size
+   */
+  public TransportOptions poolSize(int size) {
+    return new TransportOptions(this._connectTimeout, this._http2, size, this._keepAlive, this._executor);
+  }
+
+  /**
+   * Sets how long idle connections are kept alive.
+   *
+   * <p>Note: the <code>java.net.http</code> client only supports a JVM-wide value, so this option
+   * is applied only if the <code>jdk.httpclient.keepalive.timeout</code> system property is not
+   * already set when the first transport is created.
+   *
+   * @param seconds The keep alive timeout in seconds (negative for system default)
+   *
+   * @return New options with the specified keep alive timeout
+   */
+  public TransportOptions keepAlive(int seconds) {
+    return new TransportOptions(this._connectTimeout, this._http2, this._poolSize, seconds, this._executor);
+  }
+
+  /**
+   * @param executor The executor to use for asynchronous tasks (<code>null</code> for the transport default)
+   *
+   * @return New options with the specified executor
+   */
+  public TransportOptions executor(@Nullable Executor executor) {
+    return new TransportOptions(this._connectTimeout, this._http2, this._poolSize, this._keepAlive, executor);
+  }
+
+  /**
+   * @return The connect timeout in milliseconds (negative for system default)
+   */
+  public int connectTimeout() {
+    return this._connectTimeout;
+  }
+
+  /**
+   * @return <code>true</code> if HTTP/2 should be used when supported by the server.
+   */
+  public boolean http2() {
+    return this._http2;
+  }
+
+  /**
+   * @return The maximum number of idle connections in the pool (negative for system default)
+   */
+  public int poolSize() {
+    return this._poolSize;
+  }
+
+  /**
+   * @return The keep alive timeout in seconds (negative for system default)
+   */
+  public int keepAlive() {
+    return this._keepAlive;
+  }
+
+  /**
+   * @return The executor to use for asynchronous tasks or <code>null</code> for the transport default.
+   */
+  public @Nullable Executor executor() {
+    return this._executor;
+  }
+
+  @Override
+  public String toString() {
+    return "TransportOptions{connectTimeout=" + this._connectTimeout + ", http2=" + this._http2
+        + ", poolSize=" + this._poolSize + ", keepAlive=" + this._keepAlive + '}';
+  }
+
+}
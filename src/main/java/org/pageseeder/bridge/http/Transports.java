@@ -0,0 +1,146 @@
+/*
+ * Copyright 2026 Allette Systems (Australia)
+ * http://www.allette.com.au
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pageseeder.bridge.http;
+
+import org.pageseeder.bridge.PSConfig;
+import org.pageseeder.bridge.spi.TransportProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.WeakHashMap;
+
+/**
+ * Provides the transport to use for each PageSeeder configuration.
+ *
+ * <p>Transports are created lazily the first time a request is made using a configuration and
+ * are then reused by all requests using the same configuration so that connections can be pooled.
+ *
+ * <p>The transport is created by the first {@link TransportProvider} found using the Service
+ * Provider Interface, or the default transport for the current Java version:
+ * <ul>
+ *   <li>Java 11+: <code>java.net.http.HttpClient</code> with HTTP/2 support</li>
+ *   <li>Java 8: <code>HttpURLConnection</code></li>
+ * </ul>
+ *
+ * <p>To force the use of <code>HttpURLConnection</code> on Java 11+, set the
+ * <code>bridge.http.transport</code> system property to <code>urlconnection</code>.
+ *
+ * @author Christophe Lauret
+ *
+ * @version 0.11.41
+ * @since 0.11.41
+ */
+public final class Transports {
+
+  /**
+   * Logger for this class.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(Transports.class);
+
+  /**
+   * Transports by configuration, weak keys so that discarded configurations can be garbage collected.
+   */
+  private static final Map<PSConfig, Transport> TRANSPORTS = Collections.synchronizedMap(new WeakHashMap<>());
+
+  /**
+   * Options by configuration.
+   */
+  private static final Map<PSConfig, TransportOptions> OPTIONS = Collections.synchronizedMap(new WeakHashMap<>());
+
+  /** Utility class. */
+  private Transports() {
+  }
+
+  /**
+   * Returns the transport for the specified configuration creating it if necessary.
+   *
+   * @param config The PageSeeder configuration
+   *
+   * @return the corresponding transport
+   */
+  public static Transport get(PSConfig config) {
+    synchronized (TRANSPORTS) {
+      Transport transport = TRANSPORTS.get(config);
+      if (transport == null) {
+        TransportOptions options = OPTIONS.getOrDefault(config, TransportOptions.DEFAULT);
+        transport = newTransport(config, options);
+        LOGGER.debug("Using {} for {}", transport, config.getAPIBaseURL());
+        TRANSPORTS.put(config, transport);
+      }
+      return transport;
+    }
+  }
+
+  /**
+   * Sets the options to use to create the transport for the specified configuration.
+   *
+   * <p>If a transport was already created for that configuration, it is closed and replaced
+   * the next time a request is made.
+   *
+   * @param config  The PageSeeder configuration
+   * @param options The options for the transport
+   */
+  public static void configure(PSConfig config, TransportOptions options) {
+    synchronized (TRANSPORTS) {
+      OPTIONS.put(config, options);
+      Transport previous = TRANSPORTS.remove(config);
+      if (previous != null) {
+        previous.close();
+      }
+    }
+  }
+
+  /**
+   * Sets the transport to use for the specified configuration.
+   *
+   * <p>This method is primarily useful for testing.
+   *
+   * @param config    The PageSeeder configuration
+   * @param transport The transport to use
+   */
+  public static void set(PSConfig config, Transport transport) {
+    synchronized (TRANSPORTS) {
+      Transport previous = TRANSPORTS.put(config, transport);
+      if (previous != null && previous != transport) {
+        previous.close();
+      }
+    }
+  }
+
+  /**
+   * Creates a new transport using the service provider if there is one.
+   */
+  private static Transport newTransport(PSConfig config, TransportOptions options) {
+    try {
+      ServiceLoader<TransportProvider> loader = ServiceLoader.load(TransportProvider.class);
+      Iterator<TransportProvider> providers = loader.iterator();
+      if (providers.hasNext()) {
+        TransportProvider provider = providers.next();
+        LOGGER.info("Using transport provider {}", provider.getClass().getName());
+        return provider.newTransport(config, options);
+      }
+    } catch (ServiceConfigurationError error) {
+      LOGGER.warn("Unable to load transport provider, using default", error);
+    }
+    return DefaultTransports.newTransport(options);
+  }
+
+}
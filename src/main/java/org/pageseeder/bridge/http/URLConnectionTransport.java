@@ -0,0 +1,155 @@
+/*
+ * Copyright 2026 Allette Systems (Australia)
+ * http://www.allette.com.au
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pageseeder.bridge.http;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A transport using the <code>HttpURLConnection</code> from the JDK.
+ *
+ * <p>Connection pooling is managed by the JDK using the <code>http.keepAlive</code> and
+ * <code>http.maxConnections</code> system properties.
+ *
+ * @author Christophe Lauret
+ *
+ * @version 0.11.41
+ * @since 0.11.41
+ */
+final class URLConnectionTransport implements Transport {
+
+  /**
+   * The default connect timeout.
+   */
+  private final int _connectTimeout;
+
+  /**
+   * @param options The transport options
+   */
+  URLConnectionTransport(TransportOptions options) {
+    this._connectTimeout = options.connectTimeout();
+  }
+
+  @Override
+  public Exchange open(String method, URL url, List<Header> headers, int timeout) throws IOException {
+    HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+    connection.setDoOutput(true);
+    connection.setInstanceFollowRedirects(true);
+    connection.setDefaultUseCaches(false);
+    int connectTimeout = timeout >= 0 ? timeout : this._connectTimeout;
+    if (connectTimeout >= 0) {
+      connection.setConnectTimeout(connectTimeout);
+    }
+    connection.setRequestMethod(method);
+    for (Header h : headers) {
+      connection.addRequestProperty(h.name(), h.value());
+    }
+    return new URLConnectionExchange(connection);
+  }
+
+  @Override
+  public String toString() {
+    return "URLConnectionTransport";
+  }
+
+  /**
+   * An exchange wrapping an <code>HttpURLConnection</code>.
+   */
+  private static final class URLConnectionExchange implements Exchange {
+
+    /**
+     * The underlying connection.
+     */
+    private final HttpURLConnection _connection;
+
+    /**
+     * @param connection The underlying connection.
+     */
+    URLConnectionExchange(HttpURLConnection connection) {
+      this._connection = connection;
+    }
+
+    @Override
+    public URL url() {
+      return this._connection.getURL();
+    }
+
+    @Override
+    public OutputStream getOutputStream() throws IOException {
+      this._connection.setDoInput(true);
+      return this._connection.getOutputStream();
+    }
+
+    @Override
+    public int code() throws IOException {
+      return this._connection.getResponseCode();
+    }
+
+    @Override
+    public @Nullable String message() throws IOException {
+      return this._connection.getResponseMessage();
+    }
+
+    @Override
+    public List<Header> headers() {
+      List<Header> headers = new ArrayList<>();
+      for (Map.Entry<String, List<String>> h : this._connection.getHeaderFields().entrySet()) {
+        String name = h.getKey();
+        // The status line has a null key
+        if (name == null) continue;
+        for (String value : h.getValue()) {
+          headers.add(new Header(name, value));
+        }
+      }
+      return headers;
+    }
+
+    @Override
+    public @Nullable String header(String name) {
+      return this._connection.getHeaderField(name);
+    }
+
+    @Override
+    public @Nullable InputStream getInputStream() throws IOException {
+      return this._connection.getInputStream();
+    }
+
+    @Override
+    public @Nullable InputStream getErrorStream() {
+      return this._connection.getErrorStream();
+    }
+
+    @Override
+    public void close() {
+      // Do not disconnect so that the connection can be kept alive
+    }
+
+    @Override
+    public <T> @Nullable T unwrap(Class<T> type) {
+      return type.isInstance(this._connection) ? type.cast(this._connection) : null;
+    }
+
+  }
+
+}
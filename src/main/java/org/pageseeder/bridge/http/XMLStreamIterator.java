@@ -0,0 +1,167 @@
+/*
+ * Copyright 2026 Allette Systems (Australia)
+ * http://www.allette.com.au
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pageseeder.bridge.http;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.pageseeder.bridge.xml.XMLParsers;
+import org.pageseeder.bridge.xml.stax.XMLStreamHandler;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * An iterator pulling objects from an XML stream using a handler as the caller iterates.
+ *
+ * <p>Only the current item is kept in memory, so that large responses can be processed in
+ * constant memory.
+ *
+ * <p>The underlying stream is closed when the last item has been returned, when an error
+ * occurs, or when this iterator is closed.
+ *
+ * @param <T> The type of object returned by the iterator
+ *
+ * @author Christophe Lauret
+ *
+ * @version 0.11.41
+ * @since 0.11.41
+ */
+final class XMLStreamIterator<T> implements Iterator<T>, Closeable {
+
+  /**
+   * The underlying input stream.
+   */
+  private final InputStream _in;
+
+  /**
+   * The XML stream reader.
+   */
+  private final XMLStreamReader _xml;
+
+  /**
+   * The handler returning the objects.
+   */
+  private final XMLStreamHandler<T> _handler;
+
+  /**
+   * The next item to return (if already retrieved)
+   */
+  private @Nullable T next = null;
+
+  /**
+   * Set to <code>true</code> when the XML stream was closed.
+   */
+  private boolean closed = false;
+
+  private XMLStreamIterator(InputStream in, XMLStreamReader xml, XMLStreamHandler<T> handler) {
+    this._in = in;
+    this._xml = xml;
+    this._handler = handler;
+  }
+
+  /**
+   * Creates a new iterator over the specified input stream.
+   *
+   * @param in      The input stream to parse
+   * @param charset The character set (use <code>null</code> to use UTF-8)
+   * @param handler The handler for the XML stream
+   * @param <T>     The type of object returned by the iterator
+   *
+   * @return a new iterator
+   *
+   * @throws ContentException If the XML stream could not be created.
+   */
+  static <T> XMLStreamIterator<T> newInstance(InputStream in, @Nullable String charset, XMLStreamHandler<T> handler) {
+    try {
+      XMLStreamReader xml = XMLParsers.newXMLStreamReader(in, charset != null ? charset : "utf-8");
+      return new XMLStreamIterator<>(in, xml, handler);
+    } catch (XMLStreamException | RuntimeException ex) {
+      closeQuietly(in);
+      throw new ContentException("Error while parsing XML", ex);
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (this.next == null && !this.closed) {
+      try {
+        this.next = this._handler.next(this._xml);
+      } catch (IllegalArgumentException | IllegalStateException | IndexOutOfBoundsException
+          | NoSuchElementException | XMLStreamException | UnsupportedOperationException ex) {
+        // The XMLStreamReader throws a number of runtime exception that we need to catch
+        close();
+        throw new ContentException("Error while parsing XML", ex);
+      }
+      if (this.next == null) {
+        close();
+      }
+    }
+    return this.next != null;
+  }
+
+  @Override
+  public T next() {
+    if (!hasNext()) throw new NoSuchElementException();
+    T item = this.next;
+    this.next = null;
+    return item;
+  }
+
+  /**
+   * Closes the XML stream and the underlying input stream.
+   */
+  @Override
+  public void close() {
+    if (!this.closed) {
+      this.closed = true;
+      try {
+        this._xml.close();
+      } catch (XMLStreamException ex) {
+        // ignore
+      }
+      closeQuietly(this._in);
+    }
+  }
+
+  /**
+   * Returns a sequential stream from this iterator.
+   *
+   * <p>Closing the stream closes this iterator.
+   *
+   * @return a new stream
+   */
+  Stream<T> toStream() {
+    Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+    return StreamSupport.stream(spliterator, false).onClose(this::close);
+  }
+
+  private static void closeQuietly(InputStream in) {
+    try {
+      in.close();
+    } catch (IOException ex) {
+      // ignore
+    }
+  }
+
+}
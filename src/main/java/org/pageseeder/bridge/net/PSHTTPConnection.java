@@ -39,7 +39,6 @@ import java.util.Random;
 
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
-import javax.xml.parsers.SAXParserFactory;
 import javax.xml.transform.Templates;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
@@ -52,6 +51,7 @@ import org.pageseeder.bridge.PSSession;
 import org.pageseeder.bridge.PSToken;
 import org.pageseeder.bridge.net.PSHTTPResponseInfo.Status;
 import org.pageseeder.bridge.xml.XMLCopy;
+import org.pageseeder.bridge.xml.XMLParsers;
 import org.pageseeder.xmlwriter.XMLWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -70,7 +70,7 @@ import org.xml.sax.helpers.DefaultHandler;
  *
  * @author Christophe Lauret
  *
- * @version 0.10.2
+ * @version 0.11.41
  * @since 0.2.0
  */
 public final class PSHTTPConnection {
@@ -787,10 +787,6 @@ public final class PSHTTPConnection {
    *
    */
   private static void handleXML(HttpURLConnection connection, PSHTTPResponseInfo response, @Nullable DefaultHandler handler, boolean duplex) {
-    SAXParserFactory factory = SAXParserFactory.newInstance();
-    factory.setValidating(false);
-    factory.setNamespaceAware(true);
-
     InputStream in = null;
     try {
       // Get the source as input stream
@@ -805,10 +801,14 @@ public final class PSHTTPConnection {
       }
 
       // And parse!
-      SAXParser parser = factory.newSAXParser();
-      HandlerDispatcher dispatcher = new HandlerDispatcher(parser.getXMLReader(), response, handler);
-      dispatcher.setDuplex(duplex);
-      parser.parse(source, dispatcher);
+      SAXParser parser = XMLParsers.borrowSAXParser();
+      try {
+        HandlerDispatcher dispatcher = new HandlerDispatcher(parser.getXMLReader(), response, handler);
+        dispatcher.setDuplex(duplex);
+        parser.parse(source, dispatcher);
+      } finally {
+        XMLParsers.release(parser);
+      }
 
     } catch (IOException ex) {
       LOGGER.warn("Error while parsing XML data from URL", ex);
@@ -1197,14 +1197,8 @@ public final class PSHTTPConnection {
      */
     public static void parseError(InputSource source, PSHTTPResponseInfo response) throws IOException {
       try {
-        SAXParserFactory factory = SAXParserFactory.newInstance();
-        factory.setValidating(false);
-        factory.setNamespaceAware(false);
-
-        // And parse!
-        SAXParser parser = factory.newSAXParser();
         PSErrorHandler handler = new PSErrorHandler(response);
-        parser.parse(source, handler);
+        XMLParsers.parse(source, handler);
       } catch (SAXException | ParserConfigurationException ex) {
         LOGGER.warn("Unable to parse error message from PS Response", ex);
       }
@@ -18,8 +18,11 @@ package org.pageseeder.bridge.search;
 import org.pageseeder.bridge.PSCredentials;
 import org.pageseeder.bridge.http.*;
 
+import org.eclipse.jdt.annotation.Nullable;
+
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * A base class for searches.
@@ -37,6 +40,11 @@ abstract class BasicSearch<T extends BasicSearch> {
     this._scope = scope;
   }
 
+  /**
+   * The canonical URL encoded query (computed lazily since searches are immutable).
+   */
+  private volatile @Nullable String query = null;
+
   /**
    * Set the scope of the search to a group.
    *
@@ -86,17 +94,44 @@ abstract class BasicSearch<T extends BasicSearch> {
    */
   public abstract Map<String, String> toParameters();
 
+  /**
+   * Returns the canonical URL encoded query for this search.
+   *
+   * <p>The parameters are sorted by name so that equal searches always produce the same query
+   * regardless of the order in which they were specified.
+   *
+   * <p>The query is computed only once for each search and can therefore be used to send the
+   * same search repeatedly or as a key.
+   *
+   * @return The URL encoded query corresponding to this search (without the leading '?')
+   */
+  public String toQueryString() {
+    String query = this.query;
+    if (query == null) {
+      StringBuilder q = new StringBuilder();
+      for (Map.Entry<String, String> p : new TreeMap<>(toParameters()).entrySet()) {
+        if (q.length() > 0) {
+          q.append('&');
+        }
+        new Parameter(p.getKey(), p.getValue()).append(q);
+      }
+      query = q.toString();
+      this.query = query;
+    }
+    return query;
+  }
+
   /**
    * Convenience method to make a request from this search.
    *
-   * <p>This method automatically creates a new request using the service and parameters.</p>
+   * <p>This method automatically creates a new request using the service and the
+   * canonical query of this search.</p>
    *
    * @return The corresponding the response.
    */
   public Request request() {
-    Map<String, String> parameters = toParameters();
     String service = service();
-    return new Request(Method.GET, service).parameters(parameters);
+    return new Request(Method.GET, service).query(toQueryString());
   }
 
   /**
@@ -110,9 +145,8 @@ abstract class BasicSearch<T extends BasicSearch> {
    * @return The corresponding the response.
    */
   public HttpRequest request(HttpClient client) {
-    Map<String, String> parameters = toParameters();
     String service = service();
-    return client.newRequest(Method.GET, service).parameters(parameters);
+    return client.newRequest(Method.GET, service).query(toQueryString());
   }
 
   /**
@@ -89,6 +89,17 @@ public final class Facet {
     return new Facet(definition, false);
   }
 
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    Facet other = (Facet) o;
+    return this._definition.equals(other._definition) && this._flexible == other._flexible;
+  }
 
+  @Override
+  public int hashCode() {
+    return Objects.hash(this._definition, this._flexible);
+  }
 
-}
\ No newline at end of file
+}
@@ -142,4 +142,14 @@ public class FacetList extends ImmutableList<Facet> implements Iterable<Facet> {
     return parameters;
   }
 
+  @Override
+  public boolean equals(Object o) {
+    return super.equals(o) && this._facetSize == ((FacetList) o)._facetSize;
+  }
+
+  @Override
+  public int hashCode() {
+    return super.hashCode() * 31 + this._facetSize;
+  }
+
 }
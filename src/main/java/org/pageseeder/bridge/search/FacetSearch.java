@@ -181,4 +181,22 @@ public final class FacetSearch extends BasicSearch<FacetSearch> implements Seria
       return ServicePath.newPath("/groups/{group}/search/facets", this._scope.name());
   }
 
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    FacetSearch other = (FacetSearch) o;
+    return this._scope.equals(other._scope)
+        && this._question.equals(other._question)
+        && this._facets.equals(other._facets)
+        && this._filters.equals(other._filters)
+        && this._ranges.equals(other._ranges);
+  }
+
+  @Override
+  public int hashCode() {
+    // Equal searches have the same query
+    return 31 * this._scope.hashCode() + toQueryString().hashCode();
+  }
+
 }
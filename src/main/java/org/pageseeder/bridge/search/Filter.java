@@ -123,6 +123,20 @@ public class Filter {
   public String toString() {
     return this._occur+this._field+":"+this._value;
   }
-}
 
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    Filter other = (Filter) o;
+    return this._field.equals(other._field)
+        && this._value.equals(other._value)
+        && this._occur == other._occur;
+  }
 
+  @Override
+  public int hashCode() {
+    return Objects.hash(this._field, this._value, this._occur);
+  }
+
+}
@@ -114,4 +114,16 @@ abstract class ImmutableList<E> implements Iterable<E> {
     return this._list.iterator();
   }
 
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    return this._list.equals(((ImmutableList<?>) o)._list);
+  }
+
+  @Override
+  public int hashCode() {
+    return this._list.hashCode();
+  }
+
 }
@@ -55,4 +55,18 @@ public final class Predicate {
     }
     return parameters;
   }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    Predicate other = (Predicate) o;
+    return this._predicate.equals(other._predicate) && this._defaultField.equals(other._defaultField);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(this._predicate, this._defaultField);
+  }
+
 }
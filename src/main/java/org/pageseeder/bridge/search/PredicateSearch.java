@@ -16,6 +16,7 @@
 package org.pageseeder.bridge.search;
 
 import org.pageseeder.bridge.http.ServicePath;
+import org.pageseeder.bridge.xml.stax.ElementXMLStreamHandler;
 
 import java.io.Serializable;
 import java.util.LinkedHashMap;
@@ -134,6 +135,19 @@ public final class PredicateSearch extends BasicSearch<PredicateSearch> implemen
     return this._page;
   }
 
+  /**
+   * Returns a cursor walking through all the pages of results of this search starting from
+   * the current page.
+   *
+   * @param handler The handler for each result
+   * @param <R> The type of object returned for each result
+   *
+   * @return A new cursor over the results of this search
+   */
+  public <R> SearchCursor<R> cursor(ElementXMLStreamHandler<R> handler) {
+    return new SearchCursor<>(number -> page(number), this._page, handler);
+  }
+
   /**
    * Define how the results should be sorted
    *
@@ -183,4 +197,23 @@ public final class PredicateSearch extends BasicSearch<PredicateSearch> implemen
     else
       return ServicePath.newPath("/groups/{group}/search/predicate", this._scope.name());
   }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    PredicateSearch other = (PredicateSearch) o;
+    return this._scope.equals(other._scope)
+        && this._predicate.equals(other._predicate)
+        && this._facets.equals(other._facets)
+        && this._page.equals(other._page)
+        && this._sortFields.equals(other._sortFields);
+  }
+
+  @Override
+  public int hashCode() {
+    // Equal searches have the same query
+    return 31 * this._scope.hashCode() + toQueryString().hashCode();
+  }
+
 }
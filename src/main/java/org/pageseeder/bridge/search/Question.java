@@ -111,4 +111,20 @@ public final class Question {
     }
     return parameters;
   }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    Question other = (Question) o;
+    return this._question.equals(other._question)
+        && this._fields.equals(other._fields)
+        && this._suggestSize == other._suggestSize;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(this._question, this._fields, this._suggestSize);
+  }
+
 }
@@ -17,6 +17,7 @@ package org.pageseeder.bridge.search;
 
 import org.eclipse.jdt.annotation.Nullable;
 import org.pageseeder.bridge.http.ServicePath;
+import org.pageseeder.bridge.xml.stax.ElementXMLStreamHandler;
 
 import java.io.Serializable;
 import java.util.LinkedHashMap;
@@ -149,6 +150,19 @@ public final class QuestionSearch extends BasicSearch<QuestionSearch> implements
     return this._page;
   }
 
+  /**
+   * Returns a cursor walking through all the pages of results of this search starting from
+   * the current page.
+   *
+   * @param handler The handler for each result
+   * @param <R> The type of object returned for each result
+   *
+   * @return A new cursor over the results of this search
+   */
+  public <R> SearchCursor<R> cursor(ElementXMLStreamHandler<R> handler) {
+    return new SearchCursor<>(number -> page(this._page.number(number)), this._page, handler);
+  }
+
   /**
    * Sets the filters to use in this search
    *
@@ -367,4 +381,25 @@ public final class QuestionSearch extends BasicSearch<QuestionSearch> implements
     else
       return ServicePath.newPath("/groups/{group}/search", this._scope.name());
   }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    QuestionSearch other = (QuestionSearch) o;
+    return this._scope.equals(other._scope)
+        && this._question.equals(other._question)
+        && this._facets.equals(other._facets)
+        && this._filters.equals(other._filters)
+        && this._ranges.equals(other._ranges)
+        && this._page.equals(other._page)
+        && this._sortFields.equals(other._sortFields);
+  }
+
+  @Override
+  public int hashCode() {
+    // Equal searches have the same query
+    return 31 * this._scope.hashCode() + toQueryString().hashCode();
+  }
+
 }
@@ -137,4 +137,20 @@ public class Range {
     return out.toString();
   }
 
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    Range other = (Range) o;
+    return this._min.equals(other._min)
+        && this._minInclusive == other._minInclusive
+        && this._max.equals(other._max)
+        && this._maxInclusive == other._maxInclusive;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(this._min, this._minInclusive, this._max, this._maxInclusive);
+  }
+
 }
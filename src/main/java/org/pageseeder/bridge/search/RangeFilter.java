@@ -52,4 +52,18 @@ public class RangeFilter {
   public String toString() {
     return this._field+":"+this._range;
   }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    RangeFilter other = (RangeFilter) o;
+    return this._field.equals(other._field) && this._range.equals(other._range);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(this._field, this._range);
+  }
+
 }
@@ -17,6 +17,7 @@ package org.pageseeder.bridge.search;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Defines the scope of the search which may be:
@@ -100,4 +101,20 @@ public class Scope {
       throw new IllegalStateException("You must specify the member for project-level searches");
   }
 
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    Scope other = (Scope) o;
+    return this._project == other._project
+        && this._name.equals(other._name)
+        && this._groups.equals(other._groups)
+        && this._member.equals(other._member);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(this._project, this._name, this._groups, this._member);
+  }
+
 }
@@ -0,0 +1,370 @@
+/*
+ * Copyright 2026 Allette Systems (Australia)
+ * http://www.allette.com.au
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pageseeder.bridge.search;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.pageseeder.bridge.CacheStats;
+import org.pageseeder.bridge.PSConfig;
+import org.pageseeder.bridge.PSCredentials;
+import org.pageseeder.bridge.http.CacheKeys;
+import org.pageseeder.bridge.http.ContentException;
+import org.pageseeder.bridge.http.Request;
+import org.pageseeder.bridge.http.Response;
+import org.pageseeder.bridge.xml.stax.XMLStreamHandler;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A short-lived in-memory cache of the results of searches.
+ *
+ * <p>Search objects are immutable values, so the results are cached using the search itself
+ * (including its scope), the cache partition of the PageSeeder configuration and a fingerprint
+ * of the credentials as the key. The results are parsed once using the handler of this cache and
+ * the same unmodifiable list is returned until it expires.
+ *
+ * <p>This cache is intended for searches repeated many times within a short period, such as
+ * facet counts displayed on every page; since PageSeeder provides no way to revalidate search
+ * results, the time-to-live should be kept short, and the cache invalidated using
+ * {@link #invalidateGroup(String)} or {@link #clear()} when the content of a group is known
+ * to have changed.
+ *
+ * <p>When the cache is full, expired entries are removed first and then the entries closest
+ * to expiry.
+ *
+ * <p>This class is thread-safe.
+ *
+ * @param <T> The type of objects returned by the handler
+ *
+ * @author Christophe Lauret
+ *
+ * @version 0.11.41
+ * @since 0.11.41
+ */
+public final class SearchCache<T> {
+
+  /**
+   * The default time-to-live for the results (30 seconds).
+   */
+  public static final Duration DEFAULT_TTL = Duration.ofSeconds(30);
+
+  /**
+   * The default maximum number of searches to cache.
+   */
+  public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+  /**
+   * The name of this cache.
+   */
+  private final String _name;
+
+  /**
+   * The handler used to parse the results.
+   */
+  private final XMLStreamHandler<T> _handler;
+
+  /**
+   * The time-to-live of the results in nanoseconds.
+   */
+  private final long _ttl;
+
+  /**
+   * The maximum number of searches to cache.
+   */
+  private final int _maxEntries;
+
+  /**
+   * The cached results.
+   */
+  private final ConcurrentMap<Key, Entry<T>> _entries = new ConcurrentHashMap<>();
+
+  private final LongAdder _hits = new LongAdder();
+
+  private final LongAdder _misses = new LongAdder();
+
+  private final LongAdder _evictions = new LongAdder();
+
+  private final LongAdder _loadTime = new LongAdder();
+
+  /**
+   * Creates a new cache using the default time-to-live and maximum number of entries.
+   *
+   * @param name    The name of the cache (for statistics)
+   * @param handler The handler used to parse the results
+   */
+  public SearchCache(String name, XMLStreamHandler<T> handler) {
+    this(name, handler, DEFAULT_TTL, DEFAULT_MAX_ENTRIES);
+  }
+
+  /**
+   * Creates a new cache.
+   *
+   * @param name       The name of the cache (for statistics)
+   * @param handler    The handler used to parse the results
+   * @param ttl        The time-to-live of the results
+   * @param maxEntries The maximum number of searches to cache
+   *
+   * @throws IllegalArgumentException If the time-to-live is negative or the maximum number of entries is not positive
+   */
+  public SearchCache(String name, XMLStreamHandler<T> handler, Duration ttl, int maxEntries) {
+    if (ttl.isNegative()) throw new IllegalArgumentException("The time-to-live must not be negative");
+    if (maxEntries <= 0) throw new IllegalArgumentException("The maximum number of entries must be greater than 0");
+    this._name = name;
+    this._handler = handler;
+    this._ttl = ttl.toNanos();
+    this._maxEntries = maxEntries;
+  }
+
+  /**
+   * Returns the results of the search using the default configuration.
+   *
+   * @param search      The search
+   * @param credentials The credentials to use
+   *
+   * @return The cached results or the results retrieved from PageSeeder
+   *
+   * @throws ContentException If the results could not be retrieved or parsed.
+   */
+  public List<T> get(QuestionSearch search, PSCredentials credentials) {
+    return lookup(search, credentials, PSConfig.getDefault());
+  }
+
+  /**
+   * Returns the results of the search using the specified configuration.
+   *
+   * @param search      The search
+   * @param credentials The credentials to use
+   * @param config      The PageSeeder configuration
+   *
+   * @return The cached results or the results retrieved from PageSeeder
+   *
+   * @throws ContentException If the results could not be retrieved or parsed.
+   */
+  public List<T> get(QuestionSearch search, PSCredentials credentials, PSConfig config) {
+    return lookup(search, credentials, config);
+  }
+
+  /**
+   * Returns the results of the facet search using the default configuration.
+   *
+   * @param search      The search
+   * @param credentials The credentials to use
+   *
+   * @return The cached results or the results retrieved from PageSeeder
+   *
+   * @throws ContentException If the results could not be retrieved or parsed.
+   */
+  public List<T> get(FacetSearch search, PSCredentials credentials) {
+    return lookup(search, credentials, PSConfig.getDefault());
+  }
+
+  /**
+   * Returns the results of the facet search using the specified configuration.
+   *
+   * @param search      The search
+   * @param credentials The credentials to use
+   * @param config      The PageSeeder configuration
+   *
+   * @return The cached results or the results retrieved from PageSeeder
+   *
+   * @throws ContentException If the results could not be retrieved or parsed.
+   */
+  public List<T> get(FacetSearch search, PSCredentials credentials, PSConfig config) {
+    return lookup(search, credentials, config);
+  }
+
+  /**
+   * Removes the results of the specified search for all credentials and configurations.
+   *
+   * @param search The search to invalidate
+   */
+  public void invalidate(QuestionSearch search) {
+    this._entries.keySet().removeIf(key -> key.search.equals(search));
+  }
+
+  /**
+   * Removes the results of the specified facet search for all credentials and configurations.
+   *
+   * @param search The search to invalidate
+   */
+  public void invalidate(FacetSearch search) {
+    this._entries.keySet().removeIf(key -> key.search.equals(search));
+  }
+
+  /**
+   * Removes the results of all the searches including the specified group, either directly or
+   * as part of a project search.
+   *
+   * @param group The name of the group
+   */
+  public void invalidateGroup(String group) {
+    this._entries.keySet().removeIf(key -> includes(key.search._scope, group));
+  }
+
+  /**
+   * Removes all the results from this cache.
+   */
+  public void clear() {
+    this._entries.clear();
+  }
+
+  /**
+   * @return The number of searches currently cached including expired ones.
+   */
+  public int size() {
+    return this._entries.size();
+  }
+
+  /**
+   * @return The statistics for this cache.
+   */
+  public CacheStats stats() {
+    return new CacheStats.Builder(this._name)
+        .size(this._entries.size())
+        .capacity(this._maxEntries)
+        .hits(this._hits.sum())
+        .misses(this._misses.sum())
+        .evictions(this._evictions.sum())
+        .loads(this._misses.sum())
+        .loadTime(Duration.ofNanos(this._loadTime.sum()))
+        .build();
+  }
+
+  private List<T> lookup(BasicSearch<?> search, PSCredentials credentials, PSConfig config) {
+    Key key = new Key(search, config.getCachePartition(), CacheKeys.fingerprint(credentials));
+    Entry<T> entry = this._entries.get(key);
+    long now = System.nanoTime();
+    if (entry != null) {
+      if (!entry.isExpired(now)) {
+        this._hits.increment();
+        return entry.results;
+      }
+      this._entries.remove(key, entry);
+    }
+    this._misses.increment();
+    List<T> results = load(search, credentials, config);
+    long loaded = System.nanoTime();
+    this._loadTime.add(loaded - now);
+    this._entries.put(key, new Entry<>(results, loaded + this._ttl));
+    if (this._entries.size() > this._maxEntries) {
+      evict(loaded);
+    }
+    return results;
+  }
+
+  private List<T> load(BasicSearch<?> search, PSCredentials credentials, PSConfig config) {
+    Request request = search.request().using(credentials).config(config);
+    try (Response response = request.response()) {
+      if (!response.isSuccessful())
+        throw new ContentException("Unable to retrieve search results: "+response.code());
+      return Collections.unmodifiableList(response.consumeList(this._handler));
+    }
+  }
+
+  /**
+   * Removes the expired entries, then the entries closest to expiry until the cache is within bounds.
+   */
+  private void evict(long now) {
+    Iterator<Map.Entry<Key, Entry<T>>> entries = this._entries.entrySet().iterator();
+    while (entries.hasNext()) {
+      if (entries.next().getValue().isExpired(now)) {
+        entries.remove();
+        this._evictions.increment();
+      }
+    }
+    while (this._entries.size() > this._maxEntries) {
+      Map.Entry<Key, Entry<T>> oldest = null;
+      for (Map.Entry<Key, Entry<T>> e : this._entries.entrySet()) {
+        if (oldest == null || e.getValue().expires - oldest.getValue().expires < 0) {
+          oldest = e;
+        }
+      }
+      if (oldest == null) break;
+      if (this._entries.remove(oldest.getKey(), oldest.getValue())) {
+        this._evictions.increment();
+      }
+    }
+  }
+
+  private static boolean includes(Scope scope, String group) {
+    if (scope.isProject()) return scope.name().equals(group) || scope.groups().contains(group) || group.startsWith(scope.name() + '-');
+    return scope.name().equals(group);
+  }
+
+  /**
+   * The key for the cached results.
+   */
+  private static final class Key {
+
+    private final BasicSearch<?> search;
+
+    private final String partition;
+
+    private final String fingerprint;
+
+    private final int hash;
+
+    Key(BasicSearch<?> search, String partition, String fingerprint) {
+      this.search = search;
+      this.partition = partition;
+      this.fingerprint = fingerprint;
+      this.hash = (search.hashCode() * 31 + partition.hashCode()) * 31 + fingerprint.hashCode();
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+      if (this == o) return true;
+      if (!(o instanceof Key)) return false;
+      Key key = (Key) o;
+      return this.hash == key.hash
+          && this.search.equals(key.search)
+          && this.partition.equals(key.partition)
+          && this.fingerprint.equals(key.fingerprint);
+    }
+
+    @Override
+    public int hashCode() {
+      return this.hash;
+    }
+  }
+
+  /**
+   * The cached results and their expiry time.
+   */
+  private static final class Entry<T> {
+
+    private final List<T> results;
+
+    /** Expiry time in nanoseconds (from <code>System.nanoTime()</code>) */
+    private final long expires;
+
+    Entry(List<T> results, long expires) {
+      this.results = results;
+      this.expires = expires;
+    }
+
+    boolean isExpired(long now) {
+      return now - this.expires >= 0;
+    }
+  }
+
+}
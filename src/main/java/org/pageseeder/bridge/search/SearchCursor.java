@@ -0,0 +1,494 @@
+/*
+ * Copyright 2026 Allette Systems (Australia)
+ * http://www.allette.com.au
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pageseeder.bridge.search;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.pageseeder.bridge.PSConfig;
+import org.pageseeder.bridge.PSCredentials;
+import org.pageseeder.bridge.core.SearchTotals;
+import org.pageseeder.bridge.http.ContentException;
+import org.pageseeder.bridge.http.HttpClient;
+import org.pageseeder.bridge.http.Request;
+import org.pageseeder.bridge.http.Response;
+import org.pageseeder.bridge.xml.stax.ElementXMLStreamHandler;
+import org.pageseeder.bridge.xml.stax.XMLStreamHandler;
+import org.pageseeder.bridge.xml.stax.XMLStreamSearchTotals;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.WeakHashMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A cursor walking through all the pages of results of a search.
+ *
+ * <p>The results are returned as a lazy stream: the first page is requested when the stream
+ * is first consumed, and the next page is requested in the background using the
+ * {@link HttpClient#getExecutor() HTTP client executor} while the results of the current page
+ * are being consumed. At most one page more than the concurrency of the cursor is held in
+ * memory at any time.
+ *
+ * <p>The cursor stops after the last page according to the totals reported by PageSeeder,
+ * or when a page returns fewer results than the page size if the totals are not included
+ * in the response.
+ *
+ * <p>When the totals are known, up to {@link #concurrency(int)} pages can be requested
+ * concurrently; the results are returned in page order unless the cursor is
+ * {@link #ordered(boolean) unordered}, in which case each page is returned as soon as it is
+ * received. To avoid overwhelming PageSeeder, the number of pages requested concurrently by all
+ * cursors using the same configuration is also limited (4 by default), this limit can be set
+ * with {@link #setMaxConcurrency(PSConfig, int)} or the <code>bridge.search.maxConcurrency</code>
+ * system property.
+ *
+ * <p>Instances are immutable and can be reused to walk through the results several times.
+ *
+ * <pre>{@code
+ * try (Stream<String> uris = search.cursor(handler).using(credentials).stream()) {
+ *   uris.forEach(...);
+ * }
+ * }</pre>
+ *
+ * @param <T> The type of object returned for each result
+ *
+ * @author Christophe Lauret
+ *
+ * @version 0.11.41
+ * @since 0.11.41
+ */
+public final class SearchCursor<T> {
+
+  /**
+   * The default maximum number of pages requested concurrently for the same configuration.
+   */
+  public static final int DEFAULT_MAX_CONCURRENCY = 4;
+
+  /**
+   * Limits the number of page requests per configuration, weak keys so that discarded
+   * configurations can be garbage collected.
+   */
+  private static final Map<PSConfig, Semaphore> PERMITS = Collections.synchronizedMap(new WeakHashMap<>());
+
+  /**
+   * Returns the search for the specified page number.
+   */
+  private final IntFunction<? extends BasicSearch<?>> _search;
+
+  /**
+   * The first page to request and the number of results per page.
+   */
+  private final Page _first;
+
+  /**
+   * The handler for each result.
+   */
+  private final ElementXMLStreamHandler<T> _handler;
+
+  /**
+   * The credentials to use (may be null)
+   */
+  private final @Nullable PSCredentials _credentials;
+
+  /**
+   * The configuration to use (may be null to use the default)
+   */
+  private final @Nullable PSConfig _config;
+
+  /**
+   * The maximum number of pages to request concurrently
+   */
+  private final int _concurrency;
+
+  /**
+   * Whether results must be returned in page order
+   */
+  private final boolean _ordered;
+
+  /**
+   * Creates a new cursor.
+   *
+   * @param search  Returns the search for the specified page number
+   * @param first   The first page to request
+   * @param handler The handler for each result
+   */
+  SearchCursor(IntFunction<? extends BasicSearch<?>> search, Page first, ElementXMLStreamHandler<T> handler) {
+    this(search, first, handler, null, null, 1, true);
+  }
+
+  private SearchCursor(IntFunction<? extends BasicSearch<?>> search, Page first, ElementXMLStreamHandler<T> handler,
+                       @Nullable PSCredentials credentials, @Nullable PSConfig config, int concurrency, boolean ordered) {
+    this._search = search;
+    this._first = first;
+    this._handler = handler;
+    this._credentials = credentials;
+    this._config = config;
+    this._concurrency = concurrency;
+    this._ordered = ordered;
+  }
+
+  /**
+   * @param credentials The credentials to use for each page request
+   *
+   * @return A new cursor using the specified credentials
+   */
+  public SearchCursor<T> using(PSCredentials credentials) {
+    return new SearchCursor<>(this._search, this._first, this._handler, credentials, this._config, this._concurrency, this._ordered);
+  }
+
+  /**
+   * @param config The PageSeeder configuration to use for each page request
+   *
+   * @return A new cursor using the specified configuration
+   */
+  public SearchCursor<T> config(PSConfig config) {
+    return new SearchCursor<>(this._search, this._first, this._handler, this._credentials, config, this._concurrency, this._ordered);
+  }
+
+  /**
+   * Sets the maximum number of pages this cursor may request concurrently.
+   *
+   * <p>Pages are only requested concurrently once the total number of results is known from
+   * the first page; otherwise the pages are requested one after the other.
+   *
+   * @param concurrency The maximum number of pages to request concurrently (1 by default)
+   *
+   * @return A new cursor using the specified concurrency
+   *
+   * @throws IllegalArgumentException If the concurrency is not greater than zero
+   */
+  public SearchCursor<T> concurrency(int concurrency) {
+    if (concurrency <= 0) throw new IllegalArgumentException("Concurrency must be greater than 0");
+    return new SearchCursor<>(this._search, this._first, this._handler, this._credentials, this._config, concurrency, this._ordered);
+  }
+
+  /**
+   * Sets whether the results must be returned in page order.
+   *
+   * <p>When pages are requested concurrently, an unordered cursor returns the results of each
+   * page as soon as it is received; results within a page always keep their order.
+   *
+   * @param ordered <code>true</code> to return the results in page order (default);
+   *                <code>false</code> to return pages in the order they are received.
+   *
+   * @return A new cursor with the specified ordering
+   */
+  public SearchCursor<T> ordered(boolean ordered) {
+    return new SearchCursor<>(this._search, this._first, this._handler, this._credentials, this._config, this._concurrency, ordered);
+  }
+
+  /**
+   * @return The first page requested by this cursor.
+   */
+  public Page first() {
+    return this._first;
+  }
+
+  /**
+   * @return The maximum number of pages this cursor may request concurrently.
+   */
+  public int concurrency() {
+    return this._concurrency;
+  }
+
+  /**
+   * @return <code>true</code> if the results are returned in page order.
+   */
+  public boolean isOrdered() {
+    return this._ordered;
+  }
+
+  /**
+   * Sets the maximum number of pages requested concurrently by all cursors using the
+   * specified configuration.
+   *
+   * <p>Requests already waiting for the previous limit are not affected.
+   *
+   * @param config The PageSeeder configuration
+   * @param max    The maximum number of concurrent page requests
+   *
+   * @throws IllegalArgumentException If the maximum is not greater than zero
+   */
+  public static void setMaxConcurrency(PSConfig config, int max) {
+    if (max <= 0) throw new IllegalArgumentException("Maximum concurrency must be greater than 0");
+    PERMITS.put(config, new Semaphore(max));
+  }
+
+  /**
+   * Returns a lazy stream over the results of all the pages starting from the first page.
+   *
+   * <p>The stream should be closed when it is not fully consumed so that the next page is
+   * no longer requested.
+   *
+   * @return A new stream of results
+   *
+   * @throws ContentException If a page could not be retrieved or parsed while consuming the stream.
+   */
+  public Stream<T> stream() {
+    Pages<T> pages = new Pages<>(this);
+    Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(pages, Spliterator.ORDERED | Spliterator.NONNULL);
+    return StreamSupport.stream(spliterator, false).onClose(pages::close);
+  }
+
+  /**
+   * Requests and parses the specified page of results.
+   *
+   * @param number The page number
+   *
+   * @return The results for that page
+   *
+   * @throws ContentException If the page could not be retrieved or parsed.
+   */
+  PageResults<T> fetch(int number) {
+    Request request = this._search.apply(number).request();
+    if (this._credentials != null) request = request.using(this._credentials);
+    if (this._config != null) request = request.config(this._config);
+    Semaphore permits = PERMITS.computeIfAbsent(request.config(), config -> new Semaphore(defaultMaxConcurrency()));
+    try {
+      permits.acquire();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new ContentException("Interrupted while waiting to retrieve page "+number+" of search results", ex);
+    }
+    try (Response response = request.response()) {
+      if (!response.isSuccessful())
+        throw new ContentException("Unable to retrieve page "+number+" of search results: "+response.code());
+      TotalsHandler<T> handler = new TotalsHandler<>(this._handler);
+      List<T> results = response.consumeList(handler);
+      return new PageResults<>(number, results, handler.total, handler.pages);
+    } finally {
+      permits.release();
+    }
+  }
+
+  private static int defaultMaxConcurrency() {
+    int max = Integer.getInteger("bridge.search.maxConcurrency", DEFAULT_MAX_CONCURRENCY);
+    return max > 0 ? max : DEFAULT_MAX_CONCURRENCY;
+  }
+
+  /**
+   * The results of a single page.
+   */
+  static final class PageResults<T> {
+
+    final int number;
+
+    final List<T> results;
+
+    /** Total number of results reported by the server, -1 if unknown */
+    final long total;
+
+    /** Total number of pages reported by the server, -1 if unknown */
+    final long pages;
+
+    PageResults(int number, List<T> results, long total, long pages) {
+      this.number = number;
+      this.results = results;
+      this.total = total;
+      this.pages = pages;
+    }
+
+    /**
+     * @param size The number of results per page.
+     *
+     * @return The number of the last page or -1 if it cannot be determined from this page.
+     */
+    int lastPage(int size) {
+      if (this.results.isEmpty()) return this.number;
+      if (this.total >= 0) return (int) Math.min(Integer.MAX_VALUE, (this.total + size - 1) / size);
+      if (this.pages >= 0) return (int) Math.min(Integer.MAX_VALUE, this.pages);
+      return this.results.size() < size ? this.number : -1;
+    }
+  }
+
+  /**
+   * Iterates over the pages, requesting the next pages in the background.
+   *
+   * <p>Until the last page is known, only the next page is requested; afterwards up to the
+   * concurrency of the cursor.
+   */
+  private static final class Pages<T> implements Iterator<T>, AutoCloseable {
+
+    private final SearchCursor<T> cursor;
+
+    /** Pages requested in page order */
+    private final Deque<CompletableFuture<PageResults<T>>> requested = new ArrayDeque<>();
+
+    /** Pages received in the order they completed (unordered cursors only) */
+    private final BlockingQueue<CompletableFuture<PageResults<T>>> received = new LinkedBlockingQueue<>();
+
+    private Iterator<T> current = Collections.emptyIterator();
+
+    /** The number of the next page to request */
+    private int nextPage;
+
+    /** The number of the last page if known */
+    private int lastPage = Integer.MAX_VALUE;
+
+    /** Whether the last page is known from the totals */
+    private boolean known = false;
+
+    /** Number of pages requested but not yet returned */
+    private int pending = 0;
+
+    private boolean started = false;
+
+    private volatile boolean closed = false;
+
+    Pages(SearchCursor<T> cursor) {
+      this.cursor = cursor;
+      this.nextPage = cursor._first.number();
+    }
+
+    @Override
+    public boolean hasNext() {
+      while (!this.current.hasNext() && !this.closed) {
+        if (!this.started) {
+          this.started = true;
+          request();
+        }
+        if (this.pending == 0) return false;
+        PageResults<T> page;
+        try {
+          page = take();
+        } catch (RuntimeException ex) {
+          close();
+          throw ex;
+        }
+        int size = this.cursor._first.size();
+        int last = page.lastPage(size);
+        if (last >= 0) {
+          this.lastPage = Math.min(this.lastPage, last);
+          this.known = this.known || !page.results.isEmpty();
+        }
+        int window = this.known ? this.cursor._concurrency : 1;
+        while (this.pending < window && this.nextPage <= this.lastPage) {
+          request();
+        }
+        this.current = page.results.iterator();
+      }
+      return !this.closed && this.current.hasNext();
+    }
+
+    @Override
+    public T next() {
+      if (!hasNext()) throw new NoSuchElementException();
+      return this.current.next();
+    }
+
+    @Override
+    public void close() {
+      this.closed = true;
+      this.current = Collections.emptyIterator();
+      for (CompletableFuture<PageResults<T>> future : this.requested) {
+        future.cancel(false);
+      }
+      this.requested.clear();
+      this.received.clear();
+      this.pending = 0;
+    }
+
+    private void request() {
+      int number = this.nextPage++;
+      CompletableFuture<PageResults<T>> future = CompletableFuture.supplyAsync(() -> this.cursor.fetch(number), HttpClient.getExecutor());
+      this.requested.add(future);
+      if (!this.cursor._ordered) {
+        future.whenComplete((results, ex) -> this.received.add(future));
+      }
+      this.pending++;
+    }
+
+    private PageResults<T> take() {
+      CompletableFuture<PageResults<T>> future;
+      if (this.cursor._ordered) {
+        future = this.requested.remove();
+      } else {
+        try {
+          future = this.received.take();
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          throw new ContentException("Interrupted while waiting for search results", ex);
+        }
+        this.requested.remove(future);
+      }
+      this.pending--;
+      return join(future);
+    }
+
+    private static <T> PageResults<T> join(CompletableFuture<PageResults<T>> future) {
+      try {
+        return future.join();
+      } catch (CompletionException ex) {
+        Throwable cause = ex.getCause();
+        if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+        throw new ContentException("Unable to retrieve search results", cause != null ? cause : ex);
+      }
+    }
+  }
+
+  /**
+   * Returns the results using the specified handler and captures the totals as they are found.
+   */
+  private static final class TotalsHandler<T> implements XMLStreamHandler<T> {
+
+    private static final XMLStreamSearchTotals TOTALS = new XMLStreamSearchTotals();
+
+    private final ElementXMLStreamHandler<T> handler;
+
+    long total = -1;
+
+    long pages = -1;
+
+    TotalsHandler(ElementXMLStreamHandler<T> handler) {
+      this.handler = handler;
+    }
+
+    @Override
+    public boolean find(XMLStreamReader xml) throws XMLStreamException {
+      while (true) {
+        if (xml.isStartElement()) {
+          if (TOTALS.isOnElement(xml)) {
+            SearchTotals totals = TOTALS.get(xml);
+            this.total = totals.getResults();
+            this.pages = totals.getPages();
+          } else if (this.handler.isOnElement(xml)) return true;
+        }
+        if (!xml.hasNext()) return false;
+        xml.next();
+      }
+    }
+
+    @Override
+    public @Nullable T get(XMLStreamReader xml) throws XMLStreamException {
+      return this.handler.get(xml);
+    }
+  }
+
+}
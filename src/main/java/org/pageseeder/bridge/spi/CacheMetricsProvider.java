@@ -0,0 +1,61 @@
+/*
+ * Copyright 2026 Allette Systems (Australia)
+ * http://www.allette.com.au
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pageseeder.bridge.spi;
+
+import java.util.function.Supplier;
+
+import org.pageseeder.bridge.CacheStats;
+
+/**
+ * An interface for service providers that publish the statistics of the caches used by the
+ * bridge to a metrics system.
+ *
+ * <p>The provider is notified when a cache is created and receives a supplier of statistics
+ * which it should poll whenever the metrics system collects values, for example by registering
+ * gauges. The statistics are computed on demand, so calling the supplier is cheap but not free.
+ *
+ * <p>Providers must be thread-safe.
+ *
+ * @see org.pageseeder.bridge.CacheMetrics
+ *
+ * @author Christophe Lauret
+ *
+ * @version 0.11.41
+ * @since 0.11.41
+ */
+public interface CacheMetricsProvider {
+
+  /**
+   * Binds the statistics of a cache to the metrics system.
+   *
+   * @param partition The partition of the cache (see {@link org.pageseeder.bridge.PSConfig#getCachePartition()})
+   * @param name      The name of the cache
+   * @param stats     Returns the current statistics of the cache
+   */
+  void bind(String partition, String name, Supplier<CacheStats> stats);
+
+  /**
+   * Removes the statistics of a cache which has been discarded.
+   *
+   * <p>The default implementation does nothing.
+   *
+   * @param partition The partition of the cache
+   * @param name      The name of the cache
+   */
+  default void unbind(String partition, String name) {
+  }
+
+}
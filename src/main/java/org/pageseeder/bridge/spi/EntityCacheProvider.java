@@ -0,0 +1,65 @@
+/*
+ * Copyright 2026 Allette Systems (Australia)
+ * http://www.allette.com.au
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pageseeder.bridge.spi;
+
+import org.pageseeder.bridge.EntityCacheSettings;
+
+/**
+ * An interface for service providers that configure the caches of PageSeeder entities.
+ *
+ * <p>The provider is consulted once for each cache in each partition, the first time the cache is used, after
+ * the <code>bridge.cache.[name].capacity</code> and <code>bridge.cache.[name].ttl</code>
+ * properties have been applied.
+ *
+ * <p>The names of the caches are: <code>psmembers</code>, <code>psgroups</code>,
+ * <code>psgroupfolders</code>, <code>psmemberships</code>, <code>psdocuments</code>,
+ * <code>psfolders</code>, <code>psexternaluris</code>, <code>pscomments</code> and
+ * <code>psxrefs</code>.
+ *
+ * @author Christophe Lauret
+ *
+ * @version 0.11.41
+ * @since 0.11.41
+ */
+public interface EntityCacheProvider {
+
+  /**
+   * Returns the settings to use for the specified cache.
+   *
+   * @param name     The name of the cache
+   * @param settings The settings from the defaults and properties
+   *
+   * @return the settings to use.
+   */
+  EntityCacheSettings getSettings(String name, EntityCacheSettings settings);
+
+  /**
+   * Returns the settings to use for the specified cache in a partition.
+   *
+   * <p>Caches are partitioned by PageSeeder server so that each partition can have its own
+   * capacity. The default implementation ignores the partition.
+   *
+   * @param partition The name of the partition (see {@link org.pageseeder.bridge.PSConfig#getCachePartition()})
+   * @param name      The name of the cache
+   * @param settings  The settings from the defaults and properties
+   *
+   * @return the settings to use.
+   */
+  default EntityCacheSettings getSettings(String partition, String name, EntityCacheSettings settings) {
+    return getSettings(name, settings);
+  }
+
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2026 Allette Systems (Australia)
+ * http://www.allette.com.au
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pageseeder.bridge.spi;
+
+import org.pageseeder.bridge.PSConfig;
+import org.pageseeder.bridge.http.Transport;
+import org.pageseeder.bridge.http.TransportOptions;
+
+/**
+ * An interface for service providers that provide the HTTP transport used to connect to PageSeeder.
+ *
+ * <p>When no provider is registered, the bridge uses <code>java.net.http</code> on Java 11+
+ * and <code>HttpURLConnection</code> otherwise.
+ *
+ * @author Christophe Lauret
+ *
+ * @version 0.11.41
+ * @since 0.11.41
+ */
+public interface TransportProvider {
+
+  /**
+   * Returns a new transport for the specified configuration.
+   *
+   * @param config  The PageSeeder configuration the transport is used for.
+   * @param options The transport options
+   *
+   * @return the transport to use.
+   */
+  Transport newTransport(PSConfig config, TransportOptions options);
+
+}
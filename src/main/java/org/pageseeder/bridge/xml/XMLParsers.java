@@ -0,0 +1,162 @@
+/*
+ * Copyright 2026 Allette Systems (Australia)
+ * http://www.allette.com.au
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pageseeder.bridge.xml;
+
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Provides the XML parsers used to process PageSeeder responses.
+ *
+ * <p>Looking up and configuring the XML factories is relatively expensive compared to parsing
+ * the small XML responses typically returned by PageSeeder, so this class configures the
+ * factories once and keeps a bounded pool of SAX parsers that are reset after use.
+ *
+ * <p>The SAX parsers are non-validating and namespace aware; the StAX readers are coalescing,
+ * namespace unaware and do not support external entities.
+ *
+ * <p>This class is thread-safe.
+ *
+ * @author Christophe Lauret
+ *
+ * @version 0.11.41
+ * @since 0.11.41
+ */
+public final class XMLParsers {
+
+  /**
+   * Maximum number of idle SAX parsers kept in the pool.
+   */
+  private static final int POOL_SIZE = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+  /**
+   * The SAX parser factory, access must be synchronized.
+   */
+  private static final SAXParserFactory SAX_FACTORY = newSAXParserFactory();
+
+  /**
+   * The StAX factory, only used to create stream readers once configured.
+   */
+  private static final XMLInputFactory STAX_FACTORY = newXMLInputFactory();
+
+  /**
+   * Idle SAX parsers.
+   */
+  private static final BlockingQueue<SAXParser> SAX_PARSERS = new ArrayBlockingQueue<>(POOL_SIZE);
+
+  /** Utility class. */
+  private XMLParsers() {
+  }
+
+  /**
+   * Returns a SAX parser from the pool or a new one if there are no idle parsers.
+   *
+   * <p>The parser should be returned to the pool using {@link #release(SAXParser)} once the
+   * XML has been parsed and must not be used afterwards.
+   *
+   * @return a non-validating namespace aware SAX parser.
+   *
+   * @throws ParserConfigurationException If thrown by the factory
+   * @throws SAXException If thrown by the factory
+   */
+  public static SAXParser borrowSAXParser() throws ParserConfigurationException, SAXException {
+    SAXParser parser = SAX_PARSERS.poll();
+    if (parser == null) {
+      synchronized (SAX_FACTORY) {
+        parser = SAX_FACTORY.newSAXParser();
+      }
+    }
+    return parser;
+  }
+
+  /**
+   * Returns the SAX parser to the pool after resetting it.
+   *
+   * <p>The parser is discarded if the pool is full or if it cannot be reset.
+   *
+   * @param parser A parser obtained from {@link #borrowSAXParser()}
+   */
+  public static void release(SAXParser parser) {
+    try {
+      parser.reset();
+      SAX_PARSERS.offer(parser);
+    } catch (UnsupportedOperationException ex) {
+      // Cannot be reused
+    }
+  }
+
+  /**
+   * Parse the specified source using a pooled SAX parser.
+   *
+   * @param source  The XML source to parse
+   * @param handler The SAX handler
+   *
+   * @throws IOException If thrown while reading the source
+   * @throws ParserConfigurationException If thrown by the factory
+   * @throws SAXException If thrown by the parser or handler
+   */
+  public static void parse(InputSource source, DefaultHandler handler) throws IOException, ParserConfigurationException, SAXException {
+    SAXParser parser = borrowSAXParser();
+    try {
+      parser.parse(source, handler);
+    } finally {
+      release(parser);
+    }
+  }
+
+  /**
+   * Returns a new XML stream reader using the shared factory.
+   *
+   * @param in       The input stream to parse
+   * @param encoding The character encoding of the stream
+   *
+   * @return a new XML stream reader.
+   *
+   * @throws XMLStreamException If thrown by the factory
+   */
+  public static XMLStreamReader newXMLStreamReader(InputStream in, String encoding) throws XMLStreamException {
+    return STAX_FACTORY.createXMLStreamReader(in, encoding);
+  }
+
+  private static SAXParserFactory newSAXParserFactory() {
+    SAXParserFactory factory = SAXParserFactory.newInstance();
+    factory.setValidating(false);
+    factory.setNamespaceAware(true);
+    return factory;
+  }
+
+  private static XMLInputFactory newXMLInputFactory() {
+    XMLInputFactory factory = XMLInputFactory.newInstance();
+    factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+    factory.setProperty(XMLInputFactory.IS_REPLACING_ENTITY_REFERENCES, true);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+    return factory;
+  }
+
+}
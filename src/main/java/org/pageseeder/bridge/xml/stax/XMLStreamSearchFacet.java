@@ -0,0 +1,63 @@
+/*
+ * Copyright 2026 Allette Systems (Australia)
+ * http://www.allette.com.au
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pageseeder.bridge.xml.stax;
+
+import org.pageseeder.bridge.core.SearchFacet;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class returns <code>SearchFacet</code> instances from the {@code <facet>} elements
+ * returned by the search and facet services.
+ *
+ * <p>Each facet value is read from a {@code <term>} element with the value in the
+ * <code>text</code> attribute and the number of results in the <code>cardinality</code>
+ * attribute.
+ *
+ * @author Christophe Lauret
+ *
+ * @version 0.11.41
+ * @since 0.11.41
+ */
+public class XMLStreamSearchFacet extends ElementXMLStreamHandler<SearchFacet> implements XMLStreamHandler<SearchFacet> {
+
+  public XMLStreamSearchFacet() {
+    super("facet");
+  }
+
+  @Override
+  public SearchFacet get(XMLStreamReader xml) throws XMLStreamException {
+    checkOnElement(xml);
+    String name = attribute(xml, "name");
+    boolean flexible = attribute(xml, "flexible", false);
+    long total = attribute(xml, "total", -1L);
+    List<SearchFacet.Value> values = new ArrayList<>();
+    do {
+      xml.next();
+      if (xml.isStartElement() && "term".equals(xml.getLocalName())) {
+        String term = optionalAttribute(xml, "text");
+        if (term == null) term = attribute(xml, "value");
+        long cardinality = attribute(xml, "cardinality", 0L);
+        values.add(new SearchFacet.Value(term, cardinality));
+      }
+    } while (!(xml.isEndElement() && element().equals(xml.getLocalName())));
+    return new SearchFacet(name, flexible, total, values);
+  }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2026 Allette Systems (Australia)
+ * http://www.allette.com.au
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pageseeder.bridge.xml.stax;
+
+import org.pageseeder.bridge.core.SearchFields;
+import org.pageseeder.bridge.core.SearchResult;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * This class returns <code>SearchResult</code> instances from the {@code <result>} elements
+ * returned by the search services.
+ *
+ * <p>The field names are stored once in a table shared by the results returned by this
+ * handler, so the same handler should be used to parse all the pages of the same search.
+ *
+ * <p>For date fields, the value of the <code>datetime</code> or <code>date</code> attribute is
+ * used instead of the text.
+ *
+ * <p>This class is thread-safe.
+ *
+ * @author Christophe Lauret
+ *
+ * @version 0.11.41
+ * @since 0.11.41
+ */
+public class XMLStreamSearchResult extends ElementXMLStreamHandler<SearchResult> implements XMLStreamHandler<SearchResult> {
+
+  /**
+   * The current table of field names.
+   */
+  private final AtomicReference<SearchFields> fields;
+
+  /**
+   * Whether to only keep the fields in the initial table.
+   */
+  private final boolean filter;
+
+  /**
+   * Creates a handler keeping all the fields.
+   */
+  public XMLStreamSearchResult() {
+    super("result");
+    this.fields = new AtomicReference<>(SearchFields.EMPTY);
+    this.filter = false;
+  }
+
+  /**
+   * Creates a handler only keeping the specified fields.
+   *
+   * @param fields The names of the fields to keep
+   */
+  public XMLStreamSearchResult(String... fields) {
+    super("result");
+    this.fields = new AtomicReference<>(SearchFields.of(fields));
+    this.filter = fields.length > 0;
+  }
+
+  /**
+   * @return The table of the field names returned so far.
+   */
+  public SearchFields fields() {
+    return this.fields.get();
+  }
+
+  @Override
+  public SearchResult get(XMLStreamReader xml) throws XMLStreamException {
+    checkOnElement(xml);
+    SearchFields table = this.fields.get();
+    SearchResult.Builder result = new SearchResult.Builder(table);
+    do {
+      xml.next();
+      if (xml.isStartElement() && "field".equals(xml.getLocalName())) {
+        String name = attribute(xml, "name");
+        if (!this.filter || table.contains(name)) {
+          String value = optionalAttribute(xml, "datetime");
+          if (value == null)
+            value = optionalAttribute(xml, "date");
+          if (value == null)
+            value = xml.getElementText();
+          result.add(name, value);
+        }
+      }
+    } while (!(xml.isEndElement() && element().equals(xml.getLocalName())));
+    // Each result is consistent with its own table, if another thread grew the table first
+    // the next result will simply start from that table
+    if (result.fields() != table) {
+      this.fields.compareAndSet(table, result.fields());
+    }
+    return result.build();
+  }
+
+}
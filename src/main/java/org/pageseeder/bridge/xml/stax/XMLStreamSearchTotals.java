@@ -0,0 +1,47 @@
+/*
+ * Copyright 2026 Allette Systems (Australia)
+ * http://www.allette.com.au
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pageseeder.bridge.xml.stax;
+
+import org.pageseeder.bridge.core.SearchTotals;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * This class returns <code>SearchTotals</code> instances from the {@code <totals>} element
+ * returned by the search services.
+ *
+ * @author Christophe Lauret
+ *
+ * @version 0.11.41
+ * @since 0.11.41
+ */
+public class XMLStreamSearchTotals extends ElementXMLStreamHandler<SearchTotals> implements XMLStreamHandler<SearchTotals> {
+
+  public XMLStreamSearchTotals() {
+    super("totals");
+  }
+
+  @Override
+  public SearchTotals get(XMLStreamReader xml) throws XMLStreamException {
+    checkOnElement(xml);
+    long results = attribute(xml, "results", -1L);
+    long pages = attribute(xml, "pages", -1L);
+    skipToEndElement(xml, element());
+    return new SearchTotals(results, pages);
+  }
+
+}
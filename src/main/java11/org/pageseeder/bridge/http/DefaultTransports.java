@@ -0,0 +1,46 @@
+/*
+ * Copyright 2026 Allette Systems (Australia)
+ * http://www.allette.com.au
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pageseeder.bridge.http;
+
+/**
+ * Creates the default transport for the Java runtime.
+ *
+ * <p>This is the Java 11+ implementation which uses <code>java.net.http.HttpClient</code>
+ * unless the <code>bridge.http.transport</code> system property is set to <code>urlconnection</code>.
+ *
+ * @author Christophe Lauret
+ *
+ * @version 0.11.41
+ * @since 0.11.41
+ */
+final class DefaultTransports {
+
+  /** Utility class. */
+  private DefaultTransports() {
+  }
+
+  /**
+   * @param options The transport options
+   *
+   * @return A new transport using the default implementation for this runtime.
+   */
+  static Transport newTransport(TransportOptions options) {
+    if ("urlconnection".equalsIgnoreCase(System.getProperty("bridge.http.transport")))
+      return new URLConnectionTransport(options);
+    return new HttpClientTransport(options);
+  }
+
+}
@@ -0,0 +1,438 @@
+/*
+ * Copyright 2026 Allette Systems (Australia)
+ * http://www.allette.com.au
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pageseeder.bridge.http;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+
+/**
+ * A transport using the <code>java.net.http.HttpClient</code> available from Java 11.
+ *
+ * <p>A single client is used for all the exchanges of this transport so that connections are
+ * pooled and reused. HTTP/2 is negotiated with the server unless disabled in the options.
+ * Since the connect timeout can only be set on the client, requests with a specific timeout
+ * use a separate client for that timeout.
+ *
+ * <p>Request bodies are buffered before the request is sent: in memory for small bodies and
+ * in a temporary file beyond {@value #MEMORY_THRESHOLD} bytes (e.g. multipart uploads).
+ *
+ * <p>Note: the names <code>HttpClient</code>, <code>HttpRequest</code> and <code>HttpResponse</code>
+ * clash with classes in this package, so the JDK classes are always fully qualified.
+ *
+ * @author Christophe Lauret
+ *
+ * @version 0.11.41
+ * @since 0.11.41
+ */
+final class HttpClientTransport implements Transport {
+
+  /**
+   * Headers that the <code>HttpClient</code> does not allow to be set on requests.
+   */
+  private static final Set<String> RESTRICTED_HEADERS = new HashSet<>(Arrays.asList(
+      "connection", "content-length", "date", "expect", "from", "host", "origin",
+      "referer", "upgrade", "via", "warning"));
+
+  /**
+   * Maximum number of bytes of the request body to buffer in memory.
+   */
+  private static final int MEMORY_THRESHOLD = 1_000_000;
+
+  /**
+   * The transport options.
+   */
+  private final TransportOptions _options;
+
+  /**
+   * The underlying client using the default connect timeout.
+   */
+  private final java.net.http.HttpClient _client;
+
+  /**
+   * The clients for requests with a specific connect timeout.
+   */
+  private final ConcurrentMap<Integer, java.net.http.HttpClient> _clients = new ConcurrentHashMap<>();
+
+  /**
+   * @param options The transport options
+   */
+  HttpClientTransport(TransportOptions options) {
+    applySystemDefaults(options);
+    this._options = options;
+    this._client = newClient(options, options.connectTimeout());
+  }
+
+  @Override
+  public Exchange open(String method, URL url, List<Header> headers, int timeout) throws IOException {
+    java.net.http.HttpRequest.Builder builder;
+    try {
+      builder = java.net.http.HttpRequest.newBuilder(url.toURI());
+    } catch (URISyntaxException ex) {
+      throw new IOException("Invalid URL: "+url, ex);
+    }
+    for (Header h : headers) {
+      if (!RESTRICTED_HEADERS.contains(h.name().toLowerCase(Locale.ROOT))) {
+        builder.header(h.name(), h.value());
+      }
+    }
+    return new HttpClientExchange(client(timeout), builder, method, url);
+  }
+
+  @Override
+  public String toString() {
+    return "HttpClientTransport{version=" + this._client.version() + '}';
+  }
+
+  /**
+   * @param timeout The connect timeout in milliseconds (negative to use the transport default)
+   *
+   * @return the client to use for that connect timeout
+   */
+  private java.net.http.HttpClient client(int timeout) {
+    if (timeout < 0 || timeout == this._options.connectTimeout()) return this._client;
+    return this._clients.computeIfAbsent(timeout, t -> newClient(this._options, t));
+  }
+
+  /**
+   * @param options The transport options
+   * @param timeout The connect timeout in milliseconds (zero or negative for no timeout)
+   *
+   * @return a new client
+   */
+  private static java.net.http.HttpClient newClient(TransportOptions options, int timeout) {
+    java.net.http.HttpClient.Builder builder = java.net.http.HttpClient.newBuilder()
+        .version(options.http2() ? java.net.http.HttpClient.Version.HTTP_2 : java.net.http.HttpClient.Version.HTTP_1_1)
+        .followRedirects(java.net.http.HttpClient.Redirect.NORMAL);
+    if (timeout > 0) {
+      builder.connectTimeout(Duration.ofMillis(timeout));
+    }
+    Executor executor = options.executor();
+    if (executor != null) {
+      builder.executor(executor);
+    }
+    return builder.build();
+  }
+
+  /**
+   * The client does not expose the reason phrase (HTTP/2 does not have one), so we use the
+   * standard reason phrase for the status code.
+   *
+   * @param code The HTTP status code
+   *
+   * @return the standard reason phrase or <code>null</code> if the code is not known
+   */
+  static @Nullable String reasonPhrase(int code) {
+    switch (code) {
+      case 100: return "Continue";
+      case 101: return "Switching Protocols";
+      case 200: return "OK";
+      case 201: return "Created";
+      case 202: return "Accepted";
+      case 203: return "Non-Authoritative Information";
+      case 204: return "No Content";
+      case 205: return "Reset Content";
+      case 206: return "Partial Content";
+      case 300: return "Multiple Choices";
+      case 301: return "Moved Permanently";
+      case 302: return "Found";
+      case 303: return "See Other";
+      case 304: return "Not Modified";
+      case 305: return "Use Proxy";
+      case 307: return "Temporary Redirect";
+      case 308: return "Permanent Redirect";
+      case 400: return "Bad Request";
+      case 401: return "Unauthorized";
+      case 402: return "Payment Required";
+      case 403: return "Forbidden";
+      case 404: return "Not Found";
+      case 405: return "Method Not Allowed";
+      case 406: return "Not Acceptable";
+      case 407: return "Proxy Authentication Required";
+      case 408: return "Request Timeout";
+      case 409: return "Conflict";
+      case 410: return "Gone";
+      case 411: return "Length Required";
+      case 412: return "Precondition Failed";
+      case 413: return "Payload Too Large";
+      case 414: return "URI Too Long";
+      case 415: return "Unsupported Media Type";
+      case 416: return "Range Not Satisfiable";
+      case 417: return "Expectation Failed";
+      case 422: return "Unprocessable Entity";
+      case 426: return "Upgrade Required";
+      case 428: return "Precondition Required";
+      case 429: return "Too Many Requests";
+      case 431: return "Request Header Fields Too Large";
+      case 500: return "Internal Server Error";
+      case 501: return "Not Implemented";
+      case 502: return "Bad Gateway";
+      case 503: return "Service Unavailable";
+      case 504: return "Gateway Timeout";
+      case 505: return "HTTP Version Not Supported";
+      default: return null;
+    }
+  }
+
+  /**
+   * The connection pool of the client can only be configured using JVM-wide system properties,
+   * so we only set them if they were not explicitly set.
+   */
+  private static void applySystemDefaults(TransportOptions options) {
+    if (options.poolSize() >= 0 && System.getProperty("jdk.httpclient.connectionPoolSize") == null) {
+      System.setProperty("jdk.httpclient.connectionPoolSize", Integer.toString(options.poolSize()));
+    }
+    if (options.keepAlive() >= 0 && System.getProperty("jdk.httpclient.keepalive.timeout") == null) {
+      System.setProperty("jdk.httpclient.keepalive.timeout", Integer.toString(options.keepAlive()));
+    }
+  }
+
+  /**
+   * An exchange using the <code>HttpClient</code>.
+   *
+   * <p>The request body is buffered and the request is sent when the status code is requested.
+   */
+  private static final class HttpClientExchange implements Exchange {
+
+    private final java.net.http.HttpClient _client;
+
+    private final java.net.http.HttpRequest.Builder _builder;
+
+    private final String _method;
+
+    private final URL _url;
+
+    private @Nullable BodyBuffer body;
+
+    private java.net.http.@Nullable HttpResponse<InputStream> response;
+
+    HttpClientExchange(java.net.http.HttpClient client, java.net.http.HttpRequest.Builder builder, String method, URL url) {
+      this._client = client;
+      this._builder = builder;
+      this._method = method;
+      this._url = url;
+    }
+
+    @Override
+    public URL url() {
+      return this._url;
+    }
+
+    @Override
+    public OutputStream getOutputStream() {
+      if (this.response != null)
+        throw new IllegalStateException("Request already sent");
+      BodyBuffer out = this.body;
+      if (out == null) {
+        out = new BodyBuffer();
+        this.body = out;
+      }
+      return out;
+    }
+
+    @Override
+    public int code() throws IOException {
+      return send().statusCode();
+    }
+
+    @Override
+    public @Nullable String message() throws IOException {
+      return reasonPhrase(send().statusCode());
+    }
+
+    @Override
+    public List<Header> headers() {
+      java.net.http.HttpResponse<InputStream> r = this.response;
+      if (r == null) return new ArrayList<>();
+      List<Header> headers = new ArrayList<>();
+      for (Map.Entry<String, List<String>> h : r.headers().map().entrySet()) {
+        String name = h.getKey();
+        // Skip HTTP/2 pseudo headers
+        if (name.startsWith(":")) continue;
+        for (String value : h.getValue()) {
+          headers.add(new Header(name, value));
+        }
+      }
+      return headers;
+    }
+
+    @Override
+    public @Nullable String header(String name) {
+      java.net.http.HttpResponse<InputStream> r = this.response;
+      if (r == null) return null;
+      return r.headers().firstValue(name).orElse(null);
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+      java.net.http.HttpResponse<InputStream> r = send();
+      if (r.statusCode() >= 400)
+        throw new IOException("Server returned HTTP response code: " + r.statusCode() + " for URL: " + this._url);
+      return r.body();
+    }
+
+    @Override
+    public @Nullable InputStream getErrorStream() {
+      java.net.http.HttpResponse<InputStream> r = this.response;
+      if (r == null || r.statusCode() < 400) return null;
+      return r.body();
+    }
+
+    @Override
+    public void close() {
+      java.net.http.HttpResponse<InputStream> r = this.response;
+      try {
+        if (r != null) {
+          r.body().close();
+        }
+      } catch (IOException ex) {
+        // ignore
+      } finally {
+        BodyBuffer out = this.body;
+        if (out != null) {
+          out.discard();
+        }
+      }
+    }
+
+    @Override
+    public <T> @Nullable T unwrap(Class<T> type) {
+      if (type.isInstance(this.response)) return type.cast(this.response);
+      if (type.isInstance(this._client)) return type.cast(this._client);
+      return null;
+    }
+
+    /**
+     * Sends the request if it hasn't been sent already.
+     */
+    private java.net.http.HttpResponse<InputStream> send() throws IOException {
+      java.net.http.HttpResponse<InputStream> r = this.response;
+      if (r == null) {
+        BodyBuffer out = this.body;
+        java.net.http.HttpRequest.BodyPublisher publisher = out != null
+            ? out.toPublisher()
+            : BodyPublishers.noBody();
+        java.net.http.HttpRequest request = this._builder.method(this._method, publisher).build();
+        try {
+          r = this._client.send(request, BodyHandlers.ofInputStream());
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          throw new InterruptedIOException("Interrupted while waiting for "+this._url);
+        }
+        this.response = r;
+      }
+      return r;
+    }
+
+  }
+
+  /**
+   * Buffers the request body in memory, spilling to a temporary file when it gets too large.
+   */
+  private static final class BodyBuffer extends OutputStream {
+
+    private ByteArrayOutputStream memory = new ByteArrayOutputStream();
+
+    private @Nullable Path file;
+
+    private @Nullable OutputStream out;
+
+    @Override
+    public void write(int b) throws IOException {
+      target(1).write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      target(len).write(b, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+      OutputStream o = this.out;
+      if (o != null) o.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+      OutputStream o = this.out;
+      if (o != null) o.close();
+    }
+
+    /**
+     * @return the publisher for the buffered content
+     */
+    java.net.http.HttpRequest.BodyPublisher toPublisher() throws IOException {
+      Path f = this.file;
+      if (f == null) return BodyPublishers.ofByteArray(this.memory.toByteArray());
+      close();
+      return BodyPublishers.ofFile(f);
+    }
+
+    /**
+     * Deletes the temporary file if any.
+     */
+    void discard() {
+      Path f = this.file;
+      if (f != null) {
+        try {
+          close();
+          Files.deleteIfExists(f);
+        } catch (IOException ex) {
+          f.toFile().deleteOnExit();
+        }
+        this.file = null;
+      }
+    }
+
+    private OutputStream target(int len) throws IOException {
+      OutputStream o = this.out;
+      if (o != null) return o;
+      if (this.memory.size() + len <= MEMORY_THRESHOLD) return this.memory;
+      // Spill to a temporary file
+      Path f = Files.createTempFile("bridge-", ".body");
+      o = new BufferedOutputStream(Files.newOutputStream(f));
+      this.memory.writeTo(o);
+      this.memory = new ByteArrayOutputStream(0);
+      this.file = f;
+      this.out = o;
+      return o;
+    }
+  }
+
+}
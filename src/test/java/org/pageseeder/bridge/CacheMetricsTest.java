@@ -0,0 +1,76 @@
+package org.pageseeder.bridge;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public final class CacheMetricsTest {
+
+  private static final CacheStats STATS = new CacheStats.Builder("test-cache")
+      .size(3).capacity(10).hits(6).misses(2).evictions(1).revalidations(4)
+      .loads(2).loadTime(Duration.ofMillis(30))
+      .build();
+
+  @After
+  public void tearDown() {
+    CacheMetrics.unregister("test-partition", "test-cache");
+  }
+
+  @Test
+  public void testStats() {
+    CacheMetrics.register("test-partition", "test-cache", () -> STATS);
+    Assert.assertSame(STATS, CacheMetrics.stats("test-partition", "test-cache"));
+    Map<String, List<CacheStats>> all = CacheMetrics.stats();
+    Assert.assertTrue(all.get("test-partition").contains(STATS));
+    CacheMetrics.unregister("test-partition", "test-cache");
+    Assert.assertNull(CacheMetrics.stats("test-partition", "test-cache"));
+  }
+
+  @Test
+  public void testCacheStats() {
+    Assert.assertEquals(0.75, STATS.hitRatio(), 0.001);
+    Assert.assertEquals(Duration.ofMillis(15), STATS.averageLoadTime());
+    Assert.assertEquals(-1, STATS.bytes());
+    Assert.assertEquals(0, new CacheStats.Builder("empty").build().hitRatio(), 0.001);
+    Assert.assertEquals(Duration.ZERO, new CacheStats.Builder("empty").build().averageLoadTime());
+  }
+
+  @Test
+  public void testJMX() throws Exception {
+    CacheMetrics.register("test-partition", "test-cache", () -> STATS);
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    ObjectName name = CacheMetrics.toObjectName("test-partition", "test-cache");
+    Assert.assertEquals(CacheMetrics.JMX_DOMAIN, name.getDomain());
+    Assert.assertEquals("Cache", name.getKeyProperty("type"));
+    Assert.assertEquals("test-cache", name.getKeyProperty("name"));
+    Assert.assertEquals(6L, server.getAttribute(name, "HitCount"));
+    Assert.assertEquals(4L, server.getAttribute(name, "RevalidationCount"));
+    Assert.assertEquals(15.0, (Double)server.getAttribute(name, "AverageLoadTimeMillis"), 0.001);
+    Assert.assertEquals("test-partition", server.getAttribute(name, "Partition"));
+    CacheMetrics.unregister("test-partition", "test-cache");
+    Assert.assertFalse(server.isRegistered(name));
+  }
+
+  @Test
+  public void testQuotedObjectName() throws Exception {
+    ObjectName name = CacheMetrics.toObjectName("default", "a,b=c");
+    Assert.assertEquals("a,b=c", ObjectName.unquote(name.getKeyProperty("name")));
+  }
+
+  @Test
+  public void testProvider() {
+    CacheMetrics.register("test-partition", "test-cache", () -> STATS);
+    Assert.assertSame(STATS, RecordingCacheMetricsProvider.BOUND.get("test-partition/test-cache").get());
+    CacheMetrics.unregister("test-partition", "test-cache");
+    Assert.assertNull(RecordingCacheMetricsProvider.BOUND.get("test-partition/test-cache"));
+  }
+
+}
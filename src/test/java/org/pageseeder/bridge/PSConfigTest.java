@@ -76,6 +76,16 @@ public final class PSConfigTest {
     Assert.assertEquals("http://pageseeder.localhost/ps/test", config.buildDocumentURL("/test"));
   }
 
+  @Test
+  public void testGetCachePartition() {
+    Assert.assertEquals("http_localhost_8080_ps", PSConfig.newInstance("http://localhost:8080").getCachePartition());
+    Assert.assertEquals("https_ps_example_org_443_ps", PSConfig.newInstance("https://ps.example.org").getCachePartition());
+    Assert.assertEquals(PSConfig.newInstance("https://ps.example.org").getCachePartition(),
+        PSConfig.newInstance("https://ps.example.org:443").getCachePartition());
+    Assert.assertNotEquals(PSConfig.newInstance("https://a.example.org").getCachePartition(),
+        PSConfig.newInstance("https://b.example.org").getCachePartition());
+  }
+
   @Test
   public void testNewInstance_Properties() {
     PSConfig config = PSConfig.newInstance(new Properties());
@@ -0,0 +1,26 @@
+package org.pageseeder.bridge;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.pageseeder.bridge.spi.CacheMetricsProvider;
+
+/**
+ * A metrics provider registered as a service for testing, which keeps the bound statistics.
+ */
+public final class RecordingCacheMetricsProvider implements CacheMetricsProvider {
+
+  static final Map<String, Supplier<CacheStats>> BOUND = new ConcurrentHashMap<>();
+
+  @Override
+  public void bind(String partition, String name, Supplier<CacheStats> stats) {
+    BOUND.put(partition + '/' + name, stats);
+  }
+
+  @Override
+  public void unbind(String partition, String name) {
+    BOUND.remove(partition + '/' + name);
+  }
+
+}
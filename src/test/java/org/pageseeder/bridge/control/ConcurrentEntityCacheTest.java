@@ -0,0 +1,385 @@
+package org.pageseeder.bridge.control;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.pageseeder.bridge.CacheStats;
+import org.pageseeder.bridge.APIException;
+import org.pageseeder.bridge.EntityIndex;
+import org.pageseeder.bridge.http.HttpClient;
+import org.pageseeder.bridge.model.PSMember;
+
+public final class ConcurrentEntityCacheTest {
+
+  private static final EntityIndex<PSMember, String> EMAIL = EntityIndex.of("email", PSMember::getEmail);
+
+  private static final EntityIndex<PSMember, String> SURNAME = EntityIndex.of("surname", PSMember::getSurname);
+
+  private static PSMember member(long id, String username) {
+    PSMember member = new PSMember(id);
+    member.setUsername(username);
+    return member;
+  }
+
+  private static PSMember member(long id, String username, String email, String surname) {
+    PSMember member = member(id, username);
+    member.setEmail(email);
+    member.setSurname(surname);
+    return member;
+  }
+
+  @After
+  public void resetExecutor() {
+    HttpClient.setExecutor(null);
+  }
+
+  @Test
+  public void testGetByKeyAndId() {
+    ConcurrentEntityCache<PSMember> cache = new ConcurrentEntityCache<>("test", 10, Duration.ZERO);
+    PSMember member = member(1L, "jsmith");
+    cache.put(member);
+    Assert.assertSame(member, cache.get("jsmith"));
+    Assert.assertSame(member, cache.get(1L));
+    Assert.assertSame(member, cache.get(new PSMember("jsmith")));
+    Assert.assertSame(member, cache.get(new PSMember(1L)));
+    Assert.assertNotNull(cache.getVersion("jsmith"));
+    Assert.assertNull(cache.get("unknown"));
+    Assert.assertNull(cache.get(2L));
+    Assert.assertNull(cache.getVersion("unknown"));
+  }
+
+  @Test
+  public void testReplace() {
+    ConcurrentEntityCache<PSMember> cache = new ConcurrentEntityCache<>("test", 10, Duration.ZERO);
+    cache.put(member(1L, "jsmith"));
+    PSMember renamed = member(1L, "john");
+    cache.put(renamed);
+    cache.put(member(2L, "jsmith"));
+    Assert.assertSame(renamed, cache.get(1L));
+    Assert.assertEquals(Long.valueOf(2L), cache.get("jsmith").getId());
+    Assert.assertEquals(Long.valueOf(2L), cache.get(2L).getId());
+  }
+
+  @Test
+  public void testRemove() {
+    ConcurrentEntityCache<PSMember> cache = new ConcurrentEntityCache<>("test", 10, Duration.ZERO);
+    cache.put(member(1L, "jsmith"));
+    cache.put(member(2L, "jdoe"));
+    cache.remove("jsmith");
+    Assert.assertNull(cache.get("jsmith"));
+    Assert.assertNull(cache.get(1L));
+    Assert.assertNotNull(cache.get(2L));
+    cache.removeAll();
+    Assert.assertNull(cache.get("jdoe"));
+    Assert.assertNull(cache.get(2L));
+    Assert.assertEquals(0, cache.size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testPutWithoutKey() {
+    new ConcurrentEntityCache<PSMember>("test", 10, Duration.ZERO).put(new PSMember(1L));
+  }
+
+  @Test
+  public void testEvictLeastRecentlyUsed() throws InterruptedException {
+    ConcurrentEntityCache<PSMember> cache = new ConcurrentEntityCache<>("test", 10, Duration.ZERO);
+    for (int i = 0; i < 10; i++) {
+      cache.put(member(i, "user" + i));
+    }
+    Thread.sleep(1);
+    Assert.assertNotNull(cache.get("user0"));
+    cache.put(member(10, "user10"));
+    Assert.assertTrue(cache.size() <= 10);
+    Assert.assertNotNull(cache.get("user0"));
+    Assert.assertNotNull(cache.get("user10"));
+    Assert.assertNull(cache.get("user1"));
+    Assert.assertNull(cache.get(1L));
+  }
+
+  @Test
+  public void testStats() {
+    ConcurrentEntityCache<PSMember> cache = new ConcurrentEntityCache<>("test", 10, Duration.ZERO);
+    for (int i = 0; i < 11; i++) {
+      cache.put(member(i, "user" + i));
+    }
+    Assert.assertNotNull(cache.get("user10"));
+    Assert.assertNull(cache.get("nobody"));
+    Assert.assertNull(cache.get(99L));
+    CacheStats stats = cache.stats();
+    Assert.assertEquals("test", stats.name());
+    Assert.assertEquals(1, stats.hits());
+    Assert.assertEquals(2, stats.misses());
+    Assert.assertEquals(10, stats.capacity());
+    Assert.assertEquals(cache.size(), stats.size());
+    Assert.assertEquals(11 - cache.size(), stats.evictions());
+  }
+
+  @Test
+  public void testStatsLoads() throws APIException {
+    ConcurrentEntityCache<PSMember> cache = new ConcurrentEntityCache<>("test", 10, Duration.ZERO);
+    cache.get("jsmith", () -> member(1L, "jsmith"));
+    cache.get("jsmith", () -> member(1L, "jsmith"));
+    cache.getAll(Arrays.asList("jsmith", "adoe"), keys -> Collections.singletonList(member(2L, "adoe")));
+    CacheStats stats = cache.stats();
+    Assert.assertEquals(2, stats.loads());
+    Assert.assertEquals(2, stats.hits());
+    Assert.assertEquals(2, stats.misses());
+    Assert.assertFalse(stats.loadTime().isNegative());
+  }
+
+  @Test
+  public void testIndexLookup() {
+    ConcurrentEntityCache<PSMember> cache = new ConcurrentEntityCache<>("test", 10, Duration.ZERO, EMAIL, SURNAME);
+    PSMember john = member(1L, "jsmith", "john@example.org", "Smith");
+    PSMember jane = member(2L, "jane", "jane@example.org", "Smith");
+    cache.put(john);
+    cache.put(jane);
+    cache.put(member(3L, "noemail"));
+    Assert.assertSame(john, cache.get(EMAIL, "john@example.org"));
+    Assert.assertSame(jane, cache.get(EMAIL, "jane@example.org"));
+    Assert.assertNull(cache.get(EMAIL, "bob@example.org"));
+    Assert.assertEquals(2, cache.list(SURNAME, "Smith").size());
+    Assert.assertTrue(cache.list(SURNAME, "Doe").isEmpty());
+  }
+
+  @Test
+  public void testIndexUpdates() {
+    ConcurrentEntityCache<PSMember> cache = new ConcurrentEntityCache<>("test", 10, Duration.ZERO, EMAIL, SURNAME);
+    cache.put(member(1L, "jsmith", "john@example.org", "Smith"));
+    PSMember changed = member(1L, "jsmith", "js@example.org", "Smith");
+    cache.put(changed);
+    Assert.assertNull(cache.get(EMAIL, "john@example.org"));
+    Assert.assertSame(changed, cache.get(EMAIL, "js@example.org"));
+    Assert.assertEquals(1, cache.list(SURNAME, "Smith").size());
+    cache.remove("jsmith");
+    Assert.assertNull(cache.get(EMAIL, "js@example.org"));
+    Assert.assertTrue(cache.list(SURNAME, "Smith").isEmpty());
+    cache.put(changed);
+    cache.removeAll();
+    Assert.assertNull(cache.get(EMAIL, "js@example.org"));
+  }
+
+  @Test
+  public void testIndexEviction() {
+    ConcurrentEntityCache<PSMember> cache = new ConcurrentEntityCache<>("test", 10, Duration.ZERO, EMAIL);
+    for (int i = 0; i < 20; i++) {
+      cache.put(member(i, "user" + i, "user" + i + "@example.org", "User"));
+    }
+    int found = 0;
+    for (int i = 0; i < 20; i++) {
+      PSMember m = cache.get(EMAIL, "user" + i + "@example.org");
+      if (m != null) {
+        Assert.assertEquals("user" + i, m.getUsername());
+        found++;
+      }
+    }
+    Assert.assertEquals(cache.size(), found);
+  }
+
+  @Test
+  public void testUndeclaredIndex() {
+    ConcurrentEntityCache<PSMember> cache = new ConcurrentEntityCache<>("test", 10, Duration.ZERO, EMAIL);
+    cache.put(member(1L, "jsmith", "john@example.org", "Smith"));
+    Assert.assertNull(cache.get(SURNAME, "Smith"));
+    Assert.assertTrue(cache.list(SURNAME, "Smith").isEmpty());
+  }
+
+  @Test
+  public void testConcurrentAccess() throws Exception {
+    ConcurrentEntityCache<PSMember> cache = new ConcurrentEntityCache<>("test", 100, Duration.ZERO);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int t = 0; t < 8; t++) {
+      futures.add(executor.submit(() -> {
+        start.await();
+        for (int i = 0; i < 10000; i++) {
+          long id = i % 200;
+          cache.put(member(id, "user" + id));
+          PSMember found = cache.get(id);
+          if (found != null) Assert.assertEquals(Long.valueOf(id), found.getId());
+          if (i % 7 == 0) cache.remove("user" + id);
+        }
+        return null;
+      }));
+    }
+    start.countDown();
+    for (Future<?> f : futures) {
+      f.get(30, TimeUnit.SECONDS);
+    }
+    executor.shutdown();
+    Assert.assertTrue(cache.size() <= 100);
+  }
+
+  @Test
+  public void testLoader() throws APIException {
+    ConcurrentEntityCache<PSMember> cache = new ConcurrentEntityCache<>("test", 10, Duration.ofMinutes(1));
+    AtomicInteger loads = new AtomicInteger();
+    PSMember loaded = cache.get("jsmith", () -> {
+      loads.incrementAndGet();
+      return member(1L, "jsmith");
+    });
+    Assert.assertNotNull(loaded);
+    Assert.assertSame(loaded, cache.get("jsmith"));
+    Assert.assertSame(loaded, cache.get(1L, () -> {
+      loads.incrementAndGet();
+      return null;
+    }));
+    Assert.assertEquals(1, loads.get());
+    Assert.assertNull(cache.get("unknown", () -> null));
+    Assert.assertNull(cache.get("unknown"));
+  }
+
+  @Test
+  public void testLoaderError() {
+    ConcurrentEntityCache<PSMember> cache = new ConcurrentEntityCache<>("test", 10, Duration.ofMinutes(1));
+    try {
+      cache.get("jsmith", () -> {
+        throw new APIException("Failed");
+      });
+      Assert.fail();
+    } catch (APIException ex) {
+      Assert.assertEquals("Failed", ex.getMessage());
+    }
+    Assert.assertNull(cache.get("jsmith"));
+  }
+
+  @Test
+  public void testExpiry() throws Exception {
+    ConcurrentEntityCache<PSMember> cache = new ConcurrentEntityCache<>("test", 10, Duration.ofMillis(50));
+    cache.put(member(1L, "jsmith"));
+    Assert.assertNotNull(cache.get("jsmith"));
+    Thread.sleep(60);
+    Assert.assertNull(cache.get("jsmith"));
+    Assert.assertNull(cache.get(1L));
+    PSMember reloaded = member(1L, "jsmith");
+    Assert.assertSame(reloaded, cache.get("jsmith", () -> reloaded));
+  }
+
+  @Test
+  public void testRefreshAhead() throws Exception {
+    ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    HttpClient.setExecutor(tasks::add);
+    ConcurrentEntityCache<PSMember> cache = new ConcurrentEntityCache<>("test", 10, Duration.ofSeconds(2));
+    PSMember original = member(1L, "jsmith");
+    cache.put(original);
+    Thread.sleep(1600);
+    PSMember refreshed = member(1L, "jsmith");
+    // Returns the current entity and schedules a single refresh
+    Assert.assertSame(original, cache.get("jsmith", () -> refreshed));
+    Assert.assertSame(original, cache.get("jsmith", () -> refreshed));
+    Assert.assertEquals(1, tasks.size());
+    tasks.poll().run();
+    Assert.assertSame(refreshed, cache.get("jsmith"));
+    Assert.assertTrue(tasks.isEmpty());
+  }
+
+  @Test
+  public void testRefreshRemovesDeleted() throws Exception {
+    HttpClient.setExecutor(Runnable::run);
+    ConcurrentEntityCache<PSMember> cache = new ConcurrentEntityCache<>("test", 10, Duration.ofSeconds(2));
+    PSMember original = member(1L, "jsmith");
+    cache.put(original);
+    Thread.sleep(1600);
+    Assert.assertSame(original, cache.get(1L, () -> null));
+    Assert.assertNull(cache.get("jsmith"));
+  }
+
+  @Test
+  public void testSharedLoad() throws Exception {
+    ConcurrentEntityCache<PSMember> cache = new ConcurrentEntityCache<>("test", 10, Duration.ofMinutes(1));
+    AtomicInteger loads = new AtomicInteger();
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    List<Future<PSMember>> futures = new ArrayList<>();
+    futures.add(executor.submit(() -> cache.get("jsmith", () -> {
+      loads.incrementAndGet();
+      loading.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException ex) {
+        throw new APIException(ex);
+      }
+      return member(1L, "jsmith");
+    })));
+    Assert.assertTrue(loading.await(5, TimeUnit.SECONDS));
+    for (int i = 0; i < 3; i++) {
+      futures.add(executor.submit(() -> cache.get("jsmith", () -> {
+        loads.incrementAndGet();
+        return member(1L, "jsmith");
+      })));
+    }
+    Thread.sleep(50);
+    release.countDown();
+    PSMember first = futures.get(0).get(5, TimeUnit.SECONDS);
+    for (Future<PSMember> f : futures) {
+      Assert.assertSame(first, f.get(5, TimeUnit.SECONDS));
+    }
+    Assert.assertEquals(1, loads.get());
+    executor.shutdown();
+  }
+
+  @Test
+  public void testGetAll() {
+    ConcurrentEntityCache<PSMember> cache = new ConcurrentEntityCache<>("test", 10, Duration.ZERO);
+    cache.putAll(Arrays.asList(member(1L, "a"), member(2L, "b"), member(3L, "c")));
+    Map<String, PSMember> found = cache.getAll(Arrays.asList("c", "x", "a"));
+    Assert.assertEquals(Arrays.asList("c", "a"), new ArrayList<>(found.keySet()));
+  }
+
+  @Test
+  public void testGetAllWithLoader() throws APIException {
+    ConcurrentEntityCache<PSMember> cache = new ConcurrentEntityCache<>("test", 10, Duration.ZERO);
+    cache.put(member(1L, "a"));
+    AtomicReference<Set<String>> requested = new AtomicReference<>();
+    Map<String, PSMember> found = cache.getAll(Arrays.asList("c", "a", "b", "x"), keys -> {
+      requested.set(keys);
+      return Arrays.asList(member(2L, "b"), member(3L, "c"), member(4L, "d"));
+    });
+    Assert.assertEquals(new HashSet<>(Arrays.asList("b", "c", "x")), requested.get());
+    Assert.assertEquals(Arrays.asList("c", "a", "b"), new ArrayList<>(found.keySet()));
+    // All loaded entities are cached
+    Assert.assertNotNull(cache.get("d"));
+    Assert.assertNotNull(cache.get(3L));
+  }
+
+  @Test
+  public void testGetAllAllCached() throws APIException {
+    ConcurrentEntityCache<PSMember> cache = new ConcurrentEntityCache<>("test", 10, Duration.ZERO);
+    cache.put(member(1L, "a"));
+    Map<String, PSMember> found = cache.getAll(Collections.singletonList("a"), keys -> {
+      throw new AssertionError("Should not be called");
+    });
+    Assert.assertEquals(1, found.size());
+  }
+
+  @Test
+  public void testPutAllEvicts() {
+    ConcurrentEntityCache<PSMember> cache = new ConcurrentEntityCache<>("test", 10, Duration.ZERO);
+    List<PSMember> members = new ArrayList<>();
+    for (int i = 0; i < 25; i++) {
+      members.add(member(i, "user" + i));
+    }
+    cache.putAll(members);
+    Assert.assertTrue(cache.size() <= 10);
+  }
+
+}
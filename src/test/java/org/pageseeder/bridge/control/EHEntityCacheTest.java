@@ -0,0 +1,33 @@
+package org.pageseeder.bridge.control;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.pageseeder.bridge.PSEntityCache;
+import org.pageseeder.bridge.model.PSMember;
+
+public final class EHEntityCacheTest {
+
+  @Test
+  public void testRemoveIf() {
+    PSEntityCache<PSMember> cache = EHEntityCache.newInstance("test-remove-if");
+    cache.removeAll();
+    for (long i = 1; i <= 4; i++) {
+      cache.put(member(i, "user" + i));
+    }
+    List<PSMember> removed = cache.removeIf(member -> member.getId() % 2 == 0);
+    Assert.assertEquals(2, removed.size());
+    Assert.assertNotNull(cache.get("user1"));
+    Assert.assertNull(cache.get("user2"));
+    Assert.assertNotNull(cache.get("user3"));
+    Assert.assertNull(cache.get("user4"));
+  }
+
+  private static PSMember member(long id, String username) {
+    PSMember member = new PSMember(id);
+    member.setUsername(username);
+    return member;
+  }
+
+}
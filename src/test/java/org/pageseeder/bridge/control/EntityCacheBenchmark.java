@@ -0,0 +1,124 @@
+package org.pageseeder.bridge.control;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+import org.pageseeder.bridge.PSEntityCache;
+import org.pageseeder.bridge.model.PSMember;
+
+/**
+ * Compares the throughput of the entity caches when shared by many threads.
+ *
+ * <p>Not a unit test, run with:
+ * <pre>java org.pageseeder.bridge.control.EntityCacheBenchmark [threads] [seconds]</pre>
+ */
+public final class EntityCacheBenchmark {
+
+  private static final int ENTITIES = 800;
+
+  public static void main(String[] args) throws InterruptedException {
+    int threads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+    int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+    PSEntityCache<PSMember> eh = EHEntityCache.newInstance("benchmark");
+    PSEntityCache<PSMember> concurrent = new ConcurrentEntityCache<>("benchmark", EntityCaches.DEFAULT_CAPACITY, Duration.ZERO);
+    for (int round = 0; round < 2; round++) {
+      report("EHEntityCache", threads, run(eh, threads, seconds));
+      report("ConcurrentEntityCache", threads, run(concurrent, threads, seconds));
+    }
+    // Lookups by email using an ehcache Search attribute vs a secondary index
+    EHEntityCache<PSMember> ehEmail = (EHEntityCache<PSMember>)EHEntityCache.<PSMember>newInstance("benchmark-email", "email");
+    PSEntityCache<PSMember> indexed = new ConcurrentEntityCache<>("benchmark-email", EntityCaches.DEFAULT_CAPACITY, Duration.ZERO, MemberManager.EMAIL);
+    for (int i = 0; i < ENTITIES; i++) {
+      ehEmail.put(member(i));
+      indexed.put(member(i));
+    }
+    for (int round = 0; round < 2; round++) {
+      report("EHEntityCache email", threads, lookup(i -> ehEmail.get("email", "user" + i + "@example.org"), threads, seconds));
+      report("Concurrent email", threads, lookup(i -> indexed.get(MemberManager.EMAIL, "user" + i + "@example.org"), threads, seconds));
+    }
+    System.exit(0);
+  }
+
+  private static void report(String name, int threads, long ops) {
+    System.out.printf("%-22s %3d threads %,14d ops%n", name, threads, ops);
+  }
+
+  /**
+   * Run a mix of 90% lookups by key or ID and 10% updates.
+   */
+  private static long run(PSEntityCache<PSMember> cache, int threads, int seconds) throws InterruptedException {
+    for (int i = 0; i < ENTITIES; i++) {
+      cache.put(member(i));
+    }
+    LongAdder ops = new LongAdder();
+    CountDownLatch start = new CountDownLatch(1);
+    long end = System.nanoTime() + seconds * 1_000_000_000L + 100_000_000L;
+    List<Thread> workers = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      Thread worker = new Thread(() -> {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+          start.await();
+        } catch (InterruptedException ex) {
+          return;
+        }
+        long count = 0;
+        while (System.nanoTime() < end) {
+          int i = random.nextInt(ENTITIES);
+          int op = random.nextInt(10);
+          if (op == 0) cache.put(member(i));
+          else if (op < 5) cache.get("user" + i);
+          else cache.get(Long.valueOf(i));
+          count++;
+        }
+        ops.add(count);
+      });
+      worker.start();
+      workers.add(worker);
+    }
+    start.countDown();
+    for (Thread worker : workers) {
+      worker.join();
+    }
+    return ops.sum();
+  }
+
+  /**
+   * Run lookups only.
+   */
+  private static long lookup(IntFunction<?> lookup, int threads, int seconds) throws InterruptedException {
+    LongAdder ops = new LongAdder();
+    long end = System.nanoTime() + seconds * 1_000_000_000L;
+    List<Thread> workers = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      Thread worker = new Thread(() -> {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long count = 0;
+        while (System.nanoTime() < end) {
+          if (lookup.apply(random.nextInt(ENTITIES)) == null) throw new IllegalStateException();
+          count++;
+        }
+        ops.add(count);
+      });
+      worker.start();
+      workers.add(worker);
+    }
+    for (Thread worker : workers) {
+      worker.join();
+    }
+    return ops.sum();
+  }
+
+  private static PSMember member(long id) {
+    PSMember member = new PSMember(id);
+    member.setUsername("user" + id);
+    member.setEmail("user" + id + "@example.org");
+    return member;
+  }
+
+}
@@ -0,0 +1,108 @@
+package org.pageseeder.bridge.control;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.pageseeder.bridge.EntityCacheSettings;
+import org.pageseeder.bridge.PSEntityCache;
+import org.pageseeder.bridge.model.PSMember;
+
+public final class EntityCacheSnapshotsTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @After
+  public void tearDown() {
+    EntityCacheSnapshots.disable();
+  }
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    Path file = this.folder.getRoot().toPath().resolve("members.snapshot");
+    ConcurrentEntityCache<PSMember> cache = newCache(Duration.ofMinutes(5));
+    cache.put(member(1L, "jsmith"));
+    cache.put(member(2L, "adoe"));
+    Assert.assertEquals(2, EntityCacheSnapshots.save(cache, file, "1"));
+    Assert.assertTrue(Files.exists(file));
+
+    ConcurrentEntityCache<PSMember> restored = newCache(Duration.ofMinutes(5));
+    Assert.assertEquals(2, EntityCacheSnapshots.restore(restored, file, "1"));
+    Assert.assertEquals("jsmith", restored.get(1L).getUsername());
+    Assert.assertEquals(Long.valueOf(2L), restored.get("adoe").getId());
+  }
+
+  @Test
+  public void testStampMismatch() throws IOException {
+    Path file = this.folder.getRoot().toPath().resolve("members.snapshot");
+    ConcurrentEntityCache<PSMember> cache = newCache(Duration.ofMinutes(5));
+    cache.put(member(1L, "jsmith"));
+    EntityCacheSnapshots.save(cache, file, "1");
+
+    ConcurrentEntityCache<PSMember> restored = newCache(Duration.ofMinutes(5));
+    Assert.assertEquals(0, EntityCacheSnapshots.restore(restored, file, "2"));
+    Assert.assertNull(restored.get(1L));
+    Assert.assertFalse(Files.exists(file));
+  }
+
+  @Test
+  public void testExpiredSkipped() throws Exception {
+    Path file = this.folder.getRoot().toPath().resolve("members.snapshot");
+    ConcurrentEntityCache<PSMember> cache = newCache(Duration.ofMillis(50));
+    cache.put(member(1L, "jsmith"));
+    EntityCacheSnapshots.save(cache, file, "1");
+    Thread.sleep(100);
+    ConcurrentEntityCache<PSMember> restored = newCache(Duration.ofMillis(50));
+    Assert.assertEquals(0, EntityCacheSnapshots.restore(restored, file, "1"));
+    Assert.assertNull(restored.get(1L));
+  }
+
+  @Test
+  public void testCorruptDiscarded() throws IOException {
+    Path file = this.folder.getRoot().toPath().resolve("members.snapshot");
+    Files.write(file, "not a snapshot".getBytes(StandardCharsets.UTF_8));
+    ConcurrentEntityCache<PSMember> restored = newCache(Duration.ofMinutes(5));
+    Assert.assertEquals(0, EntityCacheSnapshots.restore(restored, file, "1"));
+    Assert.assertFalse(Files.exists(file));
+  }
+
+  @Test
+  public void testMissingFile() {
+    Path file = this.folder.getRoot().toPath().resolve("missing.snapshot");
+    Assert.assertEquals(0, EntityCacheSnapshots.restore(newCache(Duration.ofMinutes(5)), file, "1"));
+  }
+
+  @Test
+  public void testEnableRestoresNewCaches() throws IOException {
+    Path dir = this.folder.getRoot().toPath();
+    ConcurrentEntityCache<PSMember> cache = new ConcurrentEntityCache<>("test-snapshot", 100, Duration.ofMinutes(5));
+    cache.put(member(1L, "jsmith"));
+    Files.createDirectories(dir.resolve("test"));
+    EntityCacheSnapshots.save(cache, dir.resolve("test").resolve("test-snapshot.snapshot"), "app");
+
+    EntityCacheSnapshots.enable(dir, "app");
+    Assert.assertTrue(EntityCacheSnapshots.isEnabled());
+    PSEntityCache<PSMember> created = EntityCaches.get("test", "test-snapshot", EntityCacheSettings.of(100, Duration.ofMinutes(5)));
+    Assert.assertEquals("jsmith", created.get(1L).getUsername());
+    Assert.assertTrue(EntityCacheSnapshots.saveAll() >= 1);
+  }
+
+  private static ConcurrentEntityCache<PSMember> newCache(Duration ttl) {
+    return new ConcurrentEntityCache<>("members", 100, ttl);
+  }
+
+  private static PSMember member(long id, String username) {
+    PSMember member = new PSMember(id);
+    member.setUsername(username);
+    return member;
+  }
+
+}
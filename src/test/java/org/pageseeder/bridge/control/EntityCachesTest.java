@@ -0,0 +1,149 @@
+package org.pageseeder.bridge.control;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Properties;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.pageseeder.bridge.CacheMetrics;
+import org.pageseeder.bridge.EntityCacheSettings;
+import org.pageseeder.bridge.PSConfig;
+import org.pageseeder.bridge.PSEntityCache;
+import org.pageseeder.bridge.model.PSMember;
+import org.pageseeder.bridge.spi.EntityCacheProvider;
+
+public final class EntityCachesTest {
+
+  private static final EntityCacheSettings DEFAULTS = EntityCacheSettings.of(1000, Duration.ofMinutes(5));
+
+  @Test
+  public void testGetSameInstance() {
+    PSEntityCache<PSMember> cache = EntityCaches.get("test-members", DEFAULTS);
+    Assert.assertSame(cache, EntityCaches.get("test-members", DEFAULTS));
+  }
+
+  @Test
+  public void testLazy() {
+    LazyEntityCache<PSMember> cache = (LazyEntityCache<PSMember>)EntityCaches.<PSMember>lazy("test-lazy", Duration.ZERO);
+    Assert.assertFalse(cache.isCreated());
+    cache.removeAll();
+    Assert.assertFalse(cache.isCreated());
+    PSMember member = new PSMember(1L);
+    member.setUsername("jsmith");
+    cache.put(member);
+    Assert.assertTrue(cache.isCreated());
+    Assert.assertSame(member, cache.get("jsmith"));
+    Assert.assertSame(cache.cache(), EntityCaches.get("test-lazy", DEFAULTS));
+  }
+
+  @Test
+  public void testPartitions() {
+    PSEntityCache<PSMember> a = EntityCaches.get("tenant-a", "test-partitioned", EntityCacheSettings.of(10, Duration.ZERO));
+    PSEntityCache<PSMember> b = EntityCaches.get("tenant-b", "test-partitioned", EntityCacheSettings.of(10, Duration.ZERO));
+    Assert.assertNotSame(a, b);
+    for (long i = 1; i <= 20; i++) {
+      PSMember member = new PSMember(i);
+      member.setUsername("user" + i);
+      a.put(member);
+    }
+    PSMember member = new PSMember(1L);
+    member.setUsername("jsmith");
+    b.put(member);
+    // Filling the first partition must not evict anything from the second
+    Assert.assertSame(member, b.get("jsmith"));
+    Assert.assertNull(a.get("jsmith"));
+    Assert.assertTrue(EntityCaches.partitions().contains("tenant-a"));
+    Assert.assertEquals(10, ((ConcurrentEntityCache<?>)a).stats().capacity());
+    EntityCaches.discard("tenant-b");
+    Assert.assertNull(EntityCaches.find("tenant-b", "test-partitioned"));
+    Assert.assertNotNull(EntityCaches.find("tenant-a", "test-partitioned"));
+  }
+
+  @Test
+  public void testLazyFollowsDefaultConfig() {
+    LazyEntityCache<PSMember> cache = (LazyEntityCache<PSMember>)EntityCaches.<PSMember>lazy("test-lazy-partition", Duration.ZERO);
+    PSConfig.setDefault(PSConfig.newInstance("http://tenant-a.example.com"));
+    PSMember member = new PSMember(1L);
+    member.setUsername("jsmith");
+    cache.put(member);
+    Assert.assertSame(member, cache.get("jsmith"));
+    PSConfig.setDefault(PSConfig.newInstance("http://tenant-b.example.com"));
+    Assert.assertFalse(cache.isCreated());
+    Assert.assertNull(cache.get("jsmith"));
+    PSConfig.setDefault(PSConfig.newInstance("http://tenant-a.example.com"));
+    Assert.assertSame(member, cache.get("jsmith"));
+  }
+
+  @Test
+  public void testLazyAfterDiscard() {
+    PSConfig config = PSConfig.newInstance("http://tenant-discard.example.com");
+    PSConfig.setDefault(config);
+    LazyEntityCache<PSMember> cache = (LazyEntityCache<PSMember>)EntityCaches.<PSMember>lazy("test-lazy-discard", Duration.ZERO);
+    PSMember member = new PSMember(1L);
+    member.setUsername("jsmith");
+    cache.put(member);
+    PSEntityCache<PSMember> discarded = cache.cache();
+    CachePartitions.discard(config);
+    Assert.assertFalse(cache.isCreated());
+    Assert.assertNull(cache.get("jsmith"));
+    cache.put(member);
+    Assert.assertNotSame(discarded, cache.cache());
+    Assert.assertSame(cache.cache(), EntityCaches.find(config.getCachePartition(), "test-lazy-discard"));
+    Assert.assertNotNull(CacheMetrics.stats(config.getCachePartition(), "test-lazy-discard"));
+    Assert.assertSame(member, cache.get("jsmith"));
+    Assert.assertNull(discarded.get("jsmith"));
+  }
+
+  @Test
+  public void testSettingsPartitionProvider() {
+    EntityCacheProvider provider = new EntityCacheProvider() {
+      @Override
+      public EntityCacheSettings getSettings(String name, EntityCacheSettings settings) {
+        return settings;
+      }
+      @Override
+      public EntityCacheSettings getSettings(String partition, String name, EntityCacheSettings settings) {
+        return "small".equals(partition) ? settings.capacity(10) : settings;
+      }
+    };
+    Assert.assertEquals(10, EntityCaches.settings("small", "psmembers", DEFAULTS, new Properties(), Collections.singletonList(provider)).capacity());
+    Assert.assertEquals(DEFAULTS, EntityCaches.settings("large", "psmembers", DEFAULTS, new Properties(), Collections.singletonList(provider)));
+  }
+
+  @Test
+  public void testSettingsDefaults() {
+    EntityCacheSettings settings = EntityCaches.settings(EntityCaches.DEFAULT_PARTITION, "psmembers", DEFAULTS, new Properties(), Collections.emptyList());
+    Assert.assertEquals(DEFAULTS, settings);
+  }
+
+  @Test
+  public void testSettingsProperties() {
+    Properties properties = new Properties();
+    properties.setProperty("bridge.cache.psmembers.capacity", "50");
+    properties.setProperty("bridge.cache.psmembers.ttl", "30");
+    properties.setProperty("bridge.cache.psgroups.capacity", "10");
+    EntityCacheSettings settings = EntityCaches.settings(EntityCaches.DEFAULT_PARTITION, "psmembers", DEFAULTS, properties, Collections.emptyList());
+    Assert.assertEquals(50, settings.capacity());
+    Assert.assertEquals(Duration.ofSeconds(30), settings.ttl());
+  }
+
+  @Test
+  public void testSettingsInvalidProperties() {
+    Properties properties = new Properties();
+    properties.setProperty("bridge.cache.psmembers.capacity", "-1");
+    properties.setProperty("bridge.cache.psmembers.ttl", "soon");
+    EntityCacheSettings settings = EntityCaches.settings(EntityCaches.DEFAULT_PARTITION, "psmembers", DEFAULTS, properties, Collections.emptyList());
+    Assert.assertEquals(DEFAULTS, settings);
+  }
+
+  @Test
+  public void testSettingsProvider() {
+    Properties properties = new Properties();
+    properties.setProperty("bridge.cache.psmembers.capacity", "50");
+    EntityCacheProvider provider = (name, settings) -> "psmembers".equals(name) ? settings.ttl(Duration.ZERO) : settings;
+    EntityCacheSettings settings = EntityCaches.settings(EntityCaches.DEFAULT_PARTITION, "psmembers", DEFAULTS, properties, Collections.singletonList(provider));
+    Assert.assertEquals(EntityCacheSettings.of(50, Duration.ZERO), settings);
+  }
+
+}
@@ -0,0 +1,174 @@
+package org.pageseeder.bridge.control;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.pageseeder.bridge.PSConfig;
+import org.pageseeder.bridge.PSToken;
+import org.pageseeder.bridge.model.PSDocument;
+import org.pageseeder.bridge.model.PSGroup;
+import org.pageseeder.bridge.model.PSMember;
+import org.pageseeder.bridge.model.PSMembership;
+import org.pageseeder.bridge.model.PSXRef;
+
+public final class EntityChangeBusTest {
+
+  @Before
+  public void setUp() {
+    PSConfig.setDefault(PSConfig.newInstance("http://localhost:8080"));
+  }
+
+  private static PSGroup group(long id, String name) {
+    PSGroup group = new PSGroup(id);
+    group.setName(name);
+    return group;
+  }
+
+  private static PSMember member(long id, String username) {
+    PSMember member = new PSMember(id);
+    member.setUsername(username);
+    return member;
+  }
+
+  @Test
+  public void testSubscribe() {
+    List<EntityChange<PSGroup>> changes = new ArrayList<>();
+    EntityChangeBus.Subscription subscription = EntityChangeBus.subscribe(PSGroup.class, changes::add);
+    try {
+      EntityChangeBus.publish(EntityChange.modified(member(1L, "jsmith")));
+      EntityChangeBus.publish(EntityChange.removed(group(1L, "acme-test")));
+      Assert.assertEquals(1, changes.size());
+      Assert.assertEquals(EntityChange.Type.REMOVED, changes.get(0).type());
+    } finally {
+      subscription.cancel();
+    }
+    EntityChangeBus.publish(EntityChange.removed(group(1L, "acme-test")));
+    Assert.assertEquals(1, changes.size());
+  }
+
+  @Test
+  public void testFailingListener() {
+    List<EntityChange<PSMember>> changes = new ArrayList<>();
+    EntityChangeBus.Subscription failing = EntityChangeBus.subscribe(PSMember.class, change -> {
+      throw new IllegalStateException();
+    });
+    EntityChangeBus.Subscription working = EntityChangeBus.subscribe(PSMember.class, changes::add);
+    try {
+      EntityChangeBus.publish(EntityChange.modified(member(1L, "jsmith")));
+      Assert.assertEquals(1, changes.size());
+    } finally {
+      failing.cancel();
+      working.cancel();
+    }
+  }
+
+  @Test
+  public void testConcerns() {
+    EntityChange<PSGroup> renamed = EntityChange.renamed(group(1L, "acme-new"), group(1L, "acme-old"));
+    Assert.assertTrue(renamed.concerns(group(1L, "acme-old")));
+    Assert.assertTrue(renamed.concerns(new PSGroup("acme-old")));
+    Assert.assertTrue(renamed.concerns(new PSGroup("acme-new")));
+    Assert.assertFalse(renamed.concerns(group(2L, "acme-old")));
+    Assert.assertFalse(renamed.concerns(new PSGroup("acme-other")));
+    Assert.assertFalse(renamed.concerns(null));
+  }
+
+  @Test
+  public void testGroupRenamedEvictsRelatedEntities() {
+    PSGroup previous = group(100L, "bridge-test");
+    GroupManager.getCache().put(previous);
+    PSMembership membership = new PSMembership(previous, member(101L, "jsmith"));
+    membership.setId(102L);
+    MembershipManager.getCache().put(membership);
+    PSMembership other = new PSMembership(group(103L, "bridge-other"), member(101L, "jsmith"));
+    other.setId(104L);
+    MembershipManager.getCache().put(other);
+    PSDocument document = new PSDocument("http://localhost:8080/ps/bridge/test/documents/doc.psml");
+    document.setId(105L);
+    DocumentManager.getCache().put(document);
+    PSXRef xref = new PSXRef();
+    xref.setId(106L);
+    xref.setSourceURI(document);
+    xref.setTargetURI(document);
+    XRefManager.getCache().put(xref);
+    try {
+      new GroupManager(new PSToken("abcdefghijklmnopqrst")).groupIsRenamed(group(100L, "bridge-renamed"));
+      Assert.assertNull(GroupManager.getCache().get("bridge-test"));
+      Assert.assertNotNull(GroupManager.getCache().get("bridge-renamed"));
+      Assert.assertNull(MembershipManager.getCache().get(102L));
+      Assert.assertNotNull(MembershipManager.getCache().get(104L));
+      Assert.assertNull(DocumentManager.getCache().get(105L));
+      Assert.assertNull(XRefManager.getCache().get(106L));
+    } finally {
+      GroupManager.getCache().remove("bridge-renamed");
+      MembershipManager.getCache().removeAll();
+    }
+  }
+
+  @Test
+  public void testGroupRenamedUnknownPrevious() {
+    document(110L, "http://localhost:8080/ps/bridge/test/documents/doc.psml");
+    document(111L, "http://localhost:8080/ps/bridge/other/documents/doc.psml");
+    try {
+      new GroupManager(new PSToken("abcdefghijklmnopqrst")).groupIsRenamed(group(112L, "bridge-renamed"));
+      // The previous name is unknown so all documents are evicted
+      Assert.assertNull(DocumentManager.getCache().get(110L));
+      Assert.assertNull(DocumentManager.getCache().get(111L));
+    } finally {
+      GroupManager.getCache().remove("bridge-renamed");
+      DocumentManager.getCache().removeAll();
+    }
+  }
+
+  @Test
+  public void testGroupRenamedPreviousName() {
+    document(120L, "http://localhost:8080/ps/bridge/test/documents/doc.psml");
+    document(121L, "http://localhost:8080/ps/bridge/other/documents/doc.psml");
+    try {
+      new GroupManager(new PSToken("abcdefghijklmnopqrst")).groupIsRenamed(group(122L, "bridge-renamed"), "bridge-test");
+      Assert.assertNull(DocumentManager.getCache().get(120L));
+      Assert.assertNotNull(DocumentManager.getCache().get(121L));
+    } finally {
+      GroupManager.getCache().remove("bridge-renamed");
+      DocumentManager.getCache().removeAll();
+    }
+  }
+
+  @Test
+  public void testGroupRemovedSitePrefix() {
+    Properties properties = new Properties();
+    properties.setProperty("url", "http://localhost:8080");
+    properties.setProperty("siteprefix", "/pageseeder");
+    PSConfig.setDefault(PSConfig.newInstance(properties));
+    document(130L, "http://localhost:8080/pageseeder/bridge/test/documents/doc.psml");
+    document(131L, "http://localhost:8080/pageseeder/bridge/other/documents/doc.psml");
+    try {
+      EntityChangeBus.publish(EntityChange.removed(group(132L, "bridge-test")));
+      Assert.assertNull(DocumentManager.getCache().get(130L));
+      Assert.assertNotNull(DocumentManager.getCache().get(131L));
+    } finally {
+      DocumentManager.getCache().removeAll();
+    }
+  }
+
+  private static PSDocument document(long id, String url) {
+    PSDocument document = new PSDocument(url);
+    document.setId(id);
+    DocumentManager.getCache().put(document);
+    return document;
+  }
+
+  @Test
+  public void testMemberModifiedEvictsMemberships() {
+    PSMembership membership = new PSMembership(group(200L, "bridge-test"), member(201L, "jdoe"));
+    membership.setId(202L);
+    MembershipManager.getCache().put(membership);
+    EntityChangeBus.publish(EntityChange.modified(member(201L, "jdoe")));
+    Assert.assertNull(MembershipManager.getCache().get(202L));
+  }
+
+}
@@ -0,0 +1,147 @@
+package org.pageseeder.bridge.control;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.pageseeder.bridge.APIException;
+import org.pageseeder.bridge.model.PSThreadStatus;
+
+public final class ThreadPollerTest {
+
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+
+  @After
+  public void tearDown() {
+    this.executor.shutdownNow();
+  }
+
+  @Test
+  public void testCompleteAll() throws Exception {
+    Map<String, AtomicInteger> checks = new ConcurrentHashMap<>();
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    ThreadPoller.Check check = status -> {
+      maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+      try {
+        Thread.sleep(1);
+      } catch (InterruptedException ex) {
+        throw new APIException("Interrupted", ex);
+      }
+      running.decrementAndGet();
+      int count = checks.computeIfAbsent(status.getThreadID(), id -> new AtomicInteger()).incrementAndGet();
+      return status(status.getThreadID(), count < 3 ? PSThreadStatus.Status.INPROGRESS : PSThreadStatus.Status.COMPLETED);
+    };
+    List<PSThreadStatus> statuses = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      statuses.add(status("t" + i, PSThreadStatus.Status.INITIALISED));
+    }
+    List<CompletableFuture<PSThreadStatus>> futures = newPoller(check, Duration.ofSeconds(10)).start(statuses);
+    Assert.assertEquals(100, futures.size());
+    for (int i = 0; i < 100; i++) {
+      PSThreadStatus done = futures.get(i).get(10, TimeUnit.SECONDS);
+      Assert.assertEquals("t" + i, done.getThreadID());
+      Assert.assertTrue(done.isCompleted());
+      Assert.assertEquals(3, checks.get("t" + i).get());
+    }
+    Assert.assertTrue(maxRunning.get() <= ThreadPoller.MAX_CONCURRENT_CHECKS);
+  }
+
+  @Test
+  public void testAlreadyCompleted() throws Exception {
+    PSThreadStatus completed = status("t1", PSThreadStatus.Status.COMPLETED);
+    List<CompletableFuture<PSThreadStatus>> futures = newPoller(status -> {
+      throw new AssertionError("Should not be checked");
+    }, Duration.ofSeconds(1)).start(Arrays.asList(completed));
+    Assert.assertSame(completed, futures.get(0).getNow(null));
+  }
+
+  @Test
+  public void testNoLongerExists() throws Exception {
+    List<CompletableFuture<PSThreadStatus>> futures = newPoller(status -> null, Duration.ofSeconds(1))
+        .start(Arrays.asList(status("t1", PSThreadStatus.Status.INPROGRESS)));
+    Assert.assertNull(futures.get(0).get(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testTimeout() throws Exception {
+    List<CompletableFuture<PSThreadStatus>> futures = newPoller(status -> status, Duration.ofMillis(50))
+        .start(Arrays.asList(status("t1", PSThreadStatus.Status.INPROGRESS)));
+    try {
+      futures.get(0).get(5, TimeUnit.SECONDS);
+      Assert.fail("Should have timed out");
+    } catch (ExecutionException ex) {
+      Assert.assertTrue(ex.getCause() instanceof APIException);
+    }
+  }
+
+  @Test
+  public void testFailedCheck() throws Exception {
+    ThreadPoller.Check check = status -> {
+      if ("bad".equals(status.getThreadID())) throw new APIException("Unable to check");
+      return status(status.getThreadID(), PSThreadStatus.Status.COMPLETED);
+    };
+    List<CompletableFuture<PSThreadStatus>> futures = newPoller(check, Duration.ofSeconds(5))
+        .start(Arrays.asList(status("bad", PSThreadStatus.Status.INPROGRESS), status("good", PSThreadStatus.Status.INPROGRESS)));
+    Assert.assertEquals("good", futures.get(1).get(5, TimeUnit.SECONDS).getThreadID());
+    try {
+      futures.get(0).get(5, TimeUnit.SECONDS);
+      Assert.fail("Should have failed");
+    } catch (ExecutionException ex) {
+      Assert.assertTrue(ex.getCause() instanceof APIException);
+    }
+  }
+
+  @Test
+  public void testBackoffWithoutProgress() throws Exception {
+    AtomicInteger checks = new AtomicInteger();
+    ThreadPoller poller = new ThreadPoller(status -> {
+      checks.incrementAndGet();
+      return status;
+    }, this.executor, Duration.ofMillis(10), Duration.ofMillis(80), Duration.ofMillis(400));
+    List<CompletableFuture<PSThreadStatus>> futures = poller.start(Arrays.asList(status("t1", PSThreadStatus.Status.INPROGRESS)));
+    try {
+      futures.get(0).get(5, TimeUnit.SECONDS);
+    } catch (ExecutionException ex) {
+      // timed out
+    }
+    // Without backoff, we would have checked about 40 times
+    Assert.assertTrue(checks.get() > 2);
+    Assert.assertTrue("Checked " + checks.get() + " times", checks.get() < 20);
+  }
+
+  @Test
+  public void testCancel() throws Exception {
+    AtomicInteger checks = new AtomicInteger();
+    List<CompletableFuture<PSThreadStatus>> futures = newPoller(status -> {
+      checks.incrementAndGet();
+      return status;
+    }, Duration.ofSeconds(5)).start(Arrays.asList(status("t1", PSThreadStatus.Status.INPROGRESS)));
+    futures.get(0).cancel(false);
+    Thread.sleep(100);
+    Assert.assertTrue(checks.get() <= 1);
+  }
+
+  private ThreadPoller newPoller(ThreadPoller.Check check, Duration timeout) {
+    return new ThreadPoller(check, this.executor, Duration.ofMillis(5), Duration.ofMillis(20), timeout);
+  }
+
+  private static PSThreadStatus status(String id, PSThreadStatus.Status value) {
+    PSThreadStatus status = new PSThreadStatus(id);
+    status.setStatus(value);
+    return status;
+  }
+
+}
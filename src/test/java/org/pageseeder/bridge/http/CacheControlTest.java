@@ -0,0 +1,42 @@
+package org.pageseeder.bridge.http;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public final class CacheControlTest {
+
+  @Test
+  public void testNone() {
+    Assert.assertSame(CacheControl.NONE, CacheControl.parse(null));
+    Assert.assertSame(CacheControl.NONE, CacheControl.parse(" "));
+    Assert.assertEquals(-1, CacheControl.NONE.maxAge());
+    Assert.assertEquals(-1, CacheControl.NONE.staleWhileRevalidate());
+    Assert.assertFalse(CacheControl.NONE.noCache());
+    Assert.assertFalse(CacheControl.NONE.noStore());
+  }
+
+  @Test
+  public void testParse() {
+    CacheControl cc = CacheControl.parse("public, Max-Age=300, stale-while-revalidate=\"60\"");
+    Assert.assertEquals(300, cc.maxAge());
+    Assert.assertEquals(60, cc.staleWhileRevalidate());
+    Assert.assertFalse(cc.noCache());
+    Assert.assertFalse(cc.noStore());
+  }
+
+  @Test
+  public void testNoCacheNoStore() {
+    CacheControl cc = CacheControl.parse("no-cache,no-store");
+    Assert.assertTrue(cc.noCache());
+    Assert.assertTrue(cc.noStore());
+    Assert.assertEquals(-1, cc.maxAge());
+  }
+
+  @Test
+  public void testInvalidMaxAge() {
+    Assert.assertEquals(0, CacheControl.parse("max-age=soon").maxAge());
+    Assert.assertEquals(0, CacheControl.parse("max-age=-5").maxAge());
+    Assert.assertEquals(-1, CacheControl.parse("stale-while-revalidate=x").staleWhileRevalidate());
+  }
+
+}
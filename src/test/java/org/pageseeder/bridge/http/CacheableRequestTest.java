@@ -0,0 +1,295 @@
+package org.pageseeder.bridge.http;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.pageseeder.bridge.CacheStats;
+import org.pageseeder.bridge.PSConfig;
+import org.pageseeder.bridge.PSSession;
+import org.pageseeder.bridge.PSToken;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+public final class CacheableRequestTest {
+
+  private static final String XML = "<items><item name=\"a\"/></items>";
+
+  private static final String TOKEN_A = "abcdefghijklmnop0123";
+
+  private static final String TOKEN_B = "zyxwvutsrqponmlk9876";
+
+  private PSConfig config;
+
+  private HttpCache cache;
+
+  @Before
+  public void setUp() {
+    this.config = PSConfig.newInstance("http://localhost:8282");
+    PSConfig.setDefault(this.config);
+    this.cache = new HttpCache("test-"+UUID.randomUUID());
+  }
+
+  @After
+  public void tearDown() {
+    HttpClient.setExecutor(null);
+  }
+
+  @Test
+  public void testCachedSameCredentials() {
+    MockTransport transport = cacheable();
+    PSToken token = new PSToken(TOKEN_A);
+    request().using(token).response().consumeString();
+    request().using(token).response().consumeString();
+    Assert.assertEquals(2, transport.count.get());
+    Assert.assertEquals(1, this.cache.size());
+  }
+
+  @Test
+  public void testPrivateDifferentCredentials() {
+    cacheable();
+    request().using(new PSToken(TOKEN_A)).response().consumeString();
+    request().using(new PSToken(TOKEN_B)).response().consumeString();
+    request().using(new PSSession("123")).response().consumeString();
+    request().response().consumeString();
+    Assert.assertEquals(4, this.cache.size());
+  }
+
+  @Test
+  public void testSharedDifferentCredentials() {
+    cacheable();
+    request().scope(CacheScope.SHARED).using(new PSToken(TOKEN_A)).response().consumeString();
+    request().scope(CacheScope.SHARED).using(new PSToken(TOKEN_B)).response().consumeString();
+    request().scope(CacheScope.SHARED).response().consumeString();
+    Assert.assertEquals(1, this.cache.size());
+  }
+
+  @Test
+  public void testSharedVaryAuthorization() {
+    MockTransport transport = cacheable(new Header("Vary", "Accept-Encoding, Authorization"));
+    request().scope(CacheScope.SHARED).using(new PSToken(TOKEN_A)).response().consumeString();
+    CachedContent content = this.cache.get(Request.toURLString(this.config, "/service/items"));
+    Assert.assertNotNull(content);
+    Assert.assertEquals(2, content.vary().size());
+    // Different user: not a variant match, so the response is fetched again without etag
+    request().scope(CacheScope.SHARED).using(new PSToken(TOKEN_B)).response().consumeString();
+    Assert.assertEquals(2, transport.count.get());
+    Assert.assertFalse(hasHeader(transport, "If-None-Match"));
+    // Same user as last: etag revalidation
+    request().scope(CacheScope.SHARED).using(new PSToken(TOKEN_B)).response().consumeString();
+    Assert.assertEquals(3, transport.count.get());
+    Assert.assertTrue(hasHeader(transport, "If-None-Match"));
+  }
+
+  @Test
+  public void testVaryStarNotCached() {
+    cacheable(new Header("Vary", "*"));
+    request().response().consumeString();
+    Assert.assertEquals(0, this.cache.size());
+  }
+
+  @Test
+  public void testFreshMaxAge() {
+    MockTransport transport = cacheable(new Header("Cache-Control", "max-age=60"));
+    request().response().consumeString();
+    HttpResponse response = request().response();
+    Assert.assertTrue(response instanceof CachedResponse);
+    Assert.assertEquals(XML, response.consumeString());
+    Assert.assertEquals(1, transport.count.get());
+  }
+
+  @Test
+  public void testFreshExpires() {
+    long now = System.currentTimeMillis();
+    MockTransport transport = cacheable(new Header("Date", Header.formatHTTPDate(new Date(now))),
+        new Header("Expires", Header.formatHTTPDate(new Date(now + 60_000))));
+    request().response().consumeString();
+    request().response().consumeString();
+    Assert.assertEquals(1, transport.count.get());
+  }
+
+  @Test
+  public void testStaleExpires() {
+    long now = System.currentTimeMillis();
+    MockTransport transport = cacheable(new Header("Date", Header.formatHTTPDate(new Date(now))),
+        new Header("Expires", Header.formatHTTPDate(new Date(now - 60_000))));
+    request().response().consumeString();
+    request().response().consumeString();
+    Assert.assertEquals(2, transport.count.get());
+    Assert.assertTrue(hasHeader(transport, "If-None-Match"));
+  }
+
+  @Test
+  public void testNoCacheRevalidates() {
+    MockTransport transport = cacheable(new Header("Cache-Control", "no-cache, max-age=60"));
+    request().response().consumeString();
+    request().response().consumeString();
+    Assert.assertEquals(2, transport.count.get());
+    Assert.assertEquals(1, this.cache.size());
+  }
+
+  @Test
+  public void testNoStoreNotCached() {
+    cacheable(new Header("Cache-Control", "no-store"));
+    request().response().consumeString();
+    Assert.assertEquals(0, this.cache.size());
+  }
+
+  @Test
+  public void testStaleWhileRevalidate() {
+    HttpClient.setExecutor(Runnable::run);
+    MockTransport transport = cacheable(new Header("Cache-Control", "max-age=0, stale-while-revalidate=60"));
+    request().response().consumeString();
+    HttpResponse response = request().response();
+    // Revalidated in the "background" but stale content returned
+    Assert.assertTrue(response instanceof CachedResponse);
+    Assert.assertEquals(XML, response.consumeString());
+    Assert.assertEquals(2, transport.count.get());
+    Assert.assertTrue(hasHeader(transport, "If-None-Match"));
+  }
+
+  @Test
+  public void testStaleWhileRevalidateQueued() {
+    List<Runnable> tasks = new ArrayList<>();
+    HttpClient.setExecutor(tasks::add);
+    MockTransport transport = cacheable(new Header("Cache-Control", "max-age=0, stale-while-revalidate=60"));
+    request().response().consumeString();
+    // The stale content is returned while the revalidation is pending
+    Assert.assertEquals(XML, request().response().consumeString());
+    Assert.assertEquals(XML, request().response().consumeString());
+    Assert.assertEquals(1, transport.count.get());
+    Assert.assertEquals(1, tasks.size());
+    tasks.get(0).run();
+    Assert.assertEquals(2, transport.count.get());
+  }
+
+  @Test
+  public void testLargeCachedOnceRead() {
+    String large = largeXML();
+    MockTransport transport = cacheable(large, new Header("Content-Length", Integer.toString(large.length())));
+    String key = Request.toURLString(this.config, "/service/items");
+    HttpResponse response = request().response();
+    Assert.assertTrue(response instanceof Response);
+    Assert.assertNull(this.cache.get(key));
+    Assert.assertEquals(large, response.consumeString());
+    CachedContent content = this.cache.get(key);
+    Assert.assertNotNull(content);
+    Assert.assertEquals(large.length(), content.length());
+    Assert.assertEquals(large, new CachedResponse(content).consumeString());
+    Assert.assertEquals(1, transport.count.get());
+  }
+
+  @Test
+  public void testLargeUnknownLength() {
+    String large = largeXML();
+    cacheable(large);
+    Assert.assertEquals(large, request().response().consumeString());
+    Assert.assertEquals(1, this.cache.size());
+  }
+
+  @Test
+  public void testLargeNotCachedIfIncomplete() throws Exception {
+    String large = largeXML();
+    cacheable(large, new Header("Content-Length", Integer.toString(large.length())));
+    HttpResponse response = request().response();
+    try (InputStream in = response.getInputStream()) {
+      Assert.assertNotNull(in);
+      Assert.assertTrue(in.read(new byte[1000]) > 0);
+    }
+    Assert.assertEquals(0, this.cache.size());
+  }
+
+  @Test
+  public void testCacheKeys() {
+    String url = "http://localhost:8282/ps/service/items";
+    Assert.assertEquals(url, CacheKeys.toKey(url, null, CacheScope.PRIVATE));
+    Assert.assertEquals(url, CacheKeys.toKey(url, new PSToken(TOKEN_A), CacheScope.SHARED));
+    String key = CacheKeys.toKey(url, new PSToken(TOKEN_A), CacheScope.PRIVATE);
+    Assert.assertTrue(key.startsWith(url+'#'));
+    Assert.assertFalse(key.contains(TOKEN_A));
+    Assert.assertEquals(key, CacheKeys.toKey(url, new PSToken(TOKEN_A), CacheScope.PRIVATE));
+    Assert.assertNotEquals(key, CacheKeys.toKey(url, new PSSession(TOKEN_A), CacheScope.PRIVATE));
+  }
+
+  @Test
+  public void testStatsLoadsAndRevalidations() {
+    MockTransport transport = cacheable();
+    request().response().consumeString();
+    Assert.assertEquals(1, this.cache.stats().loads());
+    Assert.assertEquals(1, this.cache.stats().misses());
+    // PageSeeder confirms the content is unchanged
+    Transports.set(this.config, new MockTransport(304, "", new Header("Cache-Control", "max-age=60")));
+    Assert.assertEquals(XML, request().response().consumeString());
+    Assert.assertEquals(XML, request().response().consumeString());
+    CacheStats stats = this.cache.stats();
+    Assert.assertEquals(1, transport.count.get());
+    Assert.assertEquals(1, stats.loads());
+    Assert.assertEquals(1, stats.revalidations());
+    Assert.assertEquals(2, stats.hits());
+  }
+
+  @Test
+  public void testPartitionedByConfig() {
+    MockTransport transport = cacheable();
+    PSConfig other = PSConfig.newInstance("http://localhost:8283");
+    MockTransport otherTransport = new MockTransport(200, XML, new Header("Content-Type", "application/xml;charset=utf-8"), new Header("ETag", "\"1\""));
+    Transports.set(other, otherTransport);
+    HttpClient client = HttpClient.singleton();
+    client.getCache(this.config).clear();
+    client.getCache(other).clear();
+    client.newRequest("/service/items").config(this.config).response().consumeString();
+    Assert.assertEquals(1, transport.count.get());
+    Assert.assertEquals(0, otherTransport.count.get());
+    Assert.assertNotSame(client.getCache(this.config), client.getCache(other));
+    Assert.assertEquals(1, client.getCache(this.config).size());
+    Assert.assertEquals(0, client.getCache(other).size());
+    Assert.assertSame(client.getCache(this.config), client.getCaches().get(this.config.getCachePartition()));
+  }
+
+  @Test
+  public void testQuery() {
+    MockTransport transport = cacheable();
+    request().query("a=1&b=x+y").parameter("c", "2").response().consumeString();
+    Assert.assertEquals("http://localhost:8282/ps/service/items?a=1&b=x+y&c=2", transport.url.toString());
+    request().parameter("a", "1").parameter("b", "x y").parameter("c", "2").response().consumeString();
+    Assert.assertEquals(1, this.cache.size());
+  }
+
+  private CacheableRequest request() {
+    return new CacheableRequest(this.cache, "/service/items");
+  }
+
+  private MockTransport cacheable(Header... extra) {
+    return cacheable(XML, extra);
+  }
+
+  private MockTransport cacheable(String content, Header... extra) {
+    Header[] headers = new Header[extra.length + 2];
+    headers[0] = new Header("Content-Type", "application/xml;charset=utf-8");
+    headers[1] = new Header("ETag", "\"1\"");
+    System.arraycopy(extra, 0, headers, 2, extra.length);
+    MockTransport transport = new MockTransport(200, content, headers);
+    Transports.set(this.config, transport);
+    return transport;
+  }
+
+  private static String largeXML() {
+    StringBuilder xml = new StringBuilder("<items>");
+    while (xml.length() < 1_500_000) {
+      xml.append("<item name=\"").append(xml.length()).append("\"/>");
+    }
+    return xml.append("</items>").toString();
+  }
+
+  private static boolean hasHeader(MockTransport transport, String name) {
+    for (Header h : transport.requestHeaders) {
+      if (h.name().equalsIgnoreCase(name)) return true;
+    }
+    return false;
+  }
+
+}
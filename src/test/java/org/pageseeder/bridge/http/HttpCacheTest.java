@@ -0,0 +1,173 @@
+package org.pageseeder.bridge.http;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.pageseeder.bridge.CacheStats;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+
+public final class HttpCacheTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testPutGetRemove() {
+    HttpCache cache = newCache(10_000, false);
+    CachedContent content = newContent("a", 100);
+    cache.put(content);
+    Assert.assertEquals(100, cache.bytes());
+    Assert.assertSame(content, cache.get("http://localhost/a"));
+    cache.remove("http://localhost/a");
+    Assert.assertNull(cache.get("http://localhost/a"));
+    Assert.assertEquals(0, cache.bytes());
+  }
+
+  @Test
+  public void testReplace() {
+    HttpCache cache = newCache(10_000, false);
+    cache.put(newContent("a", 100));
+    cache.put(newContent("a", 300));
+    Assert.assertEquals(1, cache.size());
+    Assert.assertEquals(300, cache.bytes());
+  }
+
+  @Test
+  public void testByteBudget() {
+    HttpCache cache = newCache(1_000, false);
+    for (int i = 0; i < 10; i++) {
+      cache.put(newContent("p"+i, 300));
+      Assert.assertTrue(cache.bytes() <= 1_000);
+    }
+    Assert.assertTrue(cache.size() <= 3);
+    Assert.assertEquals(cache.size() * 300, cache.bytes());
+    Assert.assertNotNull(cache.get("http://localhost/p9"));
+  }
+
+  @Test
+  public void testTooLarge() {
+    HttpCache cache = newCache(1_000, false);
+    cache.put(newContent("a", 2_000));
+    Assert.assertEquals(0, cache.size());
+    Assert.assertEquals(0, cache.bytes());
+  }
+
+  @Test
+  public void testDeflate() throws IOException {
+    HttpCache cache = newCache(10_000, true);
+    CachedContent content = newContent("a", 5_000);
+    cache.put(content);
+    CachedContent cached = cache.get("http://localhost/a");
+    Assert.assertNotNull(cached);
+    Assert.assertTrue(cached.isDeflated());
+    Assert.assertTrue(cached.size() < 5_000);
+    Assert.assertEquals(cached.size(), cache.bytes());
+    Assert.assertEquals(5_000, cached.length());
+    Assert.assertArrayEquals(content.bytes(), cached.bytes());
+    Assert.assertArrayEquals(content.bytes(), readFully(cached.getInputStream()));
+    Assert.assertEquals(new CachedResponse(content).consumeString(), new CachedResponse(cached).consumeString());
+  }
+
+  @Test
+  public void testInputStreamIndependent() throws IOException {
+    CachedContent content = newContent("a", 50);
+    try (InputStream a = content.getInputStream(); InputStream b = content.getInputStream()) {
+      Assert.assertEquals(50, a.available());
+      Assert.assertEquals(10, a.skip(10));
+      Assert.assertEquals(40, readFully(a).length);
+      Assert.assertEquals(50, readFully(b).length);
+    }
+  }
+
+  @Test
+  public void testSerializable() throws IOException, ClassNotFoundException {
+    for (CachedContent content : Arrays.asList(newContent("a", 1_000), newContent("a", 1_000).deflated())) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      try (ObjectOutputStream oos = new ObjectOutputStream(out)) {
+        oos.writeObject(content);
+      }
+      try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+        CachedContent copy = (CachedContent)ois.readObject();
+        Assert.assertEquals(content.url(), copy.url());
+        Assert.assertEquals(content.etag(), copy.etag());
+        Assert.assertEquals(content.isDeflated(), copy.isDeflated());
+        Assert.assertArrayEquals(content.bytes(), copy.bytes());
+      }
+    }
+  }
+
+  @Test
+  public void testStats() {
+    HttpCache cache = newCache(1_000, false);
+    Assert.assertNull(cache.get("http://localhost/a"));
+    for (int i = 0; i < 10; i++) {
+      cache.put(newContent("p"+i, 300));
+    }
+    Assert.assertNotNull(cache.get("http://localhost/p9"));
+    CacheStats stats = cache.stats();
+    Assert.assertEquals(1, stats.hits());
+    Assert.assertEquals(1, stats.misses());
+    Assert.assertTrue(stats.evictions() >= 7);
+    Assert.assertEquals(cache.size(), stats.size());
+    Assert.assertEquals(cache.bytes(), stats.bytes());
+    Assert.assertEquals(1_000, stats.maxBytes());
+    Assert.assertEquals(0.5, stats.hitRatio(), 0.001);
+  }
+
+  @Test
+  public void testPrivateNotPersisted() {
+    HttpCache cache = new HttpCache("test-"+UUID.randomUUID(), 10_000, false, this.folder.getRoot().toPath());
+    cache.put("http://localhost/a", newContent("a", 100));
+    cache.put("http://localhost/b#user", newContent("b", 100));
+    cache.clear();
+    Assert.assertNotNull(cache.get("http://localhost/a"));
+    Assert.assertNull(cache.get("http://localhost/b#user"));
+  }
+
+  @Test
+  public void testPrivatePersisted() {
+    System.setProperty("bridge.http.cache.persistPrivate", "true");
+    try {
+      HttpCache cache = new HttpCache("test-"+UUID.randomUUID(), 10_000, false, this.folder.getRoot().toPath());
+      cache.put("http://localhost/b#user", newContent("b", 100));
+      cache.clear();
+      Assert.assertNotNull(cache.get("http://localhost/b#user"));
+    } finally {
+      System.clearProperty("bridge.http.cache.persistPrivate");
+    }
+  }
+
+  private static HttpCache newCache(long maxBytes, boolean deflate) {
+    return new HttpCache("test-"+UUID.randomUUID(), maxBytes, deflate);
+  }
+
+  private static CachedContent newContent(String path, int length) {
+    byte[] bytes = new byte[length];
+    byte[] pattern = "<item name=\"a\"/>".getBytes(StandardCharsets.UTF_8);
+    for (int i = 0; i < length; i++) {
+      bytes[i] = pattern[i % pattern.length];
+    }
+    return new CachedContent("http://localhost/"+path, bytes, "application/xml", "1");
+  }
+
+  private static byte[] readFully(InputStream in) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] chunk = new byte[64];
+    int read;
+    while ((read = in.read(chunk)) != -1) {
+      out.write(chunk, 0, read);
+    }
+    return out.toByteArray();
+  }
+
+}
@@ -0,0 +1,146 @@
+package org.pageseeder.bridge.http;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.pageseeder.bridge.PSConfig;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tests the transport using the <code>HttpClient</code> against a local server.
+ *
+ * <p>These tests are skipped when the runtime does not provide that transport (Java 8).
+ */
+public final class HttpClientTransportTest {
+
+  private static final String XML = "<version number=\"5.9\"/>";
+
+  private HttpServer server;
+
+  private PSConfig config;
+
+  private volatile int status = 200;
+
+  /** Number of bytes in the last request body received by the server */
+  private final AtomicLong received = new AtomicLong();
+
+  @Before
+  public void setUp() throws IOException {
+    Transport transport = DefaultTransports.newTransport(TransportOptions.DEFAULT);
+    Assume.assumeTrue("HttpClientTransport".equals(transport.getClass().getSimpleName()));
+    this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    this.server.createContext("/", exchange -> {
+      long count = 0;
+      try (InputStream in = exchange.getRequestBody()) {
+        byte[] buffer = new byte[8192];
+        for (int n = in.read(buffer); n != -1; n = in.read(buffer)) {
+          count += n;
+        }
+      }
+      this.received.set(count);
+      byte[] body = XML.getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().add("Content-Type", "application/xml;charset=utf-8");
+      exchange.sendResponseHeaders(this.status, body.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    });
+    this.server.start();
+    this.config = PSConfig.newInstance("http://localhost:"+this.server.getAddress().getPort());
+    PSConfig.setDefault(this.config);
+    Transports.set(this.config, transport);
+  }
+
+  @After
+  public void tearDown() {
+    if (this.server != null) {
+      this.server.stop(0);
+    }
+  }
+
+  @Test
+  public void testGet() {
+    try (Response response = new Request(Method.GET, "/service/version").config(this.config).response()) {
+      Assert.assertEquals(200, response.code());
+      Assert.assertEquals("OK", response.message());
+      Assert.assertEquals("application/xml", response.mediaType());
+      Assert.assertEquals(XML, response.consumeString());
+    }
+  }
+
+  @Test
+  public void testReasonPhrase() {
+    this.status = 404;
+    try (Response response = new Request(Method.GET, "/service/version").config(this.config).response()) {
+      Assert.assertEquals(404, response.code());
+      Assert.assertEquals("Not Found", response.message());
+    }
+  }
+
+  @Test
+  public void testLargeBodyDeleted() throws IOException {
+    Set<Path> before = bodyFiles();
+    try (Response response = largeRequest().response()) {
+      Assert.assertEquals(XML, response.consumeString());
+    }
+    Assert.assertTrue(this.received.get() > 1_000_000);
+    Assert.assertEquals(before, bodyFiles());
+  }
+
+  @Test
+  public void testLargeBodyDeletedOnError() throws IOException {
+    this.status = 500;
+    Set<Path> before = bodyFiles();
+    try (Response response = largeRequest().response()) {
+      Assert.assertFalse(response.isSuccessful());
+      Assert.assertEquals("Internal Server Error", response.message());
+    }
+    Assert.assertEquals(before, bodyFiles());
+  }
+
+  @Test
+  public void testLargeBodyDeletedWhenStreamClosed() throws IOException {
+    Set<Path> before = bodyFiles();
+    Response response = largeRequest().response();
+    try (InputStream in = response.getInputStream()) {
+      Assert.assertNotNull(in);
+      Assert.assertNotEquals(before, bodyFiles());
+    }
+    Assert.assertEquals(before, bodyFiles());
+  }
+
+  private Request largeRequest() {
+    char[] data = new char[1_500_000];
+    Arrays.fill(data, 'x');
+    return new Request(Method.POST, "/service/upload").config(this.config).parameter("data", new String(data));
+  }
+
+  /**
+   * @return the request bodies buffered in temporary files.
+   */
+  private static Set<Path> bodyFiles() throws IOException {
+    Set<Path> files = new HashSet<>();
+    Path tmp = Paths.get(System.getProperty("java.io.tmpdir"));
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(tmp, "bridge-*.body")) {
+      stream.forEach(files::add);
+    }
+    return files;
+  }
+
+}
@@ -0,0 +1,108 @@
+package org.pageseeder.bridge.http;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A transport returning the same canned response to every request for testing.
+ */
+final class MockTransport implements Transport {
+
+  final int code;
+  final byte[] content;
+  final List<Header> headers;
+
+  /** Number of exchanges opened with this transport */
+  final AtomicInteger count = new AtomicInteger();
+
+  volatile String method;
+  volatile URL url;
+  volatile List<Header> requestHeaders;
+  volatile MockExchange exchange;
+
+  MockTransport(int code, String content, Header... headers) {
+    this.code = code;
+    this.content = content.getBytes(StandardCharsets.UTF_8);
+    this.headers = Arrays.asList(headers);
+  }
+
+  @Override
+  public Exchange open(String method, URL url, List<Header> headers, int timeout) {
+    this.count.incrementAndGet();
+    this.method = method;
+    this.url = url;
+    this.requestHeaders = new ArrayList<>(headers);
+    this.exchange = new MockExchange(url, this);
+    return this.exchange;
+  }
+
+  static final class MockExchange implements Exchange {
+
+    private final URL url;
+    private final MockTransport transport;
+    final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+    MockExchange(URL url, MockTransport transport) {
+      this.url = url;
+      this.transport = transport;
+    }
+
+    @Override
+    public URL url() {
+      return this.url;
+    }
+
+    @Override
+    public OutputStream getOutputStream() {
+      return this.body;
+    }
+
+    @Override
+    public int code() {
+      return this.transport.code;
+    }
+
+    @Override
+    public @Nullable String message() {
+      return null;
+    }
+
+    @Override
+    public List<Header> headers() {
+      return new ArrayList<>(this.transport.headers);
+    }
+
+    @Override
+    public @Nullable String header(String name) {
+      for (Header h : this.transport.headers) {
+        if (h.name().equalsIgnoreCase(name)) return h.value();
+      }
+      return null;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+      return new ByteArrayInputStream(this.transport.content);
+    }
+
+    @Override
+    public @Nullable InputStream getErrorStream() {
+      return this.transport.code >= 400 ? new ByteArrayInputStream(this.transport.content) : null;
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+
+}
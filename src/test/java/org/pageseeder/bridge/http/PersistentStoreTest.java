@@ -0,0 +1,184 @@
+package org.pageseeder.bridge.http;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+public final class PersistentStoreTest {
+
+  private static final long MAX_BYTES = 10_000_000;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testPutGet() throws IOException {
+    Path dir = this.folder.getRoot().toPath();
+    try (PersistentStore store = PersistentStore.open(dir, MAX_BYTES)) {
+      CachedContent content = newContent("a", 100, "1");
+      store.put("a", content);
+      CachedContent stored = store.get("a");
+      Assert.assertNotNull(stored);
+      assertSameContent(content, stored);
+      Assert.assertNull(store.get("b"));
+    }
+  }
+
+  @Test
+  public void testReopen() throws IOException {
+    Path dir = this.folder.getRoot().toPath();
+    CachedContent small = newContent("small", 100, "1");
+    CachedContent large = newContent("large", 200_000, "2");
+    try (PersistentStore store = PersistentStore.open(dir, MAX_BYTES)) {
+      store.put("small", small);
+      store.put("large", large);
+    }
+    try (PersistentStore store = PersistentStore.open(dir, MAX_BYTES)) {
+      Assert.assertEquals(2, store.size());
+      CachedContent restored = store.get("large");
+      Assert.assertNotNull(restored);
+      assertSameContent(large, restored);
+      // Must be revalidated
+      Assert.assertFalse(restored.isFresh());
+      assertSameContent(small, store.get("small"));
+    }
+  }
+
+  @Test
+  public void testRecoverWithoutIndex() throws IOException {
+    Path dir = this.folder.getRoot().toPath();
+    try (PersistentStore store = PersistentStore.open(dir, MAX_BYTES)) {
+      store.put("a", newContent("a", 100, "1"));
+      store.put("a", newContent("a", 120, "2"));
+      store.put("b", newContent("b", 100, "1"));
+      store.remove("b");
+    }
+    Files.delete(dir.resolve("index.dat"));
+    try (PersistentStore store = PersistentStore.open(dir, MAX_BYTES)) {
+      Assert.assertEquals(1, store.size());
+      CachedContent a = store.get("a");
+      Assert.assertNotNull(a);
+      Assert.assertEquals("2", a.etag());
+      Assert.assertEquals(120, a.length());
+      Assert.assertNull(store.get("b"));
+    }
+  }
+
+  @Test
+  public void testRecoverAfterIndex() throws IOException {
+    Path dir = this.folder.getRoot().toPath();
+    PersistentStore store = PersistentStore.open(dir, MAX_BYTES);
+    store.put("a", newContent("a", 100, "1"));
+    store.flush();
+    // Not in the index
+    store.put("b", newContent("b", 100, "1"));
+    store.remove("a");
+    try (PersistentStore reopened = PersistentStore.open(dir, MAX_BYTES)) {
+      Assert.assertNull(reopened.get("a"));
+      Assert.assertNotNull(reopened.get("b"));
+    }
+  }
+
+  @Test
+  public void testTruncateIncompleteRecord() throws IOException {
+    Path dir = this.folder.getRoot().toPath();
+    try (PersistentStore store = PersistentStore.open(dir, MAX_BYTES)) {
+      store.put("a", newContent("a", 100, "1"));
+    }
+    Path segment = segments(dir).get(0);
+    long size = Files.size(segment);
+    Files.write(segment, "BRC1 partial record".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+    Files.delete(dir.resolve("index.dat"));
+    try (PersistentStore store = PersistentStore.open(dir, MAX_BYTES)) {
+      Assert.assertEquals(1, store.size());
+      Assert.assertNotNull(store.get("a"));
+    }
+    Assert.assertEquals(size, Files.size(segment));
+  }
+
+  @Test
+  public void testSameVersionNotWritten() throws IOException {
+    Path dir = this.folder.getRoot().toPath();
+    try (PersistentStore store = PersistentStore.open(dir, MAX_BYTES)) {
+      store.put("a", newContent("a", 100, "1"));
+      long size = Files.size(segments(dir).get(0));
+      store.put("a", newContent("a", 100, "1"));
+      Assert.assertEquals(size, Files.size(segments(dir).get(0)));
+    }
+  }
+
+  @Test
+  public void testCompaction() throws IOException {
+    Path dir = this.folder.getRoot().toPath();
+    try (PersistentStore store = PersistentStore.open(dir, 10_000)) {
+      for (int i = 0; i < 20; i++) {
+        store.put("k"+i, newContent("k"+i, 1_000, "1"));
+      }
+      Assert.assertTrue(store.size() < 20);
+      Assert.assertNotNull(store.get("k19"));
+      Assert.assertNull(store.get("k0"));
+      Assert.assertEquals(1, segments(dir).size());
+    }
+    try (PersistentStore store = PersistentStore.open(dir, 10_000)) {
+      Assert.assertNotNull(store.get("k19"));
+    }
+  }
+
+  @Test
+  public void testHttpCacheRestart() {
+    Path dir = this.folder.getRoot().toPath();
+    CachedContent content = newContent("a", 100, "1");
+    HttpCache cache = new HttpCache("test-"+UUID.randomUUID(), MAX_BYTES, false, dir);
+    cache.put("key", content);
+    cache.flush();
+    HttpCache restarted = new HttpCache("test-"+UUID.randomUUID(), MAX_BYTES, false, dir);
+    Assert.assertEquals(0, restarted.size());
+    CachedContent restored = restarted.get("key");
+    Assert.assertNotNull(restored);
+    assertSameContent(content, restored);
+    Assert.assertEquals(1, restarted.size());
+    restarted.remove("key");
+    Assert.assertNull(new HttpCache("test-"+UUID.randomUUID(), MAX_BYTES, false, dir).get("key"));
+  }
+
+  private static void assertSameContent(CachedContent expected, CachedContent actual) {
+    Assert.assertNotNull(actual);
+    Assert.assertEquals(expected.url(), actual.url());
+    Assert.assertEquals(expected.etag(), actual.etag());
+    Assert.assertEquals(expected.mediaType(), actual.mediaType());
+    Assert.assertEquals(expected.charset(), actual.charset());
+    Assert.assertEquals(expected.vary(), actual.vary());
+    Assert.assertEquals(expected.variant(), actual.variant());
+    Assert.assertArrayEquals(expected.bytes(), actual.bytes());
+  }
+
+  private static CachedContent newContent(String path, int length, String etag) {
+    byte[] bytes = new byte[length];
+    for (int i = 0; i < length; i++) {
+      bytes[i] = (byte)('a' + i % 26);
+    }
+    return new CachedContent("http://localhost/"+path, bytes, "application/xml;charset=utf-8", etag,
+        Collections.singletonList("authorization"), "xyz");
+  }
+
+  private static List<Path> segments(Path dir) throws IOException {
+    List<Path> segments = new ArrayList<>();
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "segment-*.dat")) {
+      files.forEach(segments::add);
+    }
+    return segments;
+  }
+
+}
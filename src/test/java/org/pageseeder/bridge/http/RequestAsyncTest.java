@@ -0,0 +1,98 @@
+package org.pageseeder.bridge.http;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.pageseeder.bridge.PSConfig;
+import org.pageseeder.bridge.xml.stax.ElementXMLStreamHandler;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class RequestAsyncTest {
+
+  private static final String ITEMS = "<items><item name=\"a\"/><item name=\"b\"/><item name=\"c\"/></items>";
+
+  private PSConfig config;
+
+  @Before
+  public void setUp() {
+    this.config = PSConfig.newInstance("http://localhost:8282");
+    PSConfig.setDefault(this.config);
+  }
+
+  @Test
+  public void testResponseAsync() {
+    Transports.set(this.config, new MockTransport(200, ITEMS, new Header("Content-Type", "application/xml")));
+    CompletableFuture<HttpResponse> future = new Request(Method.GET, "/service/items").responseAsync();
+    try (HttpResponse response = future.join()) {
+      Assert.assertEquals(200, response.code());
+      Assert.assertEquals(ITEMS, response.consumeString());
+    }
+  }
+
+  @Test
+  public void testConsumeListAsync() {
+    Transports.set(this.config, new MockTransport(200, ITEMS, new Header("Content-Type", "application/xml")));
+    List<String> names = new Request(Method.GET, "/service/items").consumeListAsync(new NameHandler()).join();
+    Assert.assertEquals(Arrays.asList("a", "b", "c"), names);
+  }
+
+  @Test
+  public void testConsumeItemAsync() {
+    Transports.set(this.config, new MockTransport(200, ITEMS, new Header("Content-Type", "application/xml")));
+    String name = new Request(Method.GET, "/service/items").consumeItemAsync(new NameHandler()).join();
+    Assert.assertEquals("a", name);
+  }
+
+  @Test
+  public void testConsumeAsyncError() {
+    Transports.set(this.config, new MockTransport(500, "Oops", new Header("Content-Type", "text/plain")));
+    try {
+      new Request(Method.GET, "/service/items").consumeStringAsync().join();
+      Assert.fail("Should have failed");
+    } catch (CompletionException ex) {
+      Assert.assertTrue(ex.getCause() instanceof ContentException);
+    }
+  }
+
+  @Test
+  public void testCustomExecutor() {
+    Transports.set(this.config, new MockTransport(200, ITEMS, new Header("Content-Type", "application/xml")));
+    AtomicInteger count = new AtomicInteger();
+    Executor executor = r -> {
+      count.incrementAndGet();
+      r.run();
+    };
+    HttpClient.setExecutor(executor);
+    try {
+      Assert.assertSame(executor, HttpClient.getExecutor());
+      new Request(Method.GET, "/service/items").responseAsync().join().close();
+      Assert.assertEquals(1, count.get());
+    } finally {
+      HttpClient.setExecutor(null);
+    }
+    Assert.assertNotSame(executor, HttpClient.getExecutor());
+  }
+
+  private static final class NameHandler extends ElementXMLStreamHandler<String> {
+
+    NameHandler() {
+      super("item");
+    }
+
+    @Override
+    public String get(XMLStreamReader xml) throws XMLStreamException {
+      String name = attribute(xml, "name");
+      xml.next();
+      return name;
+    }
+  }
+
+}
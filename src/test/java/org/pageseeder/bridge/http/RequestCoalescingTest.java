@@ -0,0 +1,182 @@
+package org.pageseeder.bridge.http;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.pageseeder.bridge.PSConfig;
+import org.pageseeder.bridge.PSToken;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public final class RequestCoalescingTest {
+
+  private static final String XML = "<items><item name=\"a\"/></items>";
+
+  private static final int CONCURRENCY = 10;
+
+  private PSConfig config;
+
+  private HttpCache cache;
+
+  @Before
+  public void setUp() {
+    this.config = PSConfig.newInstance("http://localhost:8282");
+    PSConfig.setDefault(this.config);
+    this.cache = new HttpCache("test-"+UUID.randomUUID());
+  }
+
+  @Test
+  public void testCoalesced() throws Exception {
+    MockTransport transport = new MockTransport(200, XML, new Header("Content-Type", "application/xml"),
+        new Header("ETag", "\"1\""), new Header("Cache-Control", "max-age=60"));
+    List<String> results = sendConcurrently(transport, true, null);
+    Assert.assertEquals(1, transport.count.get());
+    for (String result : results) {
+      Assert.assertEquals(XML, result);
+    }
+  }
+
+  @Test
+  public void testCoalescedNotCacheable() throws Exception {
+    // No etag, so not cached but still shared
+    MockTransport transport = new MockTransport(200, XML, new Header("Content-Type", "application/xml"));
+    List<String> results = sendConcurrently(transport, true, null);
+    Assert.assertTrue(transport.count.get() < CONCURRENCY);
+    for (String result : results) {
+      Assert.assertEquals(XML, result);
+    }
+  }
+
+  @Test
+  public void testCoalescedLargeNotCacheable() throws Exception {
+    StringBuilder xml = new StringBuilder("<items>");
+    while (xml.length() < 2_000_000) {
+      xml.append("<item name=\"").append(xml.length()).append("\"/>");
+    }
+    String large = xml.append("</items>").toString();
+    MockTransport transport = new MockTransport(200, large, new Header("Content-Type", "application/xml"));
+    List<String> results = sendConcurrently(transport, true, null);
+    Assert.assertTrue(transport.count.get() < CONCURRENCY);
+    for (String result : results) {
+      Assert.assertEquals(large, result);
+    }
+  }
+
+  @Test
+  public void testCoalescedWithoutWaiters() throws Exception {
+    MockTransport transport = new MockTransport(200, XML, new Header("Content-Type", "application/xml"));
+    Transports.set(this.config, transport);
+    try (HttpResponse response = new CacheableRequest(this.cache, "/service/items").coalesce(true).response()) {
+      // Not copied when no other request is waiting
+      Assert.assertFalse(response instanceof CachedResponse);
+      Assert.assertEquals(XML, response.consumeString());
+    }
+    Assert.assertEquals(1, transport.count.get());
+  }
+
+  @Test
+  public void testCoalescedLeaderAbandons() throws Exception {
+    MockTransport transport = new MockTransport(200, XML, new Header("Content-Type", "application/xml"));
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    Transports.set(this.config, (method, url, headers, timeout) -> {
+      started.countDown();
+      try {
+        release.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+      return transport.open(method, url, headers, timeout);
+    });
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      // The first request never reads or closes its response
+      Future<HttpResponse> leader = executor.submit(() -> new CacheableRequest(this.cache, "/service/items").coalesce(true).response());
+      Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+      Future<String> waiter = executor.submit(() -> {
+        try (HttpResponse response = new CacheableRequest(this.cache, "/service/items").coalesce(true).timeout(500).response()) {
+          return response.consumeString();
+        }
+      });
+      Thread.sleep(200);
+      release.countDown();
+      Assert.assertEquals(XML, waiter.get(5, TimeUnit.SECONDS));
+      Assert.assertEquals(2, transport.count.get());
+      leader.get(5, TimeUnit.SECONDS).close();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testNotCoalesced() throws Exception {
+    MockTransport transport = new MockTransport(200, XML, new Header("Content-Type", "application/xml"),
+        new Header("ETag", "\"1\""), new Header("Cache-Control", "max-age=60"));
+    sendConcurrently(transport, false, null);
+    Assert.assertEquals(CONCURRENCY, transport.count.get());
+  }
+
+  @Test
+  public void testCoalescedErrorNotShared() throws Exception {
+    MockTransport transport = new MockTransport(500, "Oops", new Header("Content-Type", "text/plain"));
+    sendConcurrently(transport, true, null);
+    Assert.assertEquals(CONCURRENCY, transport.count.get());
+  }
+
+  @Test
+  public void testDifferentCredentialsNotCoalesced() throws Exception {
+    MockTransport transport = new MockTransport(200, XML, new Header("Content-Type", "application/xml"),
+        new Header("ETag", "\"1\""), new Header("Cache-Control", "max-age=60"));
+    sendConcurrently(transport, true, "token");
+    Assert.assertEquals(CONCURRENCY, transport.count.get());
+  }
+
+  /**
+   * Sends the requests concurrently, holding the first call until the other requests have started.
+   */
+  private List<String> sendConcurrently(MockTransport transport, boolean coalesce, String token) throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    Transports.set(this.config, (method, url, headers, timeout) -> {
+      started.countDown();
+      try {
+        release.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+      return transport.open(method, url, headers, timeout);
+    });
+    ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY);
+    try {
+      List<Future<String>> futures = new ArrayList<>();
+      for (int i = 0; i < CONCURRENCY; i++) {
+        String t = token != null ? token+"-"+i+"-abcdefghijklmnop" : null;
+        futures.add(executor.submit(() -> {
+          CacheableRequest request = new CacheableRequest(this.cache, "/service/items").coalesce(coalesce);
+          if (t != null) request.using(new PSToken(t));
+          try (HttpResponse response = request.response()) {
+            return response.isSuccessful() ? response.consumeString() : "";
+          }
+        }));
+      }
+      Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+      Thread.sleep(200);
+      release.countDown();
+      List<String> results = new ArrayList<>();
+      for (Future<String> f : futures) {
+        results.add(f.get(5, TimeUnit.SECONDS));
+      }
+      return results;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+}
@@ -10,6 +10,7 @@ import org.pageseeder.bridge.PSCredentials;
 import org.pageseeder.bridge.PSSession;
 import org.pageseeder.bridge.PSToken;
 import org.pageseeder.bridge.net.UsernamePassword;
+import org.pageseeder.bridge.search.QuestionSearch;
 
 public final class RequestTest {
 
@@ -200,6 +201,26 @@ public final class RequestTest {
     Assert.assertEquals("",            new Request(Method.GET, "/xyz#x=1?a=1&b=2#m?y=1").encodeParameters());
   }
 
+  @Test
+  public void testQuery_Encoded() {
+    Request request = new Request(Method.GET, "/xyz").query("a=1&b=x+y").parameter("c", "&");
+    Assert.assertEquals("a=1&b=x+y&c=%26", request.encodeParameters());
+    Assert.assertEquals("https://ps.pageseeder.com/ps/xyz?a=1&b=x+y&c=%26", request.toURLString());
+    Assert.assertEquals("https://ps.pageseeder.com/ps/xyz?a=1", new Request(Method.GET, "/xyz").query("a=1").toURLString());
+    Assert.assertEquals("https://ps.pageseeder.com/ps/xyz", new Request(Method.GET, "/xyz").query("").toURLString());
+    Assert.assertEquals("&", request.parameter("c"));
+    Assert.assertEquals("1", request.parameter("a"));
+    Assert.assertEquals("x y", request.parameter("b"));
+    Assert.assertNull(request.parameter("d"));
+  }
+
+  @Test
+  public void testQuery_Search() {
+    Request request = new QuestionSearch().group("test").question("a & b").page(2).request();
+    Assert.assertEquals("a & b", request.parameter("question"));
+    Assert.assertEquals("2", request.parameter("page"));
+  }
+
   // Request execution
   // --------------------------------------------------------------------------
 
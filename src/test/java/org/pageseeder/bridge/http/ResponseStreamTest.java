@@ -0,0 +1,115 @@
+package org.pageseeder.bridge.http;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.pageseeder.bridge.PSConfig;
+import org.pageseeder.bridge.xml.stax.ElementXMLStreamHandler;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public final class ResponseStreamTest {
+
+  private static final String ITEMS = "<items><item name=\"a\"/><item name=\"b\"/><item name=\"c\"/></items>";
+
+  private PSConfig config;
+
+  @Before
+  public void setUp() {
+    this.config = PSConfig.newInstance("http://localhost:8282");
+    PSConfig.setDefault(this.config);
+  }
+
+  @Test
+  public void testStream() {
+    Transports.set(this.config, new MockTransport(200, ITEMS, new Header("Content-Type", "application/xml")));
+    Response response = new Request(Method.GET, "/service/items").response();
+    try (Stream<String> names = response.stream(new NameHandler())) {
+      Assert.assertEquals(Arrays.asList("a", "b", "c"), names.collect(Collectors.toList()));
+    }
+    Assert.assertFalse(response.isAvailable());
+  }
+
+  @Test
+  public void testStreamIsLazy() {
+    CountingHandler handler = new CountingHandler();
+    Transports.set(this.config, new MockTransport(200, largeXML(10000), new Header("Content-Type", "application/xml")));
+    Response response = new Request(Method.GET, "/service/items").response();
+    try (Stream<String> names = response.stream(handler)) {
+      Iterator<String> it = names.iterator();
+      Assert.assertEquals("0", it.next());
+      Assert.assertEquals("1", it.next());
+      Assert.assertEquals(2, handler.count);
+    }
+  }
+
+  @Test
+  public void testConsumeItem() {
+    CountingHandler handler = new CountingHandler();
+    Transports.set(this.config, new MockTransport(200, largeXML(100), new Header("Content-Type", "application/xml")));
+    Response response = new Request(Method.GET, "/service/items").response();
+    Assert.assertEquals("0", response.consumeItem(handler));
+    Assert.assertEquals(1, handler.count);
+  }
+
+  @Test
+  public void testStreamCached() {
+    byte[] xml = ITEMS.getBytes(StandardCharsets.UTF_8);
+    CachedContent content = new CachedContent("http://localhost:8282/ps/service/items", xml, "application/xml;charset=utf-8", "x");
+    try (Stream<String> names = new CachedResponse(content).stream(new NameHandler())) {
+      Assert.assertEquals(Arrays.asList("a", "b", "c"), names.collect(Collectors.toList()));
+    }
+    List<String> list = new CachedResponse(content).consumeList(new NameHandler());
+    Assert.assertEquals(Arrays.asList("a", "b", "c"), list);
+  }
+
+  @Test(expected = ContentException.class)
+  public void testStreamMalformed() {
+    Transports.set(this.config, new MockTransport(200, "<items><item name=\"a\"/><item", new Header("Content-Type", "application/xml")));
+    Response response = new Request(Method.GET, "/service/items").response();
+    try (Stream<String> names = response.stream(new NameHandler())) {
+      names.count();
+    }
+  }
+
+  private static String largeXML(int count) {
+    StringBuilder xml = new StringBuilder("<items>");
+    for (int i = 0; i < count; i++) {
+      xml.append("<item name=\"").append(i).append("\"/>");
+    }
+    return xml.append("</items>").toString();
+  }
+
+  private static class NameHandler extends ElementXMLStreamHandler<String> {
+
+    NameHandler() {
+      super("item");
+    }
+
+    @Override
+    public String get(XMLStreamReader xml) throws XMLStreamException {
+      String name = attribute(xml, "name");
+      xml.next();
+      return name;
+    }
+  }
+
+  private static final class CountingHandler extends NameHandler {
+
+    private int count = 0;
+
+    @Override
+    public String get(XMLStreamReader xml) throws XMLStreamException {
+      this.count++;
+      return super.get(xml);
+    }
+  }
+
+}
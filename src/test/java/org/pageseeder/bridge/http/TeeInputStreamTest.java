@@ -0,0 +1,101 @@
+package org.pageseeder.bridge.http;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicReference;
+
+public final class TeeInputStreamTest {
+
+  @Test
+  public void testInMemory() throws IOException {
+    byte[] data = newData(100);
+    AtomicReference<ByteBuffer> copy = new AtomicReference<>();
+    SpillBuffer buffer = new SpillBuffer(1000, 10_000);
+    try (InputStream in = new TeeInputStream(new ByteArrayInputStream(data), buffer, -1, copy::set)) {
+      Assert.assertArrayEquals(data, readFully(in));
+    }
+    Assert.assertFalse(buffer.isSpilled());
+    Assert.assertArrayEquals(data, toArray(copy.get()));
+  }
+
+  @Test
+  public void testSpilled() throws IOException {
+    byte[] data = newData(5000);
+    AtomicReference<ByteBuffer> copy = new AtomicReference<>();
+    SpillBuffer buffer = new SpillBuffer(1000, 10_000);
+    try (InputStream in = new TeeInputStream(new ByteArrayInputStream(data), buffer, -1, copy::set)) {
+      Assert.assertEquals(data[0], (byte)in.read());
+      Assert.assertEquals(9, in.skip(9));
+      Assert.assertEquals(1990, in.read(new byte[1990]));
+      Assert.assertTrue(buffer.isSpilled());
+      readFully(in);
+    }
+    // Temporary file deleted once mapped
+    Assert.assertFalse(buffer.isSpilled());
+    Assert.assertArrayEquals(data, toArray(copy.get()));
+  }
+
+  @Test
+  public void testCompleteOnCloseWithExpectedLength() throws IOException {
+    byte[] data = newData(100);
+    AtomicReference<ByteBuffer> copy = new AtomicReference<>();
+    InputStream in = new TeeInputStream(new ByteArrayInputStream(data), new SpillBuffer(1000, 10_000), 100, copy::set);
+    Assert.assertEquals(100, in.read(new byte[100]));
+    Assert.assertNull(copy.get());
+    in.close();
+    Assert.assertArrayEquals(data, toArray(copy.get()));
+  }
+
+  @Test
+  public void testIncomplete() throws IOException {
+    AtomicReference<ByteBuffer> copy = new AtomicReference<>();
+    SpillBuffer buffer = new SpillBuffer(10, 10_000);
+    try (InputStream in = new TeeInputStream(new ByteArrayInputStream(newData(100)), buffer, -1, copy::set)) {
+      Assert.assertEquals(50, in.read(new byte[50]));
+    }
+    Assert.assertNull(copy.get());
+    Assert.assertFalse(buffer.isSpilled());
+  }
+
+  @Test
+  public void testLimitExceeded() throws IOException {
+    byte[] data = newData(5000);
+    AtomicReference<ByteBuffer> copy = new AtomicReference<>();
+    try (InputStream in = new TeeInputStream(new ByteArrayInputStream(data), new SpillBuffer(1000, 2000), -1, copy::set)) {
+      // The caller still gets all the data
+      Assert.assertArrayEquals(data, readFully(in));
+    }
+    Assert.assertNull(copy.get());
+  }
+
+  private static byte[] newData(int length) {
+    byte[] data = new byte[length];
+    for (int i = 0; i < length; i++) {
+      data[i] = (byte)(i % 251);
+    }
+    return data;
+  }
+
+  private static byte[] toArray(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.duplicate().get(bytes);
+    return bytes;
+  }
+
+  private static byte[] readFully(InputStream in) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] chunk = new byte[128];
+    int read;
+    while ((read = in.read(chunk)) != -1) {
+      out.write(chunk, 0, read);
+    }
+    return out.toByteArray();
+  }
+
+}
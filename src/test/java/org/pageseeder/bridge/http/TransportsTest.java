@@ -0,0 +1,78 @@
+package org.pageseeder.bridge.http;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.pageseeder.bridge.PSConfig;
+
+import java.nio.charset.StandardCharsets;
+
+public final class TransportsTest {
+
+  @Test
+  public void testDefaultTransport() {
+    PSConfig config = PSConfig.newInstance("http://localhost:8282");
+    Transport transport = Transports.get(config);
+    Assert.assertNotNull(transport);
+    Assert.assertSame(transport, Transports.get(config));
+    Assert.assertNotSame(transport, Transports.get(PSConfig.newInstance("http://localhost:8282")));
+  }
+
+  @Test
+  public void testConfigure() {
+    PSConfig config = PSConfig.newInstance("http://localhost:8282");
+    Transport transport = Transports.get(config);
+    Transports.configure(config, TransportOptions.DEFAULT.connectTimeout(1000).http2(false));
+    Assert.assertNotSame(transport, Transports.get(config));
+  }
+
+  @Test
+  public void testOptions() {
+    TransportOptions options = TransportOptions.DEFAULT;
+    Assert.assertEquals(-1, options.connectTimeout());
+    Assert.assertTrue(options.http2());
+    TransportOptions custom = options.connectTimeout(500).http2(false).poolSize(8).keepAlive(30);
+    Assert.assertEquals(500, custom.connectTimeout());
+    Assert.assertFalse(custom.http2());
+    Assert.assertEquals(8, custom.poolSize());
+    Assert.assertEquals(30, custom.keepAlive());
+    // Unchanged
+    Assert.assertEquals(-1, options.connectTimeout());
+  }
+
+  @Test
+  public void testRequestUsesTransport() {
+    PSConfig config = PSConfig.newInstance("http://localhost:8282");
+    PSConfig.setDefault(config);
+    MockTransport transport = new MockTransport(200, "<version number=\"5.9\"/>",
+        new Header("Content-Type", "application/xml;charset=utf-8"),
+        new Header("Content-Length", "24"),
+        new Header("Date", "Tue, 21 Jun 2016 05:10:06 GMT"));
+    Transports.set(config, transport);
+    try (Response response = new Request(Method.PATCH, "/service/test").parameter("a", "1").response()) {
+      Assert.assertEquals("POST", transport.method);
+      Assert.assertEquals("http://localhost:8282/ps/service/test", transport.url.toString());
+      Assert.assertEquals("a=1", new String(transport.exchange.body.toByteArray(), StandardCharsets.UTF_8));
+      Assert.assertEquals(200, response.code());
+      Assert.assertEquals("application/xml", response.mediaType());
+      Assert.assertEquals(StandardCharsets.UTF_8, response.charset());
+      Assert.assertEquals(24, response.length());
+      Assert.assertEquals(1466485806000L, response.date());
+      Assert.assertEquals(0, response.expires());
+      Assert.assertEquals("<version number=\"5.9\"/>", response.consumeString());
+    }
+  }
+
+  @Test
+  public void testResponseNoLength() {
+    PSConfig config = PSConfig.newInstance("http://localhost:8282");
+    PSConfig.setDefault(config);
+    Transports.set(config, new MockTransport(404, "Not found", new Header("Content-Type", "text/plain")));
+    try (Response response = new Request(Method.GET, "/service/test").response()) {
+      Assert.assertEquals(404, response.code());
+      Assert.assertEquals(-1, response.length());
+      Assert.assertFalse(response.isSuccessful());
+      Assert.assertEquals("Not found", response.consumeString());
+    }
+  }
+
+}
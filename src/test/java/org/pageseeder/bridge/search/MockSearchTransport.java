@@ -0,0 +1,146 @@
+package org.pageseeder.bridge.search;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.pageseeder.bridge.http.Exchange;
+import org.pageseeder.bridge.http.Header;
+import org.pageseeder.bridge.http.Transport;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Returns a page of search results based on the page and page size parameters in the URL.
+ */
+final class MockSearchTransport implements Transport {
+
+  private static final Pattern PAGE = Pattern.compile("[?&]page=(\\d+)");
+
+  private static final Pattern PAGE_SIZE = Pattern.compile("[?&]pagesize=(\\d+)");
+
+  /** Total number of results (negative for an error) */
+  private final int total;
+
+  private final boolean totals;
+
+  /** Time taken to respond in milliseconds */
+  private final long latency;
+
+  /** Requested page numbers */
+  final List<Integer> pages = new CopyOnWriteArrayList<>();
+
+  /** Number of requests being processed */
+  final AtomicInteger active = new AtomicInteger();
+
+  /** Maximum number of requests processed concurrently */
+  final AtomicInteger maxActive = new AtomicInteger();
+
+  MockSearchTransport(int total, boolean totals) {
+    this(total, totals, 0);
+  }
+
+  MockSearchTransport(int total, boolean totals, long latency) {
+    this.total = total;
+    this.totals = totals;
+    this.latency = latency;
+  }
+
+  @Override
+  public Exchange open(String method, URL url, List<Header> headers, int timeout) {
+    String query = url.getQuery() != null ? "?"+url.getQuery() : "";
+    int page = parameter(PAGE, query, Page.DEFAULT_PAGE_NUMBER);
+    int size = parameter(PAGE_SIZE, query, Page.DEFAULT_PAGE_SIZE);
+    this.pages.add(page);
+    this.maxActive.accumulateAndGet(this.active.incrementAndGet(), Math::max);
+    try {
+      Thread.sleep(this.latency);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    } finally {
+      this.active.decrementAndGet();
+    }
+    if (this.total < 0) return new SearchExchange(url, 500, "<error/>");
+    StringBuilder xml = new StringBuilder("<search><results>");
+    if (this.totals) {
+      int pageCount = (this.total + size - 1) / size;
+      xml.append("<totals results=\"").append(this.total).append("\" pages=\"").append(pageCount).append("\"/>");
+    }
+    for (int i = (page-1)*size; i < Math.min(page*size, this.total); i++) {
+      xml.append("<result><field name=\"name\">r").append(i).append("</field></result>");
+    }
+    xml.append("</results></search>");
+    return new SearchExchange(url, 200, xml.toString());
+  }
+
+  private static int parameter(Pattern pattern, String query, int fallback) {
+    Matcher m = pattern.matcher(query);
+    return m.find() ? Integer.parseInt(m.group(1)) : fallback;
+  }
+
+  private static final class SearchExchange implements Exchange {
+
+    private final URL url;
+    private final int code;
+    private final byte[] content;
+
+    SearchExchange(URL url, int code, String content) {
+      this.url = url;
+      this.code = code;
+      this.content = content.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public URL url() {
+      return this.url;
+    }
+
+    @Override
+    public OutputStream getOutputStream() {
+      return new ByteArrayOutputStream();
+    }
+
+    @Override
+    public int code() {
+      return this.code;
+    }
+
+    @Override
+    public @Nullable String message() {
+      return null;
+    }
+
+    @Override
+    public List<Header> headers() {
+      return Collections.singletonList(new Header("Content-Type", "application/xml"));
+    }
+
+    @Override
+    public @Nullable String header(String name) {
+      return "Content-Type".equalsIgnoreCase(name) ? "application/xml" : null;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+      return new ByteArrayInputStream(this.content);
+    }
+
+    @Override
+    public @Nullable InputStream getErrorStream() {
+      return this.code >= 400 ? new ByteArrayInputStream(this.content) : null;
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+
+}
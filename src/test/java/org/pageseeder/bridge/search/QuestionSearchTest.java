@@ -4,6 +4,7 @@
 package org.pageseeder.bridge.search;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.Arrays;
@@ -131,6 +132,18 @@ public class QuestionSearchTest {
     assertTrue(parameters.containsValue("10"));
   }
   
+  @Test
+  public void testQueryString() {
+    QuestionSearch search = new QuestionSearch().sortFields(FieldList.newList("title")).question("a & b").page(2);
+    assertEquals("page=2&question=a+%26+b&sortfields=title", search.toQueryString());
+    assertSame(search.toQueryString(), search.toQueryString());
+    QuestionSearch other = new QuestionSearch().page(2).question("a & b").sortFields(FieldList.newList("title"));
+    assertEquals(search.toQueryString(), other.toQueryString());
+    assertEquals(search, other);
+    assertEquals(search.hashCode(), other.hashCode());
+    assertEquals("", new QuestionSearch().toQueryString());
+  }
+
   @Test
   public void testGroup() {
     QuestionSearch search = new QuestionSearch();    
@@ -0,0 +1,138 @@
+package org.pageseeder.bridge.search;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.pageseeder.bridge.CacheStats;
+import org.pageseeder.bridge.PSConfig;
+import org.pageseeder.bridge.PSToken;
+import org.pageseeder.bridge.core.SearchResult;
+import org.pageseeder.bridge.http.ContentException;
+import org.pageseeder.bridge.http.Transports;
+import org.pageseeder.bridge.xml.stax.XMLStreamSearchResult;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+public final class SearchCacheTest {
+
+  private static final PSToken ALICE = new PSToken("abcdefghijklmnop0123");
+
+  private static final PSToken BOB = new PSToken("zyxwvutsrqponmlk9876");
+
+  private PSConfig config;
+
+  private MockSearchTransport transport;
+
+  @Before
+  public void setUp() {
+    this.config = PSConfig.newInstance("http://localhost:8282");
+    PSConfig.setDefault(this.config);
+    this.transport = new MockSearchTransport(3, true);
+    Transports.set(this.config, this.transport);
+  }
+
+  @Test
+  public void testSearchEquality() {
+    QuestionSearch a = new QuestionSearch().group("acme").question("budget").filter("pstype", "document");
+    QuestionSearch b = new QuestionSearch().group("acme").question("budget").filter("pstype", "document");
+    Assert.assertEquals(a, b);
+    Assert.assertEquals(a.hashCode(), b.hashCode());
+    Assert.assertNotEquals(a, b.page(2));
+    Assert.assertNotEquals(a, b.group("other"));
+    Assert.assertNotEquals(a, b.filter("pslabel", "draft"));
+    FacetSearch f = new FacetSearch().group("acme").facets(FacetList.newFacetList("pslabel"));
+    Assert.assertEquals(f, new FacetSearch().group("acme").facets(FacetList.newFacetList("pslabel")));
+    Assert.assertNotEquals(f, new FacetSearch().group("acme").facets(FacetList.newFacetList("pslabel").facetSize(10)));
+  }
+
+  @Test
+  public void testHit() {
+    SearchCache<SearchResult> cache = new SearchCache<>("test", new XMLStreamSearchResult());
+    QuestionSearch search = new QuestionSearch().group("acme").question("budget");
+    List<SearchResult> first = cache.get(search, ALICE);
+    Assert.assertEquals(3, first.size());
+    List<SearchResult> second = cache.get(new QuestionSearch().group("acme").question("budget"), ALICE);
+    Assert.assertSame(first, second);
+    Assert.assertEquals(1, this.transport.pages.size());
+    CacheStats stats = cache.stats();
+    Assert.assertEquals(1, stats.hits());
+    Assert.assertEquals(1, stats.misses());
+    Assert.assertEquals(1, stats.size());
+  }
+
+  @Test
+  public void testKeyedOnCredentialsAndConfig() {
+    SearchCache<SearchResult> cache = new SearchCache<>("test", new XMLStreamSearchResult());
+    FacetSearch search = new FacetSearch().group("acme").facets(FacetList.newFacetList("pslabel"));
+    cache.get(search, ALICE);
+    cache.get(search, BOB);
+    cache.get(search, ALICE);
+    Assert.assertEquals(2, this.transport.pages.size());
+    PSConfig other = PSConfig.newInstance("http://example.org:8282");
+    MockSearchTransport otherTransport = new MockSearchTransport(3, true);
+    Transports.set(other, otherTransport);
+    cache.get(search, ALICE, other);
+    Assert.assertEquals(1, otherTransport.pages.size());
+    Assert.assertEquals(3, cache.size());
+  }
+
+  @Test
+  public void testExpiry() throws InterruptedException {
+    SearchCache<SearchResult> cache = new SearchCache<>("test", new XMLStreamSearchResult(), Duration.ofMillis(20), 10);
+    QuestionSearch search = new QuestionSearch().group("acme");
+    cache.get(search, ALICE);
+    Thread.sleep(40);
+    cache.get(search, ALICE);
+    Assert.assertEquals(2, this.transport.pages.size());
+  }
+
+  @Test
+  public void testMaxEntries() {
+    SearchCache<SearchResult> cache = new SearchCache<>("test", new XMLStreamSearchResult(), Duration.ofMinutes(1), 2);
+    for (String q : Arrays.asList("a", "b", "c", "d")) {
+      cache.get(new QuestionSearch().group("acme").question(q), ALICE);
+    }
+    Assert.assertEquals(2, cache.size());
+    Assert.assertEquals(2, cache.stats().evictions());
+    // The most recent searches are kept
+    cache.get(new QuestionSearch().group("acme").question("d"), ALICE);
+    Assert.assertEquals(4, this.transport.pages.size());
+  }
+
+  @Test
+  public void testInvalidate() {
+    SearchCache<SearchResult> cache = new SearchCache<>("test", new XMLStreamSearchResult());
+    QuestionSearch acme = new QuestionSearch().group("acme").question("budget");
+    QuestionSearch other = new QuestionSearch().group("other").question("budget");
+    QuestionSearch project = new QuestionSearch().project("acme").member("alice").question("budget");
+    cache.get(acme, ALICE);
+    cache.get(acme, BOB);
+    cache.get(other, ALICE);
+    cache.get(project, ALICE);
+    Assert.assertEquals(4, cache.size());
+    cache.invalidate(acme);
+    Assert.assertEquals(2, cache.size());
+    cache.invalidateGroup("acme-docs");
+    Assert.assertEquals(1, cache.size());
+    cache.invalidateGroup("other");
+    Assert.assertEquals(0, cache.size());
+    cache.get(acme, ALICE);
+    cache.clear();
+    Assert.assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testErrorNotCached() {
+    Transports.set(this.config, new MockSearchTransport(-1, true));
+    SearchCache<SearchResult> cache = new SearchCache<>("test", new XMLStreamSearchResult());
+    try {
+      cache.get(new QuestionSearch().group("acme"), ALICE);
+      Assert.fail("Expected a ContentException");
+    } catch (ContentException ex) {
+      Assert.assertEquals(0, cache.size());
+    }
+  }
+
+}
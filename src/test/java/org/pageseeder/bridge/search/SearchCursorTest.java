@@ -0,0 +1,184 @@
+package org.pageseeder.bridge.search;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.pageseeder.bridge.PSConfig;
+import org.pageseeder.bridge.http.ContentException;
+import org.pageseeder.bridge.http.Transports;
+import org.pageseeder.bridge.xml.stax.ResultStreamHandler;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+public final class SearchCursorTest {
+
+  private static final ResultStreamHandler<String> NAMES = new ResultStreamHandler<String>() {
+    @Override
+    public String result(List<Field> fields) {
+      return fields.get(0).getValue();
+    }
+  };
+
+  private PSConfig config;
+
+  @Before
+  public void setUp() {
+    this.config = PSConfig.newInstance("http://localhost:8282");
+    PSConfig.setDefault(this.config);
+  }
+
+  @Test
+  public void testAllPages() {
+    MockSearchTransport transport = new MockSearchTransport(250, true);
+    Transports.set(this.config, transport);
+    QuestionSearch search = new QuestionSearch().group("test").question("cursor");
+    try (Stream<String> results = search.cursor(NAMES).stream()) {
+      Assert.assertEquals(expected(0, 250), results.collect(Collectors.toList()));
+    }
+    Assert.assertEquals(3, transport.pages.size());
+  }
+
+  @Test
+  public void testPageSizeAndFirstPage() {
+    MockSearchTransport transport = new MockSearchTransport(100, true);
+    Transports.set(this.config, transport);
+    QuestionSearch search = new QuestionSearch().group("test").pageSize(30).page(2);
+    try (Stream<String> results = search.cursor(NAMES).stream()) {
+      Assert.assertEquals(expected(30, 100), results.collect(Collectors.toList()));
+    }
+    Assert.assertEquals(3, transport.pages.size());
+  }
+
+  @Test
+  public void testWithoutTotals() {
+    MockSearchTransport transport = new MockSearchTransport(200, false);
+    Transports.set(this.config, transport);
+    PredicateSearch search = new PredicateSearch(Scope.EMPTY.group("test")).pageSize(50);
+    try (Stream<String> results = search.cursor(NAMES).stream()) {
+      Assert.assertEquals(expected(0, 200), results.collect(Collectors.toList()));
+    }
+    // The last page is empty
+    Assert.assertEquals(5, transport.pages.size());
+  }
+
+  @Test
+  public void testNoResults() {
+    MockSearchTransport transport = new MockSearchTransport(0, true);
+    Transports.set(this.config, transport);
+    try (Stream<String> results = new QuestionSearch().group("test").cursor(NAMES).stream()) {
+      Assert.assertEquals(0, results.count());
+    }
+    Assert.assertEquals(1, transport.pages.size());
+  }
+
+  @Test
+  public void testIsLazy() {
+    MockSearchTransport transport = new MockSearchTransport(1000, true);
+    Transports.set(this.config, transport);
+    Stream<String> results = new QuestionSearch().group("test").cursor(NAMES).stream();
+    Assert.assertTrue(transport.pages.isEmpty());
+    results.close();
+    Assert.assertTrue(transport.pages.isEmpty());
+  }
+
+  @Test
+  public void testPrefetchNextPage() throws InterruptedException {
+    MockSearchTransport transport = new MockSearchTransport(1000, true);
+    Transports.set(this.config, transport);
+    try (Stream<String> results = new QuestionSearch().group("test").cursor(NAMES).stream()) {
+      Iterator<String> it = results.iterator();
+      Assert.assertEquals("r0", it.next());
+      // The second page is requested while the first one is consumed
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+      while (transport.pages.size() < 2 && System.nanoTime() < deadline) {
+        Thread.sleep(10);
+      }
+      Assert.assertEquals(2, transport.pages.size());
+      // But no further
+      Thread.sleep(50);
+      Assert.assertEquals(2, transport.pages.size());
+    }
+  }
+
+  @Test
+  public void testConcurrentOrdered() {
+    MockSearchTransport transport = new MockSearchTransport(1000, true, 20);
+    Transports.set(this.config, transport);
+    SearchCursor<String> cursor = new QuestionSearch().group("test").pageSize(50).cursor(NAMES).concurrency(4);
+    try (Stream<String> results = cursor.stream()) {
+      Assert.assertEquals(expected(0, 1000), results.collect(Collectors.toList()));
+    }
+    Assert.assertEquals(20, transport.pages.size());
+    Assert.assertEquals(expectedPages(20), transport.pages.stream().sorted().collect(Collectors.toList()));
+    Assert.assertTrue(transport.maxActive.get() > 1);
+    Assert.assertTrue(transport.maxActive.get() <= 4);
+  }
+
+  @Test
+  public void testConcurrentUnordered() {
+    MockSearchTransport transport = new MockSearchTransport(1000, true, 20);
+    Transports.set(this.config, transport);
+    SearchCursor<String> cursor = new QuestionSearch().group("test").pageSize(50).cursor(NAMES).concurrency(4).ordered(false);
+    try (Stream<String> results = cursor.stream()) {
+      List<String> all = results.collect(Collectors.toList());
+      Assert.assertEquals(1000, all.size());
+      Assert.assertEquals(new HashSet<>(expected(0, 1000)), new HashSet<>(all));
+    }
+    Assert.assertEquals(20, transport.pages.size());
+    Assert.assertTrue(transport.maxActive.get() <= 4);
+  }
+
+  @Test
+  public void testConcurrentWithoutTotals() {
+    MockSearchTransport transport = new MockSearchTransport(200, false, 5);
+    Transports.set(this.config, transport);
+    SearchCursor<String> cursor = new QuestionSearch().group("test").pageSize(50).cursor(NAMES).concurrency(4);
+    try (Stream<String> results = cursor.stream()) {
+      Assert.assertEquals(expected(0, 200), results.collect(Collectors.toList()));
+    }
+    // Pages are requested one after the other when the total is unknown
+    Assert.assertEquals(Arrays.asList(1, 2, 3, 4, 5), transport.pages);
+    Assert.assertEquals(1, transport.maxActive.get());
+  }
+
+  @Test
+  public void testMaxConcurrencyPerConfig() {
+    SearchCursor.setMaxConcurrency(this.config, 2);
+    MockSearchTransport transport = new MockSearchTransport(1000, true, 10);
+    Transports.set(this.config, transport);
+    SearchCursor<String> cursor = new QuestionSearch().group("test").pageSize(50).cursor(NAMES).concurrency(8);
+    try (Stream<String> results = cursor.stream()) {
+      Assert.assertEquals(expected(0, 1000), results.collect(Collectors.toList()));
+    }
+    Assert.assertTrue(transport.maxActive.get() <= 2);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidConcurrency() {
+    new QuestionSearch().group("test").cursor(NAMES).concurrency(0);
+  }
+
+  @Test(expected = ContentException.class)
+  public void testError() {
+    Transports.set(this.config, new MockSearchTransport(-1, true));
+    try (Stream<String> results = new QuestionSearch().group("test").cursor(NAMES).stream()) {
+      results.count();
+    }
+  }
+
+  private static List<String> expected(int from, int to) {
+    return IntStream.range(from, to).mapToObj(i -> "r"+i).collect(Collectors.toList());
+  }
+
+  private static List<Integer> expectedPages(int count) {
+    return IntStream.rangeClosed(1, count).boxed().collect(Collectors.toList());
+  }
+
+}
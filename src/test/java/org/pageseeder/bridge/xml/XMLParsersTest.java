@@ -0,0 +1,90 @@
+package org.pageseeder.bridge.xml;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class XMLParsersTest {
+
+  @Test
+  public void testParserIsReused() throws ParserConfigurationException, SAXException {
+    SAXParser parser = XMLParsers.borrowSAXParser();
+    XMLParsers.release(parser);
+    Assert.assertSame(parser, XMLParsers.borrowSAXParser());
+    XMLParsers.release(parser);
+  }
+
+  @Test
+  public void testParserIsNamespaceAware() throws ParserConfigurationException, SAXException {
+    SAXParser parser = XMLParsers.borrowSAXParser();
+    try {
+      Assert.assertTrue(parser.isNamespaceAware());
+      Assert.assertFalse(parser.isValidating());
+    } finally {
+      XMLParsers.release(parser);
+    }
+  }
+
+  @Test
+  public void testNestedBorrow() throws ParserConfigurationException, SAXException {
+    SAXParser a = XMLParsers.borrowSAXParser();
+    SAXParser b = XMLParsers.borrowSAXParser();
+    Assert.assertNotSame(a, b);
+    XMLParsers.release(b);
+    XMLParsers.release(a);
+  }
+
+  @Test
+  public void testParse() throws IOException, ParserConfigurationException, SAXException {
+    for (int i = 0; i < 3; i++) {
+      List<String> names = new ArrayList<>();
+      XMLParsers.parse(new InputSource(new StringReader("<a xmlns='urn:x'><b/><c/></a>")), new DefaultHandler() {
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+          names.add(uri+":"+localName);
+        }
+      });
+      Assert.assertEquals(3, names.size());
+      Assert.assertEquals("urn:x:b", names.get(1));
+    }
+  }
+
+  @Test
+  public void testParseErrorReleasesParser() throws ParserConfigurationException, SAXException, IOException {
+    try {
+      XMLParsers.parse(new InputSource(new StringReader("<a><b></a>")), new DefaultHandler());
+      Assert.fail("Should have thrown a parse exception");
+    } catch (SAXException ex) {
+      // expected
+    }
+    // The parser can still be used
+    XMLParsers.parse(new InputSource(new StringReader("<a/>")), new DefaultHandler());
+  }
+
+  @Test
+  public void testNewXMLStreamReader() throws XMLStreamException {
+    byte[] xml = "<a>x&amp;y<![CDATA[z]]></a>".getBytes(StandardCharsets.UTF_8);
+    XMLStreamReader reader = XMLParsers.newXMLStreamReader(new ByteArrayInputStream(xml), "utf-8");
+    Assert.assertEquals(XMLStreamConstants.START_ELEMENT, reader.next());
+    Assert.assertEquals(XMLStreamConstants.CHARACTERS, reader.next());
+    // Coalescing
+    Assert.assertEquals("x&yz", reader.getText());
+    reader.close();
+  }
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2026 Allette Systems (Australia)
+ * http://www.allette.com.au
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.pageseeder.bridge.xml.stax;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.pageseeder.bridge.core.SearchFacet;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+public final class XMLStreamSearchFacetTest {
+
+  @Test
+  public void testFacets() throws IOException, XMLStreamException {
+    List<SearchFacet> facets = XMLStreamTest.parseList("search/results.xml", new XMLStreamSearchFacet());
+    Assert.assertEquals(2, facets.size());
+    SearchFacet type = facets.get(0);
+    Assert.assertEquals("psdocumenttype", type.getName());
+    Assert.assertFalse(type.isFlexible());
+    Assert.assertEquals(2, type.getTotal());
+    Assert.assertEquals(Arrays.asList(new SearchFacet.Value("policy", 12), new SearchFacet.Value("procedure", 3)), type.getValues());
+    Assert.assertEquals(12, type.getCardinality("policy"));
+    Assert.assertEquals(0, type.getCardinality("unknown"));
+    SearchFacet label = facets.get(1);
+    Assert.assertEquals("pslabel", label.getName());
+    Assert.assertTrue(label.isFlexible());
+    Assert.assertEquals(-1, label.getTotal());
+    Assert.assertEquals(1, label.getValues().size());
+    Assert.assertEquals("draft", label.getValues().get(0).getTerm());
+    Assert.assertEquals(5, label.getValues().get(0).getCardinality());
+  }
+
+}
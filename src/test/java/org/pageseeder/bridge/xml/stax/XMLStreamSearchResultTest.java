@@ -0,0 +1,84 @@
+/*
+ * Copyright 2026 Allette Systems (Australia)
+ * http://www.allette.com.au
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.pageseeder.bridge.xml.stax;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.pageseeder.bridge.core.SearchResult;
+import org.pageseeder.bridge.core.SearchTotals;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public final class XMLStreamSearchResultTest {
+
+  @Test
+  public void testResults() throws IOException, XMLStreamException {
+    List<SearchResult> results = XMLStreamTest.parseList("search/results.xml", new XMLStreamSearchResult());
+    Assert.assertEquals(3, results.size());
+    SearchResult first = results.get(0);
+    Assert.assertEquals(5, first.size());
+    Assert.assertEquals("psid", first.getName(0));
+    Assert.assertEquals("101", first.getValue(0));
+    Assert.assertEquals("101", first.getValue("psid"));
+    Assert.assertEquals("Leave policy", first.getValue("pstitle"));
+    Assert.assertEquals("draft", first.getValue("pslabel"));
+    Assert.assertEquals(Arrays.asList("draft", "hr"), first.getValues("pslabel"));
+    Assert.assertEquals("2026-03-01T10:15:00+11:00", first.getValue("psmodifieddate"));
+    Assert.assertNull(first.getValue("psdocumenttype"));
+    Assert.assertEquals("default", first.getValue("psdocumenttype", "default"));
+    Assert.assertFalse(first.has("psdocumenttype"));
+    Assert.assertEquals(Collections.emptyList(), first.getValues("unknown"));
+    SearchResult third = results.get(2);
+    Assert.assertEquals("103", third.getValue("psid"));
+    Assert.assertEquals("Security & privacy", third.getValue("pstitle"));
+    Assert.assertEquals("policy", third.getValue("psdocumenttype"));
+  }
+
+  @Test
+  public void testSharedFields() throws IOException, XMLStreamException {
+    XMLStreamSearchResult handler = new XMLStreamSearchResult();
+    List<SearchResult> results = XMLStreamTest.parseList("search/results.xml", handler);
+    Assert.assertEquals(Arrays.asList("psid", "pstitle", "pslabel", "psmodifieddate", "psdocumenttype"), handler.fields().getNames());
+    // Results which do not introduce new fields share the same table
+    Assert.assertSame(results.get(0).getFields(), results.get(1).getFields());
+    Assert.assertSame(handler.fields(), results.get(2).getFields());
+  }
+
+  @Test
+  public void testFilteredFields() throws IOException, XMLStreamException {
+    XMLStreamSearchResult handler = new XMLStreamSearchResult("psid", "pslabel");
+    List<SearchResult> results = XMLStreamTest.parseList("search/results.xml", handler);
+    Assert.assertEquals(3, results.size());
+    Assert.assertEquals(3, results.get(0).size());
+    Assert.assertNull(results.get(0).getValue("pstitle"));
+    Assert.assertEquals(Arrays.asList("draft", "hr"), results.get(0).getValues("pslabel"));
+    Assert.assertEquals(1, results.get(2).size());
+    Assert.assertEquals(Arrays.asList("psid", "pslabel"), handler.fields().getNames());
+  }
+
+  @Test
+  public void testTotals() throws IOException, XMLStreamException {
+    SearchTotals totals = XMLStreamTest.parseItem("search/results.xml", new XMLStreamSearchTotals());
+    Assert.assertEquals(3, totals.getResults());
+    Assert.assertEquals(1, totals.getPages());
+  }
+
+}